@@ -123,6 +123,18 @@ public interface MetricsDatabase {
      */
     double[] metrics(String metricType, long startTime, long endTime);
 
+    /**
+     * Returns a collection of downsampled metric values of a given metric
+     * type for a given period of up to a week. Each value is the average
+     * over fifteen minutes.
+     *
+     * @param metricType    metric type
+     * @param startTime     start time
+     * @param endTime       end time
+     * @return a collection of metric value
+     */
+    double[] downsampledMetrics(String metricType, long startTime, long endTime);
+
     /**
      * Returns the latest metric update time.
      *
@@ -68,6 +68,7 @@ import static org.onosproject.cpman.ControlResource.Type;
 public class ControlPlaneMonitor implements ControlPlaneMonitorService {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
+    private MetricsStorage storage;
     private MetricsDatabase cpuMetrics;
     private MetricsDatabase memoryMetrics;
     private Map<DeviceId, MetricsDatabase> controlMessageMap;
@@ -116,6 +117,7 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
 
     @Activate
     public void activate() {
+        storage = new MetricsStorage();
         cpuMetrics = genMDbBuilder(DEFAULT_RESOURCE, Type.CPU, CPU_METRICS);
         memoryMetrics = genMDbBuilder(DEFAULT_RESOURCE, Type.MEMORY, MEMORY_METRICS);
         controlMessageMap = Maps.newConcurrentMap();
@@ -143,7 +145,6 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
     @Deactivate
     public void deactivate() {
 
-        // TODO: need to handle the mdb close.
         cpuBuf.clear();
         memoryBuf.clear();
         diskBuf.clear();
@@ -153,6 +154,8 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
         communicationService.removeSubscriber(CONTROL_STATS);
         communicationService.removeSubscriber(CONTROL_RESOURCE);
 
+        storage.clear();
+
         log.info("Stopped");
     }
 
@@ -180,7 +183,7 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
                 if (ctrlMsgBuf.get(deviceId.get()).keySet()
                         .containsAll(CONTROL_MESSAGE_METRICS)) {
                     updateControlMessages(ctrlMsgBuf.get(deviceId.get()), deviceId.get());
-                    ctrlMsgBuf.clear();
+                    ctrlMsgBuf.remove(deviceId.get());
                 }
             }
         } else {
@@ -224,7 +227,7 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
                     (double) cm.metricValue().getLoad());
             if (diskBuf.get(resourceName).keySet().containsAll(DISK_METRICS)) {
                 updateDiskMetrics(diskBuf.get(resourceName), resourceName);
-                diskBuf.clear();
+                diskBuf.remove(resourceName);
             }
         }
 
@@ -242,7 +245,7 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
                     (double) cm.metricValue().getLoad());
             if (networkBuf.get(resourceName).keySet().containsAll(NETWORK_METRICS)) {
                 updateNetworkMetrics(networkBuf.get(resourceName), resourceName);
-                networkBuf.clear();
+                networkBuf.remove(resourceName);
             }
         }
     }
@@ -321,7 +324,8 @@ public class ControlPlaneMonitor implements ControlPlaneMonitorService {
     private MetricsDatabase genMDbBuilder(String resourceName,
                                           Type resourceType,
                                           Set<ControlMetricType> metricTypes) {
-        MetricsDatabase.Builder builder = new DefaultMetricsDatabase.Builder();
+        MetricsDatabase.Builder builder =
+                new DefaultMetricsDatabase.Builder().withStorage(storage);
         builder.withMetricName(resourceType.toString());
         builder.withResourceName(resourceName);
         metricTypes.forEach(type -> builder.addMetricType(type.toString()));
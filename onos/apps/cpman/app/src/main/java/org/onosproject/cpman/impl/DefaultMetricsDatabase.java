@@ -15,28 +15,12 @@
  */
 package org.onosproject.cpman.impl;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.onosproject.cpman.MetricsDatabase;
-import org.rrd4j.ConsolFun;
-import org.rrd4j.DsType;
-import org.rrd4j.core.ArcDef;
-import org.rrd4j.core.DsDef;
-import org.rrd4j.core.FetchRequest;
-import org.rrd4j.core.RrdBackendFactory;
-import org.rrd4j.core.RrdDb;
-import org.rrd4j.core.RrdDef;
-import org.rrd4j.core.Sample;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -45,30 +29,36 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * An implementation of control plane metrics back-end database.
  */
 public final class DefaultMetricsDatabase implements MetricsDatabase {
-    private static final Logger log = LoggerFactory.getLogger(DefaultMetricsDatabase.class);
 
-    private String metricName;
-    private String resourceName;
-    private RrdDb rrdDb;
-    private Sample sample;
+    private final String metricName;
+    private final String resourceName;
+    private final MetricsStorage.Table table;
+    private final MetricsStorage.Series series;
     private static final long SECONDS_OF_DAY = 60L * 60L * 24L;
+    private static final long SECONDS_OF_WEEK = SECONDS_OF_DAY * 7L;
     private static final long SECONDS_OF_MINUTE = 60L;
-    private static final ConsolFun CONSOL_FUNCTION = ConsolFun.LAST;
-    private static final String NON_EXIST_METRIC = "Non-existing metric type.";
+    private static final long SECONDS_OF_ARCHIVE_STEP =
+            (long) MetricsStorage.STEP * MetricsStorage.ARCHIVE_STEPS;
     private static final String INSUFFICIENT_DURATION = "Given duration less than one minute.";
     private static final String EXCEEDED_DURATION = "Given duration exceeds a day time.";
+    private static final String INSUFFICIENT_ARCHIVE_DURATION =
+            "Given duration less than fifteen minutes.";
+    private static final String EXCEEDED_ARCHIVE_DURATION = "Given duration exceeds a week time.";
 
     /**
      * Constructs a metrics database using the given metric name and
-     * round robin database.
+     * the series of the resource in the shared metrics table.
      *
-     * @param metricName  metric name
-     * @param rrdDb       round robin database
+     * @param metricName   metric name
+     * @param resourceName resource name
+     * @param table        metrics table
      */
-    private DefaultMetricsDatabase(String metricName, String resourceName, RrdDb rrdDb) {
+    private DefaultMetricsDatabase(String metricName, String resourceName,
+                                   MetricsStorage.Table table) {
         this.metricName = metricName;
         this.resourceName = resourceName;
-        this.rrdDb = rrdDb;
+        this.table = table;
+        this.series = table.series(resourceName);
     }
 
     @Override
@@ -88,14 +78,9 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
 
     @Override
     public void updateMetric(String metricType, double value, long time) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            sample = rrdDb.createSample(time);
-            sample.setValue(metricType, value);
-            sample.update();
-        } catch (IOException e) {
-            log.error("Failed to update metric value due to {}", e);
-        }
+        double[] row = table.newRow();
+        row[table.column(metricType)] = value;
+        series.update(time, row);
     }
 
     @Override
@@ -105,173 +90,111 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
 
     @Override
     public void updateMetrics(Map<String, Double> metrics, long time) {
-        try {
-            sample = rrdDb.createSample(time);
-            metrics.forEach((k, v) -> {
-                try {
-                    checkArgument(rrdDb.containsDs(k), NON_EXIST_METRIC);
-                    sample.setValue(k, v);
-                } catch (IOException e) {
-                    log.error("Failed to update metric value due to {}", e);
-                }
-            });
-            sample.update();
-        } catch (IOException e) {
-            log.error("Failed to update metric values due to {}", e);
-        }
+        // all metric types of a resource are ingested as a single row
+        double[] row = table.newRow();
+        metrics.forEach((k, v) -> row[table.column(k)] = v);
+        series.update(time, row);
     }
 
     @Override
     public double recentMetric(String metricType) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            return rrdDb.getDatasource(metricType).getLastValue();
-        } catch (IOException e) {
-            log.error("Failed to obtain metric value due to {}", e);
-            return 0D;
-        }
+        return series.latest(table.column(metricType));
     }
 
     @Override
     public double[] recentMetrics(String metricType, int duration, TimeUnit unit) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            long endTime = rrdDb.getLastUpdateTime();
-            long startTime = endTime - TimeUnit.SECONDS.convert(duration, unit);
-            if (checkTimeRange(startTime, endTime)) {
-                FetchRequest fr = rrdDb.createFetchRequest(CONSOL_FUNCTION, startTime, endTime);
-                return arrangeDataPoints(fr.fetchData().getValues(metricType));
-            } else {
-                log.warn("Data projection is out-of-range");
-                return new double[0];
-            }
-        } catch (IOException e) {
-            log.error("Failed to obtain metric values due to {}", e);
-            return new double[0];
-        }
+        int column = table.column(metricType);
+        long endTime = series.lastUpdate();
+        long startTime = endTime - TimeUnit.SECONDS.convert(duration, unit);
+        checkTimeRange(startTime, endTime);
+        return series.fetch(column, startTime, endTime);
     }
 
     @Override
     public double minMetric(String metricType) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            long endTime = rrdDb.getLastUpdateTime() - 1;
-            long startTime = endTime - SECONDS_OF_DAY + 1;
-            return minMetric(metricType, startTime, endTime);
-        } catch (IOException e) {
-            log.error("Failed to obtain metric value due to {}", e);
-            return 0D;
+        double min = Double.NaN;
+        for (double value : metrics(metricType)) {
+            if (Double.isNaN(min) || value < min) {
+                min = value;
+            }
         }
+        return min;
     }
 
     @Override
     public double maxMetric(String metricType) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            long endTime = rrdDb.getLastUpdateTime();
-            long startTime = endTime - SECONDS_OF_DAY;
-            return maxMetric(metricType, startTime, endTime);
-        } catch (IOException e) {
-            log.error("Failed to obtain metric value due to {}", e);
-            return 0D;
+        double max = Double.NaN;
+        for (double value : metrics(metricType)) {
+            if (Double.isNaN(max) || value > max) {
+                max = value;
+            }
         }
+        return max;
     }
 
     @Override
     public double[] metrics(String metricType) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            long endTime = rrdDb.getLastUpdateTime();
-            long startTime = endTime - SECONDS_OF_DAY;
-            return metrics(metricType, startTime, endTime);
-        } catch (IOException e) {
-            log.error("Failed to obtain metric values due to {}", e);
-            return new double[0];
-        }
+        int column = table.column(metricType);
+        long endTime = series.lastUpdate();
+        return series.fetch(column, endTime - SECONDS_OF_DAY, endTime);
     }
 
     @Override
     public double[] metrics(String metricType, long startTime, long endTime) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            if (checkTimeRange(startTime, endTime)) {
-                FetchRequest fr = rrdDb.createFetchRequest(CONSOL_FUNCTION, startTime, endTime);
-                return arrangeDataPoints(fr.fetchData().getValues(metricType));
-            } else {
-                log.warn("Data projection is out-of-range");
-                return new double[0];
-            }
-        } catch (IOException e) {
-            log.error("Failed to obtain metric values due to {}", e);
-            return new double[0];
-        }
+        int column = table.column(metricType);
+        checkTimeRange(startTime, endTime);
+        return series.fetch(column, startTime, endTime);
+    }
+
+    @Override
+    public double[] downsampledMetrics(String metricType, long startTime, long endTime) {
+        int column = table.column(metricType);
+        checkArgument(endTime - startTime >= SECONDS_OF_ARCHIVE_STEP,
+                      INSUFFICIENT_ARCHIVE_DURATION);
+        checkArgument(endTime - startTime <= SECONDS_OF_WEEK, EXCEEDED_ARCHIVE_DURATION);
+        return series.fetchArchive(column, startTime, endTime);
     }
 
     @Override
     public long lastUpdate(String metricType) {
-        try {
-            checkArgument(rrdDb.containsDs(metricType), NON_EXIST_METRIC);
-            return rrdDb.getLastUpdateTime();
-        } catch (IOException e) {
-            log.error("Failed to obtain last update time due to {}", e);
-            return 0L;
-        }
+        table.column(metricType);
+        return series.lastUpdate();
     }
 
     // try to check whether projected time range is within a day
-    private boolean checkTimeRange(long startTime, long endTime) {
+    private void checkTimeRange(long startTime, long endTime) {
         // check whether the given startTime and endTime larger than 1 minute
         checkArgument(endTime - startTime >= SECONDS_OF_MINUTE, INSUFFICIENT_DURATION);
 
         // check whether the given start time and endTime smaller than 1 day
         checkArgument(endTime - startTime <= SECONDS_OF_DAY, EXCEEDED_DURATION);
-        return true;
-    }
-
-    // try to remove first and last data points
-    private double[] arrangeDataPoints(double[] data) {
-        return Arrays.copyOfRange(data, 1, data.length - 1);
-    }
-
-    // obtains maximum metric value among projected range
-    private double maxMetric(String metricType, long startTime, long endTime) {
-        double[] all = metrics(metricType, startTime, endTime);
-        List list = Arrays.asList(ArrayUtils.toObject(all));
-        return (double) Collections.max(list);
-    }
-
-    // obtains minimum metric value among projected range
-    private double minMetric(String metricType, long startTime, long endTime) {
-        double[] all = metrics(metricType, startTime, endTime);
-        List list = Arrays.asList(ArrayUtils.toObject(all));
-        return (double) Collections.min(list);
     }
 
     public static final class Builder implements MetricsDatabase.Builder {
-        private static final int RESOLUTION_IN_SECOND = 60;
-        private static final String STORING_METHOD = "MEMORY";
-        private static final DsType SOURCE_TYPE = DsType.GAUGE;
-        private static final String DB_PATH = "CPMAN";
-        private static final ConsolFun CONSOL_FUNCTION = ConsolFun.LAST;
-        private static final double MIN_VALUE = 0;
-        private static final double MAX_VALUE = Double.NaN;
-        private static final double XFF_VALUE = 0.2;
-        private static final int STEP_VALUE = 1;
-        private static final int ROW_VALUE = 60 * 24;
         private static final String METRIC_NAME_MSG = "Must specify a metric name.";
         private static final String RESOURCE_NAME_MSG = "Must specify a resource name.";
         private static final String METRIC_TYPE_MSG = "Must supply at least a metric type.";
-        private static final String SPLITTER = "_";
 
-        private RrdDb rrdDb;
-        private RrdDef rrdDef;
-        private List<DsDef> dsDefs;
+        private final List<String> metricTypes;
+        private MetricsStorage storage;
         private String metricName;
         private String resourceName;
 
         public Builder() {
-            // initialize data source definition list
-            dsDefs = new ArrayList<>();
+            // initialize metric type list
+            metricTypes = new ArrayList<>();
+        }
+
+        /**
+         * Sets the storage shared with other metrics databases. If not set,
+         * the database is backed by a storage of its own.
+         *
+         * @param storage metrics storage
+         * @return builder object
+         */
+        Builder withStorage(MetricsStorage storage) {
+            this.storage = storage;
+            return this;
         }
 
         @Override
@@ -288,7 +211,7 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
 
         @Override
         public Builder addMetricType(String metricType) {
-            dsDefs.add(defineSchema(metricType));
+            metricTypes.add(metricType);
             return this;
         }
 
@@ -296,36 +219,11 @@ public final class DefaultMetricsDatabase implements MetricsDatabase {
         public MetricsDatabase build() {
             checkNotNull(metricName, METRIC_NAME_MSG);
             checkNotNull(resourceName, RESOURCE_NAME_MSG);
-            checkArgument(!dsDefs.isEmpty(), METRIC_TYPE_MSG);
-
-            // define the resolution of monitored metrics
-            rrdDef = new RrdDef(DB_PATH + SPLITTER + metricName +
-                     SPLITTER + resourceName, RESOLUTION_IN_SECOND);
-
-            try {
-                DsDef[] dsDefArray = new DsDef[dsDefs.size()];
-                IntStream.range(0, dsDefs.size()).forEach(i -> dsDefArray[i] = dsDefs.get(i));
-
-                rrdDef.addDatasource(dsDefArray);
-                rrdDef.setStep(RESOLUTION_IN_SECOND);
-
-                // raw archive, no aggregation is required
-                ArcDef rawArchive = new ArcDef(CONSOL_FUNCTION, XFF_VALUE,
-                        STEP_VALUE, ROW_VALUE);
-                rrdDef.addArchive(rawArchive);
-
-                // always store the metric data in memory...
-                rrdDb = new RrdDb(rrdDef, RrdBackendFactory.getFactory(STORING_METHOD));
-            } catch (IOException e) {
-                log.warn("Failed to create a new round-robin database due to {}", e);
-            }
-
-            return new DefaultMetricsDatabase(metricName, resourceName, rrdDb);
-        }
+            checkArgument(!metricTypes.isEmpty(), METRIC_TYPE_MSG);
 
-        private DsDef defineSchema(String metricType) {
-            return new DsDef(metricType, SOURCE_TYPE, RESOLUTION_IN_SECOND,
-                    MIN_VALUE, MAX_VALUE);
+            MetricsStorage target = storage != null ? storage : new MetricsStorage();
+            return new DefaultMetricsDatabase(metricName, resourceName,
+                    target.table(metricName, metricTypes));
         }
     }
 }
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cpman.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Embedded time-series storage shared by control plane metrics databases.
+ * <p>
+ * Series are grouped into tables, one per metric name, so that all
+ * resources of a kind (e.g., the control messages of every device) share
+ * the table schema. Every resource only allocates primitive sample columns:
+ * a raw archive holding a day of one minute samples and a downsampled
+ * archive holding a week of fifteen minute averages.
+ * </p>
+ */
+final class MetricsStorage {
+
+    /** Resolution of the raw archive in seconds. */
+    static final int STEP = 60;
+    /**
+     * Number of raw samples retained; a day, as in the single archive of
+     * the former rrd4j databases and the longest range which can be fetched.
+     */
+    static final int RAW_ROWS = 60 * 24;
+    /** Number of raw samples consolidated into a downsampled sample. */
+    static final int ARCHIVE_STEPS = 15;
+    /**
+     * Number of downsampled samples retained; a week, for less than half
+     * the memory of the raw archive.
+     */
+    static final int ARCHIVE_ROWS = 4 * 24 * 7;
+
+    private static final String NON_EXIST_METRIC = "Non-existing metric type.";
+    private static final String SCHEMA_MISMATCH = "Metric types do not match existing table.";
+
+    private final Map<String, Table> tables = Maps.newConcurrentMap();
+
+    /**
+     * Returns the table of the given metric, creating it if needed.
+     *
+     * @param metricName  metric name
+     * @param metricTypes metric types stored in the table
+     * @return metrics table
+     */
+    Table table(String metricName, List<String> metricTypes) {
+        Table table = tables.computeIfAbsent(metricName,
+                k -> new Table(metricTypes));
+        checkArgument(table.metricTypes.equals(metricTypes), SCHEMA_MISMATCH);
+        return table;
+    }
+
+    /**
+     * Removes all tables and their series.
+     */
+    void clear() {
+        tables.clear();
+    }
+
+    /**
+     * Series of all resources of a metric, sharing one set of metric types.
+     */
+    static final class Table {
+        private final List<String> metricTypes;
+        private final Map<String, Integer> columns;
+        private final Map<String, Series> series = Maps.newConcurrentMap();
+
+        private Table(List<String> metricTypes) {
+            this.metricTypes = ImmutableList.copyOf(metricTypes);
+            ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+            for (int i = 0; i < metricTypes.size(); i++) {
+                builder.put(metricTypes.get(i), i);
+            }
+            this.columns = builder.build();
+        }
+
+        /**
+         * Returns the column index of the given metric type.
+         *
+         * @param metricType metric type
+         * @return column index
+         * @throws IllegalArgumentException if the metric type is unknown
+         */
+        int column(String metricType) {
+            Integer column = columns.get(metricType);
+            checkArgument(column != null, NON_EXIST_METRIC);
+            return column;
+        }
+
+        /**
+         * Returns a sample row with all values unknown.
+         *
+         * @return sample row
+         */
+        double[] newRow() {
+            double[] row = new double[columns.size()];
+            Arrays.fill(row, Double.NaN);
+            return row;
+        }
+
+        /**
+         * Returns the series of the given resource, creating it if needed.
+         *
+         * @param resourceName resource name
+         * @return series of the resource
+         */
+        Series series(String resourceName) {
+            return series.computeIfAbsent(resourceName,
+                    k -> new Series(columns.size(), System.currentTimeMillis() / 1000L));
+        }
+    }
+
+    /**
+     * Samples of a single resource, stored column by column in round-robin
+     * primitive arrays.
+     */
+    static final class Series {
+        private final int width;
+        private final double[] raw;
+        private final double[] archive;
+        private final double[] latest;
+        private long lastUpdate;
+
+        private Series(int width, long createTime) {
+            this.width = width;
+            this.raw = new double[width * RAW_ROWS];
+            this.archive = new double[width * ARCHIVE_ROWS];
+            this.latest = new double[width];
+            Arrays.fill(raw, Double.NaN);
+            Arrays.fill(archive, Double.NaN);
+            Arrays.fill(latest, Double.NaN);
+            this.lastUpdate = createTime;
+        }
+
+        /**
+         * Records a sample row. Samples older than the last update are
+         * discarded and a later sample within the same step replaces the
+         * earlier one.
+         *
+         * @param time update time in seconds
+         * @param row  one value per column; NaN for unknown values
+         * @return true if the sample was recorded
+         */
+        synchronized boolean update(long time, double[] row) {
+            checkArgument(row.length == width, NON_EXIST_METRIC);
+            if (time < lastUpdate) {
+                return false;
+            }
+            long last = slot(lastUpdate);
+            long slot = slot(time);
+            if (slot > last) {
+                advance(last, slot);
+            }
+            int index = rawIndex(slot);
+            for (int c = 0; c < width; c++) {
+                raw[c * RAW_ROWS + index] = row[c];
+                latest[c] = row[c];
+            }
+            lastUpdate = time;
+            return true;
+        }
+
+        /**
+         * Returns the most recent value of a column.
+         *
+         * @param column column index
+         * @return latest value; NaN if unknown
+         */
+        synchronized double latest(int column) {
+            return latest[column];
+        }
+
+        /**
+         * Returns the last update time.
+         *
+         * @return time in seconds
+         */
+        synchronized long lastUpdate() {
+            return lastUpdate;
+        }
+
+        /**
+         * Returns the raw samples of a column, one per step, within the
+         * given period.
+         *
+         * @param column    column index
+         * @param startTime start time in seconds, exclusive
+         * @param endTime   end time in seconds, inclusive
+         * @return samples; NaN where unknown or no longer retained
+         */
+        synchronized double[] fetch(int column, long startTime, long endTime) {
+            long from = slot(startTime) + 1;
+            long to = slot(endTime);
+            long last = slot(lastUpdate);
+            double[] values = new double[(int) Math.max(0, to - from + 1)];
+            for (int i = 0; i < values.length; i++) {
+                long s = from + i;
+                values[i] = retained(s, last, RAW_ROWS) ?
+                        raw[column * RAW_ROWS + rawIndex(s)] : Double.NaN;
+            }
+            return values;
+        }
+
+        /**
+         * Returns the downsampled samples of a column, one per
+         * {@link #ARCHIVE_STEPS} steps, within the given period.
+         *
+         * @param column    column index
+         * @param startTime start time in seconds, exclusive
+         * @param endTime   end time in seconds, inclusive
+         * @return averaged samples; NaN where unknown or no longer retained
+         */
+        synchronized double[] fetchArchive(int column, long startTime, long endTime) {
+            long from = bucket(slot(startTime)) + 1;
+            long to = bucket(slot(endTime));
+            long last = slot(lastUpdate);
+            long current = bucket(last);
+            double[] values = new double[(int) Math.max(0, to - from + 1)];
+            for (int i = 0; i < values.length; i++) {
+                long b = from + i;
+                if (b == current) {
+                    // the current bucket is still open; average what we have
+                    values[i] = average(column, b * ARCHIVE_STEPS, last);
+                } else {
+                    values[i] = b < current && retained(b, current - 1, ARCHIVE_ROWS) ?
+                            archive[column * ARCHIVE_ROWS + archiveIndex(b)] : Double.NaN;
+                }
+            }
+            return values;
+        }
+
+        // Closes the bucket holding the last slot and clears rows skipped
+        // between the last and the new slot.
+        private void advance(long last, long slot) {
+            long lastBucket = bucket(last);
+            long bucket = bucket(slot);
+            if (bucket > lastBucket) {
+                int index = archiveIndex(lastBucket);
+                for (int c = 0; c < width; c++) {
+                    archive[c * ARCHIVE_ROWS + index] =
+                            average(c, lastBucket * ARCHIVE_STEPS, last);
+                }
+                clear(archive, ARCHIVE_ROWS, lastBucket + 1, bucket);
+            }
+            clear(raw, RAW_ROWS, last + 1, slot);
+        }
+
+        // Sets the rows in [from, to) of every column to NaN.
+        private void clear(double[] data, int rows, long from, long to) {
+            long count = Math.min(to - from, rows);
+            for (long r = 0; r < count; r++) {
+                int index = (int) Math.floorMod(from + r, (long) rows);
+                for (int c = 0; c < width; c++) {
+                    data[c * rows + index] = Double.NaN;
+                }
+            }
+        }
+
+        // Averages the known raw samples of a column in [from, to].
+        private double average(int column, long from, long to) {
+            double sum = 0;
+            int count = 0;
+            for (long s = from; s <= to; s++) {
+                double v = raw[column * RAW_ROWS + rawIndex(s)];
+                if (!Double.isNaN(v)) {
+                    sum += v;
+                    count++;
+                }
+            }
+            return count == 0 ? Double.NaN : sum / count;
+        }
+
+        private static boolean retained(long row, long last, int rows) {
+            return row <= last && row > last - rows;
+        }
+
+        private static long slot(long time) {
+            return Math.floorDiv(time, (long) STEP);
+        }
+
+        private static long bucket(long slot) {
+            return Math.floorDiv(slot, (long) ARCHIVE_STEPS);
+        }
+
+        private static int rawIndex(long slot) {
+            return (int) Math.floorMod(slot, (long) RAW_ROWS);
+        }
+
+        private static int archiveIndex(long bucket) {
+            return (int) Math.floorMod(bucket, (long) ARCHIVE_ROWS);
+        }
+    }
+}
@@ -18,7 +18,6 @@ package org.onosproject.cpman.impl;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 import org.onosproject.cpman.ControlMetricType;
 import org.onosproject.cpman.ControlResource;
@@ -80,7 +79,6 @@ public class MetricsDatabaseTest {
      * Tests the metric range fetch function.
      */
     @Test
-    @Ignore("FIXME: in some cases it returns incorrect range result, known as RRD4J bug")
     public void testMetricRangeFetch() {
         // full range fetch
         assertThat(mdb.metrics(CPU_LOAD).length, is(60 * 24));
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cpman.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.junit.TestUtils;
+import org.onosproject.cpman.ControlMetricType;
+import org.onosproject.cpman.ControlResource;
+import org.onosproject.cpman.MetricsDatabase;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.cpman.impl.MetricsStorage.ARCHIVE_STEPS;
+import static org.onosproject.cpman.impl.MetricsStorage.RAW_ROWS;
+import static org.onosproject.cpman.impl.MetricsStorage.STEP;
+
+/**
+ * Unit test for the shared control plane metrics storage.
+ */
+public class MetricsStorageTest {
+
+    private static final String METRIC = "cpu";
+    private static final String LOAD = "load";
+    private static final String IDLE = "idle";
+    private static final String RES1 = "res1";
+    private static final String RES2 = "res2";
+    private static final List<String> TYPES = ImmutableList.of(LOAD, IDLE);
+    // rows of the single archive each metric type had in rrd4j
+    private static final int RRD4J_ROWS = 60 * 24;
+
+    private MetricsStorage storage;
+    private MetricsStorage.Table table;
+    private long start;
+
+    @Before
+    public void setUp() {
+        storage = new MetricsStorage();
+        table = storage.table(METRIC, TYPES);
+        // align to an archive bucket so that bucket boundaries are predictable
+        long bucket = (long) STEP * ARCHIVE_STEPS;
+        start = (System.currentTimeMillis() / 1000L / bucket + 1) * bucket;
+    }
+
+    /**
+     * Tests that skipped steps read as unknown and that samples older than
+     * a day are no longer retained.
+     */
+    @Test
+    public void testGapsAndRetention() {
+        MetricsStorage.Series series = table.series(RES1);
+        series.update(start, new double[]{1, 1});
+        series.update(start + 3 * STEP, new double[]{2, 2});
+
+        double[] values = series.fetch(0, start - STEP, start + 3 * STEP);
+        assertThat(values.length, is(4));
+        assertThat(values[0], is(1D));
+        assertTrue(Double.isNaN(values[1]));
+        assertTrue(Double.isNaN(values[2]));
+        assertThat(values[3], is(2D));
+
+        long later = start + 3 * STEP + (long) RAW_ROWS * STEP;
+        series.update(later, new double[]{3, 3});
+        values = series.fetch(0, later - 2 * STEP, later);
+        assertTrue(Double.isNaN(values[0]));
+        assertThat(values[1], is(3D));
+
+        // stale samples are discarded
+        assertThat(series.update(start, new double[]{4, 4}), is(false));
+        assertThat(series.latest(0), is(3D));
+    }
+
+    /**
+     * Tests that the downsampled archive holds the average of each bucket.
+     */
+    @Test
+    public void testDownsampledArchive() {
+        MetricsStorage.Series series = table.series(RES1);
+        for (int i = 0; i < 2 * ARCHIVE_STEPS + 1; i++) {
+            series.update(start + i * STEP, new double[]{i, Double.NaN});
+        }
+
+        long bucket = (long) STEP * ARCHIVE_STEPS;
+        long end = start + 2 * bucket;
+        double[] values = series.fetchArchive(0, start - 1, end);
+
+        assertThat(values.length, is(3));
+        // averages of 0..14 and 15..29, and the open bucket holding 30
+        assertThat(values[0], is(7D));
+        assertThat(values[1], is(22D));
+        assertThat(values[2], is(30D));
+        assertTrue(Double.isNaN(series.fetchArchive(1, start - 1, end)[0]));
+    }
+
+    /**
+     * Tests that metrics databases of the same metric share one table.
+     */
+    @Test
+    public void testSharedTable() {
+        MetricsDatabase db1 = new DefaultMetricsDatabase.Builder()
+                .withStorage(storage)
+                .withMetricName(METRIC)
+                .withResourceName(RES1)
+                .addMetricType(LOAD)
+                .addMetricType(IDLE)
+                .build();
+        MetricsDatabase db2 = new DefaultMetricsDatabase.Builder()
+                .withStorage(storage)
+                .withMetricName(METRIC)
+                .withResourceName(RES2)
+                .addMetricType(LOAD)
+                .addMetricType(IDLE)
+                .build();
+
+        db1.updateMetric(LOAD, 10, start);
+        db2.updateMetric(LOAD, 20, start);
+
+        int load = table.column(LOAD);
+        assertThat(table.series(RES1).fetch(load, start - STEP, start)[0], is(10D));
+        assertThat(table.series(RES2).fetch(load, start - STEP, start)[0], is(20D));
+        assertTrue(Double.isNaN(table.series(RES1).latest(table.column(IDLE))));
+    }
+
+    /**
+     * Tests that the columns of a monitored device hold the day of samples
+     * of the former rrd4j database, and that the added week of averages
+     * costs less than half of it.
+     */
+    @Test
+    public void testColumnsPerDevice() throws TestUtils.TestUtilsException {
+        List<String> types = ControlResource.CONTROL_MESSAGE_METRICS.stream()
+                .map(ControlMetricType::toString).collect(Collectors.toList());
+        MetricsStorage.Series series = storage
+                .table(ControlResource.Type.CONTROL_MESSAGE.toString(), types)
+                .series("of:1");
+
+        double[] raw = TestUtils.getField(series, "raw");
+        double[] archive = TestUtils.getField(series, "archive");
+        assertThat(raw.length, is(types.size() * RRD4J_ROWS));
+        assertTrue("archive of " + archive.length + " samples",
+                   archive.length < raw.length / 2);
+    }
+}
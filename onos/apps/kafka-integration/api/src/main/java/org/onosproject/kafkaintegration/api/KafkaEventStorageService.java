@@ -16,6 +16,9 @@
 package org.onosproject.kafkaintegration.api;
 
 import org.onosproject.kafkaintegration.api.dto.OnosEvent;
+import org.onosproject.store.service.Task;
+
+import java.util.Collection;
 
 /**
  * APIs to insert and delete into a local store. This store is used to keep
@@ -36,4 +39,21 @@ public interface KafkaEventStorageService {
      * @return the Onos Event
      */
     OnosEvent consumeEvent();
+
+    /**
+     * Takes up to the given number of Onos Events from the Distributed Work
+     * Queue. The events remain in the queue until they are completed.
+     *
+     * @param maxEvents maximum number of events to take
+     * @return tasks holding the Onos Events; empty if there are none
+     */
+    Collection<Task<OnosEvent>> takeEvents(int maxEvents);
+
+    /**
+     * Removes the given, previously taken, Onos Events from the Distributed
+     * Work Queue.
+     *
+     * @param taskIds identifiers of the tasks holding the events
+     */
+    void completeEvents(Collection<String> taskIds);
 }
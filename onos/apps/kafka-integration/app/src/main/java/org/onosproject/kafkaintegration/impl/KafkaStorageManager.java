@@ -31,6 +31,8 @@ import org.onosproject.store.service.WorkQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
@@ -92,4 +94,22 @@ public class KafkaStorageManager implements KafkaEventStorageService {
         return null;
     }
 
+    @Override
+    public Collection<Task<OnosEvent>> takeEvents(int maxEvents) {
+        try {
+            return queue.take(maxEvents).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("takeEvents()", e);
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void completeEvents(Collection<String> taskIds) {
+        queue.complete(taskIds);
+        log.debug("Completed {} Events in Distributed Work Queue", taskIds.size());
+    }
+
 }
@@ -15,26 +15,37 @@
  */
 package org.onosproject.kafkaintegration.kafka;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.LeadershipService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.kafkaintegration.api.KafkaConfigService;
 import org.onosproject.kafkaintegration.api.KafkaPublisherService;
 import org.onosproject.kafkaintegration.api.KafkaEventStorageService;
+import org.onosproject.store.service.Task;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.onosproject.kafkaintegration.api.dto.OnosEvent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 @Component(immediate = true)
@@ -57,18 +68,38 @@ public class EventPublisher {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected KafkaPublisherService kafkaPublisher;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     protected ScheduledExecutorService exService;
 
     private static final String SUBSCRIBER_TOPIC = "WORK_QUEUE_SUBSCRIBER";
 
+    // Number of events taken from the work queue at once and maximum
+    // number of records sent to Kafka but not yet acknowledged
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_IN_FLIGHT = 1000;
+
+    private static final String METRICS_COMPONENT = "KafkaIntegration";
+    private static final String METRICS_FEATURE = "export";
+
     private NodeId localNodeId;
 
     // Thread Scheduler Parameters
     private final long delay = 0;
-    private final long period = 1;
+    private final long period = 100;
 
     private EventCollector eventCollector;
 
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    // Tasks whose records were acknowledged, or failed, and can be completed
+    private final Queue<String> processed = new ConcurrentLinkedQueue<>();
+
+    // Time from the creation of an event to its acknowledgement by Kafka
+    private Histogram exportLag;
+    private Counter exported;
+    private Counter failed;
+
     @Activate
     protected void activate() {
 
@@ -76,6 +107,14 @@ public class EventPublisher {
 
         localNodeId = clusterService.getLocalNode().id();
 
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+            exportLag = metricsService.createHistogram(component, feature, "lagMillis");
+            exported = metricsService.createCounter(component, feature, "exported");
+            failed = metricsService.createCounter(component, feature, "failed");
+        }
+
         startCollector();
 
         log.info("Started");
@@ -84,7 +123,7 @@ public class EventPublisher {
     private void startCollector() {
         exService = Executors.newSingleThreadScheduledExecutor();
         eventCollector = new EventCollector();
-        exService.scheduleAtFixedRate(eventCollector, delay, period, TimeUnit.SECONDS);
+        exService.scheduleWithFixedDelay(eventCollector, delay, period, TimeUnit.MILLISECONDS);
     }
 
     @Deactivate
@@ -97,7 +136,7 @@ public class EventPublisher {
         exService.shutdown();
     }
 
-    private class EventCollector implements Runnable {
+    class EventCollector implements Runnable {
 
         @Override
         public void run() {
@@ -110,22 +149,72 @@ public class EventPublisher {
             }
 
             try {
-                OnosEvent onosEvent = kafkaStore.consumeEvent();
-
-                if (onosEvent != null) {
-                    kafkaPublisher.send(new ProducerRecord<>(onosEvent.type().toString(),
-                                                            onosEvent.subject())).get();
-
-                    log.info("Event Type - {}, Subject {} sent successfully.",
-                             onosEvent.type(), onosEvent.subject());
-                }
-            } catch (InterruptedException e1) {
+                Collection<Task<OnosEvent>> tasks;
+                do {
+                    tasks = kafkaStore.takeEvents(BATCH_SIZE);
+                    try {
+                        for (Task<OnosEvent> task : tasks) {
+                            send(task);
+                        }
+                    } finally {
+                        completeProcessed();
+                    }
+                } while (tasks.size() == BATCH_SIZE);
+            } catch (InterruptedException e) {
                 log.error("Thread interupted");
                 Thread.currentThread().interrupt();
-            } catch (ExecutionException e2) {
-                log.error("Cannot publish data to Kafka - {}", e2);
+            } catch (RuntimeException e) {
+                log.error("Cannot publish data to Kafka", e);
+            }
+        }
+
+        // Sends the event without waiting for its acknowledgement, blocking
+        // only while too many records are in flight.
+        private void send(Task<OnosEvent> task) throws InterruptedException {
+            OnosEvent onosEvent = task.payload();
+            inFlight.acquire();
+            try {
+                kafkaPublisher.send(new ProducerRecord<>(onosEvent.type().toString(),
+                                                         onosEvent.subject()),
+                                    (metadata, error) -> {
+                    inFlight.release();
+                    if (error != null) {
+                        // Dropped as when the event was sent synchronously
+                        log.warn("Cannot publish {} event to Kafka", onosEvent.type(), error);
+                        increment(failed);
+                    } else {
+                        log.debug("Event Type - {}, Subject {} sent successfully.",
+                                  onosEvent.type(), onosEvent.subject());
+                        increment(exported);
+                        if (exportLag != null) {
+                            exportLag.update(System.currentTimeMillis() - onosEvent.time());
+                        }
+                    }
+                    processed.add(task.taskId());
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                processed.add(task.taskId());
+                throw e;
+            }
+        }
+
+        private void completeProcessed() {
+            List<String> taskIds = new ArrayList<>();
+            String taskId;
+            while ((taskId = processed.poll()) != null) {
+                taskIds.add(taskId);
+            }
+            if (!taskIds.isEmpty()) {
+                kafkaStore.completeEvents(taskIds);
             }
         }
     }
 
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.inc();
+        }
+    }
+
 }
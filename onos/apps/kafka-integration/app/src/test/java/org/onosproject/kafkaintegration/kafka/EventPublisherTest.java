@@ -0,0 +1,290 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.kafkaintegration.kafka;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.LeadershipServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.kafkaintegration.api.KafkaEventStorageService;
+import org.onosproject.kafkaintegration.api.KafkaPublisherService;
+import org.onosproject.kafkaintegration.api.dto.OnosEvent;
+import org.onosproject.store.service.Task;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the event publisher.
+ */
+public class EventPublisherTest {
+
+    private static final NodeId LOCAL = new NodeId("local");
+    private static final NodeId REMOTE = new NodeId("remote");
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private TestLeadershipService leadershipService;
+    private TestEventStorageService kafkaStore;
+    private TestPublisherService kafkaPublisher;
+    private EventPublisher publisher;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        leadershipService = new TestLeadershipService();
+        kafkaStore = new TestEventStorageService();
+        kafkaPublisher = new TestPublisherService();
+
+        publisher = new EventPublisher();
+        publisher.leadershipService = leadershipService;
+        publisher.clusterService = new ClusterServiceAdapter();
+        publisher.kafkaStore = kafkaStore;
+        publisher.kafkaPublisher = kafkaPublisher;
+        publisher.activate();
+
+        // Stop the scheduled collector so that the tests drive it themselves
+        publisher.deactivate();
+        assertTrue(publisher.exService.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        leadershipService.leader = LOCAL;
+    }
+
+    @After
+    public void tearDown() {
+        kafkaPublisher.ackAll();
+    }
+
+    private void collect() {
+        publisher.new EventCollector().run();
+    }
+
+    private Thread collectInBackground() {
+        Thread thread = new Thread(this::collect);
+        thread.start();
+        return thread;
+    }
+
+    private static void waitFor(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (thread.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(state, thread.getState());
+    }
+
+    /**
+     * Tests that events are taken from the work queue in batches and
+     * completed once they are acknowledged.
+     */
+    @Test
+    public void testBatching() {
+        kafkaStore.addEvents(1200);
+
+        collect();
+        assertEquals(ImmutableList.of(500, 500, 200), kafkaStore.takes);
+        assertEquals(1200, kafkaPublisher.records.size());
+        assertEquals(kafkaStore.taken, kafkaStore.completed);
+    }
+
+    /**
+     * Tests that only the leader publishes events.
+     */
+    @Test
+    public void testNotLeader() {
+        leadershipService.leader = REMOTE;
+        kafkaStore.addEvents(10);
+
+        collect();
+        assertTrue(kafkaStore.takes.isEmpty());
+        assertTrue(kafkaPublisher.records.isEmpty());
+    }
+
+    /**
+     * Tests that the collector stops sending while the maximum number of
+     * records is waiting for their acknowledgement.
+     */
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        kafkaPublisher.holdAcks = true;
+        kafkaStore.addEvents(1001);
+
+        Thread collector = collectInBackground();
+        waitFor(collector, Thread.State.WAITING);
+        assertEquals(1000, kafkaPublisher.records.size());
+        assertTrue(kafkaStore.completed.isEmpty());
+
+        kafkaPublisher.ack(1);
+        collector.join(TIMEOUT_MILLIS);
+        assertFalse(collector.isAlive());
+        assertEquals(1001, kafkaPublisher.records.size());
+        assertEquals(1, kafkaStore.completed.size());
+
+        // the remaining tasks are completed by the next run
+        kafkaPublisher.ackAll();
+        collect();
+        assertEquals(kafkaStore.taken, kafkaStore.completed);
+    }
+
+    /**
+     * Tests that the records which could not be sent are completed and
+     * release their place in flight.
+     */
+    @Test
+    public void testSendFailure() throws InterruptedException {
+        kafkaPublisher.failure = new RuntimeException("not sent");
+        kafkaStore.addEvents(10);
+
+        collect();
+        assertEquals(10, kafkaPublisher.records.size());
+        assertEquals(kafkaStore.taken, kafkaStore.completed);
+
+        kafkaPublisher.failure = null;
+        kafkaPublisher.sendFailure = new IllegalStateException("producer closed");
+        kafkaStore.addEvents(1);
+
+        collect();
+        assertEquals(kafkaStore.taken, kafkaStore.completed);
+
+        // none of the failed records may still hold a place in flight
+        kafkaPublisher.sendFailure = null;
+        kafkaPublisher.holdAcks = true;
+        kafkaStore.addEvents(1000);
+
+        Thread collector = collectInBackground();
+        collector.join(TIMEOUT_MILLIS);
+        assertFalse(collector.isAlive());
+        assertEquals(1010, kafkaPublisher.records.size());
+    }
+
+    private static class TestLeadershipService extends LeadershipServiceAdapter {
+        private volatile NodeId leader = REMOTE;
+
+        @Override
+        public NodeId getLeader(String path) {
+            return leader;
+        }
+    }
+
+    /**
+     * Work queue which hands out tasks in order and records their completion.
+     */
+    private static class TestEventStorageService implements KafkaEventStorageService {
+
+        private final Queue<Task<OnosEvent>> queue = new ArrayDeque<>();
+        private final List<Integer> takes = Lists.newArrayList();
+        private final List<String> taken = Lists.newArrayList();
+        private final List<String> completed = Lists.newArrayList();
+        private int taskIds;
+
+        synchronized void addEvents(int count) {
+            for (int i = 0; i < count; i++) {
+                OnosEvent event = new OnosEvent(OnosEvent.Type.DEVICE, new byte[]{(byte) i});
+                queue.add(new Task<>(String.valueOf(++taskIds), event));
+            }
+        }
+
+        @Override
+        public void publishEvent(OnosEvent event) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OnosEvent consumeEvent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized Collection<Task<OnosEvent>> takeEvents(int maxEvents) {
+            List<Task<OnosEvent>> tasks = Lists.newArrayList();
+            while (tasks.size() < maxEvents && !queue.isEmpty()) {
+                Task<OnosEvent> task = queue.remove();
+                taken.add(task.taskId());
+                tasks.add(task);
+            }
+            takes.add(tasks.size());
+            return tasks;
+        }
+
+        @Override
+        public synchronized void completeEvents(Collection<String> taskIds) {
+            completed.addAll(taskIds);
+        }
+    }
+
+    /**
+     * Producer which acknowledges the records immediately unless told to
+     * hold the acknowledgements or to fail.
+     */
+    private static class TestPublisherService implements KafkaPublisherService {
+
+        private final List<ProducerRecord<String, byte[]>> records = Lists.newCopyOnWriteArrayList();
+        private final Queue<Callback> pendingAcks = new ArrayDeque<>();
+
+        private volatile boolean holdAcks;
+        private volatile Exception failure;
+        private volatile RuntimeException sendFailure;
+
+        synchronized void ack(int count) {
+            for (int i = 0; i < count && !pendingAcks.isEmpty(); i++) {
+                pendingAcks.remove().onCompletion(null, null);
+            }
+        }
+
+        void ackAll() {
+            holdAcks = false;
+            ack(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<String, byte[]> record) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+            if (sendFailure != null) {
+                throw sendFailure;
+            }
+            records.add(record);
+            if (failure != null) {
+                callback.onCompletion(null, failure);
+            } else if (holdAcks) {
+                synchronized (this) {
+                    pendingAcks.add(callback);
+                }
+            } else {
+                callback.onCompletion(null, null);
+            }
+            return new CompletableFuture<>();
+        }
+    }
+}
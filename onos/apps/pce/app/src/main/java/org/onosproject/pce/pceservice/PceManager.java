@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -53,6 +54,8 @@ import org.onosproject.incubator.net.tunnel.TunnelService;
 import org.onosproject.mastership.MastershipService;
 import org.onosproject.net.LinkKey;
 import org.onosproject.net.config.ConfigFactory;
+import org.onosproject.net.config.NetworkConfigEvent;
+import org.onosproject.net.config.NetworkConfigListener;
 import org.onosproject.net.config.NetworkConfigRegistry;
 import org.onosproject.net.config.NetworkConfigService;
 import org.onosproject.net.DefaultAnnotations;
@@ -64,6 +67,7 @@ import org.onosproject.net.Link;
 import org.onosproject.net.NetworkResource;
 import org.onosproject.net.Path;
 import org.onosproject.net.config.basics.SubjectFactories;
+import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.intent.Constraint;
 import org.onosproject.net.link.LinkEvent;
@@ -171,6 +175,10 @@ public class PceManager implements PceService {
     private ApplicationId appId;
 
     private final TopologyListener topologyListener = new InternalTopologyListener();
+    private final NetworkConfigListener configListener = new InternalConfigListener();
+
+    // Link costs and paths kept across computations until the topology changes
+    private final PceTopologyCache topologyCache = new PceTopologyCache();
     public static final String LOAD_BALANCING_PATH_NAME = "loadBalancingPathName";
 
     private List<TunnelId> rsvpTunnelsWithLocalBw = new ArrayList<>();
@@ -206,6 +214,7 @@ public class PceManager implements PceService {
 
         topologyService.addListener(topologyListener);
         netConfigRegistry.registerConfigFactory(configFactory);
+        netCfgService.addListener(configListener);
 
         log.info("Started");
     }
@@ -215,6 +224,7 @@ public class PceManager implements PceService {
         tunnelService.removeListener(listener);
         topologyService.removeListener(topologyListener);
         netConfigRegistry.unregisterConfigFactory(configFactory);
+        netCfgService.removeListener(configListener);
 
         log.info("Stopped");
     }
@@ -231,7 +241,8 @@ public class PceManager implements PceService {
     }
 
     /**
-     * Computes a path between two devices.
+     * Computes a path between two devices. Paths under capability and cost
+     * constraints only are kept until the topology changes.
      *
      * @param src ingress device
      * @param dst egress device
@@ -243,8 +254,10 @@ public class PceManager implements PceService {
             return ImmutableSet.of();
         }
 
-        Set<Path> paths = pathService.getPaths(src, dst, weight(constraints));
-        log.info("paths in computePath ::" + paths);
+        List<Constraint> pathConstraints = constraints == null ? Collections.emptyList() : constraints;
+        Set<Path> paths = topologyCache.paths(src, dst, pathConstraints,
+                () -> pathService.getPaths(src, dst, weight(pathConstraints)));
+        log.debug("paths in computePath :: {}", paths);
         if (!paths.isEmpty()) {
             return paths;
         }
@@ -964,7 +977,9 @@ public class PceManager implements PceService {
 
         /**
          * Creates a new edge-weight function capable of evaluating links
-         * on the basis of the specified constraints.
+         * on the basis of the specified constraints. The costs of links
+         * under capability and cost constraints are kept until the links
+         * or their configuration change.
          *
          * @param constraints path constraints
          */
@@ -1000,8 +1015,8 @@ public class PceManager implements PceService {
             while (it.hasNext() && cost > 0) {
                 Constraint constraint = it.next();
                 if (constraint instanceof CapabilityConstraint) {
-                    cost = ((CapabilityConstraint) constraint).isValidLink(edge.link(), deviceService,
-                                                                           netCfgService) ? 1 : -1;
+                    cost = topologyCache.linkCost(constraint, edge.link(), () -> ((CapabilityConstraint) constraint)
+                            .isValidLink(edge.link(), deviceService, netCfgService) ? 1 : -1);
                 } else if (constraint instanceof PceBandwidthConstraint) {
                     cost = ((PceBandwidthConstraint) constraint).isValidLink(edge.link(),
                             bandwidthMgmtService) ? 1 : -1;
@@ -1009,7 +1024,8 @@ public class PceManager implements PceService {
                     cost = ((SharedBandwidthConstraint) constraint).isValidLink(edge.link(),
                             bandwidthMgmtService) ? 1 : -1;
                 } else if (constraint instanceof CostConstraint) {
-                    cost = ((CostConstraint) constraint).isValidLink(edge.link(), netCfgService);
+                    cost = topologyCache.linkCost(constraint, edge.link(), () -> ((CostConstraint) constraint)
+                            .isValidLink(edge.link(), netCfgService));
                 } else {
                     cost = constraint.cost(edge.link(), null);
                 }
@@ -1020,23 +1036,50 @@ public class PceManager implements PceService {
 
     //TODO: annotations used for temporarily later projection/network config will be used
     private class InternalTopologyListener implements TopologyListener {
-       @Override
+        @Override
         public void event(TopologyEvent event) {
-             event.reasons().forEach(e -> {
-                //If event type is link removed, get the impacted tunnel
+            event.reasons().forEach(e -> {
                 if (e instanceof LinkEvent) {
-                    LinkEvent linkEvent = (LinkEvent) e;
-                    if (linkEvent.type() == LinkEvent.Type.LINK_REMOVED) {
-                        tunnelService.queryTunnel(MPLS).forEach(t -> {
-                                if (t.path().links().contains((e.subject()))) {
-                                    // Check whether this ONOS instance is master for ingress device if yes,
-                                    // recompute and send update
-                                    checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t);
-                                }
-                        });
+                    if (e.type() == LinkEvent.Type.LINK_REMOVED) {
+                        topologyCache.linkRemoved(((LinkEvent) e).subject());
+                    } else {
+                        topologyCache.linkChanged(((LinkEvent) e).subject());
                     }
+                } else if (e instanceof DeviceEvent) {
+                    topologyCache.clear();
                 }
-                });
+            });
+
+            //If event type is link removed, get the impacted tunnels
+            Set<Link> removedLinks = event.reasons().stream()
+                    .filter(e -> e instanceof LinkEvent && e.type() == LinkEvent.Type.LINK_REMOVED)
+                    .map(e -> ((LinkEvent) e).subject())
+                    .collect(Collectors.toSet());
+            if (removedLinks.isEmpty()) {
+                return;
+            }
+
+            // A tunnel is recomputed once even if several of its links were removed
+            tunnelService.queryTunnel(MPLS).stream()
+                    .filter(t -> t.path().links().stream().anyMatch(removedLinks::contains))
+                    .forEach(t -> {
+                        // Check whether this ONOS instance is master for ingress device if yes,
+                        // recompute and send update
+                        checkForMasterAndUpdateTunnel(t.path().src().deviceId(), t);
+                    });
+        }
+    }
+
+    private class InternalConfigListener implements NetworkConfigListener {
+        @Override
+        public boolean isRelevant(NetworkConfigEvent event) {
+            return event.configClass() == TeLinkConfig.class || event.configClass() == DeviceCapability.class;
+        }
+
+        @Override
+        public void event(NetworkConfigEvent event) {
+            // Link costs and capabilities are computed from this configuration
+            topologyCache.clear();
         }
     }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.pce.pceservice;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.intent.Constraint;
+import org.onosproject.pce.pceservice.constraint.CapabilityConstraint;
+import org.onosproject.pce.pceservice.constraint.CostConstraint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Link costs and paths computed under the constraints which depend only on
+ * the topology and its configuration, that is capability and cost
+ * constraints. They are kept across computations until the links, devices
+ * or configuration they were computed from change.
+ */
+final class PceTopologyCache {
+
+    // Costs of each link under capability and cost constraints
+    private final Map<Link, Map<Constraint, Double>> linkCosts = new ConcurrentHashMap<>();
+
+    // Paths computed under capability and cost constraints only
+    private final Map<PathKey, Set<Path>> paths = new ConcurrentHashMap<>();
+
+    // Incremented by each change, so that paths computed before it are not kept
+    private long version;
+
+    /**
+     * Returns whether the cost of a link under the given constraint can be
+     * kept.
+     *
+     * @param constraint path constraint
+     * @return true if the constraint depends only on the topology
+     */
+    static boolean isTopologyConstraint(Constraint constraint) {
+        return constraint instanceof CapabilityConstraint || constraint instanceof CostConstraint;
+    }
+
+    /**
+     * Returns the cost of a link under a capability or cost constraint,
+     * evaluating it only if it is not known yet.
+     *
+     * @param constraint capability or cost constraint
+     * @param link       link to evaluate
+     * @param cost       evaluates the cost of the link
+     * @return cost of the link
+     */
+    double linkCost(Constraint constraint, Link link, DoubleSupplier cost) {
+        Map<Constraint, Double> costs = linkCosts.computeIfAbsent(link, l -> new ConcurrentHashMap<>());
+        Double linkCost = costs.get(constraint);
+        if (linkCost == null) {
+            // Removed from the cache along with its map if the link changes meanwhile
+            linkCost = cost.getAsDouble();
+            costs.put(constraint, linkCost);
+        }
+        return linkCost;
+    }
+
+    /**
+     * Returns the paths between two devices under the given constraints,
+     * computing them only if they are not known yet or if they depend on
+     * other constraints than capability and cost constraints.
+     *
+     * @param src         ingress device
+     * @param dst         egress device
+     * @param constraints path constraints
+     * @param compute     computes the paths
+     * @return computed paths
+     */
+    Set<Path> paths(DeviceId src, DeviceId dst, List<Constraint> constraints,
+                    Supplier<Set<Path>> compute) {
+        if (!constraints.stream().allMatch(PceTopologyCache::isTopologyConstraint)) {
+            return compute.get();
+        }
+
+        PathKey key = new PathKey(src, dst, constraints);
+        Set<Path> cached = paths.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long computedVersion;
+        synchronized (this) {
+            computedVersion = version;
+        }
+        Set<Path> computed = ImmutableSet.copyOf(compute.get());
+        synchronized (this) {
+            if (computedVersion == version) {
+                paths.put(key, computed);
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Forgets the costs of a removed link and the paths which crossed it.
+     * The other paths remain the shortest ones.
+     *
+     * @param link removed link
+     */
+    synchronized void linkRemoved(Link link) {
+        version++;
+        linkCosts.remove(link);
+        paths.values().removeIf(pathSet -> pathSet.stream().anyMatch(p -> p.links().contains(link)));
+    }
+
+    /**
+     * Forgets the costs of an added or updated link and all the paths, which
+     * may now cross it.
+     *
+     * @param link added or updated link
+     */
+    synchronized void linkChanged(Link link) {
+        version++;
+        linkCosts.remove(link);
+        paths.clear();
+    }
+
+    /**
+     * Forgets all the costs and paths, after a change of the devices or of
+     * the configuration they were computed from.
+     */
+    synchronized void clear() {
+        version++;
+        linkCosts.clear();
+        paths.clear();
+    }
+
+    private static final class PathKey {
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final List<Constraint> constraints;
+
+        private PathKey(DeviceId src, DeviceId dst, List<Constraint> constraints) {
+            this.src = src;
+            this.dst = dst;
+            this.constraints = ImmutableList.copyOf(constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, dst, constraints);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof PathKey) {
+                PathKey that = (PathKey) obj;
+                return Objects.equals(src, that.src) && Objects.equals(dst, that.dst)
+                        && Objects.equals(constraints, that.constraints);
+            }
+            return false;
+        }
+    }
+}
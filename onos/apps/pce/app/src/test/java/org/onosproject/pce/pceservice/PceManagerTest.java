@@ -21,6 +21,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.ScalarWeight;
 import org.onlab.junit.TestUtils;
 import org.onlab.junit.TestUtils.TestUtilsException;
 import org.onlab.util.Bandwidth;
@@ -51,6 +52,8 @@ import org.onosproject.net.LinkKey;
 import org.onosproject.net.MastershipRole;
 import org.onosproject.net.Path;
 import org.onosproject.net.SparseAnnotations;
+import org.onosproject.net.config.NetworkConfigEvent;
+import org.onosproject.net.config.NetworkConfigListener;
 import org.onosproject.net.intent.Constraint;
 import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.provider.ProviderId;
@@ -143,6 +146,7 @@ public class PceManagerTest {
     protected static int flowsDownloaded;
     private TunnelListener tunnelListener;
     private TopologyListener listener;
+    private NetworkConfigListener configListener;
     private Topology topology;
     private Set<TopologyEdge> edges;
     private Set<TopologyVertex> vertexes;
@@ -150,6 +154,7 @@ public class PceManagerTest {
     @Before
     public void startUp() throws TestUtilsException {
         listener = TestUtils.getField(pceManager, "topologyListener");
+        configListener = TestUtils.getField(pceManager, "configListener");
         pceManager.pathService = pathService;
         pceManager.topologyService = topologyService;
         pceManager.tunnelService = tunnelService;
@@ -1010,6 +1015,115 @@ public class PceManagerTest {
         assertThat(pceStore.getFailedPathInfoCount(), is(1));
     }
 
+    /**
+     * Tests that link costs under cost constraints are kept until the link
+     * or its configuration changes.
+     */
+    @Test
+    public void linkCostCacheTest() {
+        build4RouterTopo(true, false, false, false, 10);
+
+        List<Constraint> constraints = Lists.newArrayList(new CostConstraint(COST));
+        TopologyEdge edge = new DefaultTopologyEdge(D1, D2, link1);
+        assertThat(linkWeight(constraints, edge), is(50.0));
+
+        TeLinkConfig teLinkConfig = netConfigRegistry.addConfig(LinkKey.linkKey(link1), TeLinkConfig.class);
+        teLinkConfig.igpCost(5).apply();
+        assertThat(linkWeight(constraints, edge), is(50.0));
+
+        listener.event(topologyEvent(new LinkEvent(LinkEvent.Type.LINK_UPDATED, link1)));
+        assertThat(linkWeight(constraints, edge), is(5.0));
+
+        teLinkConfig.igpCost(15).apply();
+        configListener.event(new NetworkConfigEvent(NetworkConfigEvent.Type.CONFIG_UPDATED,
+                                                    LinkKey.linkKey(link1), TeLinkConfig.class));
+        assertThat(linkWeight(constraints, edge), is(15.0));
+    }
+
+    /**
+     * Tests that paths computed under cost and capability constraints are
+     * kept until one of their links is removed.
+     */
+    @Test
+    public void pathCacheTest() {
+        build4RouterTopo(true, false, false, false, 0);
+
+        List<Link> links = Lists.newArrayList(link1, link2);
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T1",
+                Lists.newArrayList(new CostConstraint(COST)), WITH_SIGNALLING, null), is(true));
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T2",
+                Lists.newArrayList(new CostConstraint(COST)), WITH_SIGNALLING, null), is(true));
+        assertThat(pathService.computations, is(1));
+
+        // Paths which did not cross the removed link are kept
+        removeLinks(link6);
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T3",
+                Lists.newArrayList(new CostConstraint(COST)), WITH_SIGNALLING, null), is(true));
+        assertThat(pathService.computations, is(1));
+        tunnelService.queryAllTunnels().forEach(t -> assertThat(t.path().links(), is(links)));
+
+        // Tunnels which had no bandwidth are recomputed under the cost constraint only
+        removeLinks(link2);
+        assertThat(pathService.computations, is(2));
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T4",
+                Lists.newArrayList(new CostConstraint(COST)), WITH_SIGNALLING, null), is(true));
+        assertThat(pathService.computations, is(2));
+        assertThat(pathService.paths().iterator().next().links(), is(Lists.newArrayList(link3, link4)));
+    }
+
+    /**
+     * Tests that the tunnels crossing several links removed by one event are
+     * recomputed once each, and that the other tunnels are not recomputed.
+     */
+    @Test
+    public void multiLinkEventTest() {
+        build4RouterTopo(true, false, false, false, 100);
+
+        List<Constraint> constraints = Lists.newArrayList(new CostConstraint(COST),
+                                                          new PceBandwidthConstraint(Bandwidth.bps(10)));
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T1", Lists.newArrayList(constraints),
+                                        WITH_SIGNALLING, null), is(true));
+        assertThat(pceManager.setupPath(D1.deviceId(), D4.deviceId(), "T2", Lists.newArrayList(constraints),
+                                        WITH_SIGNALLING, null), is(true));
+        assertThat(pceManager.setupPath(D3.deviceId(), D4.deviceId(), "T3", Lists.newArrayList(constraints),
+                                        WITH_SIGNALLING, null), is(true));
+        assertThat(pathService.computations, is(3));
+
+        // T1 and T2 cross both links
+        removeLinks(link1, link2);
+        assertThat(pathService.computations, is(5));
+        assertThat(tunnelService.queryAllTunnels().size(), is(5));
+
+        List<Link> links = Lists.newArrayList(link3, link4);
+        long recomputed = tunnelService.queryAllTunnels().stream()
+                .filter(t -> t.path().links().equals(links))
+                .map(t -> t.tunnelName().value())
+                .distinct()
+                .count();
+        assertThat(recomputed, is(2L));
+    }
+
+    private double linkWeight(List<Constraint> constraints, TopologyEdge edge) {
+        return ((ScalarWeight) pceManager.new TeConstraintBasedLinkWeight(constraints).weight(edge)).value();
+    }
+
+    private TopologyEvent topologyEvent(Event... reasons) {
+        return new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology, Lists.newArrayList(reasons));
+    }
+
+    // Removes the links from the topology and notifies the PCE manager in a single event.
+    private void removeLinks(Link... removedLinks) {
+        List<Event> reasons = new LinkedList<>();
+        Set<TopologyEdge> removedEdges = new HashSet<>();
+        for (Link link : removedLinks) {
+            reasons.add(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link));
+            removedEdges.add(new DefaultTopologyEdge(new DefaultTopologyVertex(link.src().deviceId()),
+                                                     new DefaultTopologyVertex(link.dst().deviceId()), link));
+        }
+        topologyService.changeInTopology(getGraph(null, removedEdges));
+        listener.event(topologyEvent(reasons.toArray(new Event[0])));
+    }
+
     /**
      * Tests resilency when L2 link is down.
      */
@@ -1131,7 +1245,9 @@ public class PceManagerTest {
         links.add(link3);
         links.add(link4);
 
-        Path path = tunnelService.queryAllTunnels().iterator().next().path();
+        // The tunnel crossed both removed links and is recomputed once
+        assertThat(tunnelService.queryAllTunnels().size(), is(2));
+        Path path = recomputedPath(link1);
         //Path is D1-D3-D4
         assertThat(path.links(), is(links));
         assertThat(path.cost(), is((double) 180));
@@ -1351,7 +1467,9 @@ public class PceManagerTest {
         links.add(link3);
         links.add(link4);
 
-        Path path = tunnelService.queryAllTunnels().iterator().next().path();
+        // The tunnel crossed both removed links and is recomputed once
+        assertThat(tunnelService.queryAllTunnels().size(), is(2));
+        Path path = recomputedPath(link1);
 
         //Path is D1-D3-D4
         assertThat(path.links(), is(links));
@@ -1400,7 +1518,9 @@ public class PceManagerTest {
         links.add(link3);
         links.add(link4);
 
-        Path path = tunnelService.queryAllTunnels().iterator().next().path();
+        // The tunnel crossed both removed links and is recomputed once
+        assertThat(tunnelService.queryAllTunnels().size(), is(2));
+        Path path = recomputedPath(link1);
 
         //Path is D1-D3-D4
         assertThat(path.links(), is(links));
@@ -1494,6 +1614,14 @@ public class PceManagerTest {
         }
     }
 
+    // Returns the path of the tunnel recomputed after the given link was removed.
+    private Path recomputedPath(Link removedLink) {
+        return tunnelService.queryAllTunnels().stream()
+                .map(Tunnel::path)
+                .filter(p -> !p.links().contains(removedLink))
+                .findFirst().get();
+    }
+
     private TopologyGraph getGraph(Set<TopologyVertex> removedVertex, Set<TopologyEdge> removedEdges) {
         if (removedVertex != null) {
             vertexes.remove(removedVertex);
@@ -1519,8 +1647,11 @@ public class PceManagerTest {
 
     private class MockPathService extends PathServiceAdapter {
         Set<Path> computedPaths;
+        int computations;
+
         @Override
         public Set<Path> getPaths(ElementId src, ElementId dst, LinkWeigher weight) {
+            computations++;
             // If either edge is null, bail with no paths.
             if (src == null || dst == null) {
                 return ImmutableSet.of();
@@ -43,6 +43,24 @@ public interface RouteStore extends Store<InternalRouteEvent, RouteStoreDelegate
      */
     void removeRoute(Route route);
 
+    /**
+     * Adds or updates the given routes in the store.
+     *
+     * @param routes routes to add or update
+     */
+    default void updateRoutes(Collection<Route> routes) {
+        routes.forEach(this::updateRoute);
+    }
+
+    /**
+     * Removes the given routes from the store.
+     *
+     * @param routes routes to remove
+     */
+    default void removeRoutes(Collection<Route> routes) {
+        routes.forEach(this::removeRoute);
+    }
+
     /**
      * Returns the IDs for all route tables in the store.
      *
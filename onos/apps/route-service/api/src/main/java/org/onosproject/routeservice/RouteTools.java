@@ -34,7 +34,10 @@ public final class RouteTools {
      *
      * @param ipPrefix the IP prefix to use
      * @return the binary string representation
+     * @deprecated in 1.13.0; use {@link org.onlab.util.IpPrefixTrie} for
+     * prefix lookups
      */
+    @Deprecated
     public static String createBinaryString(IpPrefix ipPrefix) {
         byte[] octets = ipPrefix.address().toOctets();
         StringBuilder result = new StringBuilder(ipPrefix.prefixLength());
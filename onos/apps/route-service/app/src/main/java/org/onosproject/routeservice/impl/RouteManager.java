@@ -213,20 +213,20 @@ public class RouteManager implements RouteService, RouteAdminService {
     @Override
     public void update(Collection<Route> routes) {
         synchronized (this) {
-            routes.forEach(route -> {
-                log.debug("Received update {}", route);
-                routeStore.updateRoute(route);
-            });
+            if (log.isDebugEnabled()) {
+                routes.forEach(route -> log.debug("Received update {}", route));
+            }
+            routeStore.updateRoutes(routes);
         }
     }
 
     @Override
     public void withdraw(Collection<Route> routes) {
         synchronized (this) {
-            routes.forEach(route -> {
-                log.debug("Received withdraw {}", route);
-                routeStore.removeRoute(route);
-            });
+            if (log.isDebugEnabled()) {
+                routes.forEach(route -> log.debug("Received withdraw {}", route));
+            }
+            routeStore.removeRoutes(routes);
         }
     }
 
@@ -287,7 +287,9 @@ public class RouteManager implements RouteService, RouteAdminService {
         synchronized (this) {
             host.ipAddresses().stream()
                     .flatMap(ip -> routeStore.getRoutesForNextHop(ip).stream())
-                    .map(route -> routeStore.getRoutes(route.prefix()))
+                    .map(Route::prefix)
+                    .distinct()
+                    .map(routeStore::getRoutes)
                     .forEach(this::resolve);
         }
     }
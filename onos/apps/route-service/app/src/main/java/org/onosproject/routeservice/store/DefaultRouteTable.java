@@ -16,16 +16,25 @@
 
 package org.onosproject.routeservice.store;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.Tools;
 import org.onosproject.routeservice.InternalRouteEvent;
 import org.onosproject.routeservice.Route;
 import org.onosproject.routeservice.RouteSet;
 import org.onosproject.routeservice.RouteStoreDelegate;
 import org.onosproject.routeservice.RouteTableId;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.ConsistentMapException;
 import org.onosproject.store.service.DistributedPrimitive;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
@@ -36,9 +45,17 @@ import org.onosproject.store.service.Versioned;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -48,12 +65,33 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class DefaultRouteTable implements RouteTable {
 
+    // Number of prefixes read and written together by bulk operations
+    private static final int BATCH_SIZE = 1000;
+
     private final RouteTableId id;
+    private final AsyncConsistentMap<IpPrefix, Set<Route>> asyncRoutes;
     private final ConsistentMap<IpPrefix, Set<Route>> routes;
     private final RouteStoreDelegate delegate;
     private final ExecutorService executor;
     private final RouteTableListener listener = new RouteTableListener();
 
+    // Local index of the routes in the table by next hop. It is kept up to
+    // date from both the results of the updates made through this table and
+    // the map events, using the versions of the map entries to skip stale
+    // ones, so that the updates made through this table are visible as soon
+    // as they complete.
+    private final Object indexLock = new Object();
+    private final Map<IpPrefix, Versioned<Set<Route>>> indexedRoutes = Maps.newHashMap();
+    private final Map<IpAddress, Set<Route>> routesByNextHop = Maps.newHashMap();
+
+    // Prefixes removed through this table whose removal event has not been
+    // received yet; the events received until then predate the removal
+    private final Set<IpPrefix> removedPrefixes = Sets.newHashSet();
+
+    // Index updates received while the index is being rebuilt from the map
+    // contents; null when not rebuilding
+    private List<Runnable> pendingIndexUpdates;
+
     private final Consumer<DistributedPrimitive.Status> statusChangeListener;
 
     /**
@@ -68,7 +106,8 @@ public class DefaultRouteTable implements RouteTable {
                              StorageService storageService, ExecutorService executor) {
         this.delegate = checkNotNull(delegate);
         this.id = checkNotNull(id);
-        this.routes = buildRouteMap(checkNotNull(storageService));
+        this.asyncRoutes = buildRouteMap(checkNotNull(storageService));
+        this.routes = asyncRoutes.asConsistentMap();
         this.executor = checkNotNull(executor);
 
         statusChangeListener = status -> {
@@ -78,19 +117,35 @@ public class DefaultRouteTable implements RouteTable {
         };
         routes.addStatusChangeListener(statusChangeListener);
 
-        notifyExistingRoutes();
-
         routes.addListener(listener);
+
+        notifyExistingRoutes();
     }
 
     private void notifyExistingRoutes() {
-        routes.entrySet().stream()
+        // Events received while the contents are read may be older or newer
+        // than the contents, so they are applied once the index is rebuilt
+        synchronized (indexLock) {
+            pendingIndexUpdates = Lists.newArrayList();
+        }
+        Set<Map.Entry<IpPrefix, Versioned<Set<Route>>>> entries = Collections.emptySet();
+        try {
+            entries = routes.entrySet();
+        } finally {
+            synchronized (indexLock) {
+                reindex(entries);
+                List<Runnable> pending = pendingIndexUpdates;
+                pendingIndexUpdates = null;
+                pending.forEach(Runnable::run);
+            }
+        }
+        entries.stream()
                 .map(e -> new InternalRouteEvent(InternalRouteEvent.Type.ROUTE_ADDED,
                         new RouteSet(id, e.getKey(), e.getValue().value())))
                 .forEach(delegate::notify);
     }
 
-    private ConsistentMap<IpPrefix, Set<Route>> buildRouteMap(StorageService storageService) {
+    private AsyncConsistentMap<IpPrefix, Set<Route>> buildRouteMap(StorageService storageService) {
         KryoNamespace routeTableSerializer = KryoNamespace.newBuilder()
                 .register(KryoNamespaces.API)
                 .register(Route.class)
@@ -100,7 +155,7 @@ public class DefaultRouteTable implements RouteTable {
                 .withName("onos-routes-" + id.name())
                 .withRelaxedReadConsistency()
                 .withSerializer(Serializer.using(routeTableSerializer))
-                .build();
+                .buildAsyncMap();
     }
 
     @Override
@@ -122,18 +177,19 @@ public class DefaultRouteTable implements RouteTable {
 
     @Override
     public void update(Route route) {
-        routes.compute(route.prefix(), (prefix, set) -> {
+        Versioned<Set<Route>> updated = routes.compute(route.prefix(), (prefix, set) -> {
             if (set == null) {
                 set = new HashSet<>();
             }
             set.add(route);
             return set;
         });
+        updated(route.prefix(), updated);
     }
 
     @Override
     public void remove(Route route) {
-        routes.compute(route.prefix(), (prefix, set) -> {
+        Versioned<Set<Route>> updated = routes.compute(route.prefix(), (prefix, set) -> {
             if (set != null) {
                 set.remove(route);
                 if (set.isEmpty()) {
@@ -143,6 +199,140 @@ public class DefaultRouteTable implements RouteTable {
             }
             return null;
         });
+        updated(route.prefix(), updated);
+    }
+
+    @Override
+    public void update(Collection<Route> routes) {
+        computeAll(routes, added -> set -> set == null || !set.containsAll(added),
+                   added -> (prefix, set) -> {
+                       Set<Route> merged = set != null ? new HashSet<>(set) : new HashSet<>();
+                       merged.addAll(added);
+                       return merged;
+                   });
+    }
+
+    @Override
+    public void remove(Collection<Route> routes) {
+        computeAll(routes, removed -> set -> set != null && !Collections.disjoint(set, removed),
+                   removed -> (prefix, set) -> {
+                       Set<Route> remaining = new HashSet<>(set);
+                       remaining.removeAll(removed);
+                       return remaining.isEmpty() ? null : remaining;
+                   });
+    }
+
+    // Applies an update to the routes of each prefix of the given routes.
+    // Each batch of prefixes is read with one getAll and written with one
+    // putAll and one removeAll, which the map splits into one command per
+    // partition.
+    private void computeAll(Collection<Route> routes,
+                            Function<Set<Route>, Predicate<Set<Route>>> condition,
+                            Function<Set<Route>, BiFunction<IpPrefix, Set<Route>, Set<Route>>> function) {
+        Map<IpPrefix, Set<Route>> byPrefix = routes.stream()
+                .collect(Collectors.groupingBy(Route::prefix, Collectors.toSet()));
+        for (List<IpPrefix> batch : Iterables.partition(byPrefix.keySet(), BATCH_SIZE)) {
+            computeBatch(batch, prefix -> condition.apply(byPrefix.get(prefix)),
+                         prefix -> function.apply(byPrefix.get(prefix)));
+        }
+    }
+
+    private void computeBatch(List<IpPrefix> prefixes,
+                              Function<IpPrefix, Predicate<Set<Route>>> condition,
+                              Function<IpPrefix, BiFunction<IpPrefix, Set<Route>, Set<Route>>> function) {
+        Map<IpPrefix, Versioned<Set<Route>>> read = complete(asyncRoutes.getAll(ImmutableSet.copyOf(prefixes)));
+
+        Map<IpPrefix, Set<Route>> updates = Maps.newHashMap();
+        Set<IpPrefix> removals = Sets.newHashSet();
+        for (IpPrefix prefix : prefixes) {
+            Set<Route> set = Versioned.valueOrNull(read.get(prefix));
+            if (condition.apply(prefix).test(set)) {
+                Set<Route> updated = function.apply(prefix).apply(prefix, set);
+                if (updated != null) {
+                    updates.put(prefix, updated);
+                } else {
+                    removals.add(prefix);
+                }
+            }
+        }
+        if (updates.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+
+        Map<IpPrefix, Versioned<Set<Route>>> overwritten = Maps.newHashMap();
+        if (!updates.isEmpty()) {
+            overwritten.putAll(complete(asyncRoutes.putAll(updates)));
+        }
+        if (!removals.isEmpty()) {
+            overwritten.putAll(complete(asyncRoutes.removeAll(removals)));
+        }
+
+        // The bulk writes do not return the versions they wrote, which
+        // the index needs to order the updates with the map events
+        Set<IpPrefix> written = Sets.union(updates.keySet(), removals).immutableCopy();
+        Map<IpPrefix, Versioned<Set<Route>>> stored = complete(asyncRoutes.getAll(written));
+        written.forEach(prefix -> updated(prefix, stored.get(prefix)));
+
+        // A prefix updated by someone else between the read and the write
+        // lost that update; it is given the routes it would have had if the
+        // write had been applied on top of it, keeping any later update.
+        List<CompletableFuture<Void>> repairs = Lists.newArrayList();
+        for (IpPrefix prefix : written) {
+            Versioned<Set<Route>> previous = overwritten.get(prefix);
+            if (version(read.get(prefix)) == version(previous)) {
+                continue;
+            }
+            Set<Route> previousRoutes = Versioned.valueOrNull(previous);
+            Set<Route> intended = condition.apply(prefix).test(previousRoutes) ?
+                    function.apply(prefix).apply(prefix, previousRoutes) : previousRoutes;
+            repairs.add(repair(prefix, orEmpty(updates.get(prefix)), orEmpty(intended)));
+        }
+        complete(Tools.allOf(repairs));
+    }
+
+    private CompletableFuture<Void> repair(IpPrefix prefix, Set<Route> written, Set<Route> intended) {
+        Set<Route> extra = ImmutableSet.copyOf(Sets.difference(written, intended));
+        Set<Route> missing = ImmutableSet.copyOf(Sets.difference(intended, written));
+        BiFunction<IpPrefix, Set<Route>, Set<Route>> function = (p, set) -> {
+            Set<Route> repaired = set != null ? new HashSet<>(set) : new HashSet<>();
+            repaired.removeAll(extra);
+            repaired.addAll(missing);
+            return repaired.isEmpty() ? null : repaired;
+        };
+        return computeIf(prefix, set -> !Objects.equals(function.apply(prefix, set), set), function);
+    }
+
+    private static long version(Versioned<?> versioned) {
+        return versioned != null ? versioned.version() : -1;
+    }
+
+    private static Set<Route> orEmpty(Set<Route> routes) {
+        return routes != null ? routes : Collections.emptySet();
+    }
+
+    private CompletableFuture<Void> computeIf(IpPrefix prefix, Predicate<Set<Route>> condition,
+                                              BiFunction<IpPrefix, Set<Route>, Set<Route>> function) {
+        return asyncRoutes.computeIf(prefix, condition, function)
+                .handle((updated, error) -> {
+                    if (error == null) {
+                        updated(prefix, updated);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    if (Throwables.getRootCause(error) instanceof ConsistentMapException.ConcurrentModification) {
+                        return computeIf(prefix, condition, function);
+                    }
+                    return Tools.<Void>exceptionalFuture(error);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private <T> T complete(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new ConsistentMapException(e.getCause());
+        }
     }
 
     @Override
@@ -164,11 +354,93 @@ public class DefaultRouteTable implements RouteTable {
 
     @Override
     public Collection<Route> getRoutesForNextHop(IpAddress nextHop) {
-        // TODO index
-        return routes.values().stream()
-                .flatMap(v -> v.value().stream())
-                .filter(r -> r.nextHop().equals(nextHop))
-                .collect(Collectors.toSet());
+        synchronized (indexLock) {
+            Set<Route> routeSet = routesByNextHop.get(nextHop);
+            return routeSet != null ? ImmutableSet.copyOf(routeSet) : ImmutableSet.of();
+        }
+    }
+
+    // Indexes the result of an update made through this table; a null
+    // result means the prefix has no routes left.
+    private void updated(IpPrefix prefix, Versioned<Set<Route>> updated) {
+        synchronized (indexLock) {
+            if (updated != null) {
+                if (reindex(prefix, updated.value(), updated.version())) {
+                    removedPrefixes.remove(prefix);
+                }
+            } else if (indexedRoutes.containsKey(prefix)) {
+                Versioned<Set<Route>> indexed = indexedRoutes.get(prefix);
+                unindex(indexed.value());
+                indexedRoutes.put(prefix, new Versioned<>(Collections.emptySet(), indexed.version()));
+                removedPrefixes.add(prefix);
+            }
+        }
+    }
+
+    // Indexes the routes a prefix has as of a map event.
+    private void updated(MapEvent<IpPrefix, Set<Route>> event) {
+        synchronized (indexLock) {
+            if (pendingIndexUpdates != null) {
+                pendingIndexUpdates.add(() -> updated(event));
+                return;
+            }
+            IpPrefix prefix = event.key();
+            if (event.newValue() != null) {
+                if (!removedPrefixes.contains(prefix)) {
+                    reindex(prefix, event.newValue().value(), event.newValue().version());
+                }
+                return;
+            }
+            removedPrefixes.remove(prefix);
+            Versioned<Set<Route>> indexed = indexedRoutes.get(prefix);
+            if (indexed != null && indexed.version() <= event.oldValue().version()) {
+                unindex(indexed.value());
+                indexedRoutes.remove(prefix);
+            }
+        }
+    }
+
+    // Rebuilds the index from the contents of the map.
+    private void reindex(Set<Map.Entry<IpPrefix, Versioned<Set<Route>>>> entries) {
+        Map<IpPrefix, Versioned<Set<Route>>> current = Maps.newHashMap();
+        entries.forEach(e -> current.put(e.getKey(), e.getValue()));
+        Sets.newHashSet(indexedRoutes.keySet()).stream()
+                .filter(prefix -> !current.containsKey(prefix))
+                .forEach(prefix -> {
+                    unindex(indexedRoutes.remove(prefix).value());
+                    removedPrefixes.remove(prefix);
+                });
+        current.forEach((prefix, routeSet) -> {
+            if (!removedPrefixes.contains(prefix)) {
+                reindex(prefix, routeSet.value(), routeSet.version());
+            }
+        });
+    }
+
+    // Brings the index in line with the routes of a prefix at the given
+    // version, unless the same or a later version was already indexed.
+    private boolean reindex(IpPrefix prefix, Set<Route> routes, long version) {
+        Versioned<Set<Route>> indexed = indexedRoutes.get(prefix);
+        if (indexed != null && indexed.version() >= version) {
+            return false;
+        }
+        Set<Route> oldRoutes = indexed != null ? indexed.value() : Collections.emptySet();
+        unindex(Sets.difference(oldRoutes, routes));
+        index(Sets.difference(routes, oldRoutes));
+        indexedRoutes.put(prefix, new Versioned<>(ImmutableSet.copyOf(routes), version));
+        return true;
+    }
+
+    private void index(Collection<Route> added) {
+        added.forEach(route -> routesByNextHop.computeIfAbsent(route.nextHop(), k -> new HashSet<>())
+                .add(route));
+    }
+
+    private void unindex(Collection<Route> removed) {
+        removed.forEach(route -> routesByNextHop.computeIfPresent(route.nextHop(), (nextHop, set) -> {
+            set.remove(route);
+            return set.isEmpty() ? null : set;
+        }));
     }
 
     private class RouteTableListener
@@ -183,6 +455,8 @@ public class DefaultRouteTable implements RouteTable {
 
         @Override
         public void event(MapEvent<IpPrefix, Set<Route>> event) {
+            updated(event);
+
             InternalRouteEvent ire = null;
             switch (event.type()) {
             case INSERT:
@@ -43,6 +43,24 @@ public interface RouteTable {
      */
     void remove(Route route);
 
+    /**
+     * Adds the given routes to the route table.
+     *
+     * @param routes routes
+     */
+    default void update(Collection<Route> routes) {
+        routes.forEach(this::update);
+    }
+
+    /**
+     * Removes the given routes from the route table.
+     *
+     * @param routes routes
+     */
+    default void remove(Collection<Route> routes) {
+        routes.forEach(this::remove);
+    }
+
     /**
      * Returns the route table ID.
      *
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.store;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.routeservice.InternalRouteEvent;
+import org.onosproject.routeservice.Route;
+import org.onosproject.routeservice.RouteSet;
+import org.onosproject.routeservice.RouteTableId;
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncConsistentMapAdapter;
+import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.ConsistentMapBuilder;
+import org.onosproject.store.service.ConsistentMapException;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
+import org.onosproject.store.service.StorageServiceAdapter;
+import org.onosproject.store.service.Versioned;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the default route table.
+ */
+public class DefaultRouteTableTest {
+
+    private static final RouteTableId TABLE_ID = new RouteTableId("ipv4");
+
+    private static final IpPrefix PREFIX1 = Ip4Prefix.valueOf("1.1.1.0/24");
+    private static final IpPrefix PREFIX2 = Ip4Prefix.valueOf("2.2.2.0/24");
+    private static final IpPrefix PREFIX3 = Ip4Prefix.valueOf("3.3.3.0/24");
+
+    private static final IpAddress NEXT_HOP1 = Ip4Address.valueOf("192.168.1.1");
+    private static final IpAddress NEXT_HOP2 = Ip4Address.valueOf("192.168.2.1");
+
+    private static final Route R1 = new Route(Route.Source.STATIC, PREFIX1, NEXT_HOP1);
+    private static final Route R2 = new Route(Route.Source.STATIC, PREFIX2, NEXT_HOP1);
+    private static final Route R3 = new Route(Route.Source.STATIC, PREFIX3, NEXT_HOP2);
+    private static final Route R4 = new Route(Route.Source.STATIC, PREFIX1, NEXT_HOP2);
+    private static final Route R5 = new Route(Route.Source.STATIC, PREFIX2, NEXT_HOP2);
+
+    private TestRouteMap map;
+    private List<InternalRouteEvent> events;
+    private DefaultRouteTable table;
+
+    @Before
+    public void setUp() {
+        map = new TestRouteMap();
+        events = Lists.newArrayList();
+        table = new DefaultRouteTable(TABLE_ID, events::add, new TestStorageService(),
+                                      MoreExecutors.newDirectExecutorService());
+    }
+
+    /**
+     * Tests that the routes added and removed in bulk are written to the map
+     * and indexed by next hop before the map events are received.
+     */
+    @Test
+    public void testBulkUpdateAndRemove() {
+        map.deferEvents = true;
+
+        table.update(ImmutableList.of(R1, R2, R3, R4));
+        assertEquals(1, map.bulkWrites);
+        assertEquals(ImmutableSet.of(R1, R4), map.value(PREFIX1));
+        assertEquals(ImmutableSet.of(R2), map.value(PREFIX2));
+        assertEquals(ImmutableSet.of(R3), map.value(PREFIX3));
+        assertEquals(ImmutableSet.of(R1, R2), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R3, R4), nextHopRoutes(NEXT_HOP2));
+
+        table.remove(ImmutableList.of(R1, R3));
+        assertEquals(3, map.bulkWrites);
+        assertEquals(0, map.conditionalWrites);
+        assertEquals(ImmutableSet.of(R4), map.value(PREFIX1));
+        assertNull(map.value(PREFIX3));
+        assertEquals(ImmutableSet.of(R2), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4), nextHopRoutes(NEXT_HOP2));
+
+        // the events of the earlier updates must not roll back the index
+        map.deliverEvents();
+        assertEquals(ImmutableSet.of(R2), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4), nextHopRoutes(NEXT_HOP2));
+        assertEquals(5, events.size());
+    }
+
+    /**
+     * Tests that a bulk update repairs the prefixes that were concurrently
+     * updated by another node without losing either update.
+     */
+    @Test
+    public void testBulkUpdateConcurrentModification() {
+        map.interference = () -> map.write(PREFIX1, ImmutableSet.of(R4));
+
+        table.update(ImmutableList.of(R1, R2));
+        assertEquals(ImmutableSet.of(R1, R4), map.value(PREFIX1));
+        assertEquals(ImmutableSet.of(R2), map.value(PREFIX2));
+        assertEquals(ImmutableSet.of(R1, R2), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4), nextHopRoutes(NEXT_HOP2));
+        assertEquals(1, map.conditionalWrites);
+
+        // the same routes written again need no repair
+        map.interference = () -> map.write(PREFIX1, ImmutableSet.of(R1, R4));
+        table.remove(ImmutableList.of(R4));
+        assertEquals(ImmutableSet.of(R1), map.value(PREFIX1));
+        assertEquals(ImmutableSet.of(), nextHopRoutes(NEXT_HOP2));
+        assertEquals(1, map.conditionalWrites);
+
+        // a route removed concurrently is not brought back
+        map.interference = () -> map.write(PREFIX2, null);
+        table.update(ImmutableList.of(R4, R5));
+        assertEquals(ImmutableSet.of(R1, R4), map.value(PREFIX1));
+        assertEquals(ImmutableSet.of(R5), map.value(PREFIX2));
+        assertEquals(ImmutableSet.of(R1), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4, R5), nextHopRoutes(NEXT_HOP2));
+        assertEquals(2, map.conditionalWrites);
+    }
+
+    /**
+     * Tests that the index follows the updates made by other nodes.
+     */
+    @Test
+    public void testRemoteUpdates() {
+        map.write(PREFIX1, ImmutableSet.of(R1, R4));
+        map.write(PREFIX2, ImmutableSet.of(R2));
+        assertEquals(ImmutableSet.of(R1, R2), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4), nextHopRoutes(NEXT_HOP2));
+
+        map.write(PREFIX1, ImmutableSet.of(R4));
+        map.write(PREFIX2, null);
+        assertEquals(ImmutableSet.of(), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R4), nextHopRoutes(NEXT_HOP2));
+    }
+
+    /**
+     * Tests that the routes already in the map are indexed and notified when
+     * the table is created.
+     */
+    @Test
+    public void testExistingRoutes() {
+        table.shutdown();
+        map.write(PREFIX1, ImmutableSet.of(R1));
+        map.write(PREFIX3, ImmutableSet.of(R3));
+        events.clear();
+
+        table = new DefaultRouteTable(TABLE_ID, events::add, new TestStorageService(),
+                                      MoreExecutors.newDirectExecutorService());
+        assertEquals(ImmutableSet.of(R1), nextHopRoutes(NEXT_HOP1));
+        assertEquals(ImmutableSet.of(R3), nextHopRoutes(NEXT_HOP2));
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(e -> e.type() == InternalRouteEvent.Type.ROUTE_ADDED));
+        assertEquals(ImmutableSet.of(PREFIX1, PREFIX3),
+                     table.getRoutes().stream().map(RouteSet::prefix).collect(Collectors.toSet()));
+    }
+
+    private Set<Route> nextHopRoutes(IpAddress nextHop) {
+        return ImmutableSet.copyOf(table.getRoutesForNextHop(nextHop));
+    }
+
+    /**
+     * In-memory route map that versions the entries by update sequence and
+     * fails conditional updates of stale versions like the Raft map does.
+     */
+    private static class TestRouteMap extends AsyncConsistentMapAdapter<IpPrefix, Set<Route>> {
+
+        private final Map<IpPrefix, Versioned<Set<Route>>> entries = Maps.newHashMap();
+        private final List<MapEventListener<IpPrefix, Set<Route>>> listeners = Lists.newCopyOnWriteArrayList();
+        private final List<MapEvent<IpPrefix, Set<Route>>> deferredEvents = Lists.newArrayList();
+        private long version;
+
+        boolean deferEvents;
+        Runnable interference;
+        int bulkWrites;
+        int conditionalWrites;
+
+        Set<Route> value(IpPrefix prefix) {
+            Versioned<Set<Route>> value = entries.get(prefix);
+            return value != null ? value.value() : null;
+        }
+
+        // Writes an entry as another node would
+        synchronized void write(IpPrefix prefix, Set<Route> value) {
+            Versioned<Set<Route>> oldValue = entries.get(prefix);
+            Versioned<Set<Route>> newValue = null;
+            if (value != null) {
+                newValue = new Versioned<>(new HashSet<>(value), ++version);
+                entries.put(prefix, newValue);
+            } else {
+                entries.remove(prefix);
+            }
+            MapEvent<IpPrefix, Set<Route>> event = new MapEvent<>(name(), prefix, newValue, oldValue);
+            if (deferEvents) {
+                deferredEvents.add(event);
+            } else {
+                listeners.forEach(l -> l.event(event));
+            }
+        }
+
+        void deliverEvents() {
+            deferEvents = false;
+            deferredEvents.forEach(event -> listeners.forEach(l -> l.event(event)));
+            deferredEvents.clear();
+        }
+
+        @Override
+        public String name() {
+            return "onos-routes-" + TABLE_ID.name();
+        }
+
+        @Override
+        public synchronized CompletableFuture<Versioned<Set<Route>>> get(IpPrefix key) {
+            return CompletableFuture.completedFuture(entries.get(key));
+        }
+
+        @Override
+        public synchronized CompletableFuture<Map<IpPrefix, Versioned<Set<Route>>>> getAll(Set<IpPrefix> keys) {
+            Map<IpPrefix, Versioned<Set<Route>>> values = Maps.newHashMap();
+            keys.stream().filter(entries::containsKey).forEach(key -> values.put(key, entries.get(key)));
+            return CompletableFuture.completedFuture(values);
+        }
+
+        @Override
+        public CompletableFuture<Map<IpPrefix, Versioned<Set<Route>>>> putAll(Map<IpPrefix, Set<Route>> values) {
+            return writeAll(values);
+        }
+
+        @Override
+        public CompletableFuture<Map<IpPrefix, Versioned<Set<Route>>>> removeAll(Set<IpPrefix> keys) {
+            Map<IpPrefix, Set<Route>> removals = Maps.newHashMap();
+            keys.forEach(key -> removals.put(key, null));
+            return writeAll(removals);
+        }
+
+        // Applies a bulk write unconditionally, returning the values it replaced
+        private CompletableFuture<Map<IpPrefix, Versioned<Set<Route>>>> writeAll(Map<IpPrefix, Set<Route>> values) {
+            interfere();
+            synchronized (this) {
+                bulkWrites++;
+                Map<IpPrefix, Versioned<Set<Route>>> previous = Maps.newHashMap();
+                values.forEach((key, value) -> {
+                    if (entries.containsKey(key)) {
+                        previous.put(key, entries.get(key));
+                    }
+                    write(key, value);
+                });
+                return CompletableFuture.completedFuture(previous);
+            }
+        }
+
+        // Runs the pending concurrent update of another node, if any
+        private void interfere() {
+            Runnable concurrentUpdate = interference;
+            interference = null;
+            if (concurrentUpdate != null) {
+                concurrentUpdate.run();
+            }
+        }
+
+        @Override
+        public synchronized CompletableFuture<Set<Map.Entry<IpPrefix, Versioned<Set<Route>>>>> entrySet() {
+            return CompletableFuture.completedFuture(ImmutableSet.copyOf(entries.entrySet()));
+        }
+
+        @Override
+        public CompletableFuture<Versioned<Set<Route>>> computeIf(
+                IpPrefix key, Predicate<? super Set<Route>> condition,
+                BiFunction<? super IpPrefix, ? super Set<Route>, ? extends Set<Route>> remappingFunction) {
+            Versioned<Set<Route>> current = entries.get(key);
+            Set<Route> currentValue = current != null ? new HashSet<>(current.value()) : null;
+            if (!condition.test(currentValue)) {
+                return CompletableFuture.completedFuture(current);
+            }
+            Set<Route> newValue = remappingFunction.apply(key, currentValue);
+
+            interfere();
+
+            synchronized (this) {
+                if (entries.get(key) != current) {
+                    CompletableFuture<Versioned<Set<Route>>> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(new ConsistentMapException.ConcurrentModification());
+                    return failed;
+                }
+                conditionalWrites++;
+                write(key, newValue);
+                return CompletableFuture.completedFuture(entries.get(key));
+            }
+        }
+
+        @Override
+        public CompletableFuture<Void> addListener(MapEventListener<IpPrefix, Set<Route>> listener,
+                                                   Executor executor) {
+            listeners.add(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> removeListener(MapEventListener<IpPrefix, Set<Route>> listener) {
+            listeners.remove(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private class TestStorageService extends StorageServiceAdapter {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> ConsistentMapBuilder<K, V> consistentMapBuilder() {
+            return new ConsistentMapBuilder<K, V>() {
+                @Override
+                public AsyncConsistentMap<K, V> buildAsyncMap() {
+                    return (AsyncConsistentMap<K, V>) map;
+                }
+
+                @Override
+                public ConsistentMap<K, V> build() {
+                    return buildAsyncMap().asConsistentMap();
+                }
+            };
+        }
+    }
+}
@@ -41,4 +41,20 @@ public interface FpmInfoService {
      * Pushes all local FPM routes to route store.
      */
     void pushFpmRoutes();
+
+    /**
+     * Returns the rate at which route updates and withdrawals are received
+     * from the FPM peers connected to this node.
+     *
+     * @return route updates per second, averaged over the last few seconds
+     */
+    long routeUpdateRate();
+
+    /**
+     * Returns the number of received route updates and withdrawals not yet
+     * applied to the route store.
+     *
+     * @return number of pending route updates
+     */
+    long pendingRouteUpdates();
 }
@@ -46,6 +46,7 @@ import org.onosproject.net.intf.Interface;
 import org.onosproject.net.host.InterfaceIpAddress;
 import org.onosproject.net.intf.InterfaceService;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.SlidingWindowCounter;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterEvent;
@@ -86,9 +87,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import org.onosproject.routing.fpm.api.FpmPrefixStoreEvent;
 import org.onosproject.routing.fpm.api.FpmPrefixStore;
@@ -107,6 +110,12 @@ public class FpmManager implements FpmInfoService {
     private static final int IDLE_TIMEOUT_SECS = 5;
     private static final String LOCK_NAME = "fpm-manager-lock";
 
+    // Route updates received from a peer are applied to the route store
+    // in batches, at least this often or as soon as a batch is full
+    static final int ROUTE_BATCH_MS = 50;
+    static final int ROUTE_BATCH_SIZE = 1000;
+    private static final int RATE_WINDOW_SECS = 10;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected CoreService coreService;
 
@@ -153,6 +162,10 @@ public class FpmManager implements FpmInfoService {
 
     private Map<FpmPeer, Map<IpPrefix, Route>> fpmRoutes = new ConcurrentHashMap<>();
 
+    private Map<FpmPeer, FpmRouteAccumulator> pendingRoutes = new ConcurrentHashMap<>();
+    private ScheduledExecutorService routeUpdateExecutor;
+    private SlidingWindowCounter routeUpdateCounter;
+
     @Property(name = "clearRoutes", boolValue = true,
             label = "Whether to clear routes when the FPM connection goes down")
     private boolean clearRoutes = true;
@@ -222,6 +235,10 @@ public class FpmManager implements FpmInfoService {
                 .build();
 
         modified(context);
+
+        routeUpdateCounter = new SlidingWindowCounter(RATE_WINDOW_SECS);
+        routeUpdateExecutor = newSingleThreadScheduledExecutor(
+                groupedThreads("onos/fpm", "route-update", log));
         startServer();
 
         appId = coreService.registerApplication(APP_NAME, peers::destroy);
@@ -239,7 +256,11 @@ public class FpmManager implements FpmInfoService {
                 "distributed", "false");
 
         stopServer();
+        routeUpdateExecutor.shutdownNow();
+        pendingRoutes.values().forEach(FpmRouteAccumulator::flush);
+        routeUpdateCounter.destroy();
         fpmRoutes.clear();
+        pendingRoutes.clear();
         componentConfigService.unregisterProperties(getClass(), false);
 
         clusterService.removeListener(clusterListener);
@@ -477,10 +498,16 @@ public class FpmManager implements FpmInfoService {
             break;
         }
 
-        updateRouteStore(updates, withdraws);
+        routeUpdateCounter.incrementCount(updates.size() + withdraws.size());
+        pendingRoutes.computeIfAbsent(peer, p -> new FpmRouteAccumulator(
+                ROUTE_BATCH_SIZE, ROUTE_BATCH_MS, routeUpdateExecutor,
+                batch -> updateRouteStore(batch.updates(), batch.withdraws())))
+                .add(updates, withdraws);
     }
 
-    private synchronized void updateRouteStore(Collection<Route> routesToAdd, Collection<Route> routesToRemove) {
+    // Not serialized across peers; each accumulator applies the batches of
+    // its peer in order
+    private void updateRouteStore(Collection<Route> routesToAdd, Collection<Route> routesToRemove) {
         routeService.withdraw(routesToRemove);
         routeService.update(routesToAdd);
     }
@@ -488,7 +515,13 @@ public class FpmManager implements FpmInfoService {
     private void clearRoutes(FpmPeer peer) {
         log.info("Clearing all routes for peer {}", peer);
         Map<IpPrefix, Route> routes = fpmRoutes.remove(peer);
-        if (routes != null) {
+        FpmRouteAccumulator accumulator = pendingRoutes.remove(peer);
+        if (accumulator != null) {
+            if (routes != null) {
+                accumulator.add(Collections.emptyList(), routes.values());
+            }
+            accumulator.flush();
+        } else if (routes != null) {
             updateRouteStore(Lists.newArrayList(), routes.values());
         }
     }
@@ -621,6 +654,16 @@ public class FpmManager implements FpmInfoService {
                 fpmRoutes.getOrDefault(peer, Collections.emptyMap()).size());
     }
 
+    @Override
+    public long routeUpdateRate() {
+        return routeUpdateCounter.get(RATE_WINDOW_SECS) / RATE_WINDOW_SECS;
+    }
+
+    @Override
+    public long pendingRouteUpdates() {
+        return pendingRoutes.values().stream().mapToLong(FpmRouteAccumulator::size).sum();
+    }
+
     @Override
     public Map<FpmPeer, FpmPeerInfo> peers() {
         return peers.asJavaMap().entrySet().stream()
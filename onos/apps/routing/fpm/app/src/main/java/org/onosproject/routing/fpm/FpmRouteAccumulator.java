@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routing.fpm;
+
+import com.google.common.collect.ImmutableList;
+import org.onosproject.routeservice.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates the route updates and withdrawals received from an FPM peer
+ * until they are applied to the route store. Only the last operation
+ * received for a route is kept, and a route added and then withdrawn
+ * before being applied is dropped altogether.
+ * <p>
+ * The pending routes are applied at most a given time after the first of
+ * them was received, or as soon as there are enough of them to fill a
+ * batch. The batches of an accumulator are applied one at a time, in the
+ * order they were received.
+ * </p>
+ */
+final class FpmRouteAccumulator {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final int maxBatchSize;
+    private final int maxBatchMillis;
+    private final ScheduledExecutorService executor;
+    private final Consumer<Batch> applier;
+
+    // First and last operation received for each pending route; true for
+    // an update, false for a withdrawal
+    private final Map<Route, Boolean> first = new HashMap<>();
+    private final Map<Route, Boolean> last = new LinkedHashMap<>();
+
+    // Held while a batch is drained and applied
+    private final Object flushLock = new Object();
+
+    private boolean flushScheduled;
+    private boolean flushRequested;
+
+    /**
+     * Creates a new accumulator.
+     *
+     * @param maxBatchSize   number of pending routes past which they are
+     *                       applied without waiting
+     * @param maxBatchMillis maximum time the first pending route waits
+     *                       before being applied
+     * @param executor       executor on which the batches are applied
+     * @param applier        applies a batch to the route store
+     */
+    FpmRouteAccumulator(int maxBatchSize, int maxBatchMillis,
+                        ScheduledExecutorService executor, Consumer<Batch> applier) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchMillis = maxBatchMillis;
+        this.executor = executor;
+        this.applier = applier;
+    }
+
+    /**
+     * Adds the route updates and withdrawals received in one message; the
+     * withdrawals are taken to precede the updates.
+     *
+     * @param updates   routes to update
+     * @param withdraws routes to withdraw
+     */
+    synchronized void add(Collection<Route> updates, Collection<Route> withdraws) {
+        withdraws.forEach(route -> record(route, false));
+        updates.forEach(route -> record(route, true));
+        if (last.isEmpty()) {
+            return;
+        }
+        if (last.size() >= maxBatchSize) {
+            if (!flushRequested) {
+                flushRequested = true;
+                executor.execute(this::flush);
+            }
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flush, maxBatchMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void record(Route route, boolean update) {
+        first.putIfAbsent(route, update);
+        last.put(route, update);
+    }
+
+    /**
+     * Returns the number of routes pending.
+     *
+     * @return number of pending routes
+     */
+    synchronized int size() {
+        return last.size();
+    }
+
+    /**
+     * Applies the pending route operations now. Routes keep being added
+     * while a batch is applied, but the batches are applied one at a time.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Batch batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                applier.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Unable to apply {} route updates and {} withdrawals",
+                         batch.updates().size(), batch.withdraws().size(), e);
+            }
+        }
+    }
+
+    private synchronized Batch drain() {
+        ImmutableList.Builder<Route> updates = ImmutableList.builder();
+        ImmutableList.Builder<Route> withdraws = ImmutableList.builder();
+        last.forEach((route, update) -> {
+            if (update) {
+                updates.add(route);
+            } else if (!first.get(route)) {
+                // A route first added in this batch was never applied
+                withdraws.add(route);
+            }
+        });
+        first.clear();
+        last.clear();
+        flushScheduled = false;
+        flushRequested = false;
+        return new Batch(updates.build(), withdraws.build());
+    }
+
+    /**
+     * Route operations to apply to the route store together.
+     */
+    static final class Batch {
+        private final List<Route> updates;
+        private final List<Route> withdraws;
+
+        private Batch(List<Route> updates, List<Route> withdraws) {
+            this.updates = updates;
+            this.withdraws = withdraws;
+        }
+
+        /**
+         * Returns the routes to update.
+         *
+         * @return routes to update
+         */
+        List<Route> updates() {
+            return updates;
+        }
+
+        /**
+         * Returns the routes to withdraw.
+         *
+         * @return routes to withdraw
+         */
+        List<Route> withdraws() {
+            return withdraws;
+        }
+
+        /**
+         * Returns whether the batch holds no operation.
+         *
+         * @return true if there is nothing to apply
+         */
+        boolean isEmpty() {
+            return updates.isEmpty() && withdraws.isEmpty();
+        }
+    }
+}
@@ -42,6 +42,8 @@ public class FpmConnectionsList extends AbstractShellCommand {
         FpmInfoService fpmInfo = get(FpmInfoService.class);
 
         print(String.format("PD Pushing is %s.", fpmInfo.isPdPushEnabled() ? "enabled" : "disabled"));
+        print("Receiving %d route updates/s, %d pending", fpmInfo.routeUpdateRate(),
+              fpmInfo.pendingRouteUpdates());
 
         fpmInfo.peers().entrySet().stream()
                 .sorted(Comparator.<Map.Entry<FpmPeer, FpmPeerInfo>, IpAddress>comparing(e -> e.getKey().address())
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routing.fpm;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.routeservice.Route;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.routing.fpm.FpmManager.ROUTE_BATCH_MS;
+import static org.onosproject.routing.fpm.FpmManager.ROUTE_BATCH_SIZE;
+
+/**
+ * Unit tests for the FPM route accumulator.
+ */
+public class FpmRouteAccumulatorTest {
+
+    private static final IpPrefix PREFIX1 = Ip4Prefix.valueOf("1.1.1.0/24");
+    private static final IpPrefix PREFIX2 = Ip4Prefix.valueOf("2.2.2.0/24");
+
+    private static final IpAddress NEXT_HOP1 = Ip4Address.valueOf("192.168.1.1");
+    private static final IpAddress NEXT_HOP2 = Ip4Address.valueOf("192.168.2.1");
+
+    private static final Route R1 = new Route(Route.Source.FPM, PREFIX1, NEXT_HOP1);
+    private static final Route R2 = new Route(Route.Source.FPM, PREFIX2, NEXT_HOP1);
+    private static final Route R3 = new Route(Route.Source.FPM, PREFIX1, NEXT_HOP2);
+
+    private TestExecutor executor;
+    private List<FpmRouteAccumulator.Batch> batches;
+    private FpmRouteAccumulator accumulator;
+
+    @Before
+    public void setUp() {
+        executor = new TestExecutor();
+        batches = Lists.newArrayList();
+        accumulator = new FpmRouteAccumulator(ROUTE_BATCH_SIZE, ROUTE_BATCH_MS, executor, batches::add);
+    }
+
+    private void update(Route route) {
+        accumulator.add(ImmutableList.of(route), Collections.emptyList());
+    }
+
+    private void withdraw(Route route) {
+        accumulator.add(Collections.emptyList(), ImmutableList.of(route));
+    }
+
+    private FpmRouteAccumulator.Batch flush() {
+        int applied = batches.size();
+        accumulator.flush();
+        assertEquals("unexpected number of batches", applied + 1, batches.size());
+        return batches.get(applied);
+    }
+
+    /**
+     * Tests that a route added and then withdrawn before being applied is
+     * never applied.
+     */
+    @Test
+    public void testAddThenWithdraw() {
+        update(R1);
+        update(R2);
+        withdraw(R1);
+        assertEquals(2, accumulator.size());
+
+        FpmRouteAccumulator.Batch batch = flush();
+        assertEquals(ImmutableList.of(R2), batch.updates());
+        assertEquals(ImmutableList.of(), batch.withdraws());
+        assertEquals(0, accumulator.size());
+
+        update(R1);
+        withdraw(R1);
+        accumulator.flush();
+        assertEquals("unexpected batch", 1, batches.size());
+    }
+
+    /**
+     * Tests that the withdrawal of a route applied in an earlier batch is
+     * kept, and cancelled by a later update of the same route.
+     */
+    @Test
+    public void testWithdrawAppliedRoute() {
+        update(R1);
+        flush();
+
+        withdraw(R1);
+        FpmRouteAccumulator.Batch batch = flush();
+        assertEquals(ImmutableList.of(), batch.updates());
+        assertEquals(ImmutableList.of(R1), batch.withdraws());
+
+        withdraw(R1);
+        update(R1);
+        batch = flush();
+        assertEquals(ImmutableList.of(R1), batch.updates());
+        assertEquals(ImmutableList.of(), batch.withdraws());
+    }
+
+    /**
+     * Tests that the next hop swapped in one message withdraws the applied
+     * route, and that the withdrawals of a message precede its updates.
+     */
+    @Test
+    public void testSwapNextHop() {
+        update(R1);
+        flush();
+
+        accumulator.add(ImmutableList.of(R3), ImmutableList.of(R1));
+        FpmRouteAccumulator.Batch batch = flush();
+        assertEquals(ImmutableList.of(R3), batch.updates());
+        assertEquals(ImmutableList.of(R1), batch.withdraws());
+    }
+
+    /**
+     * Tests that the first pending route schedules a single flush after the
+     * maximum batch time.
+     */
+    @Test
+    public void testFlushAfterMaxBatchTime() {
+        update(R1);
+        update(R2);
+        assertEquals(ImmutableList.of((long) ROUTE_BATCH_MS), executor.delays);
+        assertTrue(batches.isEmpty());
+
+        executor.runAll();
+        assertEquals(1, batches.size());
+        assertEquals(ImmutableList.of(R1, R2), batches.get(0).updates());
+
+        // the next pending route schedules the next flush
+        withdraw(R1);
+        assertEquals(ImmutableList.of((long) ROUTE_BATCH_MS, (long) ROUTE_BATCH_MS), executor.delays);
+        executor.runAll();
+        assertEquals(ImmutableList.of(R1), batches.get(1).withdraws());
+    }
+
+    /**
+     * Tests that a full batch is flushed without waiting.
+     */
+    @Test
+    public void testFlushWhenBatchFull() {
+        for (int i = 0; i < ROUTE_BATCH_SIZE - 1; i++) {
+            update(route(i));
+        }
+        assertEquals(ImmutableList.of((long) ROUTE_BATCH_MS), executor.delays);
+
+        update(route(ROUTE_BATCH_SIZE - 1));
+        update(route(ROUTE_BATCH_SIZE));
+        assertEquals(ImmutableList.of((long) ROUTE_BATCH_MS, 0L), executor.delays);
+
+        executor.runAll();
+        assertEquals(1, batches.size());
+        assertEquals(ROUTE_BATCH_SIZE + 1, batches.get(0).updates().size());
+        assertEquals(0, accumulator.size());
+    }
+
+    /**
+     * Tests that a batch which cannot be applied does not stop the
+     * accumulator.
+     */
+    @Test
+    public void testApplyFailure() {
+        accumulator = new FpmRouteAccumulator(ROUTE_BATCH_SIZE, ROUTE_BATCH_MS, executor, batch -> {
+            batches.add(batch);
+            if (batches.size() == 1) {
+                throw new IllegalStateException("route store unavailable");
+            }
+        });
+
+        update(R1);
+        executor.runAll();
+        update(R2);
+        executor.runAll();
+        assertEquals(2, batches.size());
+        assertEquals(ImmutableList.of(R2), batches.get(1).updates());
+    }
+
+    private static Route route(int index) {
+        IpPrefix prefix = Ip4Prefix.valueOf(Ip4Address.valueOf((10 << 24) + (index << 8)), 24);
+        return new Route(Route.Source.FPM, prefix, NEXT_HOP1);
+    }
+
+    /**
+     * Executor which records the delay of the tasks and runs them on demand.
+     */
+    private static class TestExecutor extends ScheduledThreadPoolExecutor {
+
+        private final List<Long> delays = Lists.newArrayList();
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        TestExecutor() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            tasks.add(command);
+            return null;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delays.add(0L);
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -50,6 +51,7 @@ import org.onosproject.store.service.StorageService;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.System.currentTimeMillis;
 import static org.apache.felix.scr.annotations.ReferenceCardinality.MANDATORY_UNARY;
@@ -68,11 +70,13 @@ public class PrimitivePerfApp {
 
     private static final int DEFAULT_NUM_CLIENTS = 64;
     private static final int DEFAULT_WRITE_PERCENTAGE = 100;
+    private static final int DEFAULT_BATCH_SIZE = 1;
 
     private static final int REPORT_PERIOD = 1_000; //ms
 
     private static final String START = "start";
     private static final String STOP = "stop";
+    private static final String SEPARATOR = ":";
     private static final MessageSubject CONTROL = new MessageSubject("primitive-perf-ctl");
 
     @Property(name = "numClients", intValue = DEFAULT_NUM_CLIENTS,
@@ -103,6 +107,9 @@ public class PrimitivePerfApp {
     private ExecutorService workers;
     private boolean stopped = true;
 
+    // Number of keys of each bulk operation; 1 for per-key operations
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     private Timer reportTimer;
 
     private NodeId nodeId;
@@ -177,16 +184,31 @@ public class PrimitivePerfApp {
             logConfig("Reconfigured");
             if (!stopped) {
                 stop();
-                start();
+                start(batchSize);
             }
         }
     }
 
+    /**
+     * Starts a test run issuing per-key operations.
+     */
     public void start() {
+        start(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Starts a test run. With a batch size greater than 1, each client
+     * issues getAll, putAll and removeAll operations over that many keys
+     * instead of per-key operations.
+     *
+     * @param batchSize number of keys per operation
+     */
+    public void start(int batchSize) {
+        checkArgument(batchSize > 0, "Batch size must be positive");
         if (stopped) {
             stopped = false;
-            communicationService.broadcast(START, CONTROL, str -> str.getBytes());
-            startTestRun();
+            communicationService.broadcast(START + SEPARATOR + batchSize, CONTROL, str -> str.getBytes());
+            startTestRun(batchSize);
         }
     }
 
@@ -198,10 +220,12 @@ public class PrimitivePerfApp {
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with numClients = {}; writePercentage = {}", prefix, numClients, writePercentage);
+        log.info("{} with numClients = {}; writePercentage = {}; batchSize = {}",
+                 prefix, numClients, writePercentage, batchSize);
     }
 
-    private void startTestRun() {
+    private void startTestRun(int batchSize) {
+        this.batchSize = batchSize;
         sampleCollector.clearSamples();
 
         startTime = System.currentTimeMillis();
@@ -238,10 +262,10 @@ public class PrimitivePerfApp {
         if (workerCount > 0) {
             workers = Executors.newFixedThreadPool(workerCount, groupedThreads("onos/primitive-perf", "worker-%d"));
             for (int i = 0; i < workerCount; i++) {
-                workers.submit(new Runner(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+                workers.submit(new Runner(UUID.randomUUID().toString(), UUID.randomUUID().toString(), batchSize));
             }
         }
-        log.info("Started test run");
+        logConfig("Started test run");
     }
 
     private void stopTestRun() {
@@ -271,11 +295,20 @@ public class PrimitivePerfApp {
     final class Runner implements Runnable {
         private final String key;
         private final String value;
+        private final Map<String, String> entries;
+        private boolean entriesWritten;
         private ConsistentMap<String, String> map;
 
-        private Runner(String key, String value) {
+        private Runner(String key, String value, int batchSize) {
             this.key = key;
             this.value = value;
+            ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+            if (batchSize > 1) {
+                for (int i = 0; i < batchSize; i++) {
+                    builder.put(key + "-" + i, value);
+                }
+            }
+            this.entries = builder.build();
         }
 
         @Override
@@ -299,13 +332,31 @@ public class PrimitivePerfApp {
         }
 
         private void submit() {
-            if (currentCounter.incrementAndGet() % 100 < writePercentage) {
+            if (!entries.isEmpty()) {
+                submitBatch();
+            } else if (currentCounter.incrementAndGet() % 100 < writePercentage) {
                 map.put(key, value);
             } else {
                 map.get(key);
             }
         }
 
+        // Issues one bulk operation, counted as one operation per key so
+        // that the rates compare with those of per-key runs
+        private void submitBatch() {
+            long count = currentCounter.addAndGet(entries.size());
+            if (count / entries.size() % 100 < writePercentage) {
+                if (entriesWritten) {
+                    map.removeAll(entries.keySet());
+                } else {
+                    map.putAll(entries);
+                }
+                entriesWritten = !entriesWritten;
+            } else {
+                map.getAll(entries.keySet());
+            }
+        }
+
         private void teardown() {
             map.destroy();
         }
@@ -315,8 +366,9 @@ public class PrimitivePerfApp {
         @Override
         public void accept(String cmd) {
             log.info("Received command {}", cmd);
-            if (cmd.equals(START)) {
-                startTestRun();
+            if (cmd.startsWith(START)) {
+                String[] fields = cmd.split(SEPARATOR);
+                startTestRun(fields.length > 1 ? Integer.parseInt(fields[1]) : DEFAULT_BATCH_SIZE);
             } else {
                 stopTestRun();
             }
@@ -16,6 +16,7 @@
 package org.onosproject.primitiveperf;
 
 import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
 import org.onosproject.cli.AbstractShellCommand;
 
 /**
@@ -25,9 +26,14 @@ import org.onosproject.cli.AbstractShellCommand;
         description = "Starts primitive performance test run")
 public class PrimitivePerfStartCommand extends AbstractShellCommand {
 
+    @Option(name = "-b", aliases = "--batchSize",
+            description = "Number of keys per getAll/putAll/removeAll operation; 1 for per-key operations",
+            required = false, multiValued = false)
+    private int batchSize = 1;
+
     @Override
     protected void execute() {
-        get(PrimitivePerfApp.class).start();
+        get(PrimitivePerfApp.class).start(batchSize);
     }
 
 }
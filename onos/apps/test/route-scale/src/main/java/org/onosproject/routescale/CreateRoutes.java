@@ -33,7 +33,8 @@ public class CreateRoutes extends AbstractShellCommand {
     @Override
     protected void execute() {
         ScaleTestManager service = get(ScaleTestManager.class);
-        service.createRoutes(routeCount);
+        long elapsed = service.createRoutes(routeCount);
+        print("Created %d routes in %d ms", routeCount, elapsed);
     }
 
 }
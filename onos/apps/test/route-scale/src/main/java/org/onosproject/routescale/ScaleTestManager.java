@@ -51,6 +51,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 @Component(immediate = true)
 @Service(value = ScaleTestManager.class)
@@ -111,7 +112,14 @@ public class ScaleTestManager {
         }
     }
 
-    public void createRoutes(int routeCount) {
+    /**
+     * Creates routes to random prefixes through random hosts with a single
+     * bulk update.
+     *
+     * @param routeCount number of routes to create
+     * @return time taken by the bulk update in milliseconds
+     */
+    public long createRoutes(int routeCount) {
         List<Host> hosts = ImmutableList.copyOf(hostAdminService.getHosts());
         ImmutableSet.Builder<Route> routes = ImmutableSet.builder();
         for (int i = 0; i < routeCount; i++) {
@@ -119,7 +127,12 @@ public class ScaleTestManager {
             IpAddress nextHop = randomIp(hosts);
             routes.add(new Route(Route.Source.STATIC, prefix, nextHop));
         }
-        routeAdminService.update(routes.build());
+        Set<Route> batch = routes.build();
+        long start = System.currentTimeMillis();
+        routeAdminService.update(batch);
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Created {} routes in {} ms", batch.size(), elapsed);
+        return elapsed;
     }
 
     private IpAddress randomIp() {
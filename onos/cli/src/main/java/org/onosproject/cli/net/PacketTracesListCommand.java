@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.net.packet.PacketTrace;
+
+import java.util.List;
+
+/**
+ * Lists the most recent sampled packet traces.
+ */
+@Command(scope = "onos", name = "packet-traces",
+        description = "Lists the timing of sampled packets through the packet processors")
+public class PacketTracesListCommand extends AbstractShellCommand {
+
+    private static final String FMT = "timestamp=%d, receivedFrom=%s, ethType=%s, handled=%s, totalNanos=%d";
+    private static final String STEP_FMT = "    class=%s, priority=%d, nanos=%d";
+
+    @Override
+    protected void execute() {
+        PacketService service = get(PacketService.class);
+        List<PacketTrace> traces = service.getPacketTraces();
+        if (outputJson()) {
+            print("%s", json(traces));
+        } else {
+            traces.forEach(this::print);
+        }
+    }
+
+    private JsonNode json(List<PacketTrace> traces) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode result = mapper.createArrayNode();
+
+        for (PacketTrace trace : traces) {
+            ObjectNode node = mapper.createObjectNode()
+                    .put("timestamp", trace.timestamp())
+                    .put("receivedFrom", String.valueOf(trace.receivedFrom()))
+                    .put("ethType", ethTypeFormat(trace.ethType()))
+                    .put("handled", trace.handled())
+                    .put("totalNanos", trace.totalNanos());
+            ArrayNode steps = node.putArray("steps");
+            trace.steps().forEach(step -> steps.add(mapper.createObjectNode()
+                    .put("class", step.processor())
+                    .put("priority", step.priority())
+                    .put("nanos", step.nanos())));
+            result.add(node);
+        }
+
+        return result;
+    }
+
+    private void print(PacketTrace trace) {
+        print(FMT, trace.timestamp(), trace.receivedFrom(), ethTypeFormat(trace.ethType()),
+              trace.handled(), trace.totalNanos());
+        trace.steps().forEach(step -> print(STEP_FMT, step.processor(), step.priority(), step.nanos()));
+    }
+
+    private String ethTypeFormat(int ethType) {
+        return ethType < 0 ? "unknown" : String.format("0x%04x", ethType);
+    }
+}
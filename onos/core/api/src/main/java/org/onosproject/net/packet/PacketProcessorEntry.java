@@ -55,4 +55,15 @@ public interface PacketProcessorEntry {
      * @return average time in nanos
      */
     long averageNanos();
+
+    /**
+     * Returns the given percentile of the time, in nanoseconds, spent
+     * processing recent packets.
+     *
+     * @param percentile percentile in the range [0, 100]
+     * @return time in nanos; 0 if not tracked
+     */
+    default long percentileNanos(double percentile) {
+        return 0;
+    }
 }
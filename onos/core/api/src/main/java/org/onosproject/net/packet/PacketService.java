@@ -15,10 +15,12 @@
  */
 package org.onosproject.net.packet;
 
+import com.google.common.collect.ImmutableList;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.TrafficSelector;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -123,4 +125,23 @@ public interface PacketService {
      */
     void emit(OutboundPacket packet);
 
+    /**
+     * Emits the specified batch of outbound packets onto the network.
+     *
+     * @param packets outbound packets
+     */
+    default void emit(Collection<OutboundPacket> packets) {
+        packets.forEach(this::emit);
+    }
+
+
+    /**
+     * Returns the most recent packet traces, oldest first. Packets are only
+     * traced while trace sampling is enabled.
+     *
+     * @return list of packet traces
+     */
+    default List<PacketTrace> getPacketTraces() {
+        return ImmutableList.of();
+    }
 }
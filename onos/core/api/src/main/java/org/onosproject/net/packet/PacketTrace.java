@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import org.onosproject.net.ConnectPoint;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Timing of a sampled inbound packet through the chain of packet processors.
+ */
+public final class PacketTrace {
+
+    private final long timestamp;
+    private final ConnectPoint receivedFrom;
+    private final int ethType;
+    private final boolean handled;
+    private final List<Step> steps;
+
+    /**
+     * Creates a new packet trace.
+     *
+     * @param timestamp    time the packet was received, in milliseconds
+     * @param receivedFrom connect point the packet was received from
+     * @param ethType      ether type of the packet; -1 if it was not parsed
+     * @param handled      whether the packet was handled by a processor
+     * @param steps        processor invocations, in the order they were made
+     */
+    public PacketTrace(long timestamp, ConnectPoint receivedFrom, int ethType,
+                       boolean handled, List<Step> steps) {
+        this.timestamp = timestamp;
+        this.receivedFrom = receivedFrom;
+        this.ethType = ethType;
+        this.handled = handled;
+        this.steps = ImmutableList.copyOf(checkNotNull(steps));
+    }
+
+    /**
+     * Returns the time the packet was received, in milliseconds.
+     *
+     * @return receive time
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the connect point the packet was received from.
+     *
+     * @return connect point
+     */
+    public ConnectPoint receivedFrom() {
+        return receivedFrom;
+    }
+
+    /**
+     * Returns the ether type of the packet.
+     *
+     * @return ether type; -1 if the packet was not parsed
+     */
+    public int ethType() {
+        return ethType;
+    }
+
+    /**
+     * Returns whether the packet was handled by one of the processors.
+     *
+     * @return true if handled
+     */
+    public boolean handled() {
+        return handled;
+    }
+
+    /**
+     * Returns the processor invocations, in the order they were made.
+     *
+     * @return processor invocations
+     */
+    public List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * Returns the total time, in nanoseconds, spent in the processors.
+     *
+     * @return total time in nanos
+     */
+    public long totalNanos() {
+        return steps.stream().mapToLong(Step::nanos).sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("timestamp", timestamp)
+                .add("receivedFrom", receivedFrom)
+                .add("ethType", ethType)
+                .add("handled", handled)
+                .add("steps", steps)
+                .toString();
+    }
+
+    /**
+     * Invocation of a single packet processor.
+     */
+    public static final class Step {
+        private final String processor;
+        private final int priority;
+        private final long nanos;
+
+        /**
+         * Creates a new processor invocation record.
+         *
+         * @param processor processor class name
+         * @param priority  processor priority
+         * @param nanos     time spent in the processor, in nanoseconds
+         */
+        public Step(String processor, int priority, long nanos) {
+            this.processor = processor;
+            this.priority = priority;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns the class name of the processor.
+         *
+         * @return processor class name
+         */
+        public String processor() {
+            return processor;
+        }
+
+        /**
+         * Returns the priority of the processor.
+         *
+         * @return processor priority
+         */
+        public int priority() {
+            return priority;
+        }
+
+        /**
+         * Returns the time, in nanoseconds, spent in the processor.
+         *
+         * @return time in nanos
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("processor", processor)
+                    .add("priority", priority)
+                    .add("nanos", nanos)
+                    .toString();
+        }
+    }
+}
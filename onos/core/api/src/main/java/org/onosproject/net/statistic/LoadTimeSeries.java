@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic;
+
+import com.google.common.base.MoreObjects;
+import org.onosproject.net.flow.FlowEntry;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Fixed-size ring buffer of cumulative byte and packet counters observed on
+ * a connect point, one sample per statistics push. Rates and percentiles
+ * are derived from consecutive samples without revisiting flow entries.
+ */
+public final class LoadTimeSeries {
+
+    /**
+     * Default number of samples retained per connect point.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private final long[] times;
+    private final long[] bytes;
+    private final long[] packets;
+
+    // index of the next slot to write and number of valid samples
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty time series with the default capacity.
+     */
+    public LoadTimeSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty time series retaining up to the given number of samples.
+     *
+     * @param capacity maximum number of samples
+     */
+    public LoadTimeSeries(int capacity) {
+        checkArgument(capacity > 1, "Capacity must be greater than 1");
+        this.times = new long[capacity];
+        this.bytes = new long[capacity];
+        this.packets = new long[capacity];
+    }
+
+    /**
+     * Records a new sample, evicting the oldest one if the series is full.
+     *
+     * @param timeMillis time of the sample in milliseconds
+     * @param byteCount  cumulative byte count
+     * @param packetCount cumulative packet count
+     */
+    public synchronized void record(long timeMillis, long byteCount, long packetCount) {
+        times[next] = timeMillis;
+        bytes[next] = byteCount;
+        packets[next] = packetCount;
+        next = (next + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    /**
+     * Records a sample of the aggregate counters of the flow entries
+     * published for a connect point. An empty set of flow entries discards
+     * all samples, as the connect point has no flows left to measure.
+     *
+     * @param timeMillis  time of the sample in milliseconds
+     * @param flowEntries flow entries observed on the connect point
+     */
+    public void record(long timeMillis, Collection<FlowEntry> flowEntries) {
+        if (flowEntries.isEmpty()) {
+            clear();
+            return;
+        }
+        long byteCount = 0;
+        long packetCount = 0;
+        for (FlowEntry entry : flowEntries) {
+            byteCount += entry.bytes();
+            packetCount += entry.packets();
+        }
+        record(timeMillis, byteCount, packetCount);
+    }
+
+    /**
+     * Discards all samples.
+     */
+    public synchronized void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of samples currently held.
+     *
+     * @return number of samples
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the load between the two most recent samples, computed the same
+     * way as a load derived from the current and previous flow statistics.
+     * Counters go down when flows are removed or reset; such an interval
+     * counts as idle rather than yielding a negative load.
+     *
+     * @return latest load; invalid load if fewer than two samples exist
+     */
+    public synchronized Load latest() {
+        if (size < 2) {
+            return new DefaultLoad();
+        }
+        long current = bytes[index(0)];
+        return new DefaultLoad(current, Math.min(current, bytes[index(1)]));
+    }
+
+    /**
+     * Returns the average byte rate, in bytes per second, over the samples
+     * observed within the given window before the most recent sample.
+     *
+     * @param windowMillis window length in milliseconds
+     * @return byte rate; 0 if fewer than two samples fall in the window
+     */
+    public synchronized long byteRate(long windowMillis) {
+        return rate(bytes, windowMillis);
+    }
+
+    /**
+     * Returns the average packet rate, in packets per second, over the
+     * samples observed within the given window before the most recent sample.
+     *
+     * @param windowMillis window length in milliseconds
+     * @return packet rate; 0 if fewer than two samples fall in the window
+     */
+    public synchronized long packetRate(long windowMillis) {
+        return rate(packets, windowMillis);
+    }
+
+    /**
+     * Returns the given percentile of the per-interval byte rates, in bytes
+     * per second, observed within the given window.
+     *
+     * @param percentile   percentile in the range [0, 100]
+     * @param windowMillis window length in milliseconds
+     * @return byte rate percentile; 0 if fewer than two samples fall in the window
+     */
+    public synchronized long byteRatePercentile(double percentile, long windowMillis) {
+        checkArgument(percentile >= 0 && percentile <= 100,
+                      "Percentile must be between 0 and 100");
+        int n = samplesInWindow(windowMillis);
+        if (n < 2) {
+            return 0;
+        }
+        long[] rates = new long[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            rates[i] = rate(bytes, index(i + 1), index(i));
+        }
+        Arrays.sort(rates);
+        int rank = (int) Math.ceil(percentile / 100 * rates.length) - 1;
+        return rates[Math.max(0, rank)];
+    }
+
+    /**
+     * Returns an independent copy of this time series.
+     *
+     * @return copy of the series
+     */
+    public synchronized LoadTimeSeries copy() {
+        LoadTimeSeries copy = new LoadTimeSeries(times.length);
+        for (int i = size - 1; i >= 0; i--) {
+            int idx = index(i);
+            copy.record(times[idx], bytes[idx], packets[idx]);
+        }
+        return copy;
+    }
+
+    // Returns the slot of the sample which is the given number of samples
+    // older than the most recent one.
+    private int index(int age) {
+        return (next - 1 - age + 2 * times.length) % times.length;
+    }
+
+    // Returns the number of samples, newest first, within the window.
+    private int samplesInWindow(long windowMillis) {
+        if (size == 0) {
+            return 0;
+        }
+        long newest = times[index(0)];
+        int n = 1;
+        while (n < size && newest - times[index(n)] <= windowMillis) {
+            n++;
+        }
+        return n;
+    }
+
+    private long rate(long[] values, long windowMillis) {
+        int n = samplesInWindow(windowMillis);
+        return n < 2 ? 0 : rate(values, index(n - 1), index(0));
+    }
+
+    // Counters may go down when flows are removed; such intervals count as idle.
+    private long rate(long[] values, int from, int to) {
+        long elapsed = times[to] - times[from];
+        long delta = values[to] - values[from];
+        if (elapsed <= 0 || delta <= 0) {
+            return 0;
+        }
+        return delta * MILLIS_PER_SECOND / elapsed;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", size)
+                .add("capacity", times.length)
+                .toString();
+    }
+}
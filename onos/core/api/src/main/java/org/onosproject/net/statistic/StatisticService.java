@@ -82,4 +82,13 @@ public interface StatisticService {
      * @return {@link Load Load}
      */
     Load load(Link link, ApplicationId appId, Optional<GroupId> groupId);
+
+    /**
+     * Obtain the time series of load samples observed on the specified
+     * connect point, allowing windowed rate and percentile queries.
+     *
+     * @param connectPoint the port to query
+     * @return snapshot of the load time series
+     */
+    LoadTimeSeries loadTimeSeries(ConnectPoint connectPoint);
 }
@@ -62,4 +62,22 @@ public interface StatisticStore {
      * @return set of current values
      */
     Set<FlowEntry> getPreviousStatistic(ConnectPoint connectPoint);
+
+    /**
+     * Fetches the load between the two most recent statistics pushes on the
+     * given port.
+     *
+     * @param connectPoint the port to fetch information for
+     * @return latest load; invalid load if fewer than two samples exist
+     */
+    Load getLoad(ConnectPoint connectPoint);
+
+    /**
+     * Fetches the time series of aggregate load samples observed on the
+     * given port, one sample per statistics push.
+     *
+     * @param connectPoint the port to fetch information for
+     * @return snapshot of the load time series; empty if none has been observed
+     */
+    LoadTimeSeries getLoadTimeSeries(ConnectPoint connectPoint);
 }
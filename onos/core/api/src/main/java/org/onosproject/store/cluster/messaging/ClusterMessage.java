@@ -140,7 +140,16 @@ public class ClusterMessage {
      * @return cluster message
      */
     public static ClusterMessage fromBytes(byte[] bytes) {
-        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return fromBuffer(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a new ClusterMessage from the remaining bytes of a buffer.
+     * The buffer is not retained by the returned message.
+     * @param buffer buffer positioned at the start of the message
+     * @return cluster message
+     */
+    public static ClusterMessage fromBuffer(ByteBuffer buffer) {
         byte[] senderBytes = new byte[buffer.getInt()];
         buffer.get(senderBytes);
         byte[] subjectBytes = new byte[buffer.getInt()];
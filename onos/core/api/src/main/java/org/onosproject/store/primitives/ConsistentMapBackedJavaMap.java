@@ -154,7 +154,7 @@ public final class ConsistentMapBackedJavaMap<K, V> implements Map<K, V> {
         // Map like output
         StringBuilder sb = new StringBuilder();
         sb.append('{');
-        Iterator<Entry<K, Versioned<V>>> it = backingMap.entrySet().iterator();
+        Iterator<Entry<K, Versioned<V>>> it = backingMap.iterator();
         while (it.hasNext()) {
             Entry<K, Versioned<V>> entry = it.next();
             sb.append(entry.getKey()).append('=').append(entry.getValue().value());
@@ -168,7 +168,7 @@ public final class ConsistentMapBackedJavaMap<K, V> implements Map<K, V> {
 
     @Override
     public void forEach(BiConsumer<? super K, ? super V> action) {
-        entrySet().forEach(e -> action.accept(e.getKey(), e.getValue()));
+        backingMap.iterator().forEachRemaining(e -> action.accept(e.getKey(), e.getValue().value()));
     }
 
     @Override
@@ -16,6 +16,7 @@
 package org.onosproject.store.primitives;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -32,6 +33,7 @@ import java.util.function.Predicate;
 
 import org.onlab.util.Tools;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.ConsistentMapException;
 import org.onosproject.store.service.ConsistentMapException.ConcurrentModification;
@@ -133,6 +135,21 @@ public class DefaultConsistentMap<K, V> extends Synchronous<AsyncConsistentMap<K
         return complete(asyncMap.remove(key));
     }
 
+    @Override
+    public Map<K, Versioned<V>> getAll(Set<K> keys) {
+        return complete(asyncMap.getAll(keys));
+    }
+
+    @Override
+    public Map<K, Versioned<V>> putAll(Map<K, V> entries) {
+        return complete(asyncMap.putAll(entries));
+    }
+
+    @Override
+    public Map<K, Versioned<V>> removeAll(Set<K> keys) {
+        return complete(asyncMap.removeAll(keys));
+    }
+
     @Override
     public void clear() {
         complete(asyncMap.clear());
@@ -153,6 +170,11 @@ public class DefaultConsistentMap<K, V> extends Synchronous<AsyncConsistentMap<K
         return complete(asyncMap.entrySet());
     }
 
+    @Override
+    public Iterator<Entry<K, Versioned<V>>> iterator() {
+        return new ConsistentMapIterator(complete(asyncMap.iterator()));
+    }
+
     @Override
     public Versioned<V> putIfAbsent(K key, V value) {
         return complete(asyncMap.putIfAbsent(key, value));
@@ -223,6 +245,43 @@ public class DefaultConsistentMap<K, V> extends Synchronous<AsyncConsistentMap<K
         return asJavaMap().toString();
     }
 
+    /**
+     * Blocking iterator over an asynchronous map iterator. The underlying
+     * iterator is closed once exhausted or when an operation on it fails.
+     */
+    private class ConsistentMapIterator implements Iterator<Entry<K, Versioned<V>>> {
+        private final AsyncIterator<Entry<K, Versioned<V>>> iterator;
+
+        ConsistentMapIterator(AsyncIterator<Entry<K, Versioned<V>>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext;
+            try {
+                hasNext = complete(iterator.hasNext());
+            } catch (RuntimeException e) {
+                iterator.close();
+                throw e;
+            }
+            if (!hasNext) {
+                iterator.close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Entry<K, Versioned<V>> next() {
+            try {
+                return complete(iterator.next());
+            } catch (RuntimeException e) {
+                iterator.close();
+                throw e;
+            }
+        }
+    }
+
     private <T> T complete(CompletableFuture<T> future) {
         try {
             return future.get(operationTimeoutMillis, TimeUnit.MILLISECONDS);
@@ -227,6 +227,21 @@ public class DefaultConsistentTreeMap<V>
         return complete(treeMap.remove(key));
     }
 
+    @Override
+    public Map<String, Versioned<V>> getAll(Set<String> keys) {
+        return complete(treeMap.getAll(keys));
+    }
+
+    @Override
+    public Map<String, Versioned<V>> putAll(Map<String, V> entries) {
+        return complete(treeMap.putAll(entries));
+    }
+
+    @Override
+    public Map<String, Versioned<V>> removeAll(Set<String> keys) {
+        return complete(treeMap.removeAll(keys));
+    }
+
     @Override
     public void clear() {
         complete(treeMap.clear());
@@ -17,7 +17,10 @@
 package org.onosproject.store.service;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -26,7 +29,9 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
+import org.onlab.util.Tools;
 import org.onosproject.store.primitives.DefaultConsistentMap;
 import org.onosproject.store.primitives.MapUpdate;
 
@@ -212,6 +217,72 @@ public interface AsyncConsistentMap<K, V> extends DistributedPrimitive, Transact
      */
     CompletableFuture<Versioned<V>> remove(K key);
 
+    /**
+     * Returns the values (and versions) to which the specified keys are mapped.
+     * Keys for which this map contains no mapping are absent from the result.
+     * <p>
+     * This default implementation issues one {@link #get(Object)} per key;
+     * implementations should override it to fetch all keys in bulk.
+     *
+     * @param keys keys whose associated values (and versions) are to be returned
+     * @return a future map of keys to their values (and versions)
+     */
+    default CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        Map<K, Versioned<V>> result = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(keys.stream()
+                .map(key -> get(key).thenAccept(value -> {
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(v -> result);
+    }
+
+    /**
+     * Associates each of the specified values with its key in this map.
+     * <p>
+     * This default implementation issues one {@link #put(Object, Object)} per
+     * entry; implementations should override it to apply all entries in bulk.
+     *
+     * @param entries mappings to be stored in this map
+     * @return a future map of keys to the values (and versions) they were
+     * previously associated with; keys with no previous mapping are absent
+     */
+    default CompletableFuture<Map<K, Versioned<V>>> putAll(Map<K, V> entries) {
+        Map<K, Versioned<V>> result = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(entries.entrySet().stream()
+                .map(entry -> put(entry.getKey(), entry.getValue()).thenAccept(value -> {
+                    if (value != null) {
+                        result.put(entry.getKey(), value);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(v -> result);
+    }
+
+    /**
+     * Removes the mappings for the specified keys from this map if present.
+     * <p>
+     * This default implementation issues one {@link #remove(Object)} per key;
+     * implementations should override it to remove all keys in bulk.
+     *
+     * @param keys keys whose mappings are to be removed from the map
+     * @return a future map of removed keys to the values (and versions) they
+     * were associated with
+     */
+    default CompletableFuture<Map<K, Versioned<V>>> removeAll(Set<K> keys) {
+        Map<K, Versioned<V>> result = Maps.newConcurrentMap();
+        return CompletableFuture.allOf(keys.stream()
+                .map(key -> remove(key).thenAccept(value -> {
+                    if (value != null) {
+                        result.put(key, value);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(v -> result);
+    }
+
     /**
      * Removes all of the mappings from this map (optional operation).
      * The map will be empty after this call returns.
@@ -252,6 +323,40 @@ public interface AsyncConsistentMap<K, V> extends DistributedPrimitive, Transact
      */
     CompletableFuture<Set<Entry<K, Versioned<V>>>> entrySet();
 
+    /**
+     * Returns an iterator over the entries contained in this map.
+     * <p>
+     * Unlike {@link #entrySet()}, the iterator may pull entries from the map
+     * in bounded batches as it advances, allowing large maps to be scanned
+     * without materializing their entire contents. The iterator reflects the
+     * state of the map at the time it was opened; later updates are not seen.
+     * An iterator which is not read to the end should be closed; otherwise it
+     * is released by the servers after several minutes, after which reading
+     * from it fails.
+     *
+     * @return future to be completed with an iterator over the map entries
+     */
+    default CompletableFuture<AsyncIterator<Entry<K, Versioned<V>>>> iterator() {
+        return entrySet().thenApply(entries -> {
+            Iterator<Entry<K, Versioned<V>>> iterator = entries.iterator();
+            return new AsyncIterator<Entry<K, Versioned<V>>>() {
+                @Override
+                public CompletableFuture<Boolean> hasNext() {
+                    return CompletableFuture.completedFuture(iterator.hasNext());
+                }
+
+                @Override
+                public CompletableFuture<Entry<K, Versioned<V>>> next() {
+                    try {
+                        return CompletableFuture.completedFuture(iterator.next());
+                    } catch (NoSuchElementException e) {
+                        return Tools.exceptionalFuture(e);
+                    }
+                }
+            };
+        });
+    }
+
     /**
      * If the specified key is not already associated with a value associates
      * it with the given value and returns null, else behaves as a get
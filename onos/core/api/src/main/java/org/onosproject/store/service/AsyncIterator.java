@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous iterator over the elements of a distributed primitive.
+ * <p>
+ * Elements may be fetched from the backing primitive in batches as the
+ * iterator advances, so implementations need not hold the entire contents
+ * of the primitive in memory.
+ *
+ * @param <T> element type
+ */
+public interface AsyncIterator<T> {
+
+    /**
+     * Returns whether the iterator has more elements.
+     *
+     * @return future to be completed with {@code true} if more elements remain
+     */
+    CompletableFuture<Boolean> hasNext();
+
+    /**
+     * Returns the next element of the iterator.
+     * <p>
+     * The returned future is completed exceptionally with a
+     * {@link java.util.NoSuchElementException} if the iterator has no more
+     * elements.
+     *
+     * @return future to be completed with the next element
+     */
+    CompletableFuture<T> next();
+
+    /**
+     * Releases the resources held by the iterator. Iterators which are read
+     * to the end are closed automatically; this need only be called when
+     * abandoning an iterator early.
+     *
+     * @return future to be completed once the iterator is closed
+     */
+    default CompletableFuture<Void> close() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -17,6 +17,7 @@
 package org.onosproject.store.service;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -180,6 +181,33 @@ public interface ConsistentMap<K, V> extends DistributedPrimitive {
      */
     Versioned<V> remove(K key);
 
+    /**
+     * Returns the values (and versions) to which the specified keys are mapped.
+     * Keys for which this map contains no mapping are absent from the result.
+     *
+     * @param keys keys whose associated values (and versions) are to be returned
+     * @return map of keys to their values (and versions)
+     */
+    Map<K, Versioned<V>> getAll(Set<K> keys);
+
+    /**
+     * Associates each of the specified values with its key in this map.
+     *
+     * @param entries mappings to be stored in this map
+     * @return map of keys to the values (and versions) they were previously
+     * associated with; keys with no previous mapping are absent
+     */
+    Map<K, Versioned<V>> putAll(Map<K, V> entries);
+
+    /**
+     * Removes the mappings for the specified keys from this map if present.
+     *
+     * @param keys keys whose mappings are to be removed from the map
+     * @return map of removed keys to the values (and versions) they were
+     * associated with
+     */
+    Map<K, Versioned<V>> removeAll(Set<K> keys);
+
     /**
      * Removes all of the mappings from this map (optional operation).
      * The map will be empty after this call returns.
@@ -219,6 +247,22 @@ public interface ConsistentMap<K, V> extends DistributedPrimitive {
      */
     Set<Entry<K, Versioned<V>>> entrySet();
 
+    /**
+     * Returns an iterator over the entries contained in this map.
+     * <p>
+     * Unlike {@link #entrySet()}, the iterator may pull entries from the map
+     * in bounded batches as it advances, allowing large maps to be scanned
+     * without materializing their entire contents. The iterator reflects the
+     * state of the map at the time it was opened; later updates are not seen.
+     * An iterator which is not read to the end is released by the servers
+     * after several minutes, after which reading from it fails.
+     *
+     * @return iterator over the map entries
+     */
+    default Iterator<Entry<K, Versioned<V>>> iterator() {
+        return entrySet().iterator();
+    }
+
     /**
      * If the specified key is not already associated with a value
      * associates it with the given value and returns null, else returns the current value.
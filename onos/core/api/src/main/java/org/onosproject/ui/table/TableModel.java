@@ -222,6 +222,21 @@ public class TableModel {
         Collections.sort(rows, new RowComparator(id1, dir1, id2, dir2));
     }
 
+    /**
+     * Removes all rows in which none of the formatted cell values contain
+     * the given text, ignoring case. A null or empty filter leaves the
+     * table untouched.
+     *
+     * @param text filter text (may be null)
+     */
+    public void filter(String text) {
+        if (nullOrEmpty(text)) {
+            return;
+        }
+        String needle = text.trim().toLowerCase();
+        rows.removeIf(row -> !row.matches(needle));
+    }
+
     private boolean nullOrEmpty(String s) {
         return s == null || EMPTY.equals(s.trim());
     }
@@ -369,6 +384,23 @@ public class TableModel {
             return getFormatter(columnId).format(get(columnId));
         }
 
+        /**
+         * Returns true if any formatted cell value of this row contains
+         * the given lower-case text.
+         *
+         * @param needle lower-case text to look for
+         * @return true if the row matches
+         */
+        boolean matches(String needle) {
+            for (String c : columnIds) {
+                String value = getAsString(c);
+                if (value != null && value.toLowerCase().contains(needle)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         /**
          * Returns the row as an array of formatted strings.
          *
@@ -16,10 +16,17 @@
 
 package org.onosproject.ui.table;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.onosproject.ui.JsonUtils;
 import org.onosproject.ui.RequestHandler;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.onosproject.ui.table.TableModel.sortDir;
 
 /**
@@ -32,19 +39,48 @@ public abstract class TableRequestHandler extends RequestHandler {
     private static final String SECOND_COL = "secondCol";
     private static final String SECOND_DIR = "secondDir";
 
+    private static final String FILTER = "filter";
+    private static final String PAGE_START = "pageStart";
+    private static final String PAGE_SIZE = "pageSize";
+    private static final String INCREMENTAL = "incremental";
+    private static final String SINCE = "since";
+
     private static final String ASC = "asc";
 
     private static final String ANNOTS = "annots";
     private static final String NO_ROWS_MSG_KEY = "no_rows_msg";
+    private static final String TOTAL_ROWS = "totalRows";
+    private static final String FILTERED_ROWS = "filteredRows";
+    private static final String REMOVED = "removed";
+    private static final String ORDER = "order";
+    private static final String SEQ = "seq";
 
     private final String respType;
     private final String nodeName;
 
+    // sequence number of the last incremental response and the rows of its
+    // window, keyed by row identifier
+    private long lastSeq;
+    private final Map<String, JsonNode> lastRows = new HashMap<>();
+
     /**
      * Constructs a table request handler for a specific table view. When
      * table requests come in, the handler will generate the appropriate
-     * table rows, sort them according the the request sort parameters, and
-     * send back the response to the client.
+     * table rows, filter and sort them according the the request parameters,
+     * and send back the requested window of rows to the client.
+     * <p>
+     * Besides the sort parameters, requests may carry a text {@code filter},
+     * a {@code pageStart}/{@code pageSize} row window and an
+     * {@code incremental} flag. Incremental responses carry a {@code seq}
+     * number; when the client sends it back as {@code since}, only rows that
+     * changed since that response are sent, along with the identifiers of
+     * {@code removed} rows and the {@code order} of the current window.
+     * Any other request, e.g. from a client which just (re)opened the view,
+     * gets all rows of the window.
+     * <p>
+     * Note that all rows are still populated into the table model, as they
+     * are needed to sort the table and to count the filtered rows; only the
+     * rows of the requested window are formatted and sent.
      *
      * @param reqType  type of the request event
      * @param respType type of the response event
@@ -60,6 +96,10 @@ public abstract class TableRequestHandler extends RequestHandler {
     public void process(ObjectNode payload) {
         TableModel tm = createTableModel();
         populateTable(tm, payload);
+        int totalRows = tm.rowCount();
+
+        String filter = JsonUtils.string(payload, FILTER, null);
+        tm.filter(filter);
 
         String firstCol = JsonUtils.string(payload, FIRST_COL, defaultColumnId());
         String firstDir = JsonUtils.string(payload, FIRST_DIR, ASC);
@@ -69,12 +109,74 @@ public abstract class TableRequestHandler extends RequestHandler {
 
         addTableConfigAnnotations(tm, payload);
 
+        int pageStart = (int) JsonUtils.number(payload, PAGE_START);
+        int pageSize = (int) JsonUtils.number(payload, PAGE_SIZE);
+        boolean windowed = pageSize > 0 || filter != null;
+        if (windowed) {
+            tm.addAnnotation(TOTAL_ROWS, totalRows);
+            tm.addAnnotation(FILTERED_ROWS, tm.rowCount());
+            tm.addAnnotation(PAGE_START, pageStart);
+            tm.addAnnotation(PAGE_SIZE, pageSize);
+        }
+
+        ArrayNode rows = windowed ?
+                TableUtils.generateRowArrayNode(tm, pageStart, pageSize) :
+                TableUtils.generateRowArrayNode(tm);
+
         ObjectNode rootNode = MAPPER.createObjectNode();
-        rootNode.set(nodeName, TableUtils.generateRowArrayNode(tm));
+        if (JsonUtils.bool(payload, INCREMENTAL) && supportsIncremental(tm)) {
+            boolean diff = lastSeq > 0 && JsonUtils.number(payload, SINCE) == lastSeq;
+            addRows(rootNode, rows, tm, diff);
+        } else {
+            lastRows.clear();
+            lastSeq = 0;
+            rootNode.set(nodeName, rows);
+        }
         rootNode.set(ANNOTS, TableUtils.generateAnnotObjectNode(tm));
         sendMessage(respType, rootNode);
     }
 
+    private boolean supportsIncremental(TableModel tm) {
+        return Arrays.asList(tm.getColumnIds()).contains(rowIdColumnId());
+    }
+
+    // Adds the rows of the current window to an incremental response. When
+    // diffing, only the rows which changed since the previous response are
+    // sent, along with the ids of the rows which went away and the row order
+    // of the current window; otherwise all rows are sent.
+    private void addRows(ObjectNode rootNode, ArrayNode rows, TableModel tm, boolean diff) {
+        String idCol = rowIdColumnId();
+        Map<String, JsonNode> current = new LinkedHashMap<>();
+        ArrayNode changed = MAPPER.createArrayNode();
+        ArrayNode order = MAPPER.createArrayNode();
+        for (JsonNode row : rows) {
+            String id = row.path(idCol).asText();
+            current.put(id, row);
+            order.add(id);
+            if (diff && !row.equals(lastRows.get(id))) {
+                changed.add(row);
+            }
+        }
+
+        if (diff) {
+            ArrayNode removed = MAPPER.createArrayNode();
+            lastRows.keySet().stream()
+                    .filter(id -> !current.containsKey(id))
+                    .forEach(removed::add);
+
+            tm.addAnnotation(INCREMENTAL, true);
+            rootNode.set(nodeName, changed);
+            rootNode.set(REMOVED, removed);
+            rootNode.set(ORDER, order);
+        } else {
+            rootNode.set(nodeName, rows);
+        }
+
+        lastRows.clear();
+        lastRows.putAll(current);
+        rootNode.put(SEQ, ++lastSeq);
+    }
+
     /**
      * Creates the table model (devoid of data) using {@link #getColumnIds()}
      * to initialize it, ready to be populated.
@@ -110,6 +212,18 @@ public abstract class TableRequestHandler extends RequestHandler {
         return "id";
     }
 
+    /**
+     * Returns the column ID which uniquely identifies a row; used to compute
+     * incremental row updates.
+     * <p>
+     * This default implementation returns "id".
+     *
+     * @return row identifier column
+     */
+    protected String rowIdColumnId() {
+        return "id";
+    }
+
     /**
      * Subclasses should return the array of column IDs with which
      * to initialize their table model.
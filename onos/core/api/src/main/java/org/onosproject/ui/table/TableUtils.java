@@ -45,6 +45,26 @@ public final class TableUtils {
         return array;
     }
 
+    /**
+     * Generates a JSON array node from a window of rows of the given table
+     * model. Only rows inside the window are formatted.
+     *
+     * @param tm    the table model
+     * @param start index of the first row of the window
+     * @param size  maximum number of rows in the window; 0 for all rows
+     * @return the array node representation of the window of rows
+     */
+    public static ArrayNode generateRowArrayNode(TableModel tm, int start, int size) {
+        ArrayNode array = MAPPER.createArrayNode();
+        TableModel.Row[] rows = tm.getRows();
+        int from = Math.max(0, Math.min(start, rows.length));
+        int to = size > 0 ? Math.min(rows.length, from + size) : rows.length;
+        for (int i = from; i < to; i++) {
+            array.add(toJsonNode(rows[i], tm));
+        }
+        return array;
+    }
+
     /**
      * Generates a JSON object node from the annotations of the given table model.
      *
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.statistic;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests for LoadTimeSeries class.
+ */
+public class LoadTimeSeriesTest {
+
+    @Before
+    public void reset() {
+        DefaultLoad.setPollInterval(10);
+    }
+
+    /**
+     * Tests an empty series.
+     */
+    @Test
+    public void testEmpty() {
+        LoadTimeSeries series = new LoadTimeSeries();
+        assertThat(series.size(), is(0));
+        assertThat(series.latest().isValid(), is(false));
+        assertThat(series.byteRate(10000), is(0L));
+        assertThat(series.byteRatePercentile(50, 10000), is(0L));
+    }
+
+    /**
+     * Tests that the latest load matches the current/previous load.
+     */
+    @Test
+    public void testLatest() {
+        LoadTimeSeries series = new LoadTimeSeries();
+        series.record(1000, 10, 1);
+        assertThat(series.latest().isValid(), is(false));
+        series.record(11000, 20, 2);
+        Load load = series.latest();
+        assertThat(load.isValid(), is(true));
+        assertThat(load.latest(), is(20L));
+        assertThat(load.rate(), is(1L));
+    }
+
+    /**
+     * Tests windowed rates and ring buffer wrap around.
+     */
+    @Test
+    public void testWindowedRates() {
+        LoadTimeSeries series = new LoadTimeSeries(4);
+        series.record(0, 0, 0);
+        series.record(1000, 1000, 10);
+        series.record(2000, 5000, 20);
+        series.record(3000, 6000, 30);
+        series.record(4000, 8000, 40);
+        assertThat(series.size(), is(4));
+
+        // whole series: (8000 - 1000) bytes over 3 seconds
+        assertThat(series.byteRate(10000), is(2333L));
+        assertThat(series.packetRate(10000), is(10L));
+        // last interval only
+        assertThat(series.byteRate(1000), is(2000L));
+
+        // per-interval rates: 4000, 1000, 2000
+        assertThat(series.byteRatePercentile(0, 10000), is(1000L));
+        assertThat(series.byteRatePercentile(50, 10000), is(2000L));
+        assertThat(series.byteRatePercentile(100, 10000), is(4000L));
+    }
+
+    /**
+     * Tests that decreasing counters count as idle intervals.
+     */
+    @Test
+    public void testCounterDrop() {
+        LoadTimeSeries series = new LoadTimeSeries();
+        series.record(0, 5000, 50);
+        series.record(1000, 1000, 10);
+        assertThat(series.byteRate(1000), is(0L));
+        assertThat(series.latest().rate(), is(0L));
+        assertThat(series.latest().latest(), is(1000L));
+    }
+
+    /**
+     * Tests copying and clearing a series.
+     */
+    @Test
+    public void testCopyAndClear() {
+        LoadTimeSeries series = new LoadTimeSeries(3);
+        series.record(0, 0, 0);
+        series.record(1000, 1000, 10);
+        series.record(2000, 3000, 20);
+        series.record(3000, 6000, 30);
+
+        LoadTimeSeries copy = series.copy();
+        series.clear();
+        assertThat(series.size(), is(0));
+        assertThat(copy.size(), is(3));
+        assertThat(copy.byteRate(10000), is(2500L));
+        assertThat(copy.latest().latest(), is(6000L));
+    }
+}
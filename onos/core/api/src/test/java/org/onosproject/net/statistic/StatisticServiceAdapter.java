@@ -58,4 +58,9 @@ public class StatisticServiceAdapter implements StatisticService {
     public Load load(Link link, ApplicationId appId, Optional<GroupId> groupId) {
         return null;
     }
+
+    @Override
+    public LoadTimeSeries loadTimeSeries(ConnectPoint connectPoint) {
+        return null;
+    }
 }
@@ -18,17 +18,22 @@ package org.onosproject.store.primitives;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
+import org.onlab.util.Tools;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.AsyncConsistentMapAdapter;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive;
@@ -43,6 +48,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for DefaultConsistentMap.
@@ -341,4 +347,54 @@ public class DefaultConsistentMapTest {
         assertThat(newMap.statusChangeListeners(), not(hasItem(consumer)));
     }
 
+    /**
+     * Tests that iterators are closed once exhausted or after a failure.
+     */
+    @Test
+    public void testIteratorClose() {
+        Map<String, String> baseMap = new HashMap<>();
+        baseMap.put(KEY1, VALUE1);
+        baseMap.put(KEY2, VALUE2);
+        AtomicInteger closed = new AtomicInteger();
+        AtomicBoolean fail = new AtomicBoolean();
+        AsyncConsistentMapMock<String, String> asyncMap = new AsyncConsistentMapMock<String, String>(baseMap) {
+            @Override
+            public CompletableFuture<AsyncIterator<Map.Entry<String, Versioned<String>>>> iterator() {
+                return super.iterator().thenApply(iterator -> new AsyncIterator<Map.Entry<String, Versioned<String>>>() {
+                    @Override
+                    public CompletableFuture<Boolean> hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public CompletableFuture<Map.Entry<String, Versioned<String>>> next() {
+                        return fail.get() ? Tools.exceptionalFuture(new IllegalStateException()) : iterator.next();
+                    }
+
+                    @Override
+                    public CompletableFuture<Void> close() {
+                        closed.incrementAndGet();
+                        return iterator.close();
+                    }
+                });
+            }
+        };
+        ConsistentMap<String, String> newMap = new DefaultConsistentMap<>(asyncMap, 11);
+
+        Iterator<Map.Entry<String, Versioned<String>>> iterator = newMap.iterator();
+        iterator.next();
+        assertThat(closed.get(), is(0));
+        iterator.next();
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(closed.get(), is(1));
+
+        fail.set(true);
+        try {
+            newMap.iterator().next();
+            fail("iterator failure not propagated");
+        } catch (IllegalStateException e) {
+            assertThat(closed.get(), is(2));
+        }
+    }
+
 }
@@ -104,6 +104,21 @@ public class ConsistentMapAdapter<K, V> implements ConsistentMap<K, V> {
         return null;
     }
 
+    @Override
+    public Map<K, Versioned<V>> getAll(Set<K> keys) {
+        return null;
+    }
+
+    @Override
+    public Map<K, Versioned<V>> putAll(Map<K, V> entries) {
+        return null;
+    }
+
+    @Override
+    public Map<K, Versioned<V>> removeAll(Set<K> keys) {
+        return null;
+    }
+
     @Override
     public void clear() {
 
@@ -512,5 +512,25 @@ public class TableModelTest {
         verifyCollectionContains(annots, K_ENUM, StarWars.LUKE_SKYWALKER);
     }
 
+    @Test
+    public void filterRows() {
+        tm = new TableModel(FOO, BAR);
+        tm.setFormatter(BAR, new ParenFormatter());
+        tm.addRow().cell(FOO, "Alpha").cell(BAR, 1);
+        tm.addRow().cell(FOO, "beta").cell(BAR, 2);
+        tm.addRow().cell(FOO, "gamma").cell(BAR, 12);
+
+        tm.filter(null);
+        assertEquals("filter changed rows", 3, tm.rowCount());
+
+        tm.filter("(1");
+        assertEquals("wrong filtered count", 2, tm.rowCount());
+
+        tm.filter("ALPHA");
+        rows = tm.getRows();
+        assertEquals("wrong filtered count", 1, rows.length);
+        assertEquals("wrong row", "Alpha", rows[0].get(FOO));
+    }
+
     // TODO: add support for compound object value
 }
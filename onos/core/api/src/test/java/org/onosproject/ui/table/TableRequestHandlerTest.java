@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.ui.table;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link TableRequestHandler}.
+ */
+public class TableRequestHandlerTest {
+
+    private static final String ID = "id";
+    private static final String VALUE = "value";
+
+    private static final String ROWS = "rows";
+    private static final String REMOVED = "removed";
+    private static final String ORDER = "order";
+    private static final String SEQ = "seq";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private TestHandler handler;
+
+    @Before
+    public void setUp() {
+        handler = new TestHandler();
+    }
+
+    private ObjectNode request(boolean incremental, long since) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("incremental", incremental);
+        payload.put("since", since);
+        return payload;
+    }
+
+    private ObjectNode process(ObjectNode payload) {
+        handler.process(payload);
+        return handler.response;
+    }
+
+    private static String ids(JsonNode array) {
+        StringBuilder sb = new StringBuilder();
+        array.forEach(node -> sb.append(node.isTextual() ? node.asText() : node.path(ID).asText()));
+        return sb.toString();
+    }
+
+    @Test
+    public void fullRowsWithoutIncremental() {
+        handler.rows.put("a", "1");
+        handler.rows.put("b", "2");
+
+        ObjectNode resp = process(request(false, 0));
+        assertEquals("wrong rows", "ab", ids(resp.get(ROWS)));
+        assertFalse("unexpected order", resp.has(ORDER));
+        assertFalse("unexpected seq", resp.has(SEQ));
+    }
+
+    @Test
+    public void rowDiff() {
+        handler.rows.put("a", "1");
+        handler.rows.put("b", "2");
+        handler.rows.put("c", "3");
+
+        ObjectNode resp = process(request(true, 0));
+        assertEquals("wrong rows", "abc", ids(resp.get(ROWS)));
+        assertFalse("unexpected order", resp.has(ORDER));
+        long seq = resp.get(SEQ).asLong();
+
+        handler.rows.put("b", "20");
+        handler.rows.remove("c");
+        handler.rows.put("d", "4");
+        resp = process(request(true, seq));
+        assertEquals("wrong changed rows", "bd", ids(resp.get(ROWS)));
+        assertEquals("wrong removed rows", "c", ids(resp.get(REMOVED)));
+        assertEquals("wrong order", "abd", ids(resp.get(ORDER)));
+        assertTrue("wrong seq", resp.get(SEQ).asLong() > seq);
+        seq = resp.get(SEQ).asLong();
+
+        resp = process(request(true, seq));
+        assertEquals("unexpected changed rows", 0, resp.get(ROWS).size());
+        assertEquals("unexpected removed rows", 0, resp.get(REMOVED).size());
+        assertEquals("wrong order", "abd", ids(resp.get(ORDER)));
+    }
+
+    @Test
+    public void resubscribeGetsAllRows() {
+        handler.rows.put("a", "1");
+        handler.rows.put("b", "2");
+
+        long seq = process(request(true, 0)).get(SEQ).asLong();
+        process(request(true, seq));
+
+        // a client which reopens the view holds no rows and no sequence
+        ObjectNode resp = process(request(true, 0));
+        assertEquals("wrong rows", "ab", ids(resp.get(ROWS)));
+        assertFalse("unexpected order", resp.has(ORDER));
+
+        // neither does a client which holds an older response
+        resp = process(request(true, seq));
+        assertEquals("wrong rows", "ab", ids(resp.get(ROWS)));
+        assertFalse("unexpected order", resp.has(ORDER));
+    }
+
+    @Test
+    public void nonIncrementalResetsDiff() {
+        handler.rows.put("a", "1");
+
+        long seq = process(request(true, 0)).get(SEQ).asLong();
+        process(request(false, 0));
+
+        ObjectNode resp = process(request(true, seq));
+        assertEquals("wrong rows", "a", ids(resp.get(ROWS)));
+        assertFalse("unexpected order", resp.has(ORDER));
+    }
+
+    private static class TestHandler extends TableRequestHandler {
+
+        private final Map<String, String> rows = new LinkedHashMap<>();
+        private ObjectNode response;
+
+        TestHandler() {
+            super("testDataRequest", "testDataResponse", ROWS);
+        }
+
+        @Override
+        protected String[] getColumnIds() {
+            return new String[]{ID, VALUE};
+        }
+
+        @Override
+        protected String noRowsMessage(ObjectNode payload) {
+            return "No rows";
+        }
+
+        @Override
+        protected void populateTable(TableModel tm, ObjectNode payload) {
+            rows.forEach((id, value) -> tm.addRow().cell(ID, id).cell(VALUE, value));
+        }
+
+        @Override
+        protected void sendMessage(String eventType, ObjectNode payload) {
+            response = payload;
+        }
+    }
+}
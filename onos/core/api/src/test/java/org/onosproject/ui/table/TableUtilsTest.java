@@ -41,4 +41,25 @@ public class TableUtilsTest {
         Assert.assertEquals("wrong results", ARRAY_AS_STRING, array.toString());
     }
 
+    @Test
+    public void window() {
+        TableModel tm = new TableModel(FOO, BAR);
+        tm.addRow().cell(FOO, 1).cell(BAR, 2);
+        tm.addRow().cell(FOO, 3).cell(BAR, 4);
+        tm.addRow().cell(FOO, 5).cell(BAR, 6);
+
+        ArrayNode array = TableUtils.generateRowArrayNode(tm, 1, 1);
+        Assert.assertEquals("wrong results", "[{\"foo\":\"3\",\"bar\":\"4\"}]",
+                            array.toString());
+
+        array = TableUtils.generateRowArrayNode(tm, 2, 10);
+        Assert.assertEquals("wrong size", 1, array.size());
+
+        array = TableUtils.generateRowArrayNode(tm, 5, 10);
+        Assert.assertEquals("wrong size", 0, array.size());
+
+        array = TableUtils.generateRowArrayNode(tm, 0, 0);
+        Assert.assertEquals("wrong size", 3, array.size());
+    }
+
 }
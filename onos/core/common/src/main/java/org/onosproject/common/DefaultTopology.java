@@ -45,6 +45,7 @@ import org.onosproject.net.Link;
 import org.onosproject.net.Link.Type;
 import org.onosproject.net.Path;
 import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.region.RegionId;
 import org.onosproject.net.topology.ClusterId;
 import org.onosproject.net.topology.DefaultTopologyCluster;
 import org.onosproject.net.topology.DefaultTopologyVertex;
@@ -110,6 +111,11 @@ public class DefaultTopology extends AbstractModel implements Topology {
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
+    private final Supplier<Map<DeviceId, RegionId>> deviceRegions;
+
+    // Regional search for the current default weigher and region of each
+    // device; rebuilt if either changes
+    private volatile RegionalPathSearch regionalSearch;
 
     /**
      * Sets the default link-weight to be used when computing paths. If null is
@@ -145,8 +151,30 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, ImmutableMap::of);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * which computes shortest paths region by region. Paths between devices
+     * which are both assigned to a region are found by searching the
+     * regions separately and joining them through the region border
+     * devices; other paths are searched for over the whole graph.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param deviceRegions     supplier of the region of each device; empty
+     *                          to search over the whole graph only. A new
+     *                          map is to be supplied whenever the regions
+     *                          change, as paths are then searched for again
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           Supplier<Map<DeviceId, RegionId>> deviceRegions) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
+        this.deviceRegions = deviceRegions;
         this.time = description.timestamp();
         this.creationTime = description.creationTime();
 
@@ -384,6 +412,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
+        if (weigher == linkWeight()) {
+            Set<Path> paths = regionalPaths(src, dst, weigher, maxPaths);
+            if (!paths.isEmpty()) {
+                return paths;
+            }
+        }
+
         GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
                 graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
         ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
@@ -764,6 +799,22 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return defaultGraphPathSearch != null ? defaultGraphPathSearch : DIJKSTRA;
     }
 
+    // Searches for paths region by region; empty if the devices are not
+    // both in a region or no path was found that way.
+    private Set<Path> regionalPaths(DeviceId src, DeviceId dst, LinkWeigher weigher,
+                                    int maxPaths) {
+        Map<DeviceId, RegionId> regions = deviceRegions.get();
+        if (regions.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        RegionalPathSearch search = regionalSearch;
+        if (search == null || search.weigher() != weigher || search.regions() != regions) {
+            search = new RegionalPathSearch(graph, regions, graphPathSearch(), weigher);
+            regionalSearch = search;
+        }
+        return search.covers(src, dst) ? search.paths(src, dst, maxPaths) : ImmutableSet.of();
+    }
+
     private LinkWeigher linkWeight() {
         return defaultLinkWeigher != null ? defaultLinkWeigher : hopCountWeigher;
     }
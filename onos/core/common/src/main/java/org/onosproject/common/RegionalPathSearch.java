@@ -0,0 +1,422 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import org.onlab.graph.AdjacencyListsGraph;
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.Edge;
+import org.onlab.graph.EdgeWeigher;
+import org.onlab.graph.Graph;
+import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.Weight;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.region.RegionId;
+import org.onosproject.net.topology.DefaultTopologyEdge;
+import org.onosproject.net.topology.DefaultTopologyVertex;
+import org.onosproject.net.topology.LinkWeigher;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
+
+/**
+ * Path search over a topology partitioned into regions. Each region keeps
+ * its own graph, and the regions are tied together by an abstract graph
+ * whose vertexes are the region border devices; its edges are the links
+ * between regions and, within each region, the shortest paths between its
+ * border devices. A path between two regions is found by searching the
+ * abstract graph, extended with the shortest paths from the source to the
+ * borders of its region and from the borders of the destination region to
+ * the destination, and then expanding the abstract edges into links.
+ * <p>
+ * Paths between devices of the same region are searched for within that
+ * region only, so a shorter path detouring through another region is not
+ * found. Every abstract edge stands for all the equal-cost link sequences
+ * it joins, so that all equal-cost paths between the two devices are
+ * returned.
+ * </p>
+ */
+final class RegionalPathSearch {
+
+    private static final DijkstraGraphSearch<TopologyVertex, BorderEdge> DIJKSTRA =
+            new DijkstraGraphSearch<>();
+
+    private final Map<DeviceId, RegionId> regions;
+    private final Map<RegionId, TopologyGraph> regionGraphs;
+    private final Map<RegionId, TopologyGraph> reversedRegionGraphs;
+    private final SetMultimap<RegionId, TopologyVertex> borders;
+    private final Set<BorderEdge> interRegionEdges;
+    private final GraphPathSearch<TopologyVertex, TopologyEdge> search;
+    private final LinkWeigher weigher;
+    private final BorderEdgeWeigher borderWeigher;
+
+    // Graph of the region border devices, built on the first search
+    // between two regions and shared by all later ones
+    private final Supplier<Graph<TopologyVertex, BorderEdge>> borderGraph;
+
+    /**
+     * Creates a regional path search over the given topology graph.
+     *
+     * @param graph   topology graph
+     * @param regions region of each device, which must not change
+     *                afterwards; devices without region are not reachable
+     *                through this search
+     * @param search  graph path search used within regions
+     * @param weigher link weigher
+     */
+    RegionalPathSearch(TopologyGraph graph, Map<DeviceId, RegionId> regions,
+                       GraphPathSearch<TopologyVertex, TopologyEdge> search,
+                       LinkWeigher weigher) {
+        this.regions = regions;
+        this.search = search;
+        this.weigher = weigher;
+        this.borderWeigher = new BorderEdgeWeigher(weigher);
+
+        SetMultimap<RegionId, TopologyVertex> vertexes = HashMultimap.create();
+        graph.getVertexes().forEach(v -> {
+            RegionId region = regions.get(v.deviceId());
+            if (region != null) {
+                vertexes.put(region, v);
+            }
+        });
+
+        SetMultimap<RegionId, TopologyEdge> edges = HashMultimap.create();
+        this.borders = HashMultimap.create();
+        ImmutableSet.Builder<BorderEdge> interRegion = ImmutableSet.builder();
+        graph.getEdges().forEach(e -> {
+            RegionId srcRegion = regions.get(e.src().deviceId());
+            RegionId dstRegion = regions.get(e.dst().deviceId());
+            if (srcRegion == null || dstRegion == null) {
+                return;
+            }
+            if (srcRegion.equals(dstRegion)) {
+                edges.put(srcRegion, e);
+            } else {
+                borders.put(srcRegion, e.src());
+                borders.put(dstRegion, e.dst());
+                Weight weight = weigher.weight(e);
+                if (weight.isViable()) {
+                    interRegion.add(new BorderEdge(e.src(), e.dst(),
+                                                   ImmutableList.of(ImmutableList.of(e.link())),
+                                                   weight));
+                }
+            }
+        });
+        this.interRegionEdges = interRegion.build();
+
+        ImmutableMap.Builder<RegionId, TopologyGraph> graphs = ImmutableMap.builder();
+        ImmutableMap.Builder<RegionId, TopologyGraph> reversedGraphs = ImmutableMap.builder();
+        vertexes.keySet().forEach(r -> {
+            graphs.put(r, new DefaultTopologyGraph(vertexes.get(r), edges.get(r)));
+            reversedGraphs.put(r, new DefaultTopologyGraph(vertexes.get(r), reverse(edges.get(r))));
+        });
+        this.regionGraphs = graphs.build();
+        this.reversedRegionGraphs = reversedGraphs.build();
+        this.borderGraph = Suppliers.memoize(this::buildBorderGraph);
+    }
+
+    /**
+     * Returns the link weigher this search was created with.
+     *
+     * @return link weigher
+     */
+    LinkWeigher weigher() {
+        return weigher;
+    }
+
+    /**
+     * Returns the region of each device this search was created with.
+     *
+     * @return region of each device
+     */
+    Map<DeviceId, RegionId> regions() {
+        return regions;
+    }
+
+    /**
+     * Returns whether paths between the given devices can be searched for
+     * with this search.
+     *
+     * @param src source device
+     * @param dst destination device
+     * @return true if both devices belong to a region
+     */
+    boolean covers(DeviceId src, DeviceId dst) {
+        return regions.containsKey(src) && regions.containsKey(dst);
+    }
+
+    /**
+     * Returns the shortest paths between the given devices.
+     *
+     * @param src      source device
+     * @param dst      destination device
+     * @param maxPaths maximum number of paths; {@link GraphPathSearch#ALL_PATHS}
+     *                 for all equal-cost paths
+     * @return set of shortest paths; empty if none was found or either
+     * device has no region
+     */
+    Set<Path> paths(DeviceId src, DeviceId dst, int maxPaths) {
+        RegionId srcRegion = regions.get(src);
+        RegionId dstRegion = regions.get(dst);
+        if (srcRegion == null || dstRegion == null) {
+            return ImmutableSet.of();
+        }
+        TopologyVertex srcV = new DefaultTopologyVertex(src);
+        TopologyVertex dstV = new DefaultTopologyVertex(dst);
+        if (srcRegion.equals(dstRegion)) {
+            BorderEdge local = localPaths(srcRegion, srcV, dstV);
+            return local != null ? expand(ImmutableList.of(local), maxPaths) : ImmutableSet.of();
+        }
+
+        // Only the edges leaving the source and reaching the destination
+        // are specific to this query; the border graph is shared. They
+        // come from one search out of the source and one search into the
+        // destination, whatever the number of borders.
+        Map<TopologyVertex, BorderEdge> fromSrc = localPaths(srcRegion, srcV, false);
+        Map<TopologyVertex, BorderEdge> toDst = localPaths(dstRegion, dstV, true);
+        SetMultimap<TopologyVertex, BorderEdge> queryEdges = HashMultimap.create();
+        for (TopologyVertex border : borders.get(srcRegion)) {
+            addIfFound(queryEdges, fromSrc.get(border));
+        }
+        for (TopologyVertex border : borders.get(dstRegion)) {
+            addIfFound(queryEdges, toDst.get(border));
+        }
+
+        GraphPathSearch.Result<TopologyVertex, BorderEdge> result =
+                DIJKSTRA.search(new QueryGraph(borderGraph.get(), srcV, dstV, queryEdges),
+                                srcV, dstV, borderWeigher, ALL_PATHS);
+        ImmutableSet.Builder<Path> paths = ImmutableSet.builder();
+        for (org.onlab.graph.Path<TopologyVertex, BorderEdge> path : result.paths()) {
+            paths.addAll(expand(path.edges(), ALL_PATHS));
+        }
+        return limit(paths.build(), maxPaths);
+    }
+
+    // Expands a sequence of abstract edges into every combination of the
+    // equal-cost link sequences they stand for.
+    private static Set<Path> expand(List<BorderEdge> edges, int maxPaths) {
+        List<List<List<Link>>> routes = Lists.transform(edges, e -> e.routes);
+        Weight cost = edges.stream().map(e -> e.cost).reduce(Weight::merge).get();
+        ImmutableSet.Builder<Path> paths = ImmutableSet.builder();
+        for (List<List<Link>> segments : Lists.cartesianProduct(routes)) {
+            ImmutableList.Builder<Link> links = ImmutableList.builder();
+            segments.forEach(links::addAll);
+            paths.add(new DefaultPath(CORE_PROVIDER_ID, links.build(), cost));
+        }
+        return limit(paths.build(), maxPaths);
+    }
+
+    private static Set<Path> limit(Set<Path> paths, int maxPaths) {
+        if (maxPaths == ALL_PATHS || paths.size() <= maxPaths) {
+            return paths;
+        }
+        return ImmutableSet.copyOf(Iterables.limit(paths, maxPaths));
+    }
+
+    // Returns the given edges with their ends swapped.
+    private static Set<TopologyEdge> reverse(Set<TopologyEdge> edges) {
+        ImmutableSet.Builder<TopologyEdge> reversed = ImmutableSet.builder();
+        edges.forEach(e -> reversed.add(new DefaultTopologyEdge(e.dst(), e.src(), e.link())));
+        return reversed.build();
+    }
+
+    private static void addIfFound(SetMultimap<TopologyVertex, BorderEdge> edges, BorderEdge edge) {
+        if (edge != null) {
+            edges.put(edge.src, edge);
+        }
+    }
+
+    // Builds the graph of the border devices, linked by the links between
+    // regions and by the shortest paths between the borders of each region.
+    private Graph<TopologyVertex, BorderEdge> buildBorderGraph() {
+        ImmutableSet.Builder<BorderEdge> edges = ImmutableSet.builder();
+        edges.addAll(interRegionEdges);
+        for (RegionId region : borders.keySet()) {
+            Set<TopologyVertex> regionBorders = borders.get(region);
+            for (TopologyVertex src : regionBorders) {
+                Map<TopologyVertex, BorderEdge> fromSrc = localPaths(region, src, false);
+                for (TopologyVertex dst : regionBorders) {
+                    BorderEdge edge = fromSrc.get(dst);
+                    if (edge != null) {
+                        edges.add(edge);
+                    }
+                }
+            }
+        }
+        return new AdjacencyListsGraph<>(ImmutableSet.copyOf(borders.values()), edges.build());
+    }
+
+    // Searches for the shortest paths between two devices of the same
+    // region, using only the links of that region.
+    private BorderEdge localPaths(RegionId region, TopologyVertex src, TopologyVertex dst) {
+        if (src.equals(dst)) {
+            return null;
+        }
+        TopologyGraph graph = regionGraphs.get(region);
+        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                search.search(graph, src, dst, weigher, ALL_PATHS);
+        if (result.paths().isEmpty()) {
+            return null;
+        }
+        return borderEdge(src, dst, result.paths(), false);
+    }
+
+    // Searches for the shortest paths from a device to every other device
+    // of its region, or from every other device to it if reversed, using
+    // only the links of that region; keyed by the other device.
+    private Map<TopologyVertex, BorderEdge> localPaths(RegionId region, TopologyVertex device,
+                                                       boolean reversed) {
+        TopologyGraph graph = (reversed ? reversedRegionGraphs : regionGraphs).get(region);
+        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                search.search(graph, device, null, weigher, ALL_PATHS);
+        ListMultimap<TopologyVertex, org.onlab.graph.Path<TopologyVertex, TopologyEdge>> byDevice =
+                MultimapBuilder.hashKeys().arrayListValues().build();
+        result.paths().forEach(p -> byDevice.put(p.dst(), p));
+
+        ImmutableMap.Builder<TopologyVertex, BorderEdge> edges = ImmutableMap.builder();
+        byDevice.asMap().forEach((other, paths) -> edges.put(
+                other, reversed ? borderEdge(other, device, paths, true)
+                                : borderEdge(device, other, paths, false)));
+        return edges.build();
+    }
+
+    // Joins the equal-cost paths between two devices into one abstract
+    // edge; paths found over a reversed graph have their links put back
+    // in order.
+    private static BorderEdge borderEdge(TopologyVertex src, TopologyVertex dst,
+                                         Iterable<org.onlab.graph.Path<TopologyVertex, TopologyEdge>> paths,
+                                         boolean reversed) {
+        ImmutableList.Builder<List<Link>> routes = ImmutableList.builder();
+        Weight cost = null;
+        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : paths) {
+            List<Link> links = Lists.transform(path.edges(), TopologyEdge::link);
+            routes.add(ImmutableList.copyOf(reversed ? Lists.reverse(links) : links));
+            cost = path.cost();
+        }
+        return new BorderEdge(src, dst, routes.build(), cost);
+    }
+
+    // Edge of the abstract graph standing for one or more equal-cost
+    // sequences of links.
+    private static final class BorderEdge implements Edge<TopologyVertex> {
+        private final TopologyVertex src;
+        private final TopologyVertex dst;
+        private final List<List<Link>> routes;
+        private final Weight cost;
+
+        private BorderEdge(TopologyVertex src, TopologyVertex dst,
+                           List<List<Link>> routes, Weight cost) {
+            this.src = src;
+            this.dst = dst;
+            this.routes = routes;
+            this.cost = cost;
+        }
+
+        @Override
+        public TopologyVertex src() {
+            return src;
+        }
+
+        @Override
+        public TopologyVertex dst() {
+            return dst;
+        }
+    }
+
+    // View of the border graph extended with the source and destination
+    // of a query and the edges joining them to their region borders.
+    private static final class QueryGraph implements Graph<TopologyVertex, BorderEdge> {
+        private final Graph<TopologyVertex, BorderEdge> borderGraph;
+        private final Set<TopologyVertex> vertexes;
+        private final SetMultimap<TopologyVertex, BorderEdge> edgesFrom;
+
+        private QueryGraph(Graph<TopologyVertex, BorderEdge> borderGraph,
+                           TopologyVertex src, TopologyVertex dst,
+                           SetMultimap<TopologyVertex, BorderEdge> edgesFrom) {
+            this.borderGraph = borderGraph;
+            this.vertexes = Sets.union(borderGraph.getVertexes(), ImmutableSet.of(src, dst));
+            this.edgesFrom = edgesFrom;
+        }
+
+        @Override
+        public Set<TopologyVertex> getVertexes() {
+            return vertexes;
+        }
+
+        @Override
+        public Set<BorderEdge> getEdges() {
+            return Sets.union(borderGraph.getEdges(), ImmutableSet.copyOf(edgesFrom.values()));
+        }
+
+        @Override
+        public Set<BorderEdge> getEdgesFrom(TopologyVertex src) {
+            return Sets.union(borderGraph.getEdgesFrom(src), edgesFrom.get(src));
+        }
+
+        @Override
+        public Set<BorderEdge> getEdgesTo(TopologyVertex dst) {
+            ImmutableSet.Builder<BorderEdge> edges = ImmutableSet.builder();
+            edges.addAll(borderGraph.getEdgesTo(dst));
+            edgesFrom.values().stream().filter(e -> e.dst.equals(dst)).forEach(edges::add);
+            return edges.build();
+        }
+    }
+
+    // Weighs abstract edges by the cost of the links they stand for.
+    private static final class BorderEdgeWeigher implements EdgeWeigher<TopologyVertex, BorderEdge> {
+        private final LinkWeigher weigher;
+
+        private BorderEdgeWeigher(LinkWeigher weigher) {
+            this.weigher = weigher;
+        }
+
+        @Override
+        public Weight weight(BorderEdge edge) {
+            return edge.cost;
+        }
+
+        @Override
+        public Weight getInitialWeight() {
+            return weigher.getInitialWeight();
+        }
+
+        @Override
+        public Weight getNonViableWeight() {
+            return weigher.getNonViableWeight();
+        }
+    }
+}
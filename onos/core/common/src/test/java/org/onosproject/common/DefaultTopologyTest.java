@@ -17,6 +17,7 @@ package org.onosproject.common;
 
 import org.junit.Before;
 import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
 import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.ScalarWeight;
 import org.onlab.graph.Weight;
@@ -30,6 +31,7 @@ import org.onosproject.net.Link;
 import org.onosproject.net.Path;
 import org.onosproject.net.PortNumber;
 import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.region.RegionId;
 import org.onosproject.net.topology.ClusterId;
 import org.onosproject.net.topology.DefaultGraphDescription;
 import org.onosproject.net.topology.DefaultTopologyVertex;
@@ -39,7 +41,9 @@ import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
 import org.onosproject.net.topology.TopologyVertex;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import static com.google.common.collect.ImmutableSet.of;
 import static org.junit.Assert.*;
 import static org.onosproject.net.DeviceId.deviceId;
@@ -128,6 +132,62 @@ public class DefaultTopologyTest {
 
     }
 
+    @Test
+    public void regionalPaths() {
+        RegionId r1 = RegionId.regionId("r1");
+        RegionId r2 = RegionId.regionId("r2");
+        Set<Device> devices = of(device("1"), device("2"),
+                                 device("3"), device("4"),
+                                 device("5"));
+        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                             link("3", 2, "2", 2), link("2", 2, "3", 2),
+                             link("1", 3, "4", 3), link("4", 3, "1", 3),
+                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        GraphDescription graphDescription =
+                new DefaultGraphDescription(System.nanoTime(), System.currentTimeMillis(),
+                                            devices, links);
+        AtomicReference<Map<DeviceId, RegionId>> regions =
+                new AtomicReference<>(ImmutableMap.of(D1, r1, D2, r1, D3, r2, D4, r2));
+        DefaultTopology rt = new DefaultTopology(PID, graphDescription, null, regions::get);
+
+        Set<Path> paths = rt.getPaths(D1, D2);
+        assertEquals("incorrect path count", 1, paths.size());
+        assertEquals("incorrect path length", 1, paths.iterator().next().links().size());
+
+        // both equal-cost paths, through D2 and through D4, are found
+        paths = rt.getPaths(D1, D3);
+        assertEquals("incorrect path count", 2, paths.size());
+        for (Path path : paths) {
+            assertEquals("incorrect path length", 2, path.links().size());
+            assertEquals("incorrect path source", D1, path.src().deviceId());
+            assertEquals("incorrect path destination", D3, path.dst().deviceId());
+            assertEquals("incorrect path cost", dt.getPaths(D1, D3).iterator().next().weight(),
+                         path.weight());
+        }
+
+        // the border graph built by the previous query is reused
+        paths = rt.getPaths(D2, D4);
+        assertEquals("incorrect path count", 2, paths.size());
+
+        paths = rt.getPaths(D1, D5);
+        assertTrue("no paths expected", paths.isEmpty());
+
+        paths = rt.getPaths(D1, D3, WEIGHER);
+        assertEquals("incorrect path count", 1, paths.size());
+        assertTrue("path should avoid D4",
+                   paths.iterator().next().links().stream()
+                           .noneMatch(l -> l.dst().deviceId().equals(D4)));
+
+        // once D2 moves to the region of D4, the path between them stays
+        // within that region
+        regions.set(ImmutableMap.of(D1, r1, D2, r2, D3, r2, D4, r2));
+        paths = rt.getPaths(D2, D4);
+        assertEquals("incorrect path count", 1, paths.size());
+        assertTrue("path should avoid D1",
+                   paths.iterator().next().links().stream()
+                           .noneMatch(l -> l.dst().deviceId().equals(D1)));
+    }
+
     @Test
     public void pointRelated() {
         assertTrue("should be infrastructure point",
@@ -26,6 +26,9 @@ import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.LoadTimeSeries;
 import org.onosproject.net.statistic.StatisticStore;
 import org.slf4j.Logger;
 
@@ -55,6 +58,7 @@ public class SimpleStatisticStore implements StatisticStore {
 
     private Map<ConnectPoint, Set<FlowEntry>> previous = new ConcurrentHashMap<>();
     private Map<ConnectPoint, Set<FlowEntry>> current = new ConcurrentHashMap<>();
+    private Map<ConnectPoint, LoadTimeSeries> loads = new ConcurrentHashMap<>();
 
     @Activate
     public void activate() {
@@ -120,7 +124,8 @@ public class SimpleStatisticStore implements StatisticStore {
         }
         previous.put(cp, curr);
         current.put(cp, flowEntries);
-
+        loads.computeIfAbsent(cp, k -> new LoadTimeSeries())
+                .record(System.currentTimeMillis(), flowEntries);
     }
 
     @Override
@@ -141,6 +146,18 @@ public class SimpleStatisticStore implements StatisticStore {
         return previous.get(connectPoint);
     }
 
+    @Override
+    public Load getLoad(ConnectPoint connectPoint) {
+        LoadTimeSeries series = loads.get(connectPoint);
+        return series == null ? new DefaultLoad() : series.latest();
+    }
+
+    @Override
+    public LoadTimeSeries getLoadTimeSeries(ConnectPoint connectPoint) {
+        LoadTimeSeries series = loads.get(connectPoint);
+        return series == null ? new LoadTimeSeries() : series.copy();
+    }
+
     private InternalStatisticRepresentation getOrCreateRepresentation(ConnectPoint cp) {
 
         if (representations.containsKey(cp)) {
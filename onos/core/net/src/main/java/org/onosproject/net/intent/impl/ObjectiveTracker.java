@@ -15,9 +15,10 @@
  */
 package org.onosproject.net.intent.impl;
 
-import com.google.common.collect.HashMultimap;
+import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -25,6 +26,10 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.ReferencePolicy;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.AbstractAccumulator;
+import org.onlab.util.SharedExecutors;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.event.Event;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.ElementId;
@@ -61,7 +66,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -69,7 +76,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
@@ -87,16 +93,21 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 @Component(immediate = true)
 @Service
-public class ObjectiveTracker implements ObjectiveTrackerService {
+public class ObjectiveTracker implements ObjectiveTrackerService, MetricsHelper {
 
     private final Logger log = getLogger(getClass());
 
-    private final SetMultimap<LinkKey, Key> intentsByLink =
-            //TODO this could be slow as a point of synchronization
-            synchronizedSetMultimap(HashMultimap.<LinkKey, Key>create());
+    private static final String METRICS_COMPONENT = "ObjectiveTracker";
+    private static final String METRICS_FEATURE = "recompile";
 
-    private final SetMultimap<ElementId, Key> intentsByDevice =
-            synchronizedSetMultimap(HashMultimap.<ElementId, Key>create());
+    // Reverse indexes from resources to the intents using them; the key
+    // sets are concurrent so lookups never block intents being tracked
+    private final ConcurrentMap<LinkKey, Set<Key>> intentsByLink = Maps.newConcurrentMap();
+    private final ConcurrentMap<ElementId, Set<Key>> intentsByDevice = Maps.newConcurrentMap();
+
+    // Coalesces the recompile requests caused by topology, device, host
+    // and resource events into one delegate call per batch
+    private final RecompileAccumulator accumulator = new RecompileAccumulator();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected TopologyService topologyService;
@@ -117,6 +128,12 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected WorkPartitionService partitionService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
+    // Time from a link going down to the recompile of the intents using it
+    private Timer linkDownToRecompileTimer;
+
     private ExecutorService executorService =
             newSingleThreadExecutor(groupedThreads("onos/intent", "objectivetracker", log));
     private ScheduledExecutorService executor =
@@ -138,6 +155,8 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         deviceService.addListener(deviceListener);
         hostService.addListener(hostListener);
         partitionService.addListener(partitionListener);
+        linkDownToRecompileTimer = createTimer(METRICS_COMPONENT, METRICS_FEATURE,
+                                               "linkDownToRecompile");
         log.info("Started");
     }
 
@@ -151,6 +170,11 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         log.info("Stopped");
     }
 
+    @Override
+    public MetricsService metricsService() {
+        return metricsService;
+    }
+
     protected void bindIntentService(IntentService service) {
         if (intentService == null) {
             intentService = service;
@@ -182,9 +206,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                     Collection<NetworkResource> resources) {
         for (NetworkResource resource : resources) {
             if (resource instanceof Link) {
-                intentsByLink.put(linkKey((Link) resource), intentKey);
+                track(intentsByLink, linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.put((ElementId) resource, intentKey);
+                track(intentsByDevice, (ElementId) resource, intentKey);
             }
         }
     }
@@ -194,13 +218,33 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                        Collection<NetworkResource> resources) {
         for (NetworkResource resource : resources) {
             if (resource instanceof Link) {
-                intentsByLink.remove(linkKey((Link) resource), intentKey);
+                untrack(intentsByLink, linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.remove(resource, intentKey);
+                untrack(intentsByDevice, (ElementId) resource, intentKey);
             }
         }
     }
 
+    private static <R> void track(ConcurrentMap<R, Set<Key>> index, R resource, Key intentKey) {
+        index.compute(resource, (r, keys) -> {
+            Set<Key> set = keys != null ? keys : Sets.newConcurrentHashSet();
+            set.add(intentKey);
+            return set;
+        });
+    }
+
+    private static <R> void untrack(ConcurrentMap<R, Set<Key>> index, R resource, Key intentKey) {
+        index.computeIfPresent(resource, (r, keys) -> {
+            keys.remove(intentKey);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static <R> Set<Key> tracked(Map<R, Set<Key>> index, R resource) {
+        Set<Key> keys = index.get(resource);
+        return keys != null ? ImmutableSet.copyOf(keys) : ImmutableSet.of();
+    }
+
     @Override
     public void trackIntent(IntentData intentData) {
 
@@ -217,7 +261,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         if (log.isTraceEnabled()) {
             log.trace("intent {}, old: {}, new: {}, installableCount: {}, resourceCount: {}",
                       key,
-                      intentsByDevice.values().contains(key),
+                      intentsByDevice.values().stream().anyMatch(keys -> keys.contains(key)),
                       isLocal && isInstalled,
                       installables.size(),
                       intent.resources().size() +
@@ -270,11 +314,12 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
             }
 
             if (event.reasons() == null || event.reasons().isEmpty()) {
-                delegate.triggerCompile(Collections.emptySet(), true);
+                accumulator.add(new Recompile(Collections.emptySet(), true, 0));
 
             } else {
                 Set<Key> intentsToRecompile = new HashSet<>();
                 boolean dontRecompileAllFailedIntents = true;
+                long linkDownTime = 0;
 
                 // Scan through the list of reasons and keep accruing all
                 // intents that need to be recompiled.
@@ -282,11 +327,13 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                     if (reason instanceof LinkEvent) {
                         LinkEvent linkEvent = (LinkEvent) reason;
                         final LinkKey linkKey = linkKey(linkEvent.subject());
-                        synchronized (intentsByLink) {
-                            Set<Key> intentKeys = intentsByLink.get(linkKey);
-                            log.debug("recompile triggered by LinkEvent {} ({}) for {}",
-                                    linkKey, linkEvent.type(), intentKeys);
-                            intentsToRecompile.addAll(intentKeys);
+                        Set<Key> intentKeys = tracked(intentsByLink, linkKey);
+                        log.debug("recompile triggered by LinkEvent {} ({}) for {}",
+                                linkKey, linkEvent.type(), intentKeys);
+                        intentsToRecompile.addAll(intentKeys);
+                        if (linkEvent.type() == LINK_REMOVED && !intentKeys.isEmpty()) {
+                            linkDownTime = linkDownTime == 0 ? linkEvent.time() :
+                                    Math.min(linkDownTime, linkEvent.time());
                         }
                         dontRecompileAllFailedIntents = dontRecompileAllFailedIntents &&
                                 (linkEvent.type() == LINK_REMOVED ||
@@ -294,7 +341,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                 linkEvent.subject().isExpected()));
                     }
                 }
-                delegate.triggerCompile(intentsToRecompile, !dontRecompileAllFailedIntents);
+                accumulator.add(new Recompile(intentsToRecompile,
+                                              !dontRecompileAllFailedIntents,
+                                              linkDownTime));
             }
         }
     }
@@ -303,13 +352,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         @Override
         public void event(ResourceEvent event) {
             if (event.subject().isSubTypeOf(PortNumber.class)) {
-                executorService.execute(() -> {
-                    if (delegate == null) {
-                        return;
-                    }
-
-                    delegate.triggerCompile(Collections.emptySet(), true);
-                });
+                accumulator.add(new Recompile(Collections.emptySet(), true, 0));
             }
         }
     }
@@ -338,11 +381,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
             // TODO should we recompile on available==true?
 
-            final ImmutableSet<Key> snapshot;
-            synchronized (intentsByDevice) {
-                snapshot = ImmutableSet.copyOf(intentsByDevice.get(id));
-            }
-            delegate.triggerCompile(snapshot, available);
+            accumulator.add(new Recompile(tracked(intentsByDevice, id), available, 0));
         }
     }
 
@@ -393,6 +432,62 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         }
     }
 
+    // Intents to recompile because of one or more events.
+    private static final class Recompile {
+        private final Set<Key> intentKeys;
+        private final boolean compileAllFailed;
+        // Earliest link down time among the triggering events; 0 if none
+        private final long linkDownTime;
+
+        private Recompile(Set<Key> intentKeys, boolean compileAllFailed, long linkDownTime) {
+            this.intentKeys = intentKeys;
+            this.compileAllFailed = compileAllFailed;
+            this.linkDownTime = linkDownTime;
+        }
+    }
+
+    // Merges the recompile requests accumulated over a short window.
+    private final class RecompileAccumulator extends AbstractAccumulator<Recompile> {
+
+        private static final int MAX_EVENTS = 1000;
+        private static final int MAX_IDLE_MS = 10;
+        private static final int MAX_BATCH_MS = 50;
+
+        private RecompileAccumulator() {
+            super(SharedExecutors.getTimer(), MAX_EVENTS, MAX_BATCH_MS, MAX_IDLE_MS);
+        }
+
+        @Override
+        public void processItems(List<Recompile> items) {
+            Set<Key> intentKeys = new HashSet<>();
+            boolean compileAllFailed = false;
+            long linkDownTime = 0;
+            for (Recompile item : items) {
+                intentKeys.addAll(item.intentKeys);
+                compileAllFailed |= item.compileAllFailed;
+                if (item.linkDownTime != 0) {
+                    linkDownTime = linkDownTime == 0 ? item.linkDownTime :
+                            Math.min(linkDownTime, item.linkDownTime);
+                }
+            }
+            long downTime = linkDownTime;
+            boolean allFailed = compileAllFailed;
+            executorService.execute(() -> triggerCompile(intentKeys, allFailed, downTime));
+        }
+    }
+
+    private void triggerCompile(Set<Key> intentKeys, boolean compileAllFailed, long linkDownTime) {
+        // If there is no delegate, why bother? Just bail.
+        if (delegate == null) {
+            return;
+        }
+        delegate.triggerCompile(intentKeys, compileAllFailed);
+        if (linkDownTime != 0 && linkDownToRecompileTimer != null) {
+            linkDownToRecompileTimer.update(System.currentTimeMillis() - linkDownTime,
+                                            TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void doIntentUpdate() {
         updateScheduled.set(false);
         if (intentService == null) {
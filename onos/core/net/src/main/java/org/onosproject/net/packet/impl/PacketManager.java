@@ -15,18 +15,30 @@
  */
 package org.onosproject.net.packet.impl;
 
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.packet.Ethernet;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceEvent;
@@ -57,14 +69,21 @@ import org.onosproject.net.packet.PacketRequest;
 import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.packet.PacketStore;
 import org.onosproject.net.packet.PacketStoreDelegate;
+import org.onosproject.net.packet.PacketTrace;
 import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onlab.util.Tools.groupedThreads;
@@ -91,6 +110,22 @@ public class PacketManager
     private static final String ERROR_NULL_DEVICE_ID = "Device ID cannot be null";
     private static final String SUPPORT_PACKET_REQUEST_PROPERTY = "supportPacketRequest";
 
+    private static final String METRICS_COMPONENT = "PacketManager";
+    private static final String METRICS_PROCESSORS = "processors";
+    private static final String METRICS_ETH_TYPES = "ethTypes";
+
+    private static final int NO_ETH_TYPE = -1;
+    private static final int TRACE_CAPACITY = 256;
+    private static final int DEFAULT_TRACE_SAMPLE_RATE = 0;
+    @Property(name = "packetTraceSampleRate", intValue = DEFAULT_TRACE_SAMPLE_RATE,
+            label = "Trace one in this many inbound packets through the packet processors; 0 disables tracing")
+    private volatile int packetTraceSampleRate = DEFAULT_TRACE_SAMPLE_RATE;
+
+    private static final boolean DEFAULT_ETH_TYPE_LATENCY = false;
+    @Property(name = "ethTypeLatencyEnabled", boolValue = DEFAULT_ETH_TYPE_LATENCY,
+            label = "Record the latency of the packet processor chain per ether type of the inbound packet")
+    private volatile boolean ethTypeLatencyEnabled = DEFAULT_ETH_TYPE_LATENCY;
+
     private final PacketStoreDelegate delegate = new InternalStoreDelegate();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
@@ -111,6 +146,13 @@ public class PacketManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected FlowObjectiveService objectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
+
+    // Latency histograms are exported when the metrics service is available
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     private ExecutorService eventHandlingExecutor;
 
     private final DeviceListener deviceListener = new InternalDeviceListener();
@@ -119,11 +161,24 @@ public class PacketManager
 
     private final PacketDriverProvider defaultProvider = new PacketDriverProvider();
 
+    // Latency of the whole processor chain, by ether type of the packet
+    private final Map<Integer, Histogram> ethTypeHistograms = Maps.newConcurrentMap();
+
+    // Most recent packet traces, written round-robin
+    private final AtomicReferenceArray<PacketTrace> traces = new AtomicReferenceArray<>(TRACE_CAPACITY);
+    private final AtomicLong traceCount = new AtomicLong();
+    private final AtomicLong packetCount = new AtomicLong();
+
+    // Distinguishes the metrics of processor entries of the same class and priority
+    private final AtomicLong processorEntryIds = new AtomicLong();
+
     private ApplicationId appId;
     private NodeId localNodeId;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         eventHandlingExecutor = Executors.newSingleThreadExecutor(
                 groupedThreads("onos/net/packet", "event-handler", log));
         localNodeId = clusterService.getLocalNode().id();
@@ -140,9 +195,31 @@ public class PacketManager
         store.unsetDelegate(delegate);
         deviceService.removeListener(deviceListener);
         eventHandlingExecutor.shutdown();
+        cfgService.unregisterProperties(getClass(), false);
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Integer sampleRate = Tools.getIntegerProperty(context.getProperties(), "packetTraceSampleRate");
+        if (sampleRate != null && sampleRate >= 0) {
+            packetTraceSampleRate = sampleRate;
+            log.info("Configured. Packet trace sample rate is {}", packetTraceSampleRate);
+        }
+        Boolean flag = Tools.isPropertyEnabled(context.getProperties(), "ethTypeLatencyEnabled");
+        if (flag != null) {
+            ethTypeLatencyEnabled = flag;
+            log.info("Configured. Ether type latency is {}", flag ? "enabled" : "disabled");
+            if (!flag) {
+                ethTypeHistograms.keySet().forEach(t -> removeHistogram(METRICS_ETH_TYPES, ethTypeName(t)));
+                ethTypeHistograms.clear();
+            }
+        }
+    }
+
     @Override
     protected PacketProvider defaultProvider() {
         return defaultProvider;
@@ -172,7 +249,7 @@ public class PacketManager
         // Remove the processor entry.
         for (int i = 0; i < processors.size(); i++) {
             if (processors.get(i).processor() == processor) {
-                processors.remove(i);
+                removeHistogram(METRICS_PROCESSORS, processors.remove(i).metricName());
                 break;
             }
         }
@@ -184,6 +261,20 @@ public class PacketManager
         return ImmutableList.copyOf(processors);
     }
 
+    @Override
+    public List<PacketTrace> getPacketTraces() {
+        checkPermission(PACKET_READ);
+        long end = traceCount.get();
+        List<PacketTrace> result = new ArrayList<>(TRACE_CAPACITY);
+        for (long i = Math.max(0, end - TRACE_CAPACITY); i < end; i++) {
+            PacketTrace trace = traces.get((int) (i % TRACE_CAPACITY));
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
     @Override
     public void requestPackets(TrafficSelector selector, PacketPriority priority,
                                ApplicationId appId) {
@@ -353,6 +444,16 @@ public class PacketManager
         store.emit(packet);
     }
 
+    @Override
+    public void emit(Collection<OutboundPacket> packets) {
+        checkPermission(PACKET_WRITE);
+        checkNotNull(packets, "Packets cannot be null");
+        packets.forEach(packet -> {
+            checkNotNull(packet, "Packet cannot be null");
+            store.emit(packet);
+        });
+    }
+
     private void localEmit(OutboundPacket packet) {
         Device device = deviceService.getDevice(packet.sendThrough());
         if (device == null) {
@@ -382,6 +483,13 @@ public class PacketManager
 
         @Override
         public void processPacket(PacketContext context) {
+            // Only sampled packets pay for recording each processor invocation
+            int sampleRate = packetTraceSampleRate;
+            List<PacketTrace.Step> steps = sampleRate > 0 &&
+                    packetCount.incrementAndGet() % sampleRate == 0 ? new ArrayList<>() : null;
+
+            boolean ethTypeLatency = ethTypeLatencyEnabled;
+            long chainStart = ethTypeLatency ? System.nanoTime() : 0;
             // TODO filter packets sent to processors based on registrations
             for (ProcessorEntry entry : processors) {
                 try {
@@ -392,7 +500,12 @@ public class PacketManager
 
                     long start = System.nanoTime();
                     entry.processor().process(context);
-                    entry.addNanos(System.nanoTime() - start);
+                    long nanos = System.nanoTime() - start;
+                    entry.addNanos(nanos);
+                    if (steps != null) {
+                        steps.add(new PacketTrace.Step(entry.processor().getClass().getName(),
+                                                       entry.priority(), nanos));
+                    }
 
                     if (log.isTraceEnabled()) {
                         log.trace("Finished packet processing by {}",
@@ -402,8 +515,46 @@ public class PacketManager
                     log.warn("Packet processor {} threw an exception", entry.processor(), e);
                 }
             }
+
+            if (ethTypeLatency) {
+                ethTypeHistograms.computeIfAbsent(ethType(context),
+                                                  t -> histogram(METRICS_ETH_TYPES, ethTypeName(t)))
+                        .update(System.nanoTime() - chainStart);
+            }
+            if (steps != null) {
+                ConnectPoint receivedFrom = context.inPacket() != null ?
+                        context.inPacket().receivedFrom() : null;
+                traces.set((int) (traceCount.getAndIncrement() % TRACE_CAPACITY),
+                           new PacketTrace(System.currentTimeMillis(), receivedFrom,
+                                           ethType(context), context.isHandled(), steps));
+            }
+        }
+
+        private int ethType(PacketContext context) {
+            Ethernet eth = context.inPacket() != null ? context.inPacket().parsed() : null;
+            return eth != null ? eth.getEtherType() & 0xffff : NO_ETH_TYPE;
+        }
+    }
+
+    private static String ethTypeName(int ethType) {
+        return ethType == NO_ETH_TYPE ? "unknown" : String.format("0x%04x", ethType);
+    }
+
+    // Returns a latency histogram registered with the metrics service, if any.
+    private Histogram histogram(String feature, String name) {
+        if (metricsService != null) {
+            MetricsComponent c = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature f = c.registerFeature(feature);
+            return metricsService.createHistogram(c, f, name);
         }
+        return new Histogram(new ExponentiallyDecayingReservoir());
+    }
 
+    private void removeHistogram(String feature, String name) {
+        if (metricsService != null) {
+            MetricsComponent c = metricsService.registerComponent(METRICS_COMPONENT);
+            metricsService.removeMetric(c, c.registerFeature(feature), name);
+        }
     }
 
 
@@ -491,12 +642,21 @@ public class PacketManager
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
+        private final String metricName;
+        private final Histogram histogram;
         private long invocations = 0;
         private long nanos = 0;
 
         public ProcessorEntry(PacketProcessor processor, int priority) {
             this.processor = processor;
             this.priority = priority;
+            this.metricName = processor.getClass().getName() + "-" + priority +
+                    "-" + processorEntryIds.incrementAndGet();
+            this.histogram = histogram(METRICS_PROCESSORS, metricName);
+        }
+
+        String metricName() {
+            return metricName;
         }
 
         @Override
@@ -524,9 +684,15 @@ public class PacketManager
             return invocations > 0 ? nanos / invocations : 0;
         }
 
+        @Override
+        public long percentileNanos(double percentile) {
+            return (long) histogram.getSnapshot().getValue(percentile / 100);
+        }
+
         void addNanos(long nanos) {
             this.nanos += nanos;
             this.invocations++;
+            histogram.update(nanos);
         }
     }
 }
@@ -39,6 +39,7 @@ import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flow.criteria.Criterion;
 import org.onosproject.net.statistic.DefaultLoad;
 import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.LoadTimeSeries;
 import org.onosproject.net.statistic.StatisticService;
 import org.onosproject.net.statistic.StatisticStore;
 import org.slf4j.Logger;
@@ -176,13 +177,17 @@ public class StatisticManager implements StatisticService {
         return max;
     }
 
-    private Load loadInternal(ConnectPoint connectPoint) {
-        Statistics stats = getStatistics(connectPoint);
-        if (!stats.isValid()) {
-            return new DefaultLoad();
-        }
+    @Override
+    public LoadTimeSeries loadTimeSeries(ConnectPoint connectPoint) {
+        checkPermission(STATISTIC_READ);
+
+        return statisticStore.getLoadTimeSeries(connectPoint);
+    }
 
-        return new DefaultLoad(aggregate(stats.current), aggregate(stats.previous));
+    // Served from the per-port time series maintained on each stats push,
+    // rather than by aggregating the current and previous flow entries.
+    private Load loadInternal(ConnectPoint connectPoint) {
+        return statisticStore.getLoad(connectPoint);
     }
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.junit.After;
@@ -216,6 +217,33 @@ public class ObjectiveTrackerTest extends AbstractIntentTest {
                    equalTo("0x333"));
     }
 
+    /**
+     * Tests that link down events arriving together are coalesced into a
+     * single recompile of all the intents using the links.
+     *
+     * @throws InterruptedException if the latch wait fails.
+     */
+    @Test
+    public void testEventsCoalesced() throws Exception {
+        final Link link1 = link("src", 1, "dst", 2);
+        final Link link2 = link("src", 3, "dst", 4);
+        final Key key1 = Key.of(0x333L, APP_ID);
+        final Key key2 = Key.of(0x444L, APP_ID);
+        tracker.addTrackedResources(key1, ImmutableSet.of(link1));
+        tracker.addTrackedResources(key2, ImmutableSet.of(link2));
+
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology,
+                ImmutableList.of(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link1))));
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED, topology,
+                ImmutableList.of(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link2))));
+        assertThat(
+                delegate.latch.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                is(true));
+
+        assertThat(delegate.intentIdsFromEvent, hasSize(2));
+        assertThat(delegate.compileAllFailedFromEvent, is(false));
+    }
+
     /**
      * Tests a resource available event.
      *
@@ -16,16 +16,22 @@
 
 package org.onosproject.net.packet.impl;
 
+import com.codahale.metrics.MetricFilter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.Ethernet;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
@@ -37,18 +43,32 @@ import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
+import org.onosproject.net.packet.PacketTrace;
+import org.onosproject.net.provider.AbstractProvider;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 
 /**
@@ -84,8 +104,9 @@ public class PacketManagerTest {
         mgr.deviceService = new TestDeviceService();
         mgr.deviceService = new TestDeviceService();
         mgr.coreService = new TestCoreService();
+        mgr.cfgService = new ComponentConfigAdapter();
         providerRegistry = mgr;
-        mgr.activate();
+        mgr.activate(null);
 
         DriverRegistryManager driverRegistry = new DriverRegistryManager();
         driverService = new TestDriverManager(driverRegistry);
@@ -106,6 +127,126 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests that processor timing is tracked and sampled packets are traced.
+     */
+    @Test
+    public void packetProcessingTraces() {
+        mgr.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("packetTraceSampleRate", "2");
+                return props;
+            }
+        });
+        PacketProcessor processor = context -> context.block();
+        mgr.addProcessor(processor, PacketProcessor.director(1));
+        PacketProviderService providerService =
+                providerRegistry.register(new TestPacketProvider());
+
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        ConnectPoint cp = ConnectPoint.deviceConnectPoint("foo:002/1");
+        for (int i = 0; i < 4; i++) {
+            PacketContext context = new DefaultPacketContext(
+                    0, new DefaultInboundPacket(cp, eth, ByteBuffer.allocate(0)), null, false) {
+                @Override
+                public void send() {
+                }
+            };
+            providerService.processPacket(context);
+        }
+
+        PacketProcessorEntry entry = mgr.getProcessors().get(0);
+        assertEquals(4, entry.invocations());
+        assertTrue(entry.percentileNanos(99) <= entry.totalNanos());
+
+        List<PacketTrace> traces = mgr.getPacketTraces();
+        assertEquals("One in two packets traced", 2, traces.size());
+        PacketTrace trace = traces.get(0);
+        assertEquals(cp, trace.receivedFrom());
+        assertEquals(Ethernet.TYPE_IPV4, trace.ethType());
+        assertTrue(trace.handled());
+        assertEquals(1, trace.steps().size());
+        assertEquals(processor.getClass().getName(), trace.steps().get(0).processor());
+    }
+
+    /**
+     * Tests that processors of the same class and priority have their own
+     * latency metrics and that per ether type latency is opt-in.
+     */
+    @Test
+    public void packetProcessingMetrics() {
+        MetricsManager metrics = new MetricsManager();
+        mgr.metricsService = metrics;
+        PacketProcessor first = new TestProcessor();
+        PacketProcessor second = new TestProcessor();
+        mgr.addProcessor(first, PacketProcessor.director(1));
+        mgr.addProcessor(second, PacketProcessor.director(1));
+        assertEquals("Each processor has its own histogram",
+                     2, metrics.getHistograms(MetricFilter.ALL).size());
+
+        mgr.removeProcessor(first);
+        assertEquals("Remaining processor lost its histogram",
+                     1, metrics.getHistograms(MetricFilter.ALL).size());
+
+        PacketProviderService providerService =
+                providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext());
+        assertEquals("Ether type latency recorded by default",
+                     1, metrics.getHistograms(MetricFilter.ALL).size());
+
+        mgr.modified(properties("ethTypeLatencyEnabled", "true"));
+        providerService.processPacket(packetContext());
+        assertEquals("Ether type latency not recorded",
+                     2, metrics.getHistograms(MetricFilter.ALL).size());
+
+        mgr.modified(properties("ethTypeLatencyEnabled", "false"));
+        assertFalse("Ether type histogram not removed",
+                    metrics.getHistograms(MetricFilter.ALL).keySet().stream()
+                            .anyMatch(name -> name.contains("0x0800")));
+    }
+
+    private static ComponentContextAdapter properties(String name, String value) {
+        return new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put(name, value);
+                return props;
+            }
+        };
+    }
+
+    private static PacketContext packetContext() {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        ConnectPoint cp = ConnectPoint.deviceConnectPoint("foo:002/1");
+        return new DefaultPacketContext(
+                0, new DefaultInboundPacket(cp, eth, ByteBuffer.allocate(0)), null, false) {
+            @Override
+            public void send() {
+            }
+        };
+    }
+
+    private static class TestProcessor implements PacketProcessor {
+        @Override
+        public void process(PacketContext context) {
+        }
+    }
+
+    private static class TestPacketProvider extends AbstractProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(new ProviderId("of", "packet-test"));
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
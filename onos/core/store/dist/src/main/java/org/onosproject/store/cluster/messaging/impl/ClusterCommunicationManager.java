@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -199,7 +200,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                               ClusterMessageHandler subscriber,
                               ExecutorService executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
+        messagingService.registerBufferHandler(subject.toString(),
                 new InternalClusterMessageHandler(subscriber),
                 executor);
     }
@@ -217,7 +218,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<R, byte[]> encoder,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
+        messagingService.registerBufferHandler(subject.toString(),
                 new InternalMessageResponder<M, R>(decoder, encoder, m -> {
                     CompletableFuture<R> responseFuture = new CompletableFuture<>();
                     executor.execute(() -> {
@@ -237,7 +238,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Function<M, CompletableFuture<R>> handler,
             Function<R, byte[]> encoder) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
+        messagingService.registerBufferHandler(subject.toString(),
                 new InternalMessageResponder<>(decoder, encoder, handler));
     }
 
@@ -247,7 +248,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
             Consumer<M> handler,
             Executor executor) {
         checkPermission(CLUSTER_WRITE);
-        messagingService.registerHandler(subject.toString(),
+        messagingService.registerBufferHandler(subject.toString(),
                 new InternalMessageConsumer<>(decoder, handler),
                 executor);
     }
@@ -286,7 +287,7 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
     }
 
 
-    private class InternalClusterMessageHandler implements BiFunction<Endpoint, byte[], byte[]> {
+    private class InternalClusterMessageHandler implements BiFunction<Endpoint, ByteBuffer, byte[]> {
         private ClusterMessageHandler handler;
 
         public InternalClusterMessageHandler(ClusterMessageHandler handler) {
@@ -294,14 +295,15 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         }
 
         @Override
-        public byte[] apply(Endpoint sender, byte[] bytes) {
-            ClusterMessage message = ClusterMessage.fromBytes(bytes);
+        public byte[] apply(Endpoint sender, ByteBuffer buffer) {
+            ClusterMessage message = ClusterMessage.fromBuffer(buffer);
             handler.handle(message);
             return message.response();
         }
     }
 
-    private class InternalMessageResponder<M, R> implements BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> {
+    private class InternalMessageResponder<M, R>
+            implements BiFunction<Endpoint, ByteBuffer, CompletableFuture<byte[]>> {
         private final Function<byte[], M> decoder;
         private final Function<R, byte[]> encoder;
         private final Function<M, CompletableFuture<R>> handler;
@@ -315,14 +317,14 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         }
 
         @Override
-        public CompletableFuture<byte[]> apply(Endpoint sender, byte[] bytes) {
+        public CompletableFuture<byte[]> apply(Endpoint sender, ByteBuffer buffer) {
             return handler.apply(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload())).
+                    apply(ClusterMessage.fromBuffer(buffer).payload())).
                     thenApply(m -> timeFunction(encoder, subjectMeteringAgent, SERIALIZING).apply(m));
         }
     }
 
-    private class InternalMessageConsumer<M> implements BiConsumer<Endpoint, byte[]> {
+    private class InternalMessageConsumer<M> implements BiConsumer<Endpoint, ByteBuffer> {
         private final Function<byte[], M> decoder;
         private final Consumer<M> consumer;
 
@@ -332,9 +334,9 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         }
 
         @Override
-        public void accept(Endpoint sender, byte[] bytes) {
+        public void accept(Endpoint sender, ByteBuffer buffer) {
             consumer.accept(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
-                    apply(ClusterMessage.fromBytes(bytes).payload()));
+                    apply(ClusterMessage.fromBuffer(buffer).payload()));
         }
     }
 }
@@ -15,8 +15,16 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import com.google.common.base.MoreObjects;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.onlab.util.ByteArraySizeHashPrinter;
 import org.onosproject.core.HybridLogicalTime;
 
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkState;
+
 /**
  * Base class for internal messages.
  */
@@ -65,7 +73,8 @@ public abstract class InternalMessage {
     private final int preamble;
     private final HybridLogicalTime time;
     private final long id;
-    private final byte[] payload;
+    private byte[] payload;
+    private ByteBuf payloadBuffer;
 
     protected InternalMessage(int preamble,
             HybridLogicalTime time,
@@ -77,6 +86,26 @@ public abstract class InternalMessage {
         this.payload = payload;
     }
 
+    /**
+     * Creates a message whose payload is a retained view of an inbound
+     * buffer. The buffer is released once the payload is copied out by
+     * {@link #payload()} or the message is {@link #release() released}.
+     *
+     * @param preamble preamble
+     * @param time     logical time
+     * @param id       message identifier
+     * @param payload  retained payload buffer
+     */
+    protected InternalMessage(int preamble,
+            HybridLogicalTime time,
+            long id,
+            ByteBuf payload) {
+        this.preamble = preamble;
+        this.time = time;
+        this.id = id;
+        this.payloadBuffer = payload;
+    }
+
     public abstract Type type();
 
     public boolean isRequest() {
@@ -99,7 +128,53 @@ public abstract class InternalMessage {
         return id;
     }
 
-    public byte[] payload() {
+    public synchronized byte[] payload() {
+        if (payload == null) {
+            checkState(payloadBuffer != null, "Payload has been released");
+            payload = ByteBufUtil.getBytes(payloadBuffer);
+            release();
+        }
         return payload;
     }
+
+    /**
+     * Returns a read-only view of the payload. If the payload is still held
+     * in an inbound buffer, the view is only valid until the message is
+     * released.
+     *
+     * @return payload buffer
+     */
+    public synchronized ByteBuffer payloadBuffer() {
+        if (payloadBuffer != null) {
+            return payloadBuffer.nioBuffer().asReadOnlyBuffer();
+        }
+        checkState(payload != null, "Payload has been released");
+        return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a printable summary of the payload which does not copy it out
+     * of the inbound buffer.
+     *
+     * @return payload summary
+     */
+    protected synchronized Object payloadSummary() {
+        if (payloadBuffer != null) {
+            return MoreObjects.toStringHelper("ByteBuf")
+                    .add("length", payloadBuffer.readableBytes())
+                    .toString();
+        }
+        return ByteArraySizeHashPrinter.of(payload);
+    }
+
+    /**
+     * Releases the inbound buffer holding the payload, if any. Does nothing
+     * if the payload has already been copied out or released.
+     */
+    public synchronized void release() {
+        if (payloadBuffer != null) {
+            payloadBuffer.release();
+            payloadBuffer = null;
+        }
+    }
 }
\ No newline at end of file
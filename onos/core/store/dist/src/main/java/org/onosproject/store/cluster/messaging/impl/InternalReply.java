@@ -16,7 +16,7 @@
 package org.onosproject.store.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
-import org.onlab.util.ByteArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 import org.onosproject.core.HybridLogicalTime;
 
 /**
@@ -106,6 +106,15 @@ public final class InternalReply extends InternalMessage {
         this.status = status;
     }
 
+    public InternalReply(int preamble,
+            HybridLogicalTime time,
+            long id,
+            ByteBuf payload,
+            Status status) {
+        super(preamble, time, id, payload);
+        this.status = status;
+    }
+
     @Override
     public Type type() {
         return Type.REPLY;
@@ -121,7 +130,7 @@ public final class InternalReply extends InternalMessage {
                 .add("time", time())
                 .add("id", id())
                 .add("status", status())
-                .add("payload", ByteArraySizeHashPrinter.of(payload()))
+                .add("payload", payloadSummary())
                 .toString();
     }
 }
\ No newline at end of file
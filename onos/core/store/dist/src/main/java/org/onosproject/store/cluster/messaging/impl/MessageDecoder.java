@@ -39,6 +39,10 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    // Payloads of at least this size are handed over as a retained slice of
+    // the inbound buffer instead of being copied by the decoder
+    static final int RETAINED_CONTENT_THRESHOLD = 16 * 1024;
+
     private Version ipVersion;
     private IpAddress senderIp;
     private int senderPort;
@@ -50,6 +54,7 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
     private long messageId;
     private int contentLength;
     private byte[] content;
+    private ByteBuf contentBuffer;
     private int subjectLength;
     private String subject;
     private InternalReply.Status status;
@@ -96,7 +101,9 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                 contentLength = buffer.readInt();
                 checkpoint(DecoderState.READ_CONTENT);
             case READ_CONTENT:
-                if (contentLength > 0) {
+                if (contentLength >= RETAINED_CONTENT_THRESHOLD) {
+                    contentBuffer = buffer.readRetainedSlice(contentLength);
+                } else if (contentLength > 0) {
                     //TODO Perform a sanity check on the size before allocating
                     content = new byte[contentLength];
                     buffer.readBytes(content);
@@ -129,12 +136,23 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                         byte[] messageTypeBytes = new byte[subjectLength];
                         buffer.readBytes(messageTypeBytes);
                         subject = new String(messageTypeBytes, Charsets.UTF_8);
-                        InternalRequest message = new InternalRequest(preamble,
-                                new HybridLogicalTime(logicalTime, logicalCounter),
-                                messageId,
-                                new Endpoint(senderIp, senderPort),
-                                subject,
-                                content);
+                        InternalRequest message;
+                        if (contentBuffer != null) {
+                            message = new InternalRequest(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    new Endpoint(senderIp, senderPort),
+                                    subject,
+                                    contentBuffer);
+                            contentBuffer = null;
+                        } else {
+                            message = new InternalRequest(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    new Endpoint(senderIp, senderPort),
+                                    subject,
+                                    content);
+                        }
                         out.add(message);
                         checkpoint(DecoderState.READ_TYPE);
                         break;
@@ -146,11 +164,21 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                 switch (state()) {
                     case READ_STATUS:
                         status = InternalReply.Status.forId(buffer.readByte());
-                        InternalReply message = new InternalReply(preamble,
-                                new HybridLogicalTime(logicalTime, logicalCounter),
-                                messageId,
-                                content,
-                                status);
+                        InternalReply message;
+                        if (contentBuffer != null) {
+                            message = new InternalReply(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    contentBuffer,
+                                    status);
+                            contentBuffer = null;
+                        } else {
+                            message = new InternalReply(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    content,
+                                    status);
+                        }
                         out.add(message);
                         checkpoint(DecoderState.READ_TYPE);
                         break;
@@ -163,6 +191,15 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
         }
     }
 
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext context) throws Exception {
+        // release the payload of a partially decoded message
+        if (contentBuffer != null) {
+            contentBuffer.release();
+            contentBuffer = null;
+        }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext context, Throwable cause) {
         log.error("Exception inside channel handling pipeline.", cause);
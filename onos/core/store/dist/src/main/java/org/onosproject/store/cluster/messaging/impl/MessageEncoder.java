@@ -46,6 +46,31 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
         this.preamble = preamble;
     }
 
+    @Override
+    protected ByteBuf allocateBuffer(
+            ChannelHandlerContext context,
+            Object rawMessage,
+            boolean preferDirect) throws Exception {
+        // Size the buffer for the whole frame so that large payloads are
+        // written without intermediate reallocations and copies.
+        InternalMessage message = (InternalMessage) rawMessage;
+        int size = Byte.BYTES + Integer.BYTES + 3 * Long.BYTES + Integer.BYTES
+                + message.payload().length;
+        if (!endpointWritten) {
+            size += Byte.BYTES + endpoint.host().toOctets().length + Integer.BYTES;
+        }
+        if (message instanceof InternalRequest) {
+            size += Short.BYTES + ((InternalRequest) message).subject().getBytes(Charsets.UTF_8).length;
+        } else {
+            size += Byte.BYTES;
+        }
+        if (preferDirect) {
+            return context.alloc().ioBuffer(size);
+        } else {
+            return context.alloc().heapBuffer(size);
+        }
+    }
+
     @Override
     protected void encode(
             ChannelHandlerContext context,
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.net.ConnectException;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.MessageDigest;
@@ -490,6 +491,61 @@ public class NettyMessagingManager implements MessagingService {
         });
     }
 
+    @Override
+    public void registerBufferHandler(String type, BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, (message, connection) -> executor.execute(() -> {
+            try {
+                handler.accept(message.sender(), message.payloadBuffer());
+            } finally {
+                message.release();
+            }
+        }));
+    }
+
+    @Override
+    public void registerBufferHandler(String type, BiFunction<Endpoint, ByteBuffer, byte[]> handler,
+                                      Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, (message, connection) -> executor.execute(() -> {
+            byte[] responsePayload = null;
+            InternalReply.Status status = InternalReply.Status.OK;
+            try {
+                responsePayload = handler.apply(message.sender(), message.payloadBuffer());
+            } catch (Exception e) {
+                log.debug("An error occurred in a message handler: {}", e);
+                status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+            } finally {
+                message.release();
+            }
+            connection.reply(message, status, Optional.ofNullable(responsePayload));
+        }));
+    }
+
+    @Override
+    public void registerBufferHandler(String type,
+                                      BiFunction<Endpoint, ByteBuffer, CompletableFuture<byte[]>> handler) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, (message, connection) -> {
+            CompletableFuture<byte[]> future;
+            try {
+                future = handler.apply(message.sender(), message.payloadBuffer());
+            } finally {
+                message.release();
+            }
+            future.whenComplete((result, error) -> {
+                InternalReply.Status status;
+                if (error == null) {
+                    status = InternalReply.Status.OK;
+                } else {
+                    log.debug("An error occurred in a message handler: {}", error);
+                    status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+                }
+                connection.reply(message, status, Optional.ofNullable(result));
+            });
+        });
+    }
+
     @Override
     public void unregisterHandler(String type) {
         checkPermission(CLUSTER_WRITE);
@@ -650,6 +706,7 @@ public class NettyMessagingManager implements MessagingService {
                 }
             } catch (RejectedExecutionException e) {
                 log.warn("Unable to dispatch message due to {}", e.getMessage());
+                message.release();
             }
         }
 
@@ -938,28 +995,32 @@ public class NettyMessagingManager implements MessagingService {
          * @param message the message to dispatch
          */
         private void dispatch(InternalReply message) {
-            if (message.preamble() != preamble) {
-                log.debug("Received {} with invalid preamble", message.type());
-                return;
-            }
-
-            clockService.recordEventTime(message.time());
+            try {
+                if (message.preamble() != preamble) {
+                    log.debug("Received {} with invalid preamble", message.type());
+                    return;
+                }
 
-            Callback callback = completeCallback(message.id());
-            if (callback != null) {
-                if (message.status() == InternalReply.Status.OK) {
-                    callback.complete(message.payload());
-                } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
-                    callback.completeExceptionally(new MessagingException.NoRemoteHandler());
-                } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
-                    callback.completeExceptionally(new MessagingException.RemoteHandlerFailure());
-                } else if (message.status() == InternalReply.Status.PROTOCOL_EXCEPTION) {
-                    callback.completeExceptionally(new MessagingException.ProtocolException());
+                clockService.recordEventTime(message.time());
+
+                Callback callback = completeCallback(message.id());
+                if (callback != null) {
+                    if (message.status() == InternalReply.Status.OK) {
+                        callback.complete(message.payload());
+                    } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
+                        callback.completeExceptionally(new MessagingException.NoRemoteHandler());
+                    } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
+                        callback.completeExceptionally(new MessagingException.RemoteHandlerFailure());
+                    } else if (message.status() == InternalReply.Status.PROTOCOL_EXCEPTION) {
+                        callback.completeExceptionally(new MessagingException.ProtocolException());
+                    }
+                } else {
+                    log.debug("Received a reply for message id:[{}] "
+                            + "but was unable to locate the"
+                            + " request handle", message.id());
                 }
-            } else {
-                log.debug("Received a reply for message id:[{}] "
-                        + "but was unable to locate the"
-                        + " request handle", message.id());
+            } finally {
+                message.release();
             }
         }
     }
@@ -982,6 +1043,7 @@ public class NettyMessagingManager implements MessagingService {
         private void dispatch(InternalRequest message) {
             if (message.preamble() != preamble) {
                 log.debug("Received {} with invalid preamble from {}", message.type(), message.sender());
+                message.release();
                 reply(message, InternalReply.Status.PROTOCOL_EXCEPTION, Optional.empty());
                 return;
             }
@@ -993,6 +1055,7 @@ public class NettyMessagingManager implements MessagingService {
                 handler.accept(message, this);
             } else {
                 log.debug("No handler for message type {} from {}", message.type(), message.sender());
+                message.release();
                 reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
             }
         }
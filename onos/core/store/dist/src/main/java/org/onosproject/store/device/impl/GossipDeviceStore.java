@@ -33,7 +33,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.RandomUtils;
@@ -91,6 +93,7 @@ import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Striped;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Predicates.notNull;
@@ -130,6 +133,9 @@ public class GossipDeviceStore
     private static final String DEVICE_NOT_FOUND = "Device with ID %s not found";
     // Timeout in milliseconds to process device or ports on remote master node
     private static final int REMOTE_MASTER_TIMEOUT = 1000;
+    // Number of locks serializing provider updates; updates for different
+    // devices only contend when their identifiers hash to the same stripe
+    private static final int DEVICE_LOCK_STRIPES = 256;
 
     // innerMap is used to lock a Device, thus instance should never be replaced.
     // collection of Description given from various providers
@@ -146,8 +152,11 @@ public class GossipDeviceStore
             portStatsListener = new InternalPortStatsListener();
 
     // to be updated under Device lock
-    private final Map<DeviceId, Timestamp> offline = Maps.newHashMap();
-    private final Map<DeviceId, Timestamp> removalRequest = Maps.newHashMap();
+    private final Map<DeviceId, Timestamp> offline = Maps.newConcurrentMap();
+    private final Map<DeviceId, Timestamp> removalRequest = Maps.newConcurrentMap();
+
+    // serializes provider updates per device; taken before the Device lock
+    private final Striped<Lock> deviceLocks = Striped.lock(DEVICE_LOCK_STRIPES);
 
     // available(=UP) devices
     private final Set<DeviceId> availableDevices = Sets.newConcurrentHashSet();
@@ -299,9 +308,15 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized DeviceEvent createOrUpdateDevice(ProviderId providerId,
-                                                         DeviceId deviceId,
-                                                         DeviceDescription deviceDescription) {
+    public DeviceEvent createOrUpdateDevice(ProviderId providerId,
+                                            DeviceId deviceId,
+                                            DeviceDescription deviceDescription) {
+        return withDeviceLock(deviceId, () -> doCreateOrUpdateDevice(providerId, deviceId, deviceDescription));
+    }
+
+    private DeviceEvent doCreateOrUpdateDevice(ProviderId providerId,
+                                               DeviceId deviceId,
+                                               DeviceDescription deviceDescription) {
         NodeId localNode = clusterService.getLocalNode().id();
         NodeId deviceNode = mastershipService.getMasterFor(deviceId);
         boolean isMaster = localNode.equals(deviceNode);
@@ -553,9 +568,15 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized List<DeviceEvent> updatePorts(ProviderId providerId,
-                                                      DeviceId deviceId,
-                                                      List<PortDescription> portDescriptions) {
+    public List<DeviceEvent> updatePorts(ProviderId providerId,
+                                         DeviceId deviceId,
+                                         List<PortDescription> portDescriptions) {
+        return withDeviceLock(deviceId, () -> doUpdatePorts(providerId, deviceId, portDescriptions));
+    }
+
+    private List<DeviceEvent> doUpdatePorts(ProviderId providerId,
+                                            DeviceId deviceId,
+                                            List<PortDescription> portDescriptions) {
 
         NodeId localNode = clusterService.getLocalNode().id();
         // TODO: It might be negligible, but this will have negative impact to topology discovery performance,
@@ -779,9 +800,15 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized DeviceEvent updatePortStatus(ProviderId providerId,
-                                                     DeviceId deviceId,
-                                                     PortDescription portDescription) {
+    public DeviceEvent updatePortStatus(ProviderId providerId,
+                                        DeviceId deviceId,
+                                        PortDescription portDescription) {
+        return withDeviceLock(deviceId, () -> doUpdatePortStatus(providerId, deviceId, portDescription));
+    }
+
+    private DeviceEvent doUpdatePortStatus(ProviderId providerId,
+                                           DeviceId deviceId,
+                                           PortDescription portDescription) {
         final Timestamp newTimestamp;
         try {
             newTimestamp = deviceClockService.getTimestamp(deviceId);
@@ -1024,7 +1051,11 @@ public class GossipDeviceStore
     }
 
     @Override
-    public synchronized DeviceEvent removeDevice(DeviceId deviceId) {
+    public DeviceEvent removeDevice(DeviceId deviceId) {
+        return withDeviceLock(deviceId, () -> doRemoveDevice(deviceId));
+    }
+
+    private DeviceEvent doRemoveDevice(DeviceId deviceId) {
         final NodeId myId = clusterService.getLocalNode().id();
         NodeId master = mastershipService.getMasterFor(deviceId);
 
@@ -1077,6 +1108,28 @@ public class GossipDeviceStore
         return event;
     }
 
+    /**
+     * Runs the given task holding the provider update lock of the device.
+     * Updates for the same device are applied one at a time, as the
+     * timestamp acquired by an update must not be overtaken by a later
+     * update of the same device; updates for other devices proceed in
+     * parallel.
+     *
+     * @param deviceId identifier of the device
+     * @param task     task to run
+     * @param <T>      task result type
+     * @return task result
+     */
+    private <T> T withDeviceLock(DeviceId deviceId, Supplier<T> task) {
+        Lock lock = deviceLocks.get(deviceId);
+        lock.lock();
+        try {
+            return task.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private DeviceEvent removeDeviceInternal(DeviceId deviceId, Timestamp timestamp) {
 
         Map<ProviderId, DeviceDescriptions> descs = getOrCreateDeviceDescriptionsMap(deviceId);
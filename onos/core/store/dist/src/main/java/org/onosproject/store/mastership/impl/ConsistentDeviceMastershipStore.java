@@ -30,6 +30,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -40,8 +41,12 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.Leadership;
 import org.onosproject.cluster.LeadershipAdminService;
 import org.onosproject.cluster.LeadershipEvent;
@@ -62,9 +67,9 @@ import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.Serializer;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Counter;
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -90,6 +95,9 @@ public class ConsistentDeviceMastershipStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterCommunicationService clusterCommunicator;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     private NodeId localNodeId;
 
     private static final MessageSubject ROLE_RELINQUISH_SUBJECT =
@@ -107,6 +115,18 @@ public class ConsistentDeviceMastershipStore
     private static final String NODE_ID_NULL = "Node ID cannot be null";
     private static final String DEVICE_ID_NULL = "Device ID cannot be null";
     private static final int WAIT_BEFORE_MASTERSHIP_HANDOFF_MILLIS = 3000;
+    private static final int RECONCILE_PERIOD_SECONDS = 5;
+
+    private static final String METRICS_COMPONENT = "MastershipStore";
+    private static final String METRICS_FEATURE = "mastershipCache";
+
+    // Local view of the device mastership elections, maintained from
+    // leadership events and reconciled with the leadership service every
+    // RECONCILE_PERIOD_SECONDS; serves role lookups without a distributed read
+    private final Map<DeviceId, CachedLeadership> mastershipCache = Maps.newConcurrentMap();
+    private Counter cacheMisses;
+    private Counter divergences;
+    private Counter staleReads;
 
     public static final Serializer SERIALIZER = Serializer.using(
             KryoNamespace.newBuilder()
@@ -135,7 +155,12 @@ public class ConsistentDeviceMastershipStore
                 messageHandlingExecutor);
         localNodeId = clusterService.getLocalNode().id();
         leadershipService.addListener(leadershipEventListener);
+        transferExecutor.scheduleWithFixedDelay(this::reconcileCache,
+                RECONCILE_PERIOD_SECONDS, RECONCILE_PERIOD_SECONDS, TimeUnit.SECONDS);
 
+        cacheMisses = createCounter("misses");
+        divergences = createCounter("divergences");
+        staleReads = createCounter("staleReads");
         log.info("Started");
     }
 
@@ -146,6 +171,7 @@ public class ConsistentDeviceMastershipStore
         messageHandlingExecutor.shutdown();
         transferExecutor.shutdown();
         eventHandler.shutdown();
+        mastershipCache.clear();
         log.info("Stopped");
     }
 
@@ -155,6 +181,9 @@ public class ConsistentDeviceMastershipStore
 
         String leadershipTopic = createDeviceMastershipTopic(deviceId);
         Leadership leadership = leadershipService.runForLeadership(leadershipTopic);
+        if (leadership != null) {
+            updateCache(deviceId, leadership);
+        }
         NodeId leader = leadership == null ? null : leadership.leaderNodeId();
         List<NodeId> candidates = leadership == null ?
                 ImmutableList.of() : ImmutableList.copyOf(leadership.candidates());
@@ -168,11 +197,10 @@ public class ConsistentDeviceMastershipStore
         checkArgument(nodeId != null, NODE_ID_NULL);
         checkArgument(deviceId != null, DEVICE_ID_NULL);
 
-        String leadershipTopic = createDeviceMastershipTopic(deviceId);
-        Leadership leadership = leadershipService.getLeadership(leadershipTopic);
+        Leadership leadership = leadership(deviceId);
         NodeId leader = leadership == null ? null : leadership.leaderNodeId();
         List<NodeId> candidates = leadership == null ?
-                ImmutableList.of() : ImmutableList.copyOf(leadership.candidates());
+                ImmutableList.of() : leadership.candidates();
         return Objects.equal(nodeId, leader) ?
                 MastershipRole.MASTER : candidates.contains(nodeId) ? MastershipRole.STANDBY : MastershipRole.NONE;
     }
@@ -181,31 +209,29 @@ public class ConsistentDeviceMastershipStore
     public NodeId getMaster(DeviceId deviceId) {
         checkArgument(deviceId != null, DEVICE_ID_NULL);
 
-        return leadershipService.getLeader(createDeviceMastershipTopic(deviceId));
+        Leadership leadership = leadership(deviceId);
+        return leadership == null ? null : leadership.leaderNodeId();
     }
 
     @Override
     public RoleInfo getNodes(DeviceId deviceId) {
         checkArgument(deviceId != null, DEVICE_ID_NULL);
 
-        Map<NodeId, MastershipRole> roles = Maps.newHashMap();
-        clusterService.getNodes()
-                      .forEach((node) -> roles.put(node.id(), getRole(node.id(), deviceId)));
-
-        NodeId master = null;
-        final List<NodeId> standbys = Lists.newLinkedList();
-
-        List<NodeId> candidates = leadershipService.getCandidates(createDeviceMastershipTopic(deviceId));
-
-        for (Map.Entry<NodeId, MastershipRole> entry : roles.entrySet()) {
-            if (entry.getValue() == MastershipRole.MASTER) {
-                master = entry.getKey();
-            } else if (entry.getValue() == MastershipRole.STANDBY) {
-                standbys.add(entry.getKey());
-            }
+        Leadership leadership = leadership(deviceId);
+        if (leadership == null) {
+            return new RoleInfo();
         }
 
-        List<NodeId> sortedStandbyList = candidates.stream().filter(standbys::contains).collect(Collectors.toList());
+        Set<NodeId> nodes = clusterService.getNodes()
+                .stream()
+                .map(ControllerNode::id)
+                .collect(Collectors.toSet());
+        NodeId leader = leadership.leaderNodeId();
+        NodeId master = nodes.contains(leader) ? leader : null;
+        List<NodeId> sortedStandbyList = leadership.candidates()
+                .stream()
+                .filter(n -> !n.equals(leader) && nodes.contains(n))
+                .collect(Collectors.toList());
 
         return new RoleInfo(master, sortedStandbyList);
     }
@@ -243,8 +269,7 @@ public class ConsistentDeviceMastershipStore
     public MastershipTerm getTermFor(DeviceId deviceId) {
         checkArgument(deviceId != null, DEVICE_ID_NULL);
 
-        String leadershipTopic = createDeviceMastershipTopic(deviceId);
-        Leadership leadership = leadershipService.getLeadership(leadershipTopic);
+        Leadership leadership = leadership(deviceId);
         return leadership != null && leadership.leaderNodeId() != null ?
             MastershipTerm.of(leadership.leaderNodeId(), leadership.leader().term()) : null;
     }
@@ -304,6 +329,7 @@ public class ConsistentDeviceMastershipStore
         MastershipEvent.Type eventType = localNodeId.equals(leadershipService.getLeader(leadershipTopic)) ?
                 MastershipEvent.Type.MASTER_CHANGED : MastershipEvent.Type.BACKUPS_CHANGED;
         leadershipService.withdraw(leadershipTopic);
+        mastershipCache.remove(deviceId);
         return CompletableFuture.completedFuture(new MastershipEvent(eventType, deviceId, getNodes(deviceId)));
     }
 
@@ -322,6 +348,16 @@ public class ConsistentDeviceMastershipStore
 
         @Override
         public void event(LeadershipEvent event) {
+            // update the cache ahead of notifying the delegate so that the
+            // new roles are visible as soon as possible
+            DeviceId deviceId = extractDeviceIdFromTopic(event.subject().topic());
+            if (event.type() == LeadershipEvent.Type.SERVICE_DISRUPTED ||
+                    event.type() == LeadershipEvent.Type.SERVICE_RESTORED) {
+                // the elections may have moved on without us; reload on next lookup
+                mastershipCache.remove(deviceId);
+            } else {
+                updateCache(deviceId, event.subject());
+            }
             eventHandler.execute(() -> handleEvent(event));
         }
 
@@ -359,6 +395,119 @@ public class ConsistentDeviceMastershipStore
         }
     }
 
+    /**
+     * Returns the leadership of the mastership election of the given device,
+     * preferably from the local cache.
+     *
+     * @param deviceId device identifier
+     * @return leadership or null if there is no election for the device
+     */
+    private Leadership leadership(DeviceId deviceId) {
+        CachedLeadership cached = mastershipCache.get(deviceId);
+        if (cached != null) {
+            cached.hits.increment();
+            return cached.leadership;
+        }
+        increment(cacheMisses, 1);
+        Leadership leadership = leadershipService.getLeadership(createDeviceMastershipTopic(deviceId));
+        if (leadership != null) {
+            updateCache(deviceId, leadership);
+        }
+        return leadership;
+    }
+
+    // Caches the given leadership unless a leadership of a later term is
+    // already cached.
+    private void updateCache(DeviceId deviceId, Leadership leadership) {
+        mastershipCache.compute(deviceId, (id, cached) ->
+                cached != null && isLaterTerm(cached.leadership, leadership) ?
+                        cached : new CachedLeadership(leadership));
+    }
+
+    private static boolean isLaterTerm(Leadership leadership, Leadership other) {
+        return leadership.leader() != null && other.leader() != null &&
+                leadership.leader().term() > other.leader().term();
+    }
+
+    /**
+     * Compares the cached leaderships with those of the leadership service
+     * and drops the entries which diverged, so that they are reloaded on
+     * next lookup.
+     */
+    void reconcileCache() {
+        try {
+            Map<DeviceId, Leadership> leaderships = Maps.newHashMap();
+            leadershipService.getLeaderBoard().forEach((topic, leadership) -> {
+                if (isDeviceMastershipTopic(topic)) {
+                    leaderships.put(extractDeviceIdFromTopic(topic), leadership);
+                }
+            });
+
+            int diverged = 0;
+            for (Map.Entry<DeviceId, CachedLeadership> entry : mastershipCache.entrySet()) {
+                CachedLeadership cached = entry.getValue();
+                Leadership leadership = leaderships.get(entry.getKey());
+                if (leadership != null && (isLaterTerm(cached.leadership, leadership) ||
+                        (Objects.equal(cached.leadership.leader(), leadership.leader()) &&
+                                Objects.equal(cached.leadership.candidates(), leadership.candidates())))) {
+                    cached.confirm();
+                    continue;
+                }
+                if (mastershipCache.remove(entry.getKey(), cached)) {
+                    // the entry may have diverged at any time since it was
+                    // last confirmed, so all the hits since are counted stale
+                    long hits = cached.hits.sum();
+                    log.debug("Mastership of {} diverged; cached {} but was {}; " +
+                                      "{} reads in the {} ms since last confirmed",
+                              entry.getKey(), cached.leadership, leadership,
+                              hits, System.currentTimeMillis() - cached.confirmedAt);
+                    increment(staleReads, hits);
+                    diverged++;
+                }
+            }
+            if (diverged > 0) {
+                log.info("Repaired {} diverged device mastership cache entries", diverged);
+                increment(divergences, diverged);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to reconcile device mastership cache", e);
+        }
+    }
+
+    private Counter createCounter(String name) {
+        if (metricsService != null) {
+            MetricsComponent c = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature f = c.registerFeature(METRICS_FEATURE);
+            return metricsService.createCounter(c, f, name);
+        }
+        return null;
+    }
+
+    private static void increment(Counter counter, long n) {
+        if (counter != null) {
+            counter.inc(n);
+        }
+    }
+
+    /**
+     * Cached leadership, along with the lookups it served since it was
+     * cached or last confirmed by reconciliation.
+     */
+    private static final class CachedLeadership {
+        private final Leadership leadership;
+        private final LongAdder hits = new LongAdder();
+        private volatile long confirmedAt = System.currentTimeMillis();
+
+        private CachedLeadership(Leadership leadership) {
+            this.leadership = leadership;
+        }
+
+        private void confirm() {
+            hits.reset();
+            confirmedAt = System.currentTimeMillis();
+        }
+    }
+
     private String createDeviceMastershipTopic(DeviceId deviceId) {
         return String.format("device:%s", deviceId.toString());
     }
@@ -37,6 +37,9 @@ import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
+import org.onosproject.net.statistic.DefaultLoad;
+import org.onosproject.net.statistic.Load;
+import org.onosproject.net.statistic.LoadTimeSeries;
 import org.onosproject.net.statistic.StatisticStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.MessageSubject;
@@ -91,6 +94,7 @@ public class DistributedStatisticStore implements StatisticStore {
 
     public static final MessageSubject GET_CURRENT = new MessageSubject("peer-return-current");
     public static final MessageSubject GET_PREVIOUS = new MessageSubject("peer-return-previous");
+    public static final MessageSubject GET_LOAD = new MessageSubject("peer-return-load");
 
     private Map<ConnectPoint, InternalStatisticRepresentation> representations =
             new ConcurrentHashMap<>();
@@ -101,7 +105,12 @@ public class DistributedStatisticStore implements StatisticStore {
     private Map<ConnectPoint, Set<FlowEntry>> current =
             new ConcurrentHashMap<>();
 
+    private Map<ConnectPoint, LoadTimeSeries> loads =
+            new ConcurrentHashMap<>();
+
     protected static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.API);
+    protected static final Serializer LOAD_SERIALIZER =
+            Serializer.using(KryoNamespaces.API, LoadTimeSeries.class);
 
     private ExecutorService messageHandlingExecutor;
 
@@ -134,12 +143,19 @@ public class DistributedStatisticStore implements StatisticStore {
                 SERIALIZER::encode,
                 messageHandlingExecutor);
 
+        clusterCommunicator.<ConnectPoint, LoadTimeSeries>addSubscriber(GET_LOAD,
+                LOAD_SERIALIZER::decode,
+                this::getLoadTimeSeriesInternal,
+                LOAD_SERIALIZER::encode,
+                messageHandlingExecutor);
+
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
         cfgService.unregisterProperties(getClass(), false);
+        clusterCommunicator.removeSubscriber(GET_LOAD);
         clusterCommunicator.removeSubscriber(GET_PREVIOUS);
         clusterCommunicator.removeSubscriber(GET_CURRENT);
         messageHandlingExecutor.shutdown();
@@ -227,7 +243,10 @@ public class DistributedStatisticStore implements StatisticStore {
         }
         previous.put(cp, curr);
         current.put(cp, flowEntries);
-
+        // Aggregates the published flow entries once, so that load queries
+        // need not walk them again.
+        loads.computeIfAbsent(cp, k -> new LoadTimeSeries())
+                .record(System.currentTimeMillis(), flowEntries);
     }
 
     @Override
@@ -285,6 +304,46 @@ public class DistributedStatisticStore implements StatisticStore {
         return previous.get(connectPoint);
     }
 
+    @Override
+    public Load getLoad(ConnectPoint connectPoint) {
+        final DeviceId deviceId = connectPoint.deviceId();
+        NodeId master = mastershipService.getMasterFor(deviceId);
+        if (master != null && master.equals(clusterService.getLocalNode().id())) {
+            // served from the series itself, without taking a snapshot
+            LoadTimeSeries series = loads.get(connectPoint);
+            return series == null ? new DefaultLoad() : series.latest();
+        }
+        return getLoadTimeSeries(connectPoint).latest();
+    }
+
+    @Override
+    public LoadTimeSeries getLoadTimeSeries(ConnectPoint connectPoint) {
+        final DeviceId deviceId = connectPoint.deviceId();
+        NodeId master = mastershipService.getMasterFor(deviceId);
+        if (master == null) {
+            log.warn("No master for {}", deviceId);
+            return new LoadTimeSeries();
+        }
+        if (master.equals(clusterService.getLocalNode().id())) {
+            return getLoadTimeSeriesInternal(connectPoint);
+        } else {
+            return Tools.futureGetOrElse(clusterCommunicator.sendAndReceive(
+                                        connectPoint,
+                                        GET_LOAD,
+                                        LOAD_SERIALIZER::encode,
+                                        LOAD_SERIALIZER::decode,
+                                        master),
+                                   STATISTIC_STORE_TIMEOUT_MILLIS,
+                                   TimeUnit.MILLISECONDS,
+                                   new LoadTimeSeries());
+        }
+    }
+
+    private LoadTimeSeries getLoadTimeSeriesInternal(ConnectPoint connectPoint) {
+        LoadTimeSeries series = loads.get(connectPoint);
+        return series == null ? new LoadTimeSeries() : series.copy();
+    }
+
     private InternalStatisticRepresentation getOrCreateRepresentation(ConnectPoint cp) {
 
         if (representations.containsKey(cp)) {
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.topology.impl;
 
+import com.google.common.collect.ImmutableMap;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -36,6 +37,10 @@ import org.onosproject.net.Link;
 import org.onosproject.net.Path;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.region.RegionEvent;
+import org.onosproject.net.region.RegionId;
+import org.onosproject.net.region.RegionListener;
+import org.onosproject.net.region.RegionService;
 import org.onosproject.net.topology.ClusterId;
 import org.onosproject.net.topology.DefaultGraphDescription;
 import org.onosproject.net.topology.GeoDistanceLinkWeight;
@@ -63,6 +68,7 @@ import org.slf4j.Logger;
 
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -73,6 +79,7 @@ import java.util.stream.Stream;
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.isNullOrEmpty;
+import static org.onlab.util.Tools.isPropertyEnabled;
 import static org.onosproject.net.topology.TopologyEvent.Type.TOPOLOGY_CHANGED;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -91,7 +98,7 @@ public class DistributedTopologyStore
 
     private final Logger log = getLogger(getClass());
 
-    private static final String FORMAT = "Settings: linkWeightFunction={}";
+    private static final String FORMAT = "Settings: linkWeightFunction={}, hierarchicalPaths={}";
 
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
@@ -114,6 +121,9 @@ public class DistributedTopologyStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected RegionService regionService;
+
     private static final String HOP_COUNT = "hopCount";
     private static final String LINK_METRIC = "linkMetric";
     private static final String GEO_DISTANCE = "geoDistance";
@@ -123,6 +133,17 @@ public class DistributedTopologyStore
             label = "Default link-weight function: hopCount, linkMetric, geoDistance")
     private String linkWeightFunction = DEFAULT_LINK_WEIGHT_FUNCTION;
 
+    private static final boolean DEFAULT_HIERARCHICAL_PATHS = false;
+    @Property(name = "hierarchicalPaths", boolValue = DEFAULT_HIERARCHICAL_PATHS,
+            label = "Compute paths region by region, joining regions through their border devices")
+    private boolean hierarchicalPaths = DEFAULT_HIERARCHICAL_PATHS;
+
+    // Region of each device, replaced whenever region membership changes
+    // so that the current topology searches its paths again
+    private volatile Map<DeviceId, RegionId> deviceRegions = ImmutableMap.of();
+
+    private final RegionListener regionListener = new InternalRegionListener();
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -134,6 +155,7 @@ public class DistributedTopologyStore
     @Activate
     protected void activate(ComponentContext context) {
         configService.registerProperties(getClass());
+        regionService.addListener(regionListener);
         modified(context);
         KryoNamespace.Builder hostSerializer = KryoNamespace.newBuilder()
                 .register(KryoNamespaces.API);
@@ -150,6 +172,7 @@ public class DistributedTopologyStore
     @Deactivate
     protected void deactivate() {
         configService.unregisterProperties(getClass(), false);
+        regionService.removeListener(regionListener);
         broadcastPoints.removeListener(listener);
         broadcastPoints.destroy();
         log.info("Stopped");
@@ -169,7 +192,13 @@ public class DistributedTopologyStore
                             new GeoDistanceLinkWeight(deviceService) : null;
             setDefaultLinkWeigher(weight);
         }
-        log.info(FORMAT, linkWeightFunction);
+
+        Boolean newHierarchicalPaths = isPropertyEnabled(properties, "hierarchicalPaths");
+        if (newHierarchicalPaths != null) {
+            hierarchicalPaths = newHierarchicalPaths;
+        }
+        updateDeviceRegions();
+        log.info(FORMAT, linkWeightFunction, hierarchicalPaths);
     }
 
     @Override
@@ -292,7 +321,8 @@ public class DistributedTopologyStore
                                         List<Event> reasons) {
         // Have the default topology construct self from the description data.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint,
+                                    () -> deviceRegions);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
@@ -307,6 +337,20 @@ public class DistributedTopologyStore
         }
     }
 
+    // Records the region of each device assigned to one, or none if paths
+    // are not searched for region by region; a device listed in several
+    // regions is kept in the first one found.
+    private synchronized void updateDeviceRegions() {
+        if (!hierarchicalPaths) {
+            deviceRegions = ImmutableMap.of();
+            return;
+        }
+        Map<DeviceId, RegionId> regions = new HashMap<>();
+        regionService.getRegions().forEach(r -> regionService.getRegionDevices(r.id())
+                .forEach(d -> regions.putIfAbsent(d, r.id())));
+        deviceRegions = ImmutableMap.copyOf(regions);
+    }
+
     private void updateBroadcastPoints(DefaultTopology topology) {
         // Remove any broadcast trees rooted by devices for which we are master.
         Set<DeviceId> toRemove = broadcastPoints.keySet().stream()
@@ -342,6 +386,18 @@ public class DistributedTopologyStore
         DefaultTopology.setDefaultGraphPathSearch(graphPathSearch);
     }
 
+    private class InternalRegionListener implements RegionListener {
+        @Override
+        public boolean isRelevant(RegionEvent event) {
+            return hierarchicalPaths && event.type() != RegionEvent.Type.REGION_UPDATED;
+        }
+
+        @Override
+        public void event(RegionEvent event) {
+            updateDeviceRegions();
+        }
+    }
+
     private class InternalBroadcastPointListener
             implements EventuallyConsistentMapListener<DeviceId, Set<ConnectPoint>> {
         @Override
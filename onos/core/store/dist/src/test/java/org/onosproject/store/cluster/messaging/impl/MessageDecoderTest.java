@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.core.HybridLogicalTime;
+import org.onosproject.store.cluster.messaging.Endpoint;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.store.cluster.messaging.impl.MessageDecoder.RETAINED_CONTENT_THRESHOLD;
+
+/**
+ * Unit tests for the message decoder, checking that the inbound buffers are
+ * released on every path.
+ */
+public class MessageDecoderTest {
+
+    private static final int PREAMBLE = 1234;
+    private static final String SUBJECT = "test-subject";
+    private static final Endpoint SENDER = new Endpoint(IpAddress.valueOf("127.0.0.1"), 5678);
+    private static final HybridLogicalTime TIME = new HybridLogicalTime(1, 2);
+
+    private EmbeddedChannel encoder;
+    private EmbeddedChannel decoder;
+
+    @Before
+    public void setUp() {
+        encoder = new EmbeddedChannel(new MessageEncoder(SENDER, PREAMBLE));
+        decoder = new EmbeddedChannel(new MessageDecoder());
+    }
+
+    @After
+    public void tearDown() {
+        encoder.finish();
+        decoder.finish();
+    }
+
+    private static byte[] payload(int length) {
+        byte[] payload = new byte[length];
+        new Random(length).nextBytes(payload);
+        return payload;
+    }
+
+    private ByteBuf encode(InternalMessage message) {
+        assertTrue(encoder.writeOutbound(message));
+        return encoder.readOutbound();
+    }
+
+    private InternalMessage decode(ByteBuf frame) {
+        assertTrue(decoder.writeInbound(frame));
+        return decoder.readInbound();
+    }
+
+    /**
+     * Tests that a large request payload is handed out as a view of the
+     * inbound buffer, which is released with the message.
+     */
+    @Test
+    public void testLargeRequestBuffer() {
+        byte[] payload = payload(RETAINED_CONTENT_THRESHOLD * 4);
+        ByteBuf frame = encode(new InternalRequest(PREAMBLE, TIME, 1, SENDER, SUBJECT, payload));
+
+        InternalRequest request = (InternalRequest) decode(frame);
+        assertEquals(SUBJECT, request.subject());
+        assertEquals(1, frame.refCnt());
+
+        ByteBuffer view = request.payloadBuffer();
+        assertTrue(view.isReadOnly());
+        byte[] received = new byte[view.remaining()];
+        view.get(received);
+        assertTrue(Arrays.equals(payload, received));
+
+        request.release();
+        assertEquals(0, frame.refCnt());
+
+        // releasing twice does not release the buffer of another message
+        request.release();
+        assertEquals(0, frame.refCnt());
+    }
+
+    /**
+     * Tests that a large reply payload copied out of the inbound buffer
+     * releases it.
+     */
+    @Test
+    public void testLargeReplyCopy() {
+        byte[] payload = payload(RETAINED_CONTENT_THRESHOLD);
+        ByteBuf frame = encode(new InternalReply(PREAMBLE, TIME, 1, payload, InternalReply.Status.OK));
+
+        InternalReply reply = (InternalReply) decode(frame);
+        assertEquals(InternalReply.Status.OK, reply.status());
+        assertEquals(1, frame.refCnt());
+
+        assertTrue(Arrays.equals(payload, reply.payload()));
+        assertEquals(0, frame.refCnt());
+        assertTrue(Arrays.equals(payload, reply.payload()));
+    }
+
+    /**
+     * Tests that a small payload is copied by the decoder, which releases
+     * the inbound buffer right away.
+     */
+    @Test
+    public void testSmallPayload() {
+        byte[] payload = payload(RETAINED_CONTENT_THRESHOLD - 1);
+        ByteBuf frame = encode(new InternalRequest(PREAMBLE, TIME, 1, SENDER, SUBJECT, payload));
+
+        InternalRequest request = (InternalRequest) decode(frame);
+        assertEquals(0, frame.refCnt());
+        assertTrue(Arrays.equals(payload, request.payload()));
+    }
+
+    /**
+     * Tests that the payload of a message still being decoded is released
+     * when the channel is closed.
+     */
+    @Test
+    public void testPartialMessageReleased() {
+        byte[] payload = payload(RETAINED_CONTENT_THRESHOLD * 2);
+        ByteBuf frame = encode(new InternalRequest(PREAMBLE, TIME, 1, SENDER, SUBJECT, payload));
+
+        // everything but the subject
+        ByteBuf partial = Unpooled.buffer(frame.readableBytes());
+        frame.readBytes(partial, frame.readableBytes() - SUBJECT.length());
+        frame.release();
+
+        assertFalse(decoder.writeInbound(partial));
+        assertEquals(2, partial.refCnt());
+
+        decoder.close();
+        assertEquals(0, partial.refCnt());
+    }
+}
@@ -18,6 +18,7 @@ package org.onosproject.store.cluster.messaging.impl;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.netty.util.ResourceLeakDetector;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -34,7 +35,9 @@ import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.cluster.messaging.Endpoint;
 
 import java.net.ConnectException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -240,6 +243,34 @@ public class NettyMessagingManagerTest {
         assertEquals("handler-thread", handlerThreadName.get());
     }
 
+    @Test
+    public void testSendAndReceiveLargePayloadWithBufferHandler() {
+        // Report any inbound buffer which is not released; the release of
+        // each buffer is checked by MessageDecoderTest
+        ResourceLeakDetector.Level leakDetectionLevel = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        try {
+            String subject = nextSubject();
+            byte[] request = new byte[64 * 1024];
+            new Random(1).nextBytes(request);
+            AtomicBoolean readOnly = new AtomicBoolean();
+
+            BiFunction<Endpoint, ByteBuffer, byte[]> handler = (ep, data) -> {
+                readOnly.set(data.isReadOnly());
+                byte[] bytes = new byte[data.remaining()];
+                data.get(bytes);
+                return bytes;
+            };
+            netty2.registerBufferHandler(subject, handler, MoreExecutors.directExecutor());
+
+            CompletableFuture<byte[]> response = netty1.sendAndReceive(ep2, subject, request);
+            assertTrue(Arrays.equals(request, response.join()));
+            assertTrue(readOnly.get());
+        } finally {
+            ResourceLeakDetector.setLevel(leakDetectionLevel);
+        }
+    }
+
     private ClusterMetadataService dummyMetadataService(String name, String ipAddress, Endpoint ep) {
         return new ClusterMetadataService() {
             @Override
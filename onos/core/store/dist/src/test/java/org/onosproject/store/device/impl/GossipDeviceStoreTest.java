@@ -62,6 +62,7 @@ import org.onosproject.store.service.StorageService;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -69,6 +70,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
@@ -628,6 +631,64 @@ public class GossipDeviceStoreTest {
         assertTrue(message.hasCaptured());
     }
 
+    @Test
+    public final void testConcurrentPortStatusUpdates() throws InterruptedException {
+        final int portsPerDevice = 16;
+        final int updatesPerPort = 50;
+        putDevice(DID1, SW1);
+        putDevice(DID2, SW2);
+        List<PortDescription> pds = new ArrayList<>();
+        for (int i = 1; i <= portsPerDevice; i++) {
+            pds.add(DefaultPortDescription.builder()
+                            .withPortNumber(PortNumber.portNumber(i)).isEnabled(true).build());
+        }
+        deviceStore.updatePorts(PID, DID1, pds);
+        deviceStore.updatePorts(PID, DID2, pds);
+
+        reset(clusterCommunicator);
+        clusterCommunicator.<InternalPortStatusEvent>broadcast(
+                anyObject(InternalPortStatusEvent.class), anyObject(MessageSubject.class), anyObject(Function.class));
+        expectLastCall().anyTimes();
+        replay(clusterCommunicator);
+
+        // one thread per port of each device, all updating at once
+        List<DeviceId> devices = asList(DID1, DID2);
+        ExecutorService executor = Executors.newFixedThreadPool(devices.size() * portsPerDevice);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(devices.size() * portsPerDevice);
+        for (DeviceId did : devices) {
+            for (int i = 1; i <= portsPerDevice; i++) {
+                PortNumber number = PortNumber.portNumber(i);
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        // toggle the port, leaving it enabled
+                        for (int u = 1; u <= updatesPerPort; u++) {
+                            deviceStore.updatePortStatus(PID, did,
+                                    DefaultPortDescription.builder().withPortNumber(number)
+                                            .isEnabled(u % 2 == 0).build());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+        }
+        start.countDown();
+        assertTrue("Updates completed", done.await(30, TimeUnit.SECONDS));
+        executor.shutdownNow();
+
+        for (DeviceId did : devices) {
+            List<Port> ports = deviceStore.getPorts(did);
+            assertEquals(portsPerDevice, ports.size());
+            for (Port port : ports) {
+                assertTrue("Port " + port.number() + " of " + did + " is enabled", port.isEnabled());
+            }
+        }
+    }
+
     @Test
     public final void testUpdatePortStatusAncillary() throws IOException {
         putDeviceAncillary(DID1, SW1);
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.mastership.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.Leader;
+import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.LeadershipEvent;
+import org.onosproject.cluster.LeadershipEventListener;
+import org.onosproject.cluster.LeadershipServiceAdapter;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.mastership.MastershipTerm;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.MastershipRole;
+import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.onosproject.net.DeviceId.deviceId;
+
+/**
+ * Test of the local mastership cache of the device mastership store.
+ */
+public class ConsistentDeviceMastershipStoreTest {
+
+    private static final NodeId N1 = new NodeId("local");
+    private static final NodeId N2 = new NodeId("n2");
+    private static final DeviceId DID1 = deviceId("of:01");
+    private static final DeviceId DID2 = deviceId("of:02");
+    private static final String TOPIC1 = "device:" + DID1;
+
+    private TestLeadershipService leadershipService;
+    private MetricsManager metrics;
+    private ConsistentDeviceMastershipStore store;
+
+    @Before
+    public void setUp() {
+        leadershipService = new TestLeadershipService();
+        metrics = new MetricsManager();
+        store = new ConsistentDeviceMastershipStore();
+        store.metricsService = metrics;
+        store.leadershipService = leadershipService;
+        store.clusterService = new TestClusterService();
+        store.clusterCommunicator = new ClusterCommunicationServiceAdapter();
+        store.activate();
+    }
+
+    @After
+    public void tearDown() {
+        store.deactivate();
+    }
+
+    private static Leadership leadership(String topic, NodeId leader, long term, NodeId... candidates) {
+        return new Leadership(topic, new Leader(leader, term, 0), ImmutableList.copyOf(candidates));
+    }
+
+    private long count(String counter) {
+        return metrics.getMetricRegistry().counter("MastershipStore.mastershipCache." + counter).getCount();
+    }
+
+    /**
+     * Tests that repeated lookups are served without reading the leadership
+     * service again.
+     */
+    @Test
+    public void lookupsServedFromCache() {
+        leadershipService.leaderships.put(TOPIC1, leadership(TOPIC1, N1, 1, N1, N2));
+
+        assertEquals(N1, store.getMaster(DID1));
+        assertEquals(MastershipRole.MASTER, store.getRole(N1, DID1));
+        assertEquals(MastershipRole.STANDBY, store.getRole(N2, DID1));
+        assertEquals(MastershipTerm.of(N1, 1), store.getTermFor(DID1));
+        assertEquals(N1, store.getNodes(DID1).master());
+        assertEquals(ImmutableList.of(N2), store.getNodes(DID1).backups());
+        assertEquals(1, leadershipService.reads);
+
+        // devices without an election are looked up every time
+        assertNull(store.getMaster(DID2));
+        assertEquals(MastershipRole.NONE, store.getRole(N1, DID2));
+        assertEquals(3, leadershipService.reads);
+    }
+
+    /**
+     * Tests that leadership events update the cache, ignoring events of an
+     * earlier term.
+     */
+    @Test
+    public void eventsUpdateCache() {
+        leadershipService.leaderships.put(TOPIC1, leadership(TOPIC1, N1, 1, N1, N2));
+        assertEquals(N1, store.getMaster(DID1));
+
+        leadershipService.post(LeadershipEvent.Type.LEADER_AND_CANDIDATES_CHANGED,
+                               leadership(TOPIC1, N2, 2, N2));
+        assertEquals(N2, store.getMaster(DID1));
+        assertEquals(MastershipRole.NONE, store.getRole(N1, DID1));
+
+        leadershipService.post(LeadershipEvent.Type.LEADER_CHANGED,
+                               leadership(TOPIC1, N1, 1, N1, N2));
+        assertEquals(MastershipTerm.of(N2, 2), store.getTermFor(DID1));
+
+        leadershipService.post(LeadershipEvent.Type.SERVICE_DISRUPTED,
+                               leadership(TOPIC1, N2, 2, N2));
+        assertEquals(N1, store.getMaster(DID1));
+        assertEquals(2, leadershipService.reads);
+    }
+
+    /**
+     * Tests that entries which diverged from the leadership service are
+     * repaired by reconciliation.
+     */
+    @Test
+    public void divergedEntriesRepaired() {
+        leadershipService.leaderships.put(TOPIC1, leadership(TOPIC1, N1, 1, N1, N2));
+        assertEquals(N1, store.getMaster(DID1));
+        assertEquals(N1, store.getMaster(DID1));
+
+        // hits served before a confirming reconciliation are not stale
+        store.reconcileCache();
+
+        // missed event
+        leadershipService.leaderships.put(TOPIC1, leadership(TOPIC1, N2, 2, N2, N1));
+        assertEquals(N1, store.getMaster(DID1));
+        assertEquals(N1, store.getMaster(DID1));
+
+        store.reconcileCache();
+        assertEquals(N2, store.getMaster(DID1));
+        assertEquals(2, leadershipService.reads);
+        assertEquals(2, count("misses"));
+        assertEquals(1, count("divergences"));
+        // the hits since the last confirmation were served by the stale entry
+        assertEquals(2, count("staleReads"));
+
+        // consistent entries are kept
+        store.reconcileCache();
+        assertEquals(N2, store.getMaster(DID1));
+        assertEquals(2, leadershipService.reads);
+    }
+
+    private static class TestClusterService extends ClusterServiceAdapter {
+        private final ControllerNode n2 =
+                new DefaultControllerNode(N2, IpAddress.valueOf("127.0.0.2"));
+
+        @Override
+        public Set<ControllerNode> getNodes() {
+            return ImmutableSet.of(getLocalNode(), n2);
+        }
+    }
+
+    private static class TestLeadershipService extends LeadershipServiceAdapter {
+        private final Map<String, Leadership> leaderships = Maps.newHashMap();
+        private LeadershipEventListener listener;
+        private int reads;
+
+        void post(LeadershipEvent.Type type, Leadership leadership) {
+            LeadershipEvent event = new LeadershipEvent(type, leadership);
+            if (listener.isRelevant(event)) {
+                listener.event(event);
+            }
+        }
+
+        @Override
+        public Leadership getLeadership(String path) {
+            reads++;
+            return leaderships.get(path);
+        }
+
+        @Override
+        public Map<String, Leadership> getLeaderBoard() {
+            return ImmutableMap.copyOf(leaderships);
+        }
+
+        @Override
+        public void addListener(LeadershipEventListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removeListener(LeadershipEventListener listener) {
+            this.listener = null;
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.onosproject.net.flow.TrafficTreatment;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
 import org.onosproject.net.intent.IntentTestsMocks;
+import org.onosproject.net.statistic.Load;
 import org.onosproject.net.statistic.StatisticStore;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
 import org.osgi.service.component.ComponentContext;
@@ -226,4 +227,28 @@ public class DistributedStatisticStoreTest {
         assertThat(store.getCurrentStatistic(cp1), is(empty()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLoadTimeSeries() {
+        FlowEntry flowTest1 = makeFlowEntry(1);
+        cp1 = new ConnectPoint(flowTest1.deviceId(), PortNumber.portNumber(0));
+        assertThat(store.getLoadTimeSeries(cp1).size(), is(0));
+
+        store.prepareForStatistics(flowTest1);
+        store.addOrUpdateStatistic(flowTest1);
+        assertThat(store.getLoadTimeSeries(cp1).size(), is(1));
+        assertThat(store.getLoadTimeSeries(cp1).latest().isValid(), is(false));
+
+        FlowEntry flowTest2 = makeFlowEntry(10);
+        store.addOrUpdateStatistic(flowTest2);
+        Load load = store.getLoadTimeSeries(cp1).latest();
+        assertThat(load.isValid(), is(true));
+        assertThat(load.latest(), is(11L));
+        assertThat(store.getLoad(cp1).latest(), is(11L));
+
+        store.removeFromStatistics(flowTest1);
+        store.removeFromStatistics(flowTest2);
+        assertThat(store.getLoadTimeSeries(cp1).size(), is(0));
+        assertThat(store.getLoad(cp1).isValid(), is(false));
+    }
+
+}
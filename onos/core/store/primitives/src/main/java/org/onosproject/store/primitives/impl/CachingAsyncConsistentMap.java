@@ -17,7 +17,9 @@ package org.onosproject.store.primitives.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -163,6 +165,18 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
                 .whenComplete((r, e) -> cache.invalidate(key));
     }
 
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> putAll(Map<K, V> entries) {
+        return super.putAll(entries)
+                .whenComplete((r, e) -> cache.invalidateAll(entries.keySet()));
+    }
+
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> removeAll(Set<K> keys) {
+        return super.removeAll(keys)
+                .whenComplete((r, e) -> cache.invalidateAll(keys));
+    }
+
     @Override
     public CompletableFuture<Boolean> containsKey(K key) {
         return cache.getUnchecked(key).thenApply(Objects::nonNull)
@@ -17,12 +17,17 @@ package org.onosproject.store.primitives.impl;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Maps;
+
+import org.onlab.util.Tools;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.Versioned;
 
 /**
@@ -62,6 +67,25 @@ public class NotNullAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
         return super.put(key, value);
     }
 
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        return super.getAll(keys).thenApply(m -> Maps.filterValues(m, v -> v.value() != null));
+    }
+
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> putAll(Map<K, V> entries) {
+        if (!entries.containsValue(null)) {
+            return super.putAll(entries);
+        }
+        Set<K> removals = Maps.filterValues(entries, Objects::isNull).keySet();
+        Map<K, V> updates = Maps.filterValues(entries, Objects::nonNull);
+        return super.removeAll(removals).thenCombine(super.putAll(updates), (removed, updated) -> {
+            Map<K, Versioned<V>> result = Maps.newHashMap(removed);
+            result.putAll(updated);
+            return result;
+        });
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> putAndGet(K key, V value) {
         if (value == null) {
@@ -84,6 +108,11 @@ public class NotNullAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
             .collect(Collectors.toSet()));
     }
 
+    @Override
+    public CompletableFuture<AsyncIterator<Map.Entry<K, Versioned<V>>>> iterator() {
+        return super.iterator().thenApply(NotNullIterator::new);
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> putIfAbsent(K key, V value) {
         if (value == null) {
@@ -127,4 +156,52 @@ public class NotNullAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     public CompletableFuture<Boolean> replace(K key, long oldVersion, V newValue) {
         return super.replace(key, oldVersion, newValue);
     }
+
+    /**
+     * Iterator which skips entries with null values.
+     */
+    private class NotNullIterator implements AsyncIterator<Map.Entry<K, Versioned<V>>> {
+        private final AsyncIterator<Map.Entry<K, Versioned<V>>> iterator;
+        private volatile Map.Entry<K, Versioned<V>> next;
+
+        NotNullIterator(AsyncIterator<Map.Entry<K, Versioned<V>>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hasNext() {
+            if (next != null) {
+                return CompletableFuture.completedFuture(true);
+            }
+            return iterator.hasNext().thenCompose(hasNext -> {
+                if (!hasNext) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                return iterator.next().thenCompose(entry -> {
+                    if (entry.getValue().value() == null) {
+                        return hasNext();
+                    }
+                    next = entry;
+                    return CompletableFuture.completedFuture(true);
+                });
+            });
+        }
+
+        @Override
+        public CompletableFuture<Map.Entry<K, Versioned<V>>> next() {
+            return hasNext().thenCompose(hasNext -> {
+                if (!hasNext) {
+                    return Tools.exceptionalFuture(new NoSuchElementException());
+                }
+                Map.Entry<K, Versioned<V>> entry = next;
+                next = null;
+                return CompletableFuture.completedFuture(entry);
+            });
+        }
+
+        @Override
+        public CompletableFuture<Void> close() {
+            return iterator.close();
+        }
+    }
 }
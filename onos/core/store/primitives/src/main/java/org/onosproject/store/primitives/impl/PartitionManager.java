@@ -35,6 +35,7 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cluster.ClusterEvent;
 import org.onosproject.cluster.ClusterEventListener;
@@ -59,6 +60,7 @@ import org.onosproject.store.primitives.PartitionAdminService;
 import org.onosproject.store.primitives.PartitionEvent;
 import org.onosproject.store.primitives.PartitionEventListener;
 import org.onosproject.store.primitives.PartitionService;
+import org.onosproject.store.primitives.resources.impl.SnapshotEntries;
 import org.onosproject.store.service.PartitionClientInfo;
 import org.onosproject.store.service.PartitionInfo;
 import org.onosproject.upgrade.Upgrade;
@@ -96,6 +98,9 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected UpgradeService upgradeService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private final Map<PartitionId, StoragePartition> inactivePartitions = Maps.newConcurrentMap();
     private final Map<PartitionId, StoragePartition> activePartitions = Maps.newConcurrentMap();
     private final AtomicReference<ClusterMetadata> currentClusterMetadata = new AtomicReference<>();
@@ -107,6 +112,7 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
     @Activate
     public void activate() {
         eventDispatcher.addSink(PartitionEvent.class, listenerRegistry);
+        SnapshotEntries.setMetricsService(metricsService);
         currentClusterMetadata.set(metadataService.getClusterMetadata());
 
         clusterService.addListener(clusterListener);
@@ -170,6 +176,7 @@ public class PartitionManager extends AbstractListenerManager<PartitionEvent, Pa
         upgradeService.removeListener(upgradeListener);
         metadataService.removeListener(metadataListener);
         eventDispatcher.removeSink(PartitionEvent.class);
+        SnapshotEntries.setMetricsService(null);
 
         CompletableFuture<Void> closeFuture = CompletableFuture.allOf(
                 CompletableFuture.allOf(inactivePartitions.values().stream()
@@ -18,8 +18,11 @@ package org.onosproject.store.primitives.impl;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
@@ -35,12 +38,14 @@ import org.onosproject.cluster.PartitionId;
 import org.onosproject.store.primitives.MapUpdate;
 import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.TransactionLog;
 import org.onosproject.store.service.Version;
 import org.onosproject.store.service.Versioned;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 
@@ -126,6 +131,45 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
         return getMap(key).remove(key);
     }
 
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> getAll(Set<K> keys) {
+        return Tools.allOf(partitionKeys(keys).entrySet().stream()
+                        .map(e -> partitions.get(e.getKey()).getAll(e.getValue()))
+                        .collect(Collectors.toList()),
+                this::mergeResults,
+                ImmutableMap.of());
+    }
+
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> putAll(Map<K, V> entries) {
+        Map<PartitionId, Map<K, V>> partitionEntries = Maps.newHashMap();
+        entries.forEach((key, value) -> partitionEntries
+                .computeIfAbsent(keyHasher.hash(key), p -> Maps.newHashMap())
+                .put(key, value));
+        return Tools.allOf(partitionEntries.entrySet().stream()
+                        .map(e -> partitions.get(e.getKey()).putAll(e.getValue()))
+                        .collect(Collectors.toList()),
+                this::mergeResults,
+                ImmutableMap.of());
+    }
+
+    @Override
+    public CompletableFuture<Map<K, Versioned<V>>> removeAll(Set<K> keys) {
+        return Tools.allOf(partitionKeys(keys).entrySet().stream()
+                        .map(e -> partitions.get(e.getKey()).removeAll(e.getValue()))
+                        .collect(Collectors.toList()),
+                this::mergeResults,
+                ImmutableMap.of());
+    }
+
+    private Map<PartitionId, Set<K>> partitionKeys(Set<K> keys) {
+        return keys.stream().collect(Collectors.groupingBy(keyHasher::hash, Collectors.toSet()));
+    }
+
+    private Map<K, Versioned<V>> mergeResults(Map<K, Versioned<V>> m1, Map<K, Versioned<V>> m2) {
+        return ImmutableMap.<K, Versioned<V>>builder().putAll(m1).putAll(m2).build();
+    }
+
     @Override
     public CompletableFuture<Void> clear() {
         return CompletableFuture.allOf(getMaps().stream()
@@ -154,6 +198,12 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
                 ImmutableSet.of());
     }
 
+    @Override
+    public CompletableFuture<AsyncIterator<Entry<K, Versioned<V>>>> iterator() {
+        return Tools.allOf(getMaps().stream().map(m -> m.iterator()).collect(Collectors.toList()))
+                .thenApply(PartitionedMultiIterator::new);
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> putIfAbsent(K key, V value) {
         return getMap(key).putIfAbsent(key, value);
@@ -254,4 +304,55 @@ public class PartitionedAsyncConsistentMap<K, V> implements AsyncConsistentMap<K
     private Collection<AsyncConsistentMap<K, V>> getMaps() {
         return partitions.values();
     }
+
+    /**
+     * Iterator which walks the partition iterators one after another.
+     */
+    private class PartitionedMultiIterator implements AsyncIterator<Entry<K, Versioned<V>>> {
+        private final List<AsyncIterator<Entry<K, Versioned<V>>>> partitionIterators;
+        private final Iterator<AsyncIterator<Entry<K, Versioned<V>>>> iterators;
+        private volatile AsyncIterator<Entry<K, Versioned<V>>> iterator;
+
+        PartitionedMultiIterator(List<AsyncIterator<Entry<K, Versioned<V>>>> partitionIterators) {
+            this.partitionIterators = partitionIterators;
+            this.iterators = partitionIterators.iterator();
+            this.iterator = iterators.hasNext() ? iterators.next() : null;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hasNext() {
+            AsyncIterator<Entry<K, Versioned<V>>> current = iterator;
+            if (current == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            return current.hasNext().thenCompose(hasNext -> {
+                if (hasNext) {
+                    return CompletableFuture.completedFuture(true);
+                }
+                synchronized (this) {
+                    if (iterator == current) {
+                        iterator = iterators.hasNext() ? iterators.next() : null;
+                    }
+                }
+                return hasNext();
+            });
+        }
+
+        @Override
+        public CompletableFuture<Entry<K, Versioned<V>>> next() {
+            return hasNext().thenCompose(hasNext -> {
+                if (!hasNext) {
+                    return Tools.exceptionalFuture(new NoSuchElementException());
+                }
+                return iterator.next();
+            });
+        }
+
+        @Override
+        public CompletableFuture<Void> close() {
+            return CompletableFuture.allOf(partitionIterators.stream()
+                    .map(AsyncIterator::close)
+                    .toArray(CompletableFuture[]::new));
+        }
+    }
 }
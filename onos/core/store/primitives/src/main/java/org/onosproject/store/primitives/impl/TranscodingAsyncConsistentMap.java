@@ -21,6 +21,7 @@ import org.onlab.util.Tools;
 import org.onosproject.store.primitives.MapUpdate;
 import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.TransactionLog;
@@ -163,6 +164,43 @@ public class TranscodingAsyncConsistentMap<K1, V1, K2, V2> implements AsyncConsi
         }
     }
 
+    @Override
+    public CompletableFuture<Map<K1, Versioned<V1>>> getAll(Set<K1> keys) {
+        try {
+            return backingMap.getAll(keys.stream().map(keyEncoder).collect(Collectors.toSet()))
+                             .thenApply(this::decode);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<K1, Versioned<V1>>> putAll(Map<K1, V1> entries) {
+        try {
+            Map<K2, V2> encoded = Maps.newHashMapWithExpectedSize(entries.size());
+            entries.forEach((k, v) -> encoded.put(keyEncoder.apply(k), valueEncoder.apply(v)));
+            return backingMap.putAll(encoded).thenApply(this::decode);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<K1, Versioned<V1>>> removeAll(Set<K1> keys) {
+        try {
+            return backingMap.removeAll(keys.stream().map(keyEncoder).collect(Collectors.toSet()))
+                             .thenApply(this::decode);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+    }
+
+    private Map<K1, Versioned<V1>> decode(Map<K2, Versioned<V2>> values) {
+        Map<K1, Versioned<V1>> decoded = Maps.newHashMapWithExpectedSize(values.size());
+        values.forEach((k, v) -> decoded.put(keyDecoder.apply(k), versionedValueTransform.apply(v)));
+        return decoded;
+    }
+
     @Override
     public CompletableFuture<Void> clear() {
         return backingMap.clear();
@@ -189,6 +227,13 @@ public class TranscodingAsyncConsistentMap<K1, V1, K2, V2> implements AsyncConsi
                                           .collect(Collectors.toSet()));
     }
 
+    @Override
+    public CompletableFuture<AsyncIterator<Entry<K1, Versioned<V1>>>> iterator() {
+        return backingMap.iterator().thenApply(iterator -> new TranscodingAsyncIterator<>(iterator,
+                entry -> Maps.immutableEntry(keyDecoder.apply(entry.getKey()),
+                                             versionedValueTransform.apply(entry.getValue()))));
+    }
+
     @Override
     public CompletableFuture<Versioned<V1>> putIfAbsent(K1 key, V1 value) {
         try {
@@ -21,6 +21,7 @@ import org.onlab.util.Tools;
 import org.onosproject.store.primitives.MapUpdate;
 import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.service.AsyncConsistentTreeMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.TransactionLog;
@@ -303,6 +304,12 @@ public class TranscodingAsyncConsistentTreeMap<V1, V2>
                                 .collect(Collectors.toSet()));
     }
 
+    @Override
+    public CompletableFuture<AsyncIterator<Map.Entry<String, Versioned<V1>>>> iterator() {
+        return backingMap.iterator().thenApply(iterator -> new TranscodingAsyncIterator<>(iterator,
+                entry -> Maps.immutableEntry(entry.getKey(), versionedValueTransform.apply(entry.getValue()))));
+    }
+
     @Override
     public CompletableFuture<Versioned<V1>> putIfAbsent(String key, V1 value) {
         return backingMap.putIfAbsent(key, valueEncoder.apply(value))
@@ -16,10 +16,13 @@
 package org.onosproject.store.primitives.resources.impl;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,9 +38,13 @@ import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ContainsKey;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ContainsValue;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Get;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GetAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GetOrDefault;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.IteratorPosition;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Put;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PutAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Remove;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveValue;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveVersion;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Replace;
@@ -50,6 +57,7 @@ import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperat
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.TransactionRollback;
 import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.ConsistentMapException;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
@@ -62,20 +70,26 @@ import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMa
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ADD_LISTENER;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.BEGIN;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CLEAR;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CLOSE_ITERATOR;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.COMMIT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CONTAINS_KEY;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CONTAINS_VALUE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ENTRY_SET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET_OR_DEFAULT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.IS_EMPTY;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.KEY_SET;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.NEXT;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.OPEN_ITERATOR;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PREPARE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PREPARE_AND_COMMIT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_AND_GET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_IF_ABSENT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_LISTENER;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_VALUE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_VERSION;
@@ -167,6 +181,12 @@ public class AtomixConsistentMap extends AbstractRaftPrimitive implements AsyncC
         return proxy.invoke(ENTRY_SET, serializer()::decode);
     }
 
+    @Override
+    public CompletableFuture<AsyncIterator<Entry<String, Versioned<byte[]>>>> iterator() {
+        return proxy.<Long>invoke(OPEN_ITERATOR, serializer()::decode)
+                .thenApply(ConsistentMapIterator::new);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public CompletableFuture<Versioned<byte[]>> put(String key, byte[] value) {
@@ -365,6 +385,58 @@ public class AtomixConsistentMap extends AbstractRaftPrimitive implements AsyncC
         return CompletableFuture.completedFuture(null);
     }
 
+    @Override
+    public CompletableFuture<Map<String, Versioned<byte[]>>> getAll(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return proxy.invoke(GET_ALL, serializer()::encode, new GetAll(keys), serializer()::decode);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Versioned<byte[]>>> putAll(Map<String, byte[]> entries) {
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return proxy.<PutAll, List<MapEntryUpdateResult<String, byte[]>>>invoke(
+                PUT_ALL,
+                serializer()::encode,
+                new PutAll(entries),
+                serializer()::decode)
+                .whenComplete((r, e) -> throwIfAnyLocked(r))
+                .thenApply(this::results);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Versioned<byte[]>>> removeAll(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        return proxy.<RemoveAll, List<MapEntryUpdateResult<String, byte[]>>>invoke(
+                REMOVE_ALL,
+                serializer()::encode,
+                new RemoveAll(keys),
+                serializer()::decode)
+                .whenComplete((r, e) -> throwIfAnyLocked(r))
+                .thenApply(this::results);
+    }
+
+    private Map<String, Versioned<byte[]>> results(List<MapEntryUpdateResult<String, byte[]>> results) {
+        Map<String, Versioned<byte[]>> values = new HashMap<>();
+        results.forEach(r -> {
+            if (r.result() != null) {
+                values.put(r.key(), r.result());
+            }
+        });
+        return values;
+    }
+
+    private void throwIfAnyLocked(List<MapEntryUpdateResult<String, byte[]>> results) {
+        if (results != null) {
+            results.forEach(this::throwIfLocked);
+        }
+    }
+
     private void throwIfLocked(MapEntryUpdateResult<String, byte[]> result) {
         if (result != null) {
             throwIfLocked(result.status());
@@ -430,4 +502,75 @@ public class AtomixConsistentMap extends AbstractRaftPrimitive implements AsyncC
     private boolean isListening() {
         return !mapEventListeners.isEmpty();
     }
-}
\ No newline at end of file
+
+    /**
+     * Consistent map iterator which fetches batches of entries from the
+     * service as it advances. Each batch resumes after the last key of the
+     * previous one and reads the map as of when the iterator was opened.
+     */
+    private class ConsistentMapIterator implements AsyncIterator<Entry<String, Versioned<byte[]>>> {
+        private final long iteratorId;
+        private volatile CompletableFuture<IteratorBatch<Entry<String, Versioned<byte[]>>>> batch;
+        private volatile CompletableFuture<Void> closeFuture;
+
+        ConsistentMapIterator(long iteratorId) {
+            this.iteratorId = iteratorId;
+            this.batch = CompletableFuture.completedFuture(new IteratorBatch<>(null, Collections.emptyList()));
+        }
+
+        /**
+         * Returns the current batch, fetching the next one from the service
+         * once the current batch has been consumed.
+         *
+         * @return future to be completed with the current batch, or
+         * {@code null} if the iterator is exhausted
+         */
+        private synchronized CompletableFuture<IteratorBatch<Entry<String, Versioned<byte[]>>>> batch() {
+            return batch.thenCompose(batch -> {
+                if (batch != null && !batch.hasNext()) {
+                    return fetch(batch.position());
+                }
+                return CompletableFuture.completedFuture(batch);
+            });
+        }
+
+        private synchronized CompletableFuture<IteratorBatch<Entry<String, Versioned<byte[]>>>> fetch(
+                String position) {
+            batch = proxy.<IteratorPosition, IteratorBatch<Entry<String, Versioned<byte[]>>>>invoke(
+                    NEXT,
+                    serializer()::encode,
+                    new IteratorPosition(iteratorId, position),
+                    serializer()::decode)
+                    .thenCompose(batch -> {
+                        if (batch == null) {
+                            return close().thenApply(v -> null);
+                        }
+                        return CompletableFuture.completedFuture(batch);
+                    });
+            return batch;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> hasNext() {
+            return batch().thenApply(batch -> batch != null && batch.hasNext());
+        }
+
+        @Override
+        public CompletableFuture<Entry<String, Versioned<byte[]>>> next() {
+            return batch().thenCompose(batch -> {
+                if (batch == null || !batch.hasNext()) {
+                    return Tools.exceptionalFuture(new NoSuchElementException());
+                }
+                return CompletableFuture.completedFuture(batch.next());
+            });
+        }
+
+        @Override
+        public synchronized CompletableFuture<Void> close() {
+            if (closeFuture == null) {
+                closeFuture = proxy.invoke(CLOSE_ITERATOR, serializer()::encode, iteratorId);
+            }
+            return closeFuture;
+        }
+    }
+}
@@ -26,6 +26,12 @@ import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.TransactionLog;
 import org.onosproject.store.service.Versioned;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -39,19 +45,25 @@ public enum AtomixConsistentMapOperations implements OperationId {
     CONTAINS_VALUE(OperationType.QUERY),
     GET(OperationType.QUERY),
     GET_OR_DEFAULT(OperationType.QUERY),
+    GET_ALL(OperationType.QUERY),
     KEY_SET(OperationType.QUERY),
     VALUES(OperationType.QUERY),
     ENTRY_SET(OperationType.QUERY),
+    NEXT(OperationType.QUERY),
     PUT(OperationType.COMMAND),
     PUT_IF_ABSENT(OperationType.COMMAND),
     PUT_AND_GET(OperationType.COMMAND),
     REMOVE(OperationType.COMMAND),
     REMOVE_VALUE(OperationType.COMMAND),
     REMOVE_VERSION(OperationType.COMMAND),
+    PUT_ALL(OperationType.COMMAND),
+    REMOVE_ALL(OperationType.COMMAND),
     REPLACE(OperationType.COMMAND),
     REPLACE_VALUE(OperationType.COMMAND),
     REPLACE_VERSION(OperationType.COMMAND),
     CLEAR(OperationType.COMMAND),
+    OPEN_ITERATOR(OperationType.COMMAND),
+    CLOSE_ITERATOR(OperationType.COMMAND),
     ADD_LISTENER(OperationType.COMMAND),
     REMOVE_LISTENER(OperationType.COMMAND),
     BEGIN(OperationType.COMMAND),
@@ -107,6 +119,11 @@ public enum AtomixConsistentMapOperations implements OperationId {
             .register(MapEntryUpdateResult.Status.class)
             .register(Versioned.class)
             .register(byte[].class)
+            .register(GetAll.class)
+            .register(PutAll.class)
+            .register(RemoveAll.class)
+            .register(IteratorPosition.class)
+            .register(IteratorBatch.class)
             .build("AtomixConsistentMapOperations");
 
     /**
@@ -561,4 +578,131 @@ public enum AtomixConsistentMapOperations implements OperationId {
                     .toString();
         }
     }
+
+    /**
+     * Abstract multi-key operation.
+     */
+    @SuppressWarnings("serial")
+    public abstract static class KeysOperation extends MapOperation {
+        protected List<String> keys;
+
+        public KeysOperation() {
+        }
+
+        public KeysOperation(Collection<String> keys) {
+            this.keys = new ArrayList<>(checkNotNull(keys, "keys cannot be null"));
+        }
+
+        /**
+         * Returns the keys.
+         * @return keys
+         */
+        public List<String> keys() {
+            return keys;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(getClass())
+                    .add("keys", keys)
+                    .toString();
+        }
+    }
+
+    /**
+     * Get all query.
+     */
+    @SuppressWarnings("serial")
+    public static class GetAll extends KeysOperation {
+        public GetAll() {
+        }
+
+        public GetAll(Collection<String> keys) {
+            super(keys);
+        }
+    }
+
+    /**
+     * Put all command.
+     */
+    @SuppressWarnings("serial")
+    public static class PutAll extends MapOperation {
+        private Map<String, byte[]> entries;
+
+        public PutAll() {
+        }
+
+        public PutAll(Map<String, byte[]> entries) {
+            this.entries = new HashMap<>(checkNotNull(entries, "entries cannot be null"));
+        }
+
+        /**
+         * Returns the entries to put.
+         * @return entries
+         */
+        public Map<String, byte[]> entries() {
+            return entries;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(getClass())
+                    .add("keys", entries.keySet())
+                    .toString();
+        }
+    }
+
+    /**
+     * Remove all command.
+     */
+    @SuppressWarnings("serial")
+    public static class RemoveAll extends KeysOperation {
+        public RemoveAll() {
+        }
+
+        public RemoveAll(Collection<String> keys) {
+            super(keys);
+        }
+    }
+
+    /**
+     * Iterator position query.
+     */
+    @SuppressWarnings("serial")
+    public static class IteratorPosition extends MapOperation {
+        private long iteratorId;
+        private String position;
+
+        public IteratorPosition() {
+        }
+
+        public IteratorPosition(long iteratorId, String position) {
+            this.iteratorId = iteratorId;
+            this.position = position;
+        }
+
+        /**
+         * Returns the iterator identifier.
+         * @return iterator id
+         */
+        public long iteratorId() {
+            return iteratorId;
+        }
+
+        /**
+         * Returns the key after which to resume iteration.
+         * @return iterator position; {@code null} to start from the first key
+         */
+        public String position() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return toStringHelper(getClass())
+                    .add("iteratorId", iteratorId)
+                    .add("position", position)
+                    .toString();
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -25,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
@@ -33,6 +35,7 @@ import com.google.common.collect.Sets;
 import io.atomix.protocols.raft.service.AbstractRaftService;
 import io.atomix.protocols.raft.service.Commit;
 import io.atomix.protocols.raft.service.RaftServiceExecutor;
+import io.atomix.protocols.raft.service.Scheduled;
 import io.atomix.protocols.raft.session.RaftSession;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
@@ -43,9 +46,13 @@ import org.onosproject.store.primitives.TransactionId;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ContainsKey;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ContainsValue;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Get;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GetAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GetOrDefault;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.IteratorPosition;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Put;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PutAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Remove;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveAll;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveValue;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.RemoveVersion;
 import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.Replace;
@@ -67,20 +74,26 @@ import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMa
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ADD_LISTENER;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.BEGIN;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CLEAR;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CLOSE_ITERATOR;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.COMMIT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CONTAINS_KEY;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.CONTAINS_VALUE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.ENTRY_SET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET_OR_DEFAULT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.IS_EMPTY;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.KEY_SET;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.NEXT;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.OPEN_ITERATOR;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PREPARE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PREPARE_AND_COMMIT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_AND_GET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT_IF_ABSENT;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_ALL;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_LISTENER;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_VALUE;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.REMOVE_VERSION;
@@ -107,14 +120,31 @@ public class AtomixConsistentMapService extends AbstractRaftService {
             .register(MapEntryValue.class)
             .register(MapEntryValue.Type.class)
             .register(new HashMap().keySet().getClass())
+            .register(IteratorContext.class)
+            .register(ReplacedValue.class)
             .build());
 
+    // Upper bounds on the number of entries and value bytes returned per iterator batch
+    private static final int MAX_ITERATOR_BATCH_ENTRIES = 1000;
+    private static final int MAX_ITERATOR_BATCH_BYTES = 1024 * 1024;
+
+    // Time after which an iterator which has not been read to the end is closed
+    private static final long ITERATOR_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
     protected Map<Long, RaftSession> listeners = new LinkedHashMap<>();
     private Map<String, MapEntryValue> map;
     protected Set<String> preparedKeys = Sets.newHashSet();
     protected Map<TransactionId, TransactionScope> activeTransactions = Maps.newHashMap();
     protected long currentVersion;
 
+    // Open iterators, by the index of the commit which opened them
+    protected Map<Long, IteratorContext> iterators = Maps.newHashMap();
+    // Values replaced while iterators are open, oldest first, by key
+    protected Map<String, List<ReplacedValue>> replacedValues = Maps.newHashMap();
+    private final Map<Long, Scheduled> iteratorTimers = Maps.newHashMap();
+    // Sorted keys of the open iterators, built by the first batch query served
+    private final Map<Long, String[]> iteratorKeys = Maps.newHashMap();
+
     public AtomixConsistentMapService() {
         map = createMap();
     }
@@ -135,9 +165,11 @@ public class AtomixConsistentMapService extends AbstractRaftService {
     public void snapshot(SnapshotWriter writer) {
         writer.writeObject(Sets.newHashSet(listeners.keySet()), serializer()::encode);
         writer.writeObject(preparedKeys, serializer()::encode);
-        writer.writeObject(entries(), serializer()::encode);
+        SnapshotEntries.write(writer, entries(), serializer());
         writer.writeObject(activeTransactions, serializer()::encode);
         writer.writeLong(currentVersion);
+        writer.writeObject(iterators, serializer()::encode);
+        writer.writeObject(replacedValues, serializer()::encode);
     }
 
     @Override
@@ -147,9 +179,27 @@ public class AtomixConsistentMapService extends AbstractRaftService {
             listeners.put(sessionId, sessions().getSession(sessionId));
         }
         preparedKeys = reader.readObject(serializer()::decode);
-        map = reader.readObject(serializer()::decode);
+        map = createMap();
+        boolean streamed = SnapshotEntries.read(reader, map, serializer());
         activeTransactions = reader.readObject(serializer()::decode);
         currentVersion = reader.readLong();
+        // Snapshots taken before entries were streamed hold no iterators
+        if (streamed) {
+            iterators = reader.readObject(serializer()::decode);
+            replacedValues = reader.readObject(serializer()::decode);
+        } else {
+            iterators = Maps.newHashMap();
+            replacedValues = Maps.newHashMap();
+        }
+
+        // Reschedule the expiration of the iterators based on the state machine time of the snapshot
+        iteratorTimers.values().forEach(Scheduled::cancel);
+        iteratorTimers.clear();
+        iteratorKeys.clear();
+        if (!iterators.isEmpty()) {
+            long now = wallClock().getTime().unixTimestamp();
+            iterators.forEach((iteratorId, context) -> scheduleExpiration(iteratorId, context.expire - now));
+        }
     }
 
     @Override
@@ -161,8 +211,10 @@ public class AtomixConsistentMapService extends AbstractRaftService {
         executor.register(CONTAINS_KEY, serializer()::decode, this::containsKey, serializer()::encode);
         executor.register(CONTAINS_VALUE, serializer()::decode, this::containsValue, serializer()::encode);
         executor.register(ENTRY_SET, (Commit<Void> c) -> entrySet(), serializer()::encode);
+        executor.register(NEXT, serializer()::decode, this::next, serializer()::encode);
         executor.register(GET, serializer()::decode, this::get, serializer()::encode);
         executor.register(GET_OR_DEFAULT, serializer()::decode, this::getOrDefault, serializer()::encode);
+        executor.register(GET_ALL, serializer()::decode, this::getAll, serializer()::encode);
         executor.register(IS_EMPTY, (Commit<Void> c) -> isEmpty(), serializer()::encode);
         executor.register(KEY_SET, (Commit<Void> c) -> keySet(), serializer()::encode);
         executor.register(SIZE, (Commit<Void> c) -> size(), serializer()::encode);
@@ -174,10 +226,14 @@ public class AtomixConsistentMapService extends AbstractRaftService {
         executor.register(REMOVE, serializer()::decode, this::remove, serializer()::encode);
         executor.register(REMOVE_VALUE, serializer()::decode, this::removeValue, serializer()::encode);
         executor.register(REMOVE_VERSION, serializer()::decode, this::removeVersion, serializer()::encode);
+        executor.register(PUT_ALL, serializer()::decode, this::putAll, serializer()::encode);
+        executor.register(REMOVE_ALL, serializer()::decode, this::removeAll, serializer()::encode);
         executor.register(REPLACE, serializer()::decode, this::replace, serializer()::encode);
         executor.register(REPLACE_VALUE, serializer()::decode, this::replaceValue, serializer()::encode);
         executor.register(REPLACE_VERSION, serializer()::decode, this::replaceVersion, serializer()::encode);
-        executor.register(CLEAR, (Commit<Void> c) -> clear(), serializer()::encode);
+        executor.register(CLEAR, (Commit<Void> c) -> clear(c.index()), serializer()::encode);
+        executor.register(OPEN_ITERATOR, this::openIterator, serializer()::encode);
+        executor.register(CLOSE_ITERATOR, serializer()::decode, this::closeIterator);
         executor.register(BEGIN, serializer()::decode, this::begin, serializer()::encode);
         executor.register(PREPARE, serializer()::decode, this::prepare, serializer()::encode);
         executor.register(PREPARE_AND_COMMIT, serializer()::decode, this::prepareAndCommit, serializer()::encode);
@@ -236,6 +292,23 @@ public class AtomixConsistentMapService extends AbstractRaftService {
         }
     }
 
+    /**
+     * Handles a get all commit.
+     *
+     * @param commit get all commit
+     * @return values mapped to the keys present in the map
+     */
+    protected Map<String, Versioned<byte[]>> getAll(Commit<? extends GetAll> commit) {
+        Map<String, Versioned<byte[]>> result = new HashMap<>();
+        for (String key : commit.value().keys()) {
+            Versioned<byte[]> value = toVersioned(entries().get(key));
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
     /**
      * Handles a size commit.
      *
@@ -293,6 +366,164 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Handles an open iterator commit.
+     * <p>
+     * The iterator reads the map as of the commit which opened it. Values
+     * replaced or removed while it is open are retained until it is closed,
+     * so opening an iterator copies no entries.
+     *
+     * @param commit the open iterator commit
+     * @return iterator identifier
+     */
+    protected long openIterator(Commit<Void> commit) {
+        iterators.put(commit.index(), new IteratorContext(
+                commit.session().sessionId().id(),
+                wallClock().getTime().unixTimestamp() + ITERATOR_TIMEOUT_MILLIS));
+        scheduleExpiration(commit.index(), ITERATOR_TIMEOUT_MILLIS);
+        return commit.index();
+    }
+
+    /**
+     * Handles an iterator next commit.
+     * <p>
+     * Entries are returned in key order starting after the key at which the
+     * previous batch ended. The keys present at the iterator version are
+     * sorted once, by the first batch served for the iterator.
+     *
+     * @param commit the next commit
+     * @return next batch of entries, or {@code null} if the iterator is exhausted
+     */
+    protected IteratorBatch<Map.Entry<String, Versioned<byte[]>>> next(Commit<IteratorPosition> commit) {
+        long iteratorId = commit.value().iteratorId();
+        if (!iterators.containsKey(iteratorId)) {
+            throw new IllegalStateException("Unknown iterator " + iteratorId);
+        }
+
+        String[] keys = iteratorKeys.computeIfAbsent(iteratorId, id ->
+                Stream.concat(entries().keySet().stream(), replacedValues.keySet().stream())
+                        .distinct()
+                        .filter(key -> !valueIsNull(valueAt(key, id)))
+                        .sorted()
+                        .toArray(String[]::new));
+
+        String position = commit.value().position();
+        int index = 0;
+        if (position != null) {
+            index = Arrays.binarySearch(keys, position);
+            index = index < 0 ? -index - 1 : index + 1;
+        }
+
+        List<Map.Entry<String, Versioned<byte[]>>> entries = Lists.newArrayList();
+        int bytes = 0;
+        while (index < keys.length
+                && entries.size() < MAX_ITERATOR_BATCH_ENTRIES
+                && (entries.isEmpty() || bytes < MAX_ITERATOR_BATCH_BYTES)) {
+            MapEntryValue value = valueAt(keys[index], iteratorId);
+            entries.add(Maps.immutableEntry(keys[index], toVersioned(value)));
+            bytes += value.value() != null ? value.value().length : 0;
+            index++;
+        }
+        return entries.isEmpty() ? null : new IteratorBatch<>(keys[index - 1], entries);
+    }
+
+    /**
+     * Handles a close iterator commit.
+     *
+     * @param commit the close iterator commit
+     */
+    protected void closeIterator(Commit<Long> commit) {
+        removeIterator(commit.value());
+    }
+
+    private void removeIterator(long iteratorId) {
+        if (iterators.remove(iteratorId) == null) {
+            return;
+        }
+        Scheduled timer = iteratorTimers.remove(iteratorId);
+        if (timer != null) {
+            timer.cancel();
+        }
+        iteratorKeys.remove(iteratorId);
+
+        // Discard the replaced values no longer visible to any open iterator
+        if (iterators.isEmpty()) {
+            replacedValues.clear();
+        } else {
+            long lowWaterMark = iterators.keySet().stream().mapToLong(Long::longValue).min().getAsLong();
+            Iterator<List<ReplacedValue>> iterator = replacedValues.values().iterator();
+            while (iterator.hasNext()) {
+                List<ReplacedValue> values = iterator.next();
+                values.removeIf(value -> value.index <= lowWaterMark);
+                if (values.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void scheduleExpiration(long iteratorId, long delayMillis) {
+        iteratorTimers.put(iteratorId, scheduler().schedule(Duration.ofMillis(Math.max(delayMillis, 0)), () -> {
+            // The timer runs on the state machine thread, as part of the log, on every server
+            iteratorTimers.remove(iteratorId);
+            removeIterator(iteratorId);
+        }));
+    }
+
+    /**
+     * Returns the value of a key as of the given version.
+     *
+     * @param key the key
+     * @param version the version at which to read the key
+     * @return the value at the given version, or {@code null} if the key was not set
+     */
+    private MapEntryValue valueAt(String key, long version) {
+        List<ReplacedValue> values = replacedValues.get(key);
+        if (values != null) {
+            // The first value replaced after the version was either current at that version or set after it
+            for (ReplacedValue value : values) {
+                if (value.index > version) {
+                    return value.value.version() <= version ? value.value : null;
+                }
+            }
+        }
+        MapEntryValue value = entries().get(key);
+        return value != null && value.version() <= version ? value : null;
+    }
+
+    /**
+     * Sets the value of a key, retaining the previous value for open iterators.
+     *
+     * @param index the index of the commit setting the value
+     * @param key the key
+     * @param value the new value
+     * @return the previous value, or {@code null} if the key was not set
+     */
+    private MapEntryValue putEntry(long index, String key, MapEntryValue value) {
+        MapEntryValue previous = entries().put(key, value);
+        retain(index, key, previous);
+        return previous;
+    }
+
+    /**
+     * Removes the value of a key, retaining it for open iterators.
+     *
+     * @param index the index of the commit removing the value
+     * @param key the key
+     * @return the removed value, or {@code null} if the key was not set
+     */
+    private MapEntryValue removeEntry(long index, String key) {
+        MapEntryValue previous = entries().remove(key);
+        retain(index, key, previous);
+        return previous;
+    }
+
+    private void retain(long index, String key, MapEntryValue previous) {
+        if (previous != null && !iterators.isEmpty()) {
+            replacedValues.computeIfAbsent(key, k -> Lists.newArrayList()).add(new ReplacedValue(index, previous));
+        }
+    }
+
     /**
      * Returns a boolean indicating whether the given MapEntryValues are equal.
      *
@@ -349,7 +580,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                         key,
                         toVersioned(oldValue));
             }
-            entries().put(commit.value().key(),
+            putEntry(commit.index(), commit.value().key(),
                     new MapEntryValue(MapEntryValue.Type.VALUE, newValue.version(), newValue.value()));
             Versioned<byte[]> result = toVersioned(oldValue);
             publish(new MapEvent<>(MapEvent.Type.INSERT, "", key, toVersioned(newValue), result));
@@ -363,7 +594,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                         key,
                         toVersioned(oldValue));
             }
-            entries().put(commit.value().key(),
+            putEntry(commit.index(), commit.value().key(),
                     new MapEntryValue(MapEntryValue.Type.VALUE, newValue.version(), newValue.value()));
             Versioned<byte[]> result = toVersioned(oldValue);
             publish(new MapEvent<>(MapEvent.Type.UPDATE, "", key, toVersioned(newValue), result));
@@ -397,7 +628,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                     MapEntryValue.Type.VALUE,
                     commit.index(),
                     commit.value().value());
-            entries().put(commit.value().key(), newValue);
+            putEntry(commit.index(), commit.value().key(), newValue);
             Versioned<byte[]> result = toVersioned(newValue);
             publish(new MapEvent<>(MapEvent.Type.INSERT, "", key, result, null));
             return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, null);
@@ -431,7 +662,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                         key,
                         toVersioned(oldValue));
             }
-            entries().put(commit.value().key(), newValue);
+            putEntry(commit.index(), commit.value().key(), newValue);
             Versioned<byte[]> result = toVersioned(newValue);
             publish(new MapEvent<>(MapEvent.Type.INSERT, "", key, result, null));
             return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, result);
@@ -444,7 +675,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                         key,
                         toVersioned(oldValue));
             }
-            entries().put(commit.value().key(), newValue);
+            putEntry(commit.index(), commit.value().key(), newValue);
             Versioned<byte[]> result = toVersioned(newValue);
             publish(new MapEvent<>(MapEvent.Type.UPDATE, "", key, result, toVersioned(oldValue)));
             return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, result);
@@ -475,9 +706,9 @@ public class AtomixConsistentMapService extends AbstractRaftService {
 
         // If no transactions are active, remove the key. Otherwise, replace it with a tombstone.
         if (activeTransactions.isEmpty()) {
-            entries().remove(key);
+            removeEntry(index, key);
         } else {
-            entries().put(key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, index, null));
+            putEntry(index, key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, index, null));
         }
 
         Versioned<byte[]> result = toVersioned(value);
@@ -516,6 +747,95 @@ public class AtomixConsistentMapService extends AbstractRaftService {
         return removeIf(commit.index(), commit.value().key(), v -> v.version() == commit.value().version());
     }
 
+    /**
+     * Handles a put all commit.
+     * <p>
+     * The batch is applied atomically: if any of the keys is locked by a
+     * transaction no entry is updated and every key reports a WRITE_LOCK error.
+     * Changes are published to listeners as a single batch of events.
+     *
+     * @param commit put all commit
+     * @return map entry update result per key
+     */
+    protected List<MapEntryUpdateResult<String, byte[]>> putAll(Commit<? extends PutAll> commit) {
+        Map<String, byte[]> updates = commit.value().entries();
+        if (updates.keySet().stream().anyMatch(preparedKeys::contains)) {
+            return writeLocked(commit.index(), updates.keySet());
+        }
+
+        List<MapEntryUpdateResult<String, byte[]>> results = Lists.newArrayListWithCapacity(updates.size());
+        List<MapEvent<String, byte[]>> events = Lists.newArrayList();
+        updates.forEach((key, bytes) -> {
+            MapEntryValue oldValue = entries().get(key);
+            MapEntryValue newValue = new MapEntryValue(MapEntryValue.Type.VALUE, commit.index(), bytes);
+            Versioned<byte[]> result = toVersioned(oldValue);
+            if (valueIsNull(oldValue)) {
+                putEntry(commit.index(), key, newValue);
+                events.add(new MapEvent<>(MapEvent.Type.INSERT, "", key, toVersioned(newValue), result));
+                results.add(new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, result));
+            } else if (!valuesEqual(oldValue, newValue)) {
+                putEntry(commit.index(), key, newValue);
+                events.add(new MapEvent<>(MapEvent.Type.UPDATE, "", key, toVersioned(newValue), result));
+                results.add(new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, result));
+            } else {
+                results.add(new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.NOOP, commit.index(), key, result));
+            }
+        });
+        if (!events.isEmpty()) {
+            publish(events);
+        }
+        return results;
+    }
+
+    /**
+     * Handles a remove all commit.
+     * <p>
+     * The batch is applied atomically: if any of the keys is locked by a
+     * transaction no entry is removed and every key reports a WRITE_LOCK error.
+     * Removals are published to listeners as a single batch of events.
+     *
+     * @param commit remove all commit
+     * @return map entry update result per key
+     */
+    protected List<MapEntryUpdateResult<String, byte[]>> removeAll(Commit<? extends RemoveAll> commit) {
+        List<String> keys = commit.value().keys();
+        if (keys.stream().anyMatch(preparedKeys::contains)) {
+            return writeLocked(commit.index(), keys);
+        }
+
+        List<MapEntryUpdateResult<String, byte[]>> results = Lists.newArrayListWithCapacity(keys.size());
+        List<MapEvent<String, byte[]>> events = Lists.newArrayList();
+        for (String key : keys) {
+            MapEntryValue value = entries().get(key);
+            if (valueIsNull(value)) {
+                results.add(new MapEntryUpdateResult<>(
+                        MapEntryUpdateResult.Status.PRECONDITION_FAILED, commit.index(), key, null));
+                continue;
+            }
+
+            // If no transactions are active, remove the key. Otherwise, replace it with a tombstone.
+            if (activeTransactions.isEmpty()) {
+                removeEntry(commit.index(), key);
+            } else {
+                putEntry(commit.index(), key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, commit.index(), null));
+            }
+            Versioned<byte[]> result = toVersioned(value);
+            events.add(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, result));
+            results.add(new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, commit.index(), key, result));
+        }
+        if (!events.isEmpty()) {
+            publish(events);
+        }
+        return results;
+    }
+
+    private List<MapEntryUpdateResult<String, byte[]>> writeLocked(long index, Collection<String> keys) {
+        return keys.stream()
+                .map(key -> new MapEntryUpdateResult<>(
+                        MapEntryUpdateResult.Status.WRITE_LOCK, index, key, toVersioned(entries().get(key))))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Handles a replace commit.
      *
@@ -543,7 +863,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
             return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.WRITE_LOCK, index, key, null);
         }
 
-        entries().put(key, newValue);
+        putEntry(index, key, newValue);
         Versioned<byte[]> result = toVersioned(oldValue);
         publish(new MapEvent<>(MapEvent.Type.UPDATE, "", key, toVersioned(newValue), result));
         return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.OK, index, key, result);
@@ -587,9 +907,10 @@ public class AtomixConsistentMapService extends AbstractRaftService {
     /**
      * Handles a clear commit.
      *
+     * @param index the clear commit index
      * @return clear result
      */
-    protected MapEntryUpdateResult.Status clear() {
+    protected MapEntryUpdateResult.Status clear(long index) {
         Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
         Map<String, MapEntryValue> entriesToAdd = new HashMap<>();
         while (iterator.hasNext()) {
@@ -599,6 +920,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
             if (!valueIsNull(value)) {
                 Versioned<byte[]> removedValue = new Versioned<>(value.value(), value.version());
                 publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, removedValue));
+                retain(index, key, value);
                 if (activeTransactions.isEmpty()) {
                     iterator.remove();
                 } else {
@@ -779,7 +1101,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
                 continue;
             }
 
-            MapEntryValue previousValue = entries().remove(key);
+            MapEntryValue previousValue = removeEntry(currentVersion, key);
             MapEntryValue newValue = null;
 
             // If the record is not a delete, create a transactional commit.
@@ -792,7 +1114,7 @@ public class AtomixConsistentMapService extends AbstractRaftService {
 
             MapEvent<String, byte[]> event;
             if (newValue != null) {
-                entries().put(key, newValue);
+                putEntry(currentVersion, key, newValue);
                 if (!valueIsNull(newValue)) {
                     if (!valueIsNull(previousValue)) {
                         event = new MapEvent<>(
@@ -929,6 +1251,11 @@ public class AtomixConsistentMapService extends AbstractRaftService {
 
     private void closeListener(Long sessionId) {
         listeners.remove(sessionId);
+        iterators.entrySet().stream()
+                .filter(entry -> entry.getValue().sessionId == sessionId)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(this::removeIterator);
     }
 
     /**
@@ -1035,4 +1362,30 @@ public class AtomixConsistentMapService extends AbstractRaftService {
             return new TransactionScope(version, commit.value().transactionLog());
         }
     }
+
+    /**
+     * Map iterator context.
+     */
+    protected static final class IteratorContext {
+        private final long sessionId;
+        private final long expire;
+
+        private IteratorContext(long sessionId, long expire) {
+            this.sessionId = sessionId;
+            this.expire = expire;
+        }
+    }
+
+    /**
+     * Value replaced while iterators are open.
+     */
+    protected static final class ReplacedValue {
+        private final long index;
+        private final MapEntryValue value;
+
+        private ReplacedValue(long index, MapEntryValue value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
 }
\ No newline at end of file
@@ -121,7 +121,7 @@ public class AtomixConsistentSetMultimapService extends AbstractRaftService {
     public void snapshot(SnapshotWriter writer) {
         writer.writeLong(globalVersion.get());
         writer.writeObject(Sets.newHashSet(listeners.keySet()), serializer::encode);
-        writer.writeObject(backingMap, serializer::encode);
+        SnapshotEntries.write(writer, backingMap, serializer);
     }
 
     @Override
@@ -133,7 +133,8 @@ public class AtomixConsistentSetMultimapService extends AbstractRaftService {
             listeners.put(sessionId, sessions().getSession(sessionId));
         }
 
-        backingMap = reader.readObject(serializer::decode);
+        backingMap = Maps.newHashMap();
+        SnapshotEntries.read(reader, backingMap, serializer);
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.resources.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Batch of elements returned by a primitive iterator.
+ *
+ * @param <T> element type
+ */
+public class IteratorBatch<T> implements Iterator<T> {
+    private String position;
+    private List<T> entries;
+    private transient volatile Iterator<T> iterator;
+
+    public IteratorBatch() {
+    }
+
+    public IteratorBatch(String position, Collection<T> entries) {
+        this.position = position;
+        this.entries = new ArrayList<>(entries);
+    }
+
+    /**
+     * Returns the key of the last element of this batch, after which the
+     * next batch starts.
+     *
+     * @return iterator position
+     */
+    public String position() {
+        return position;
+    }
+
+    /**
+     * Returns the elements in this batch.
+     *
+     * @return batch elements
+     */
+    public List<T> entries() {
+        return entries;
+    }
+
+    private Iterator<T> iterator() {
+        Iterator<T> iterator = this.iterator;
+        if (iterator == null) {
+            synchronized (this) {
+                iterator = this.iterator;
+                if (iterator == null) {
+                    iterator = entries.iterator();
+                    this.iterator = iterator;
+                }
+            }
+        }
+        return iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator().hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return iterator().next();
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("position", position)
+                .add("size", entries.size())
+                .toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.resources.impl;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.store.service.Serializer;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Streams the entries of a primitive's backing map to and from a snapshot.
+ * Entries are encoded one at a time, so taking or installing a snapshot
+ * never holds more than a single serialized entry in memory, as opposed to
+ * an image of the whole map.
+ * <p>
+ * Streamed entries are preceded by a format marker. Snapshots taken before
+ * entries were streamed hold the whole map as a single object, and are
+ * still installed.
+ */
+public final class SnapshotEntries {
+
+    private static final Logger log = getLogger(SnapshotEntries.class);
+
+    // Marks the streamed layout; a map written as a single object instead
+    // starts with its length, which is never negative
+    private static final int STREAMED_FORMAT = -1;
+
+    private static final String METRICS_COMPONENT = "RaftSnapshots";
+    private static final String METRICS_FEATURE = "entries";
+
+    private static volatile Metrics metrics;
+
+    private SnapshotEntries() {
+    }
+
+    /**
+     * Enables or disables the snapshot metrics. If the metrics service is
+     * not null the time taken and the size of each snapshot are recorded;
+     * otherwise they are only logged.
+     *
+     * @param metricsService optional metrics service
+     */
+    public static void setMetricsService(MetricsService metricsService) {
+        metrics = metricsService != null ? new Metrics(metricsService) : null;
+    }
+
+    /**
+     * Writes the format marker and the entry count, followed by each key and
+     * value, to the snapshot.
+     *
+     * @param writer     snapshot writer
+     * @param entries    entries to write
+     * @param serializer serializer for keys and values
+     * @param <V>        value type
+     */
+    static <V> void write(SnapshotWriter writer, Map<String, V> entries, Serializer serializer) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        writer.writeInt(STREAMED_FORMAT);
+        writer.writeInt(entries.size());
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            bytes += writeRecord(writer, serializer.encode(entry.getKey()));
+            bytes += writeRecord(writer, serializer.encode(entry.getValue()));
+        }
+        long elapsed = System.nanoTime() - start;
+        log.debug("Wrote {} entries ({} bytes) to snapshot in {} ms",
+                  entries.size(), bytes, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        Metrics metrics = SnapshotEntries.metrics;
+        if (metrics != null) {
+            metrics.writes.update(elapsed, TimeUnit.NANOSECONDS);
+            metrics.entries.update(entries.size());
+            metrics.bytes.update(bytes);
+        }
+    }
+
+    /**
+     * Reads entries from the snapshot into the given map, whether they were
+     * written by {@link #write} or as a single map object.
+     *
+     * @param reader     snapshot reader
+     * @param entries    map to populate
+     * @param serializer serializer for keys and values
+     * @param <V>        value type
+     * @return true if the entries were streamed, false if the snapshot
+     * predates streamed entries
+     */
+    static <V> boolean read(SnapshotReader reader, Map<String, V> entries, Serializer serializer) {
+        long start = System.nanoTime();
+        int header = reader.readInt();
+        boolean streamed = header == STREAMED_FORMAT;
+        if (streamed) {
+            int count = reader.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = serializer.decode(readRecord(reader));
+                V value = serializer.decode(readRecord(reader));
+                entries.put(key, value);
+            }
+        } else if (header >= 0) {
+            Map<String, V> map = serializer.decode(reader.readBytes(header));
+            entries.putAll(map);
+        } else {
+            throw new IllegalStateException("Unknown snapshot format " + header);
+        }
+        long elapsed = System.nanoTime() - start;
+        log.debug("Installed {} entries from snapshot in {} ms",
+                  entries.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        Metrics metrics = SnapshotEntries.metrics;
+        if (metrics != null) {
+            metrics.installs.update(elapsed, TimeUnit.NANOSECONDS);
+        }
+        return streamed;
+    }
+
+    // Records are length prefixed, the same way objects are written to snapshots.
+    private static int writeRecord(SnapshotWriter writer, byte[] bytes) {
+        writer.writeInt(bytes.length).writeBytes(bytes);
+        return bytes.length;
+    }
+
+    private static byte[] readRecord(SnapshotReader reader) {
+        return reader.readBytes(reader.readInt());
+    }
+
+    /**
+     * Snapshot metrics.
+     */
+    private static final class Metrics {
+        private final Timer writes;
+        private final Timer installs;
+        private final Histogram entries;
+        private final Histogram bytes;
+
+        private Metrics(MetricsService metricsService) {
+            MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+            MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+            writes = metricsService.createTimer(component, feature, "writes");
+            installs = metricsService.createTimer(component, feature, "installs");
+            entries = metricsService.createHistogram(component, feature, "entriesWritten");
+            bytes = metricsService.createHistogram(component, feature, "bytesWritten");
+        }
+    }
+}
@@ -319,6 +319,21 @@ public class TransactionTest {
             return map.remove(key);
         }
 
+        @Override
+        public Map<K, Versioned<V>> getAll(Set<K> keys) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<K, Versioned<V>> putAll(Map<K, V> entries) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<K, Versioned<V>> removeAll(Set<K> keys) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void clear() {
             map.clear();
@@ -15,6 +15,8 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import io.atomix.protocols.raft.service.impl.DefaultCommit;
 import io.atomix.protocols.raft.session.impl.RaftSessionContext;
 import io.atomix.protocols.raft.storage.RaftStorage;
@@ -25,10 +27,14 @@ import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
 import io.atomix.storage.StorageLevel;
 import io.atomix.time.WallClockTimestamp;
 import org.junit.Test;
+import org.onosproject.store.primitives.resources.impl.AtomixConsistentMapService.MapEntryValue;
 import org.onosproject.store.service.Versioned;
 
+import java.util.Map;
+
 import static org.easymock.EasyMock.mock;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.GET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentMapOperations.PUT;
@@ -75,4 +81,85 @@ public class AtomixConsistentMapServiceTest {
         assertNotNull(value);
         assertArrayEquals("Hello world!".getBytes(), value.value());
     }
+
+    @Test
+    public void testStreamedSnapshot() throws Exception {
+        SnapshotStore store = new SnapshotStore(RaftStorage.newBuilder()
+                .withPrefix("test")
+                .withStorageLevel(StorageLevel.MEMORY)
+                .build());
+        Snapshot snapshot = store.newSnapshot(2, new WallClockTimestamp());
+
+        int count = 1000;
+        AtomixConsistentMapService service = new AtomixConsistentMapService();
+        for (int i = 0; i < count; i++) {
+            service.put(new DefaultCommit<>(
+                    2 + i,
+                    PUT,
+                    new Put("key" + i, ("value" + i).getBytes()),
+                    mock(RaftSessionContext.class),
+                    System.currentTimeMillis()));
+        }
+
+        try (SnapshotWriter writer = snapshot.openWriter()) {
+            service.snapshot(writer);
+        }
+
+        snapshot.complete();
+
+        service = new AtomixConsistentMapService();
+        try (SnapshotReader reader = snapshot.openReader()) {
+            service.install(reader);
+        }
+
+        assertEquals(count, service.size());
+        for (int i = 0; i < count; i += 100) {
+            Versioned<byte[]> value = service.get(new DefaultCommit<>(
+                    2,
+                    GET,
+                    new AtomixConsistentMapOperations.Get("key" + i),
+                    mock(RaftSessionContext.class),
+                    System.currentTimeMillis()));
+            assertNotNull(value);
+            assertArrayEquals(("value" + i).getBytes(), value.value());
+        }
+    }
+
+    @Test
+    public void testLegacySnapshot() throws Exception {
+        SnapshotStore store = new SnapshotStore(RaftStorage.newBuilder()
+                .withPrefix("test")
+                .withStorageLevel(StorageLevel.MEMORY)
+                .build());
+        Snapshot snapshot = store.newSnapshot(2, new WallClockTimestamp());
+
+        // Entries written as a single map, as they were before being streamed
+        AtomixConsistentMapService service = new AtomixConsistentMapService();
+        Map<String, MapEntryValue> entries = Maps.newHashMap();
+        entries.put("foo", new MapEntryValue(MapEntryValue.Type.VALUE, 2, "Hello world!".getBytes()));
+        try (SnapshotWriter writer = snapshot.openWriter()) {
+            writer.writeObject(Sets.newHashSet(), service.serializer()::encode);
+            writer.writeObject(Sets.newHashSet(), service.serializer()::encode);
+            writer.writeObject(entries, service.serializer()::encode);
+            writer.writeObject(Maps.newHashMap(), service.serializer()::encode);
+            writer.writeLong(2);
+        }
+
+        snapshot.complete();
+
+        try (SnapshotReader reader = snapshot.openReader()) {
+            service.install(reader);
+        }
+
+        assertEquals(1, service.size());
+        Versioned<byte[]> value = service.get(new DefaultCommit<>(
+                3,
+                GET,
+                new AtomixConsistentMapOperations.Get("foo"),
+                mock(RaftSessionContext.class),
+                System.currentTimeMillis()));
+        assertNotNull(value);
+        assertEquals(2, value.version());
+        assertArrayEquals("Hello world!".getBytes(), value.value());
+    }
 }
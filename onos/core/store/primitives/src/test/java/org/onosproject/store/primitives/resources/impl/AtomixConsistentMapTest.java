@@ -16,14 +16,21 @@
 package org.onosproject.store.primitives.resources.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import io.atomix.protocols.raft.proxy.RaftProxy;
 import io.atomix.protocols.raft.service.RaftService;
@@ -31,6 +38,7 @@ import org.junit.Test;
 import org.onlab.util.Tools;
 import org.onosproject.store.primitives.MapUpdate;
 import org.onosproject.store.primitives.TransactionId;
+import org.onosproject.store.service.AsyncIterator;
 import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.TransactionLog;
@@ -148,6 +156,127 @@ public class AtomixConsistentMapTest extends AtomixTestBase<AtomixConsistentMap>
         transactionRollbackTests();
     }
 
+    /**
+     * Tests batched multi-key operations.
+     */
+    @Test
+    public void testBatchOperations() throws Throwable {
+        batchOperationTests();
+    }
+
+    protected void batchOperationTests() throws Throwable {
+        final byte[] value1 = Tools.getBytesUtf8("value1");
+        final byte[] value2 = Tools.getBytesUtf8("value2");
+
+        AtomixConsistentMap map = newPrimitive("testBatchOperationsMap");
+        TestMapEventListener listener = new TestMapEventListener();
+        map.addListener(listener).join();
+
+        Map<String, Versioned<byte[]>> previous = map.putAll(ImmutableMap.of("foo", value1, "bar", value1)).join();
+        assertTrue(previous.isEmpty());
+        assertEquals(ImmutableSet.of("foo", "bar"),
+                ImmutableSet.of(listener.event().key(), listener.event().key()));
+        assertFalse(listener.eventReceived());
+
+        Map<String, Versioned<byte[]>> values = map.getAll(ImmutableSet.of("foo", "bar", "baz")).join();
+        assertEquals(2, values.size());
+        assertArrayEquals(value1, values.get("foo").value());
+        assertArrayEquals(value1, values.get("bar").value());
+
+        // unchanged values are reported but do not generate events
+        previous = map.putAll(ImmutableMap.of("foo", value1, "bar", value2)).join();
+        assertEquals(2, previous.size());
+        assertArrayEquals(value1, previous.get("bar").value());
+        MapEvent<String, byte[]> event = listener.event();
+        assertEquals(MapEvent.Type.UPDATE, event.type());
+        assertEquals("bar", event.key());
+        assertFalse(listener.eventReceived());
+
+        Map<String, Versioned<byte[]>> removed = map.removeAll(ImmutableSet.of("foo", "baz")).join();
+        assertEquals(1, removed.size());
+        assertArrayEquals(value1, removed.get("foo").value());
+        event = listener.event();
+        assertEquals(MapEvent.Type.REMOVE, event.type());
+        assertEquals("foo", event.key());
+        assertEquals(1, map.size().join().intValue());
+
+        // a batch touching a key locked by a transaction is rejected as a whole
+        TransactionId transactionId = TransactionId.from("tx1");
+        Version lock = map.begin(transactionId).join();
+        MapUpdate<String, byte[]> update =
+                MapUpdate.<String, byte[]>newBuilder()
+                        .withType(MapUpdate.Type.LOCK)
+                        .withKey("bar")
+                        .withVersion(lock.value())
+                        .build();
+        assertTrue(map.prepare(new TransactionLog<>(transactionId, lock.value(), Arrays.asList(update))).join());
+        try {
+            map.putAll(ImmutableMap.of("foo", value2, "bar", value1)).join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals(ConcurrentModificationException.class, e.getCause().getClass());
+        }
+        assertNull(map.get("foo").join());
+        assertFalse(listener.eventReceived());
+        map.rollback(transactionId).join();
+
+        map.removeListener(listener).join();
+    }
+
+    /**
+     * Tests iterating over the map in batches.
+     */
+    @Test
+    public void testIterator() throws Throwable {
+        iteratorTests();
+    }
+
+    protected void iteratorTests() throws Throwable {
+        final byte[] value1 = Tools.getBytesUtf8("value1");
+        final byte[] value2 = Tools.getBytesUtf8("value2");
+        final int count = 2500;
+
+        AtomixConsistentMap map = newPrimitive("testIteratorMap");
+        assertFalse(map.iterator().join().hasNext().join());
+
+        Map<String, byte[]> entries = Maps.newHashMap();
+        for (int i = 0; i < count; i++) {
+            entries.put(String.valueOf(i), value1);
+        }
+        map.putAll(entries).join();
+
+        AsyncIterator<Map.Entry<String, Versioned<byte[]>>> iterator = map.iterator().join();
+        Set<String> keys = Sets.newHashSet();
+        Map.Entry<String, Versioned<byte[]>> first = iterator.next().join();
+        keys.add(first.getKey());
+
+        // updates applied after the iterator is opened are not visible, whether
+        // or not the batch holding the updated entry has already been fetched
+        String last = Collections.max(entries.keySet());
+        long version = map.get(last).join().version();
+        map.put(first.getKey(), value2).join();
+        map.put(String.valueOf(count - 1), value2).join();
+        map.remove(last).join();
+        map.put(last + "0", value1).join();
+
+        while (iterator.hasNext().join()) {
+            Map.Entry<String, Versioned<byte[]>> entry = iterator.next().join();
+            assertArrayEquals(value1, entry.getValue().value());
+            assertTrue(keys.add(entry.getKey()));
+            if (entry.getKey().equals(last)) {
+                assertEquals(version, entry.getValue().version());
+            }
+        }
+        assertEquals(entries.keySet(), keys);
+
+        try {
+            iterator.next().join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals(NoSuchElementException.class, e.getCause().getClass());
+        }
+    }
+
     protected void basicMapOperationTests() throws Throwable {
         final byte[] rawFooValue = Tools.getBytesUtf8("Hello foo!");
         final byte[] rawBarValue = Tools.getBytesUtf8("Hello bar!");
@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.primitives.resources.impl;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -35,8 +36,10 @@ import static org.easymock.EasyMock.mock;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentSetMultimapOperations.GET;
 import static org.onosproject.store.primitives.resources.impl.AtomixConsistentSetMultimapOperations.PUT;
+import static org.onosproject.store.primitives.resources.impl.AtomixConsistentSetMultimapOperations.SIZE;
 
 /**
  * Consistent set multimap service test.
@@ -81,4 +84,64 @@ public class AtomixConsistentSetMultimapServiceTest {
         assertEquals(1, value.value().size());
         assertArrayEquals("Hello world!".getBytes(), value.value().iterator().next());
     }
+
+    @Test
+    public void testStreamedSnapshot() throws Exception {
+        SnapshotStore store = new SnapshotStore(RaftStorage.newBuilder()
+                .withPrefix("test")
+                .withStorageLevel(StorageLevel.MEMORY)
+                .build());
+        Snapshot snapshot = store.newSnapshot(2, new WallClockTimestamp());
+
+        int count = 500;
+        AtomixConsistentSetMultimapService service = new AtomixConsistentSetMultimapService();
+        for (int i = 0; i < count; i++) {
+            service.put(new DefaultCommit<>(
+                    2 + i,
+                    PUT,
+                    new AtomixConsistentSetMultimapOperations.Put(
+                            "key" + i, Arrays.asList(("a" + i).getBytes(), ("b" + i).getBytes()), Match.ANY),
+                    mock(RaftSessionContext.class),
+                    System.currentTimeMillis()));
+        }
+        long version = get(service, "key0").version();
+
+        try (SnapshotWriter writer = snapshot.openWriter()) {
+            service.snapshot(writer);
+        }
+
+        snapshot.complete();
+
+        service = new AtomixConsistentSetMultimapService();
+        try (SnapshotReader reader = snapshot.openReader()) {
+            service.install(reader);
+        }
+
+        assertEquals(2 * count, service.size(new DefaultCommit<>(
+                2,
+                SIZE,
+                null,
+                mock(RaftSessionContext.class),
+                System.currentTimeMillis())));
+        for (int i = 0; i < count; i += 50) {
+            Versioned<Collection<? extends byte[]>> value = get(service, "key" + i);
+            assertNotNull(value);
+            assertEquals(2, value.value().size());
+            byte[] a = ("a" + i).getBytes();
+            byte[] b = ("b" + i).getBytes();
+            assertTrue(value.value().stream().anyMatch(v -> Arrays.equals(v, a)));
+            assertTrue(value.value().stream().anyMatch(v -> Arrays.equals(v, b)));
+        }
+        assertEquals(version, get(service, "key0").version());
+    }
+
+    private static Versioned<Collection<? extends byte[]>> get(AtomixConsistentSetMultimapService service,
+                                                               String key) {
+        return service.get(new DefaultCommit<>(
+                2,
+                GET,
+                new AtomixConsistentSetMultimapOperations.Get(key),
+                mock(RaftSessionContext.class),
+                System.currentTimeMillis()));
+    }
 }
@@ -35,6 +35,8 @@ import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.core.DefaultApplicationId;
 import org.onosproject.incubator.net.virtual.NetworkId;
+import org.onosproject.incubator.net.virtual.VirtualNetworkEvent;
+import org.onosproject.incubator.net.virtual.VirtualNetworkListener;
 import org.onosproject.incubator.net.virtual.VirtualNetworkService;
 import org.onosproject.incubator.net.virtual.VirtualPort;
 import org.onosproject.incubator.net.virtual.provider.AbstractVirtualProvider;
@@ -70,6 +72,8 @@ import org.onosproject.net.flow.criteria.PortCriterion;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions;
 import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
 import org.onosproject.net.topology.TopologyService;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
@@ -77,7 +81,7 @@ import org.slf4j.Logger;
 import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -122,6 +126,11 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
     private InternalVirtualFlowRuleManager frm;
     private ApplicationId appId;
     private FlowRuleListener flowRuleListener;
+    private VirtualNetworkListener virtualNetworkListener;
+    private TopologyListener topologyListener;
+
+    private final InternalTranslationCache translationCache =
+            new InternalTranslationCache();
 
     /**
      * Creates a provider with the identifier.
@@ -139,6 +148,12 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
         flowRuleListener = new InternalFlowRuleListener();
         flowRuleService.addListener(flowRuleListener);
 
+        virtualNetworkListener = new InternalVirtualNetworkListener();
+        vnService.addListener(virtualNetworkListener);
+
+        topologyListener = new InternalTopologyListener();
+        topologyService.addListener(topologyListener);
+
         internalRoutingAlgorithm = new DefaultInternalRoutingAlgorithm();
         frm = new InternalVirtualFlowRuleManager();
 
@@ -148,6 +163,9 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
     @Deactivate
     public void deactivate() {
         flowRuleService.removeListener(flowRuleListener);
+        vnService.removeListener(virtualNetworkListener);
+        topologyService.removeListener(topologyListener);
+        translationCache.clear();
         flowRuleService.removeFlowRulesById(appId);
         providerRegistryService.unregisterProvider(this);
         log.info("Stopped");
@@ -160,27 +178,23 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
 
     @Override
     public void applyFlowRule(NetworkId networkId, FlowRule... flowRules) {
-        for (FlowRule flowRule : flowRules) {
-            devirtualize(networkId, flowRule).forEach(
-                    r -> flowRuleService.applyFlowRules(r));
-        }
+        flowRuleService.applyFlowRules(devirtualizeAll(networkId, flowRules));
     }
 
     @Override
     public void removeFlowRule(NetworkId networkId, FlowRule... flowRules) {
-        for (FlowRule flowRule : flowRules) {
-            devirtualize(networkId, flowRule).forEach(
-                    r -> flowRuleService.removeFlowRules(r));
-        }
+        flowRuleService.removeFlowRules(devirtualizeAll(networkId, flowRules));
     }
 
     @Override
     public void executeBatch(NetworkId networkId, FlowRuleBatchOperation batch) {
         checkNotNull(batch);
 
-        for (FlowRuleBatchEntry fop : batch.getOperations()) {
-            FlowRuleOperations.Builder builder = FlowRuleOperations.builder();
+        // The whole batch is translated into a single set of physical
+        // operations, so it is applied and reported back only once
+        FlowRuleOperations.Builder builder = FlowRuleOperations.builder();
 
+        for (FlowRuleBatchEntry fop : batch.getOperations()) {
             switch (fop.operator()) {
                 case ADD:
                     devirtualize(networkId, fop.target()).forEach(builder::add);
@@ -194,46 +208,47 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
                 default:
                     break;
             }
+        }
 
-            flowRuleService.apply(builder.build(new FlowRuleOperationsContext() {
-                @Override
-                public void onSuccess(FlowRuleOperations ops) {
-                    CompletedBatchOperation status =
-                            new CompletedBatchOperation(true,
-                                                        Sets.newConcurrentHashSet(),
-                                                        batch.deviceId());
-
-                    VirtualFlowRuleProviderService providerService =
-                            (VirtualFlowRuleProviderService) providerRegistryService
-                                    .getProviderService(networkId,
-                                                        VirtualFlowRuleProvider.class);
-                    providerService.batchOperationCompleted(batch.id(), status);
-                }
-
-                @Override
-                public void onError(FlowRuleOperations ops) {
-                    Set<FlowRule> failures = ImmutableSet.copyOf(
-                            Lists.transform(batch.getOperations(),
-                                            BatchOperationEntry::target));
-
-                    CompletedBatchOperation status =
-                            new CompletedBatchOperation(false,
-                                                        failures,
-                                                        batch.deviceId());
+        flowRuleService.apply(builder.build(new FlowRuleOperationsContext() {
+            @Override
+            public void onSuccess(FlowRuleOperations ops) {
+                CompletedBatchOperation status =
+                        new CompletedBatchOperation(true,
+                                                    Sets.newConcurrentHashSet(),
+                                                    batch.deviceId());
+
+                VirtualFlowRuleProviderService providerService =
+                        (VirtualFlowRuleProviderService) providerRegistryService
+                                .getProviderService(networkId,
+                                                    VirtualFlowRuleProvider.class);
+                providerService.batchOperationCompleted(batch.id(), status);
+            }
 
-                    VirtualFlowRuleProviderService providerService =
-                            (VirtualFlowRuleProviderService) providerRegistryService
-                                    .getProviderService(networkId,
-                                                        VirtualFlowRuleProvider.class);
-                    providerService.batchOperationCompleted(batch.id(), status);
-                }
-            }));
-        }
+            @Override
+            public void onError(FlowRuleOperations ops) {
+                Set<FlowRule> failures = ImmutableSet.copyOf(
+                        Lists.transform(batch.getOperations(),
+                                        BatchOperationEntry::target));
+
+                CompletedBatchOperation status =
+                        new CompletedBatchOperation(false,
+                                                    failures,
+                                                    batch.deviceId());
+
+                VirtualFlowRuleProviderService providerService =
+                        (VirtualFlowRuleProviderService) providerRegistryService
+                                .getProviderService(networkId,
+                                                    VirtualFlowRuleProvider.class);
+                providerService.batchOperationCompleted(batch.id(), status);
+            }
+        }));
     }
 
     public void setEmbeddingAlgorithm(InternalRoutingAlgorithm
                                               internalRoutingAlgorithm) {
         this.internalRoutingAlgorithm = internalRoutingAlgorithm;
+        translationCache.invalidatePaths();
     }
 
     /**
@@ -277,6 +292,22 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
         return vEntry;
     }
 
+    /**
+     * Translate the requested virtual flow rules into physical flow rules
+     * in bulk.
+     *
+     * @param networkId the virtual network identifier
+     * @param flowRules virtual flow rules to be translated
+     * @return physical flow rules for all of the given virtual rules
+     */
+    private FlowRule[] devirtualizeAll(NetworkId networkId, FlowRule... flowRules) {
+        Set<FlowRule> outRules = new HashSet<>();
+        for (FlowRule flowRule : flowRules) {
+            outRules.addAll(devirtualize(networkId, flowRule));
+        }
+        return outRules.toArray(new FlowRule[outRules.size()]);
+    }
+
     /**
      * Translate the requested virtual flow rules into physical flow rules.
      * The translation could be one to many.
@@ -316,10 +347,11 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
 
         for (ConnectPoint ingressPoint : ingressPoints) {
             if (egressPoint.port() == PortNumber.FLOOD) {
-                Set<ConnectPoint> outPoints = vnService
+                Set<ConnectPoint> outPoints = translationCache
                         .getVirtualPorts(networkId, flowRule.deviceId())
-                        .stream()
+                        .values().stream()
                         .map(VirtualPort::realizedBy)
+                        .filter(Objects::nonNull)
                         .filter(p -> !p.equals(ingressPoint))
                         .collect(Collectors.toSet());
 
@@ -351,7 +383,7 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
 
         Set<ConnectPoint> ingressPoints = new HashSet<>();
 
-        Set<VirtualPort> vPorts = vnService
+        Map<PortNumber, VirtualPort> vPorts = translationCache
                 .getVirtualPorts(networkId, deviceId);
 
         PortCriterion portCriterion = ((PortCriterion) selector
@@ -360,18 +392,16 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
         if (portCriterion != null) {
             PortNumber vInPortNum = portCriterion.port();
 
-            Optional<ConnectPoint> optionalCp =  vPorts.stream()
-                    .filter(v -> v.number().equals(vInPortNum))
-                    .map(VirtualPort::realizedBy).findFirst();
-            if (!optionalCp.isPresent()) {
+            VirtualPort vInPort = vPorts.get(vInPortNum);
+            if (vInPort == null || vInPort.realizedBy() == null) {
                 log.warn("Port {} is not realized yet, in Network {}, Device {}",
                          vInPortNum, networkId, deviceId);
                 return ingressPoints;
             }
 
-            ingressPoints.add(optionalCp.get());
+            ingressPoints.add(vInPort.realizedBy());
         } else {
-            for (VirtualPort vPort : vPorts) {
+            for (VirtualPort vPort : vPorts.values()) {
                 if (vPort.realizedBy() != null) {
                     ingressPoints.add(vPort.realizedBy());
                 } else {
@@ -398,7 +428,7 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
                                                   DeviceId deviceId,
                                                   TrafficTreatment treatment) {
 
-        Set<VirtualPort> vPorts = vnService
+        Map<PortNumber, VirtualPort> vPorts = translationCache
                 .getVirtualPorts(networkId, deviceId);
 
         PortNumber vOutPortNum = treatment.allInstructions().stream()
@@ -406,12 +436,9 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
                 .map(i -> ((Instructions.OutputInstruction) i).port())
                 .findFirst().get();
 
-        Optional<ConnectPoint> optionalCpOut = vPorts.stream()
-                .filter(v -> v.number().equals(vOutPortNum))
-                .map(VirtualPort::realizedBy)
-                .findFirst();
+        VirtualPort vOutPort = vPorts.get(vOutPortNum);
 
-        if (!optionalCpOut.isPresent()) {
+        if (vOutPort == null || vOutPort.realizedBy() == null) {
             if (vOutPortNum.isLogical()) {
                 return new ConnectPoint(DeviceId.deviceId("vNet"), vOutPortNum);
             }
@@ -421,7 +448,7 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
             return null;
         }
 
-        return optionalCpOut.get();
+        return vOutPort.realizedBy();
     }
 
 
@@ -523,8 +550,7 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
                                                 FlowRule flowRule) {
         Set<FlowRule> outRules = new HashSet<>();
 
-        Path internalPath = internalRoutingAlgorithm
-                .findPath(ingressPoint, egressPoint);
+        Path internalPath = translationCache.getPath(ingressPoint, egressPoint);
         checkNotNull(internalPath, "No path between " +
                 ingressPoint.toString() + " " + egressPoint.toString());
 
@@ -655,6 +681,12 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
         }
 
         private FlowEntry getVirtualFlowEntry(FlowRule rule) {
+            // Flow rule events carry the physical entry itself; only fall
+            // back to scanning the device entries when they do not
+            if (rule instanceof FlowEntry) {
+                return virtualize((FlowEntry) rule);
+            }
+
             FlowEntry entry = null;
             for (FlowEntry fe :
                     flowRuleService.getFlowEntries(rule.deviceId())) {
@@ -773,6 +805,90 @@ public class DefaultVirtualFlowRuleProvider extends AbstractVirtualProvider
         }
     }
 
+    private class InternalVirtualNetworkListener
+            implements VirtualNetworkListener {
+        @Override
+        public void event(VirtualNetworkEvent event) {
+            switch (event.type()) {
+                case NETWORK_REMOVED:
+                    translationCache.invalidate(event.subject());
+                    break;
+                case VIRTUAL_DEVICE_UPDATED:
+                case VIRTUAL_DEVICE_REMOVED:
+                case VIRTUAL_PORT_ADDED:
+                case VIRTUAL_PORT_UPDATED:
+                case VIRTUAL_PORT_REMOVED:
+                    if (event.virtualDevice() != null) {
+                        translationCache.invalidate(event.subject(),
+                                                    event.virtualDevice().id());
+                    } else {
+                        translationCache.invalidate(event.subject());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private class InternalTopologyListener implements TopologyListener {
+        @Override
+        public void event(TopologyEvent event) {
+            translationCache.invalidatePaths();
+        }
+    }
+
+    /**
+     * Cache of the virtual to physical translation state. Virtual ports are
+     * kept per virtual network and device and dropped on virtual network
+     * events, which the store raises on every instance; internal paths are kept per pair of physical connect points
+     * and dropped on topology changes.
+     */
+    private class InternalTranslationCache {
+        /** <Virtual Network ID, Virtual Device ID, <Virtual Port Number, Virtual Port>>.*/
+        final Map<NetworkId, Map<DeviceId, Map<PortNumber, VirtualPort>>> portMap
+                = Maps.newConcurrentMap();
+
+        /** <Physical Ingress Point, <Physical Egress Point, Internal Path>>.*/
+        final Map<ConnectPoint, Map<ConnectPoint, Path>> pathMap
+                = Maps.newConcurrentMap();
+
+        private Map<PortNumber, VirtualPort> getVirtualPorts(NetworkId networkId,
+                                                             DeviceId deviceId) {
+            return portMap.computeIfAbsent(networkId, k -> Maps.newConcurrentMap())
+                    .computeIfAbsent(deviceId, k -> vnService.getVirtualPorts(networkId, deviceId)
+                            .stream()
+                            .collect(Collectors.toMap(VirtualPort::number, p -> p,
+                                                      (p1, p2) -> p1)));
+        }
+
+        private Path getPath(ConnectPoint src, ConnectPoint dst) {
+            // Unreachable pairs are not cached
+            return pathMap.computeIfAbsent(src, k -> Maps.newConcurrentMap())
+                    .computeIfAbsent(dst, k -> internalRoutingAlgorithm.findPath(src, dst));
+        }
+
+        private void invalidate(NetworkId networkId) {
+            portMap.remove(networkId);
+        }
+
+        private void invalidate(NetworkId networkId, DeviceId deviceId) {
+            Map<DeviceId, Map<PortNumber, VirtualPort>> devices = portMap.get(networkId);
+            if (devices != null) {
+                devices.remove(deviceId);
+            }
+        }
+
+        private void invalidatePaths() {
+            pathMap.clear();
+        }
+
+        private void clear() {
+            portMap.clear();
+            pathMap.clear();
+        }
+    }
+
     private class DefaultInternalRoutingAlgorithm
             implements InternalRoutingAlgorithm {
 
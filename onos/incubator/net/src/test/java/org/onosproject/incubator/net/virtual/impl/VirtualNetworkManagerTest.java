@@ -16,6 +16,7 @@
 
 package org.onosproject.incubator.net.virtual.impl;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.junit.After;
 import org.junit.Before;
@@ -33,6 +34,7 @@ import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.incubator.net.tunnel.TunnelId;
 import org.onosproject.incubator.net.virtual.DefaultVirtualNetwork;
+import org.onosproject.incubator.net.virtual.DefaultVirtualPort;
 import org.onosproject.incubator.net.virtual.NetworkId;
 import org.onosproject.incubator.net.virtual.TenantId;
 import org.onosproject.incubator.net.virtual.VirtualDevice;
@@ -79,6 +81,7 @@ import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.topology.PathService;
 import org.onosproject.net.topology.Topology;
 import org.onosproject.net.topology.TopologyService;
+import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.TestStorageService;
 
 import java.util.ArrayList;
@@ -672,6 +675,37 @@ public class VirtualNetworkManagerTest extends VirtualNetworkTestUtil {
                 new VirtualNetworkEvent.Type[expectedEventTypes.size()]));
     }
 
+    /**
+     * Tests that virtual port events are raised for port changes written to
+     * the distributed store by another instance.
+     */
+    @Test
+    public void testPortEventsFromStore() throws TestUtils.TestUtilsException {
+        manager.registerTenantId(TenantId.tenantId(tenantIdValue1));
+        VirtualNetwork virtualNetwork1 =
+                manager.createVirtualNetwork(TenantId.tenantId(tenantIdValue1));
+        VirtualDevice virtualDevice =
+                manager.createVirtualDevice(virtualNetwork1.id(), DID1);
+        ConnectPoint cp = new ConnectPoint(DID2, PortNumber.portNumber(1));
+        validateEvents(VirtualNetworkEvent.Type.TENANT_REGISTERED,
+                       VirtualNetworkEvent.Type.NETWORK_ADDED,
+                       VirtualNetworkEvent.Type.VIRTUAL_DEVICE_ADDED);
+
+        ConsistentMap<NetworkId, Set<VirtualPort>> ports =
+                TestUtils.getField(virtualNetworkManagerStore, "networkIdVirtualPortSetConsistentMap");
+        VirtualPort port = new DefaultVirtualPort(virtualNetwork1.id(), virtualDevice,
+                                                  PortNumber.portNumber(1), cp);
+        ports.put(virtualNetwork1.id(), ImmutableSet.of(port));
+        ports.put(virtualNetwork1.id(), ImmutableSet.of(
+                new DefaultVirtualPort(virtualNetwork1.id(), virtualDevice,
+                                       PortNumber.portNumber(1), true, cp)));
+        ports.put(virtualNetwork1.id(), ImmutableSet.of());
+
+        validateEvents(VirtualNetworkEvent.Type.VIRTUAL_PORT_ADDED,
+                       VirtualNetworkEvent.Type.VIRTUAL_PORT_UPDATED,
+                       VirtualNetworkEvent.Type.VIRTUAL_PORT_REMOVED);
+    }
+
     /**
      * Tests when a virtual element is removed, all the other elements depending on it are also removed.
      */
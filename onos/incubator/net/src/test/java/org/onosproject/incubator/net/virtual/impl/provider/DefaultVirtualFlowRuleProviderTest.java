@@ -35,6 +35,8 @@ import org.onosproject.incubator.net.virtual.VirtualDevice;
 import org.onosproject.incubator.net.virtual.VirtualLink;
 import org.onosproject.incubator.net.virtual.VirtualNetwork;
 import org.onosproject.incubator.net.virtual.VirtualNetworkAdminServiceAdapter;
+import org.onosproject.incubator.net.virtual.VirtualNetworkEvent;
+import org.onosproject.incubator.net.virtual.VirtualNetworkListener;
 import org.onosproject.incubator.net.virtual.VirtualPort;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
@@ -120,6 +122,7 @@ public class DefaultVirtualFlowRuleProviderTest {
     protected DefaultVirtualFlowRuleProvider virtualProvider;
 
     private ApplicationId vAppId;
+    private TestVirtualNetworkAdminService vnService;
 
     @Before
     public void setUp() {
@@ -127,8 +130,8 @@ public class DefaultVirtualFlowRuleProviderTest {
 
         virtualProvider.deviceService = new TestDeviceService();
         virtualProvider.coreService = new TestCoreService();
-        virtualProvider.vnService =
-                new TestVirtualNetworkAdminService();
+        vnService = new TestVirtualNetworkAdminService();
+        virtualProvider.vnService = vnService;
         virtualProvider.topologyService = new TestTopologyService();
         virtualProvider.flowRuleService = new TestFlowRuleService();
         virtualProvider.providerRegistryService = new VirtualProviderManager();
@@ -270,6 +273,36 @@ public class DefaultVirtualFlowRuleProviderTest {
     }
 
 
+    @Test
+    public void virtualPortsCachedUntilInvalidated() {
+        TrafficSelector ts = DefaultTrafficSelector.builder()
+                .matchInPort(PORT_NUM1).build();
+        TrafficTreatment tr = DefaultTrafficTreatment.builder()
+                .setOutput(PORT_NUM2).build();
+
+        FlowRule r1 = DefaultFlowRule.builder()
+                .forDevice(VDID)
+                .withSelector(ts)
+                .withTreatment(tr)
+                .withPriority(10)
+                .fromApp(vAppId)
+                .makeTemporary(TIMEOUT)
+                .build();
+
+        virtualProvider.applyFlowRule(VNET_ID, r1, r1);
+        virtualProvider.applyFlowRule(VNET_ID, r1);
+
+        assertEquals("Virtual ports should be looked up once", 1,
+                     vnService.portQueries);
+
+        vnService.listener.event(new VirtualNetworkEvent(
+                VirtualNetworkEvent.Type.VIRTUAL_PORT_UPDATED, VNET_ID, VDEV, VPORT1));
+        virtualProvider.removeFlowRule(VNET_ID, r1);
+
+        assertEquals("Virtual ports should be looked up again", 2,
+                     vnService.portQueries);
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
@@ -309,6 +342,14 @@ public class DefaultVirtualFlowRuleProviderTest {
     private class TestVirtualNetworkAdminService
             extends VirtualNetworkAdminServiceAdapter {
 
+        VirtualNetworkListener listener;
+        int portQueries;
+
+        @Override
+        public void addListener(VirtualNetworkListener listener) {
+            this.listener = listener;
+        }
+
         @Override
         public Set<VirtualDevice> getVirtualDevices(NetworkId networkId) {
             return ImmutableSet.of(VDEV);
@@ -322,6 +363,7 @@ public class DefaultVirtualFlowRuleProviderTest {
         @Override
         public Set<VirtualPort> getVirtualPorts(NetworkId networkId,
                                                 DeviceId deviceId) {
+            portQueries++;
             return ImmutableSet.of(VPORT1, VPORT2);
         }
 
@@ -15,6 +15,7 @@
  */
 package org.onosproject.incubator.store.virtual.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
@@ -66,6 +67,7 @@ import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.SetEvent;
 import org.onosproject.store.service.SetEventListener;
 import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.Versioned;
 import org.onosproject.store.service.WallClockTimestamp;
 import org.slf4j.Logger;
 
@@ -76,6 +78,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
@@ -165,6 +169,12 @@ public class DistributedVirtualNetworkStore
     private ConsistentMap<NetworkId, Set<VirtualPort>> networkIdVirtualPortSetConsistentMap;
     private Map<NetworkId, Set<VirtualPort>> networkIdVirtualPortSetMap;
 
+    // Listener for virtual port events; ports are added, updated and removed
+    // by replacing the port set of their network, so events are found by
+    // comparing the old and new sets on every instance
+    private final MapEventListener<NetworkId, Set<VirtualPort>> virtualPortMapListener =
+            new InternalPortMapListener();
+
     // Track intent ID to TunnelIds
     private ConsistentMap<Key, Set<TunnelId>> intentKeyTunnelIdSetConsistentMap;
     private Map<Key, Set<TunnelId>> intentKeyTunnelIdSetMap;
@@ -262,6 +272,7 @@ public class DistributedVirtualNetworkStore
                 .withName("onos-networkId-virtualports")
                 .withRelaxedReadConsistency()
                 .build();
+        networkIdVirtualPortSetConsistentMap.addListener(virtualPortMapListener);
         networkIdVirtualPortSetMap = networkIdVirtualPortSetConsistentMap.asJavaMap();
 
         intentKeyTunnelIdSetConsistentMap = storageService.<Key, Set<TunnelId>>consistentMapBuilder()
@@ -282,6 +293,7 @@ public class DistributedVirtualNetworkStore
         tenantIdSet.removeListener(setListener);
         networkIdVirtualNetworkConsistentMap.removeListener(virtualNetworkMapListener);
         deviceIdVirtualDeviceConsistentMap.removeListener(virtualDeviceMapListener);
+        networkIdVirtualPortSetConsistentMap.removeListener(virtualPortMapListener);
         log.info("Stopped");
     }
 
@@ -579,11 +591,9 @@ public class DistributedVirtualNetworkStore
     public VirtualPort addPort(NetworkId networkId, DeviceId deviceId,
                                PortNumber portNumber, ConnectPoint realizedBy) {
         checkState(networkExists(networkId), "The network has not been added.");
-        Set<VirtualPort> virtualPortSet = networkIdVirtualPortSetMap.get(networkId);
-
-        if (virtualPortSet == null) {
-            virtualPortSet = new HashSet<>();
-        }
+        Set<VirtualPort> existingVirtualPorts = networkIdVirtualPortSetMap.get(networkId);
+        Set<VirtualPort> virtualPortSet = existingVirtualPorts == null ?
+                new HashSet<>() : new HashSet<>(existingVirtualPorts);
 
         VirtualDevice device = deviceIdVirtualDeviceMap.get(new VirtualDeviceId(networkId, deviceId));
         checkNotNull(device, "The device has not been created for deviceId: " + deviceId);
@@ -595,8 +605,6 @@ public class DistributedVirtualNetworkStore
                                                          portNumber, realizedBy);
         virtualPortSet.add(virtualPort);
         networkIdVirtualPortSetMap.put(networkId, virtualPortSet);
-        notifyDelegate(new VirtualNetworkEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_ADDED,
-                                               networkId, device, virtualPort));
         return virtualPort;
     }
 
@@ -604,8 +612,8 @@ public class DistributedVirtualNetworkStore
     public void bindPort(NetworkId networkId, DeviceId deviceId,
                          PortNumber portNumber, ConnectPoint realizedBy) {
 
-        Set<VirtualPort> virtualPortSet = networkIdVirtualPortSetMap
-                .get(networkId);
+        Set<VirtualPort> virtualPortSet = new HashSet<>(networkIdVirtualPortSetMap
+                .get(networkId));
 
         Optional<VirtualPort> virtualPortOptional = virtualPortSet.stream().filter(
                 p -> p.element().id().equals(deviceId) &&
@@ -621,8 +629,6 @@ public class DistributedVirtualNetworkStore
         vPort = new DefaultVirtualPort(networkId, device, portNumber, realizedBy);
         virtualPortSet.add(vPort);
         networkIdVirtualPortSetMap.put(networkId, virtualPortSet);
-        notifyDelegate(new VirtualNetworkEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_UPDATED,
-                                               networkId, device, vPort));
     }
 
     @Override
@@ -633,8 +639,9 @@ public class DistributedVirtualNetworkStore
         VirtualDevice device = deviceIdVirtualDeviceMap.get(new VirtualDeviceId(networkId, deviceId));
         checkNotNull(device, "No device %s exists in NetworkId: %s", deviceId, networkId);
 
-        Set<VirtualPort> virtualPortSet = networkIdVirtualPortSetMap.get(networkId);
-        checkNotNull(virtualPortSet, "No port has been created for NetworkId: %s", networkId);
+        Set<VirtualPort> existingVirtualPorts = networkIdVirtualPortSetMap.get(networkId);
+        checkNotNull(existingVirtualPorts, "No port has been created for NetworkId: %s", networkId);
+        Set<VirtualPort> virtualPortSet = new HashSet<>(existingVirtualPorts);
 
         Optional<VirtualPort> virtualPortOptional = virtualPortSet.stream().filter(
                 p -> p.element().id().equals(deviceId) &&
@@ -651,8 +658,6 @@ public class DistributedVirtualNetworkStore
         virtualPortSet.remove(oldPort);
         virtualPortSet.add(newPort);
         networkIdVirtualPortSetMap.put(networkId, virtualPortSet);
-        notifyDelegate(new VirtualNetworkEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_UPDATED,
-                                               networkId, device, newPort));
         log.debug("port state changed from {} to {}", oldPort.isEnabled(), isEnabled);
     }
 
@@ -686,11 +691,6 @@ public class DistributedVirtualNetworkStore
                 }
             });
             if (portRemoved.get()) {
-                virtualPortSet.forEach(virtualPort -> notifyDelegate(
-                        new VirtualNetworkEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_REMOVED,
-                                                networkId, device, virtualPort)
-                ));
-
                 //Remove all the virtual links connected to this virtual port
                 Set<VirtualLink> existingVirtualLinks = networkIdVirtualLinkSetMap.get(networkId);
                 if (existingVirtualLinks != null && !existingVirtualLinks.isEmpty()) {
@@ -912,6 +912,49 @@ public class DistributedVirtualNetworkStore
         }
     }
 
+    /**
+     * Listener class to map port set changes to the virtual port events.
+     */
+    private class InternalPortMapListener implements MapEventListener<NetworkId, Set<VirtualPort>> {
+        @Override
+        public void event(MapEvent<NetworkId, Set<VirtualPort>> event) {
+            NetworkId networkId = checkNotNull(event.key());
+            Map<ConnectPoint, VirtualPort> oldPorts = portsByPoint(event.oldValue());
+            Map<ConnectPoint, VirtualPort> newPorts = portsByPoint(event.newValue());
+
+            newPorts.forEach((point, port) -> {
+                VirtualPort oldPort = oldPorts.get(point);
+                if (oldPort == null) {
+                    notifyPortEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_ADDED, networkId, port);
+                } else if (!oldPort.equals(port)) {
+                    notifyPortEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_UPDATED, networkId, port);
+                }
+            });
+            oldPorts.forEach((point, port) -> {
+                if (!newPorts.containsKey(point)) {
+                    notifyPortEvent(VirtualNetworkEvent.Type.VIRTUAL_PORT_REMOVED, networkId, port);
+                }
+            });
+        }
+
+        private Map<ConnectPoint, VirtualPort> portsByPoint(Versioned<Set<VirtualPort>> ports) {
+            if (ports == null || ports.value() == null) {
+                return ImmutableMap.of();
+            }
+            return ports.value().stream()
+                    .collect(Collectors.toMap(p -> new ConnectPoint(p.element().id(), p.number()),
+                                              Function.identity(), (p1, p2) -> p1));
+        }
+
+        private void notifyPortEvent(VirtualNetworkEvent.Type type, NetworkId networkId,
+                                     VirtualPort port) {
+            VirtualDevice device = port.element() instanceof VirtualDevice ?
+                    (VirtualDevice) port.element() :
+                    deviceIdVirtualDeviceMap.get(new VirtualDeviceId(networkId, (DeviceId) port.element().id()));
+            notifyDelegate(new VirtualNetworkEvent(type, networkId, device, port));
+        }
+    }
+
     /**
      * A wrapper class to isolate device id from other virtual networks.
      */
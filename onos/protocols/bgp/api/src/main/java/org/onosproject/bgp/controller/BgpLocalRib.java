@@ -47,6 +47,17 @@ public interface BgpLocalRib {
      */
     void delete(BgpLSNlri nlri) throws BgpParseException;
 
+    /**
+     * Removes the path to the NLRI withdrawn over the given session.
+     *
+     * @param sessionInfo session info
+     * @param nlri info
+     * @throws BgpParseException while deleting NLRI from local rib
+     */
+    default void delete(BgpSessionInfo sessionInfo, BgpLSNlri nlri) throws BgpParseException {
+        delete(nlri);
+    }
+
     /**
      * Update NLRI identifier mapped with route distinguisher if it exists in tree otherwise add NLRI information mapped
      * to respective route distinguisher.
@@ -69,6 +80,19 @@ public interface BgpLocalRib {
      */
     void delete(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException;
 
+    /**
+     * Removes the path to the VPN NLRI withdrawn over the given session.
+     *
+     * @param sessionInfo session info
+     * @param nlri info
+     * @param routeDistinguisher unique for each VPN
+     * @throws BgpParseException while deleting NLRI from local rib
+     */
+    default void delete(BgpSessionInfo sessionInfo, BgpLSNlri nlri,
+                        RouteDistinguisher routeDistinguisher) throws BgpParseException {
+        delete(nlri, routeDistinguisher);
+    }
+
     /**
      * Returns node NLRI tree.
      *
@@ -15,11 +15,13 @@ package org.onosproject.bgp.controller.impl;
 
 import com.google.common.base.MoreObjects;
 
+import org.onlab.packet.IpAddress;
 import org.onosproject.bgp.controller.BgpController;
 import org.onosproject.bgp.controller.BgpId;
 import org.onosproject.bgp.controller.BgpLinkListener;
 import org.onosproject.bgp.controller.BgpLocalRib;
 import org.onosproject.bgp.controller.BgpNodeListener;
+import org.onosproject.bgp.controller.BgpPeer;
 import org.onosproject.bgp.controller.BgpSessionInfo;
 import org.onosproject.bgpio.exceptions.BgpParseException;
 import org.onosproject.bgpio.protocol.BgpLSNlri;
@@ -35,30 +37,66 @@ import org.onosproject.bgpio.types.RouteDistinguisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Implementation of local RIB.
+ * <p>
+ * For each NLRI, the paths advertised by every peer are kept as candidates,
+ * so that the best path is selected again among them when a path changes or
+ * is withdrawn, without consulting the adjacency RIBs of all peers. Changes
+ * to different NLRIs proceed concurrently; the trees of best paths may be
+ * read at any time.
+ * </p>
  */
 public class BgpLocalRibImpl implements BgpLocalRib {
 
     private static final Logger log = LoggerFactory.getLogger(BgpLocalRibImpl.class);
+    private static final BgpSelectionAlgo SELECTION_ALGO = new BgpSelectionAlgo();
+
     private BgpController bgpController;
 
-    private Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree = new TreeMap<>();
-    private Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree = new TreeMap<>();
-    private Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree = new TreeMap<>();
+    private final LocRibTable<BgpNodeLSIdentifier> nodes = new LocRibTable<>(
+            (nlri, details) -> {
+                for (BgpNodeListener l : bgpController.listener()) {
+                    l.addNode((BgpNodeLSNlriVer4) nlri, details);
+                }
+            },
+            nlri -> {
+                for (BgpNodeListener l : bgpController.listener()) {
+                    l.deleteNode((BgpNodeLSNlriVer4) nlri);
+                }
+            });
+    private final LocRibTable<BgpLinkLSIdentifier> links = new LocRibTable<>(
+            (nlri, details) -> {
+                for (BgpLinkListener l : bgpController.linkListener()) {
+                    l.addLink((BgpLinkLsNlriVer4) nlri, details);
+                }
+            },
+            nlri -> {
+                for (BgpLinkListener l : bgpController.linkListener()) {
+                    l.deleteLink((BgpLinkLsNlriVer4) nlri);
+                }
+            });
+    private final LocRibTable<BgpPrefixLSIdentifier> prefixes = new LocRibTable<>(
+            (nlri, details) -> { }, nlri -> { });
 
     private Map<RouteDistinguisher, Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnNodeTree
-                                                                                                   = new TreeMap<>();
+                                                                                = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnLinkTree
-                                                                                                   = new TreeMap<>();
+                                                                                = new ConcurrentSkipListMap<>();
     private Map<RouteDistinguisher, Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib>> vpnPrefixTree
-                                                                                                   = new TreeMap<>();
+                                                                                = new ConcurrentSkipListMap<>();
 
     public BgpLocalRibImpl(BgpController bgpController) {
         this.bgpController = bgpController;
@@ -71,7 +109,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     @Override
     public Map<BgpNodeLSIdentifier, PathAttrNlriDetailsLocalRib> nodeTree() {
-        return nodeTree;
+        return nodes.bestPaths;
     }
 
     /**
@@ -81,7 +119,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     @Override
     public Map<BgpLinkLSIdentifier, PathAttrNlriDetailsLocalRib> linkTree() {
-        return linkTree;
+        return links.bestPaths;
     }
 
     /**
@@ -91,7 +129,7 @@ public class BgpLocalRibImpl implements BgpLocalRib {
      */
     @Override
     public Map<BgpPrefixLSIdentifier, PathAttrNlriDetailsLocalRib> prefixTree() {
-        return prefixTree;
+        return prefixes.bestPaths;
     }
 
     /**
@@ -124,511 +162,379 @@ public class BgpLocalRibImpl implements BgpLocalRib {
         return vpnPrefixTree;
     }
 
+    /**
+     * Starts a batch of changes received over the given session, typically
+     * those of one UPDATE message. Listeners are notified of the resulting
+     * changes of best paths once the batch is applied.
+     *
+     * @param sessionInfo session info
+     * @return batch of changes
+     */
+    public Update update(BgpSessionInfo sessionInfo) {
+        return new Update(checkNotNull(sessionInfo));
+    }
+
     @Override
     public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details) throws BgpParseException {
-        int decisionResult;
+        Update update = update(sessionInfo);
+        update.add(nlri, details);
+        update.apply();
+    }
 
-        log.debug("Add to local RIB {}", details.toString());
+    @Override
+    public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details,
+                    RouteDistinguisher routeDistinguisher) throws BgpParseException {
+        Update update = update(sessionInfo);
+        update.add(nlri, details, routeDistinguisher);
+        update.apply();
+    }
 
-        PathAttrNlriDetailsLocalRib detailsLocRib = new PathAttrNlriDetailsLocalRib(
-                                                               sessionInfo.remoteBgpId().ipAddress(),
-                                                               sessionInfo.remoteBgpIdentifier(),
-                                                               sessionInfo.remoteBgpASNum(),
-                                                               sessionInfo.isIbgpSession(), details);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            BgpNodeLSIdentifier nodeLsIdentifier = ((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors();
-            if (nodeTree.containsKey(nodeLsIdentifier)) {
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                // Compare local RIB entry with the current attribute
-                decisionResult = selectionAlgo.compare(nodeTree.get(nodeLsIdentifier), detailsLocRib);
-                if (decisionResult <= 0) {
-                    for (BgpNodeListener l : bgpController.listener()) {
-                        l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                    }
-                    nodeTree.replace(nodeLsIdentifier, detailsLocRib);
-                    log.debug("Local RIB update node: {}", detailsLocRib.toString());
-                }
-            } else {
-                nodeTree.put(nodeLsIdentifier, detailsLocRib);
-                for (BgpNodeListener l : bgpController.listener()) {
-                    l.addNode((BgpNodeLSNlriVer4) nlri, details);
-                }
-                log.debug("Local RIB ad node: {}", detailsLocRib.toString());
-            }
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            BgpLinkLSIdentifier linkLsIdentifier = ((BgpLinkLsNlriVer4) nlri).getLinkIdentifier();
-            if (linkTree.containsKey(linkLsIdentifier)) {
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                // Compare local RIB entry with the current attribute
-                decisionResult = selectionAlgo.compare(linkTree.get(linkLsIdentifier), detailsLocRib);
-                if (decisionResult <= 0) {
-                    linkTree.replace(linkLsIdentifier, detailsLocRib);
-                    for (BgpLinkListener l : bgpController.linkListener()) {
-                        l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                    }
-                    log.debug("Local RIB update link: {}", detailsLocRib.toString());
-                }
-            } else {
-                linkTree.put(linkLsIdentifier, detailsLocRib);
-                for (BgpLinkListener l : bgpController.linkListener()) {
-                    l.addLink((BgpLinkLsNlriVer4) nlri, details);
-                }
-                log.debug("Local RIB add link: {}", detailsLocRib.toString());
-            }
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            BgpPrefixLSIdentifier prefixIdentifier = ((BgpPrefixIPv4LSNlriVer4) nlri).getPrefixIdentifier();
-            if (prefixTree.containsKey(prefixIdentifier)) {
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                // Compare local RIB entry with the current attribute
-                decisionResult = selectionAlgo.compare(prefixTree.get(prefixIdentifier), detailsLocRib);
-                if (decisionResult <= 0) {
-                    prefixTree.replace(prefixIdentifier, detailsLocRib);
-                    log.debug("Local RIB update prefix: {}", detailsLocRib.toString());
-                }
-            } else {
-                prefixTree.put(prefixIdentifier, detailsLocRib);
-                log.debug("Local RIB add prefix: {}", detailsLocRib.toString());
-            }
-        }
+    @Override
+    public void delete(BgpSessionInfo sessionInfo, BgpLSNlri nlri) throws BgpParseException {
+        Update update = update(sessionInfo);
+        update.delete(nlri);
+        update.apply();
     }
 
+    @Override
+    public void delete(BgpSessionInfo sessionInfo, BgpLSNlri nlri,
+                       RouteDistinguisher routeDistinguisher) throws BgpParseException {
+        Update update = update(sessionInfo);
+        update.delete(nlri, routeDistinguisher);
+        update.apply();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Without the session the NLRI was withdrawn from, the candidate paths
+     * of peers no longer advertising the NLRI in their adjacency RIB-in are
+     * removed.
+     * </p>
+     */
     @Override
     public void delete(BgpLSNlri nlri) throws BgpParseException {
         log.debug("Delete from local RIB.");
+        Update update = new Update(null);
+        update.reconcile(nlri, false);
+        update.apply();
+    }
 
-        // Update local RIB
-        decisionProcess(nlri);
+    @Override
+    public void delete(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
+        Update update = new Update(null);
+        if (update.hasVpnTree(nlri, routeDistinguisher)) {
+            update.reconcile(nlri, true);
+            update.removeEmptyVpnTree(nlri, routeDistinguisher);
+        }
+        update.apply();
     }
 
     /**
-     * Update local RIB based on selection algorithm.
+     * Removes from local RIB the paths of the peer of a closed session.
      *
-     * @param nlri NLRI to update
-     * @throws BgpParseException while updating to local RIB
+     * @param sessionInfo info of the closed session
+     * @param adjRibIn adjacency RIB-in of the peer
      */
-    public void decisionProcess(BgpLSNlri nlri) throws BgpParseException {
-        checkNotNull(nlri);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            selectionProcessNode(nlri, false);
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            selectionProcessLink(nlri, false);
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            selectionProcessPrefix(nlri, false);
-        }
+    public void localRibUpdate(BgpSessionInfo sessionInfo, AdjRibIn adjRibIn) {
+        log.debug("Update local RIB.");
+
+        Update update = update(sessionInfo);
+        adjRibIn.nodeTree().keySet().forEach(key -> nodes.withdraw(key, update));
+        adjRibIn.linkTree().keySet().forEach(key -> links.withdraw(key, update));
+        adjRibIn.prefixTree().keySet().forEach(key -> prefixes.withdraw(key, update));
+        update.apply();
     }
 
     /**
-     * Update VPN local RIB .
+     * Removes from VPN local RIB the paths of the peer of a closed session.
      *
-     * @param nlri NLRI to update
-     * @param routeDistinguisher VPN id to update
-     * @throws BgpParseException BGP parse exception
+     * @param sessionInfo info of the closed session
+     * @param vpnAdjRibIn VPN adjacency RIB-in of the peer
      */
-    public void decisionProcess(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
-        checkNotNull(nlri);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            if (vpnNodeTree.containsKey(routeDistinguisher)) {
-                selectionProcessNode(nlri, true);
-                if (nodeTree.size() == 0) {
-                    vpnNodeTree.remove(routeDistinguisher);
+    public void localRibUpdate(BgpSessionInfo sessionInfo, VpnAdjRibIn vpnAdjRibIn) {
+        log.debug("Update VPN local RIB.");
+
+        Update update = update(sessionInfo);
+        vpnAdjRibIn.vpnNodeTree().forEach((rd, tree) -> {
+            if (vpnNodeTree.containsKey(rd)) {
+                tree.keySet().forEach(key -> nodes.withdraw(key, update));
+                if (nodes.bestPaths.isEmpty()) {
+                    vpnNodeTree.remove(rd);
                 }
             }
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            if (vpnLinkTree.containsKey(routeDistinguisher)) {
-                selectionProcessLink(nlri, true);
-                if (linkTree.size() == 0) {
-                    vpnLinkTree.remove(routeDistinguisher);
+        });
+        vpnAdjRibIn.vpnLinkTree().forEach((rd, tree) -> {
+            if (vpnLinkTree.containsKey(rd)) {
+                tree.keySet().forEach(key -> links.withdraw(key, update));
+                if (links.bestPaths.isEmpty()) {
+                    vpnLinkTree.remove(rd);
                 }
             }
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            if (vpnPrefixTree.containsKey(routeDistinguisher)) {
-                selectionProcessPrefix(nlri, true);
-                if (prefixTree.size() == 0) {
-                    vpnPrefixTree.remove(routeDistinguisher);
+        });
+        vpnAdjRibIn.vpnPrefixTree().forEach((rd, tree) -> {
+            if (vpnPrefixTree.containsKey(rd)) {
+                tree.keySet().forEach(key -> prefixes.withdraw(key, update));
+                if (prefixes.bestPaths.isEmpty()) {
+                    vpnPrefixTree.remove(rd);
                 }
             }
+        });
+        update.apply();
+    }
+
+    // Checks whether the peer with the given address has the NLRI in its
+    // adjacency RIB-in.
+    private boolean isAdvertised(IpAddress peerAddress, Object key, boolean isVpnRib) {
+        BgpPeer peer = bgpController.getPeer(BgpId.bgpId(peerAddress));
+        if (!(peer instanceof BgpPeerImpl)) {
+            return false;
+        }
+        BgpPeerImpl peerImpl = (BgpPeerImpl) peer;
+        if (key instanceof BgpNodeLSIdentifier) {
+            return !isVpnRib ? peerImpl.adjacencyRib().nodeTree().containsKey(key) :
+                    peerImpl.vpnAdjacencyRib().nodeTree().containsKey(key);
+        } else if (key instanceof BgpLinkLSIdentifier) {
+            return !isVpnRib ? peerImpl.adjacencyRib().linkTree().containsKey(key) :
+                    peerImpl.vpnAdjacencyRib().linkTree().containsKey(key);
         }
+        return !isVpnRib ? peerImpl.adjacencyRib().prefixTree().containsKey(key) :
+                peerImpl.vpnAdjacencyRib().prefixTree().containsKey(key);
     }
 
-     /**
-     * Selection process for local RIB node.
-     *
-     * @param nlri NLRI to update
-     * @param isVpnRib true if VPN  local RIB, otherwise false
-     * @throws BgpParseException throws BGP parse exception
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass()).omitNullValues().add("nodeTree", nodeTree())
+                .add("linkTree", linkTree()).add("prefixTree", prefixTree()).add("vpnNodeTree", vpnNodeTree)
+                .add("vpnLinkTree", vpnLinkTree).add("vpnPrefixTree", vpnPrefixTree).toString();
+    }
+
+    /**
+     * Batch of changes to local RIB received over one session. Changes are
+     * applied to local RIB right away; the notifications of listeners are
+     * deferred until {@link #apply()}, keeping only the latest change of
+     * each NLRI.
      */
-    public void selectionProcessNode(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
-        BgpPeerImpl peer;
-        BgpSessionInfo sessionInfo;
-        int decisionResult;
-        boolean containsKey;
+    public final class Update {
 
-        BgpNodeLSIdentifier nodeLsIdentifier = ((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors();
+        private final BgpSessionInfo sessionInfo;
+        private final Map<Object, Runnable> notifications = new LinkedHashMap<>();
 
-        if (nodeTree.containsKey(nodeLsIdentifier)) {
-            for (BgpNodeListener l : bgpController.listener()) {
-                l.deleteNode((BgpNodeLSNlriVer4) nlri);
-            }
-            log.debug("Local RIB delete node: {}", nodeLsIdentifier.toString());
-            nodeTree.remove(nodeLsIdentifier);
+        private Update(BgpSessionInfo sessionInfo) {
+            this.sessionInfo = sessionInfo;
         }
 
-        for (BgpId bgpId : bgpController.connectedPeers().keySet()) {
-            peer = (BgpPeerImpl) (bgpController.getPeer(bgpId));
-
-            if (nodeTree.containsKey(nodeLsIdentifier)) {
-                containsKey = (!isVpnRib) ? (peer.adjacencyRib().nodeTree().containsKey(nodeLsIdentifier)) :
-                                            (peer.vpnAdjacencyRib().nodeTree().containsKey(nodeLsIdentifier));
-
-                if (!containsKey) {
-                    continue;
-                }
-                sessionInfo = peer.sessionInfo();
-                PathAttrNlriDetailsLocalRib detailsLocRib = new PathAttrNlriDetailsLocalRib(
-                                                                sessionInfo.remoteBgpId().ipAddress(),
-                                                                sessionInfo.remoteBgpIdentifier(),
-                                                                sessionInfo.remoteBgpASNum(),
-                                                                sessionInfo.isIbgpSession(),
-                                                                (!isVpnRib) ?
-                                                                (peer.adjacencyRib().nodeTree()
-                                                                                    .get(nodeLsIdentifier)) :
-                                                                (peer.vpnAdjacencyRib().nodeTree()
-                                                                                        .get(nodeLsIdentifier)));
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                decisionResult = selectionAlgo.compare(nodeTree.get(nodeLsIdentifier), detailsLocRib);
-                if (decisionResult < 0) {
-                    nodeTree.replace(nodeLsIdentifier, detailsLocRib);
-                    log.debug("Local RIB node updated: {}", detailsLocRib.toString());
-                }
-            } else {
-                if (!isVpnRib) {
-                    if (peer.adjacencyRib().nodeTree().containsKey(nodeLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.adjacencyRib().nodeTree().get(nodeLsIdentifier));
-                    }
-                } else {
-                    if (peer.vpnAdjacencyRib().nodeTree().containsKey(nodeLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().nodeTree().get(nodeLsIdentifier));
-                    }
-                }
+        /**
+         * Adds the path to the NLRI advertised over the session.
+         *
+         * @param nlri network layer reach info
+         * @param details path attributes and NLRI information
+         */
+        public void add(BgpLSNlri nlri, PathAttrNlriDetails details) {
+            PathAttrNlriDetailsLocalRib detailsLocRib = new PathAttrNlriDetailsLocalRib(
+                                                               sessionInfo.remoteBgpId().ipAddress(),
+                                                               sessionInfo.remoteBgpIdentifier(),
+                                                               sessionInfo.remoteBgpASNum(),
+                                                               sessionInfo.isIbgpSession(), details);
+            log.debug("Add to local RIB {}", detailsLocRib);
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                nodes.add(((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors(), nlri, detailsLocRib, this);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                links.add(((BgpLinkLsNlriVer4) nlri).getLinkIdentifier(), nlri, detailsLocRib, this);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                prefixes.add(((BgpPrefixIPv4LSNlriVer4) nlri).getPrefixIdentifier(), nlri, detailsLocRib, this);
             }
         }
-    }
 
-     /**
-     * Selection process for local RIB link.
-     *
-     * @param nlri NLRI to update
-     * @param isVpnRib true if VPN local RIB, otherwise false
-     * @throws BgpParseException BGP parse exception
-     */
-    public void selectionProcessLink(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
-        BgpPeerImpl peer;
-        BgpSessionInfo sessionInfo;
-        int decisionResult;
-        boolean containsKey;
-
-        BgpLinkLSIdentifier linkLsIdentifier = ((BgpLinkLsNlriVer4) nlri).getLinkIdentifier();
-
-        if (linkTree.containsKey(linkLsIdentifier)) {
-            log.debug("Local RIB remove link: {}", linkLsIdentifier.toString());
-            for (BgpLinkListener l : bgpController.linkListener()) {
-                l.deleteLink((BgpLinkLsNlriVer4) nlri);
+        /**
+         * Adds the path to the VPN NLRI advertised over the session.
+         *
+         * @param nlri network layer reach info
+         * @param details path attributes and NLRI information
+         * @param routeDistinguisher unique for each VPN
+         */
+        public void add(BgpLSNlri nlri, PathAttrNlriDetails details, RouteDistinguisher routeDistinguisher) {
+            add(nlri, details);
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                vpnNodeTree.putIfAbsent(routeDistinguisher, nodes.bestPaths);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                vpnLinkTree.putIfAbsent(routeDistinguisher, links.bestPaths);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                vpnPrefixTree.putIfAbsent(routeDistinguisher, prefixes.bestPaths);
             }
-            linkTree.remove(linkLsIdentifier);
         }
 
-        for (BgpId bgpId : bgpController.connectedPeers().keySet()) {
-            peer = (BgpPeerImpl) (bgpController.getPeer(bgpId));
-
-            if (linkTree.containsKey(linkLsIdentifier)) {
-
-                containsKey = (!isVpnRib) ? (peer.adjacencyRib().linkTree().containsKey(linkLsIdentifier)) :
-                                            (peer.vpnAdjacencyRib().linkTree().containsKey(linkLsIdentifier));
-
-                if (!containsKey) {
-                    continue;
-                }
-
-                sessionInfo = peer.sessionInfo();
-
-                PathAttrNlriDetailsLocalRib detailsLocRib = new PathAttrNlriDetailsLocalRib(
-                                                            sessionInfo.remoteBgpId().ipAddress(),
-                                                            sessionInfo.remoteBgpIdentifier(),
-                                                            sessionInfo.remoteBgpASNum(),
-                                                            sessionInfo.isIbgpSession(),
-                                                            ((!isVpnRib) ?
-                                                            (peer.adjacencyRib().linkTree().get(linkLsIdentifier)) :
-                                                            (peer.vpnAdjacencyRib().linkTree()
-                                                                                   .get(linkLsIdentifier))));
-
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                decisionResult = selectionAlgo.compare(linkTree.get(linkLsIdentifier), detailsLocRib);
-                if (decisionResult < 0) {
-                    linkTree.replace(linkLsIdentifier, detailsLocRib);
-                    log.debug("Local RIB link updated: {}", detailsLocRib.toString());
-                }
-            } else {
-                if (!isVpnRib) {
-                    if (peer.adjacencyRib().linkTree().containsKey(linkLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.adjacencyRib().linkTree().get(linkLsIdentifier));
-                    }
-                } else {
-                    if (peer.vpnAdjacencyRib().linkTree().containsKey(linkLsIdentifier)) {
-                        add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().linkTree().get(linkLsIdentifier));
-                    }
-                }
+        /**
+         * Removes the path to the NLRI withdrawn over the session.
+         *
+         * @param nlri network layer reach info
+         */
+        public void delete(BgpLSNlri nlri) {
+            log.debug("Delete from local RIB.");
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                nodes.withdraw(((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors(), this);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                links.withdraw(((BgpLinkLsNlriVer4) nlri).getLinkIdentifier(), this);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                prefixes.withdraw(((BgpPrefixIPv4LSNlriVer4) nlri).getPrefixIdentifier(), this);
             }
         }
-    }
 
-     /**
-     * Selection process for local RIB prefix.
-     *
-     * @param nlri NLRI to update
-     * @param isVpnRib true if VPN local RIB, otherwise false
-     * @throws BgpParseException BGP parse exception
-     */
-    public void selectionProcessPrefix(BgpLSNlri nlri, boolean isVpnRib) throws BgpParseException {
-        BgpPeerImpl peer;
-        BgpSessionInfo sessionInfo;
-        int decisionResult;
-        boolean containsKey;
-
-        BgpPrefixLSIdentifier prefixIdentifier = ((BgpPrefixIPv4LSNlriVer4) nlri).getPrefixIdentifier();
-        if (prefixTree.containsKey(prefixIdentifier)) {
-            log.debug("Local RIB remove prefix: {}", prefixIdentifier.toString());
-            prefixTree.remove(prefixIdentifier);
+        /**
+         * Removes the path to the VPN NLRI withdrawn over the session.
+         *
+         * @param nlri network layer reach info
+         * @param routeDistinguisher unique for each VPN
+         */
+        public void delete(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) {
+            if (hasVpnTree(nlri, routeDistinguisher)) {
+                delete(nlri);
+                removeEmptyVpnTree(nlri, routeDistinguisher);
+            }
         }
 
-        for (BgpId bgpId : bgpController.connectedPeers().keySet()) {
-            peer = (BgpPeerImpl) (bgpController.getPeer(bgpId));
-
-            if (prefixTree.containsKey(prefixIdentifier)) {
+        /**
+         * Notifies listeners of the changes of best paths.
+         */
+        public void apply() {
+            notifications.values().forEach(Runnable::run);
+            notifications.clear();
+        }
 
-                containsKey = (!isVpnRib) ? (peer.adjacencyRib().prefixTree().containsKey(prefixIdentifier)) :
-                                            (peer.vpnAdjacencyRib().prefixTree().containsKey(prefixIdentifier));
-                if (!containsKey) {
-                    continue;
-                }
-                sessionInfo = peer.sessionInfo();
-
-                PathAttrNlriDetailsLocalRib detailsLocRib = new PathAttrNlriDetailsLocalRib(
-                                                                sessionInfo.remoteBgpId().ipAddress(),
-                                                                sessionInfo.remoteBgpIdentifier(),
-                                                                sessionInfo.remoteBgpASNum(),
-                                                                sessionInfo.isIbgpSession(),
-                                                                ((!isVpnRib) ?
-                                                                (peer.adjacencyRib().prefixTree()
-                                                                                    .get(prefixIdentifier)) :
-                                                                (peer.vpnAdjacencyRib().prefixTree()
-                                                                                       .get(prefixIdentifier))));
-
-                BgpSelectionAlgo selectionAlgo = new BgpSelectionAlgo();
-                decisionResult = selectionAlgo.compare(prefixTree.get(prefixIdentifier), detailsLocRib);
-                if (decisionResult < 0) {
-                    prefixTree.replace(prefixIdentifier, detailsLocRib);
-                    log.debug("Local RIB prefix updated: {}", detailsLocRib.toString());
-                }
-            } else {
-                    if (!isVpnRib) {
-                        if (peer.adjacencyRib().prefixTree().containsKey(prefixIdentifier)) {
-                            add(peer.sessionInfo(), nlri, peer.adjacencyRib().prefixTree().get(prefixIdentifier));
-                    } else {
-                        if (peer.vpnAdjacencyRib().prefixTree().containsKey(prefixIdentifier)) {
-                            add(peer.sessionInfo(), nlri, peer.vpnAdjacencyRib().prefixTree().get(prefixIdentifier));
-                        }
-                    }
-                }
+        private void reconcile(BgpLSNlri nlri, boolean isVpnRib) {
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                nodes.reconcile(((BgpNodeLSNlriVer4) nlri).getLocalNodeDescriptors(), isVpnRib, this);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                links.reconcile(((BgpLinkLsNlriVer4) nlri).getLinkIdentifier(), isVpnRib, this);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                prefixes.reconcile(((BgpPrefixIPv4LSNlriVer4) nlri).getPrefixIdentifier(), isVpnRib, this);
             }
         }
-    }
 
-    @Override
-    public void add(BgpSessionInfo sessionInfo, BgpLSNlri nlri, PathAttrNlriDetails details,
-                    RouteDistinguisher routeDistinguisher) throws BgpParseException {
-        add(sessionInfo, nlri, details);
-        if (nlri instanceof BgpNodeLSNlriVer4) {
-            if (!vpnNodeTree.containsKey(routeDistinguisher)) {
-                vpnNodeTree.put(routeDistinguisher, nodeTree);
-            }
-        } else if (nlri instanceof BgpLinkLsNlriVer4) {
-            if (!vpnLinkTree.containsKey(routeDistinguisher)) {
-                vpnLinkTree.put(routeDistinguisher, linkTree);
+        private boolean hasVpnTree(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) {
+            if (nlri instanceof BgpNodeLSNlriVer4) {
+                return vpnNodeTree.containsKey(routeDistinguisher);
+            } else if (nlri instanceof BgpLinkLsNlriVer4) {
+                return vpnLinkTree.containsKey(routeDistinguisher);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
+                return vpnPrefixTree.containsKey(routeDistinguisher);
             }
-        } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4) {
-            if (!vpnPrefixTree.containsKey(routeDistinguisher)) {
-                vpnPrefixTree.put(routeDistinguisher, prefixTree);
+            return false;
+        }
+
+        private void removeEmptyVpnTree(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) {
+            if (nlri instanceof BgpNodeLSNlriVer4 && nodes.bestPaths.isEmpty()) {
+                vpnNodeTree.remove(routeDistinguisher);
+            } else if (nlri instanceof BgpLinkLsNlriVer4 && links.bestPaths.isEmpty()) {
+                vpnLinkTree.remove(routeDistinguisher);
+            } else if (nlri instanceof BgpPrefixIPv4LSNlriVer4 && prefixes.bestPaths.isEmpty()) {
+                vpnPrefixTree.remove(routeDistinguisher);
             }
         }
-    }
 
-    @Override
-    public void delete(BgpLSNlri nlri, RouteDistinguisher routeDistinguisher) throws BgpParseException {
-        // Update local RIB
-        decisionProcess(nlri, routeDistinguisher);
+        private IpAddress peerAddress() {
+            return sessionInfo.remoteBgpId().ipAddress();
+        }
+
+        private void notify(Object key, Runnable notification) {
+            // keep only the latest change, in the order of the changes
+            notifications.remove(key);
+            notifications.put(key, notification);
+        }
     }
 
     /**
-     * Update local RIB node based on available peer adjacency RIB.
+     * Local RIB of one NLRI type.
      *
-     * @param o adjacency-in/VPN adjacency-in
-     * @throws BgpParseException BGP parse exception
+     * @param <K> type of NLRI identifiers
      */
-    public void localRibUpdateNode(Object o) throws BgpParseException {
+    private final class LocRibTable<K> {
 
-        if (o instanceof AdjRibIn) {
-            AdjRibIn adjRib = (AdjRibIn) o;
-            log.debug("Update local RIB node.");
+        private final Map<K, PathAttrNlriDetailsLocalRib> bestPaths = new ConcurrentSkipListMap<>();
+        private final ConcurrentMap<K, Candidates> candidates = new ConcurrentHashMap<>();
+        private final BiConsumer<BgpLSNlri, PathAttrNlriDetails> added;
+        private final Consumer<BgpLSNlri> removed;
 
-            Set<BgpNodeLSIdentifier> nodeKeys = adjRib.nodeTree().keySet();
-            for (BgpNodeLSIdentifier key : nodeKeys) {
-                PathAttrNlriDetails pathAttrNlri = adjRib.nodeTree().get(key);
+        private LocRibTable(BiConsumer<BgpLSNlri, PathAttrNlriDetails> added, Consumer<BgpLSNlri> removed) {
+            this.added = added;
+            this.removed = removed;
+        }
 
-                BgpNodeLSNlriVer4 nodeNlri = new BgpNodeLSNlriVer4(pathAttrNlri.identifier(), pathAttrNlri
-                                                                   .protocolID().getType(), key, false, null);
-                decisionProcess(nodeNlri);
-            }
+        private void add(K key, BgpLSNlri nlri, PathAttrNlriDetailsLocalRib path, Update update) {
+            change(key, c -> c.add(nlri, path), update);
         }
 
-        if (o instanceof VpnAdjRibIn) {
-            VpnAdjRibIn vpnAdjRib = (VpnAdjRibIn) o;
-            log.debug("Update local RIB VPN node.");
-            Set<RouteDistinguisher> nodeKeysVpn = vpnAdjRib.vpnNodeTree().keySet();
-            Map<BgpNodeLSIdentifier, PathAttrNlriDetails> node;
-            for (RouteDistinguisher keyVpnNode : nodeKeysVpn) {
-                node = vpnAdjRib.vpnNodeTree().get(keyVpnNode);
-
-                Set<BgpNodeLSIdentifier> vpnNodeKeys = node.keySet();
-                for (BgpNodeLSIdentifier key : vpnNodeKeys) {
-                    PathAttrNlriDetails pathAttrNlri = vpnAdjRib.nodeTree().get(key);
-                    BgpNodeLSNlriVer4 nodeNlri = new BgpNodeLSNlriVer4(pathAttrNlri.identifier(),
-                                                                      pathAttrNlri.protocolID().getType(),
-                                                                      key, true, keyVpnNode);
-                    decisionProcess(nodeNlri, keyVpnNode);
-                }
-            }
+        private void withdraw(K key, Update update) {
+            IpAddress peerAddress = update.peerAddress();
+            change(key, c -> c.retain(peer -> !peer.equals(peerAddress)), update);
         }
-    }
 
-    /**
-     * Update localRIB link based on available peer adjacency RIB.
-     *
-     * @param o adjacency-in/VPN adjacency-in
-     * @throws BgpParseException BGP parse exceptions
-     */
-    public void localRibUpdateLink(Object o) throws BgpParseException {
-
-        if (o instanceof AdjRibIn) {
-            AdjRibIn adjRib = (AdjRibIn) o;
-            log.debug("Update local RIB link.");
-
-            Set<BgpLinkLSIdentifier> linkKeys = adjRib.linkTree().keySet();
-            for (BgpLinkLSIdentifier key : linkKeys) {
-                PathAttrNlriDetails pathAttrNlri = adjRib.linkTree().get(key);
-                BgpLinkLsNlriVer4 linkNlri = new BgpLinkLsNlriVer4(pathAttrNlri.protocolID().getType(),
-                                                                   pathAttrNlri.identifier(), key, null, false);
-                decisionProcess(linkNlri);
-            }
+        private void reconcile(K key, boolean isVpnRib, Update update) {
+            change(key, c -> c.retain(peer -> isAdvertised(peer, key, isVpnRib)), update);
         }
 
-        if (o instanceof VpnAdjRibIn) {
-            VpnAdjRibIn vpnAdjRib = (VpnAdjRibIn) o;
-            log.debug("Update local RIB VPN link");
-
-            Set<RouteDistinguisher> linkKeysVpn = vpnAdjRib.vpnLinkTree().keySet();
-            Map<BgpLinkLSIdentifier, PathAttrNlriDetails> link;
-            for (RouteDistinguisher keyVpnLink : linkKeysVpn) {
-                link = vpnAdjRib.vpnLinkTree().get(keyVpnLink);
-
-                Set<BgpLinkLSIdentifier> vpnLinkKeys = link.keySet();
-                for (BgpLinkLSIdentifier key : vpnLinkKeys) {
-                    PathAttrNlriDetails pathAttrNlri = vpnAdjRib.linkTree().get(key);
-                    BgpLinkLsNlriVer4 linkNlri = new BgpLinkLsNlriVer4(pathAttrNlri.protocolID().getType(),
-                                                                       pathAttrNlri.identifier(), key, keyVpnLink,
-                                                                       true);
-                    decisionProcess(linkNlri, keyVpnLink);
+        // Applies the change to the candidates of the NLRI, updating the best
+        // path if it changed; changes of the same NLRI are serialized.
+        private void change(K key, Consumer<Candidates> change, Update update) {
+            candidates.compute(key, (k, existing) -> {
+                Candidates current = existing != null ? existing : new Candidates();
+                PathAttrNlriDetailsLocalRib previous = current.best;
+                change.accept(current);
+                PathAttrNlriDetailsLocalRib best = current.best;
+                BgpLSNlri nlri = current.nlri;
+                if (best == previous) {
+                    return best != null ? current : null;
                 }
-            }
+                if (best == null) {
+                    log.debug("Local RIB delete: {}", k);
+                    bestPaths.remove(k);
+                    update.notify(k, () -> removed.accept(nlri));
+                    return null;
+                }
+                log.debug("Local RIB update: {}", best);
+                bestPaths.put(k, best);
+                update.notify(k, () -> added.accept(nlri, best.localRibNlridetails()));
+                return current;
+            });
         }
     }
 
     /**
-     * Update localRIB prefix based on available peer adjacency RIB.
-     *
-     * @param o instance of adjacency-in/VPN adjacency-in
-     * @throws BgpParseException BGP parse exception
+     * Candidate paths to one NLRI, by advertising peer, and the best of them.
+     * Guarded by the local RIB table holding them.
      */
-    public void localRibUpdatePrefix(Object o) throws BgpParseException {
-
-        if (o instanceof AdjRibIn) {
-            AdjRibIn adjRib = (AdjRibIn) o;
-            log.debug("Update local RIB prefix.");
-
-            Set<BgpPrefixLSIdentifier> prefixKeys = adjRib.prefixTree().keySet();
-            for (BgpPrefixLSIdentifier key : prefixKeys) {
-                PathAttrNlriDetails pathAttrNlri = adjRib.prefixTree().get(key);
-                BgpPrefixIPv4LSNlriVer4 prefixNlri = new BgpPrefixIPv4LSNlriVer4(
-                                                                             pathAttrNlri.identifier(),
-                                                                             pathAttrNlri.protocolID().getType(),
-                                                                             key, null, false);
-                decisionProcess(prefixNlri);
+    private static final class Candidates {
+
+        private final Map<IpAddress, PathAttrNlriDetailsLocalRib> paths = new HashMap<>(4);
+        private PathAttrNlriDetailsLocalRib best;
+        private BgpLSNlri nlri;
+
+        private void add(BgpLSNlri nlri, PathAttrNlriDetailsLocalRib path) {
+            this.nlri = nlri;
+            PathAttrNlriDetailsLocalRib replaced = paths.put(path.localRibIpAddress(), path);
+            if (best == null || SELECTION_ALGO.compare(best, path) <= 0) {
+                best = path;
+            } else if (replaced == best) {
+                // the best path got worse
+                best = select();
             }
         }
 
-        if (o instanceof VpnAdjRibIn) {
-            VpnAdjRibIn vpnAdjRib = (VpnAdjRibIn) o;
-            log.debug("Update local RIB VPN prefix.");
-
-            Set<RouteDistinguisher> prefixKeysVpn = vpnAdjRib.vpnPrefixTree().keySet();
-            Map<BgpPrefixLSIdentifier, PathAttrNlriDetails> prefix;
-            for (RouteDistinguisher keyVpnPrefix : prefixKeysVpn) {
-                prefix = vpnAdjRib.vpnPrefixTree().get(keyVpnPrefix);
-
-                Set<BgpPrefixLSIdentifier> vpnPrefixKeys = prefix.keySet();
-                for (BgpPrefixLSIdentifier key : vpnPrefixKeys) {
-                    PathAttrNlriDetails pathAttrNlri = vpnAdjRib.prefixTree().get(key);
-                    BgpPrefixIPv4LSNlriVer4 prefixNlri = new BgpPrefixIPv4LSNlriVer4(pathAttrNlri.identifier(),
-                                                                                     pathAttrNlri.protocolID()
-                                                                                             .getType(), key,
-                                                                                     keyVpnPrefix, true);
-                    decisionProcess(prefixNlri, keyVpnPrefix);
-                }
+        private void retain(Predicate<IpAddress> peers) {
+            if (paths.keySet().removeIf(peers.negate())
+                    && (best == null || paths.get(best.localRibIpAddress()) != best)) {
+                best = select();
             }
         }
-    }
-
-    /**
-     * Update localRIB.
-     *
-     * @param adjRibIn adjacency RIB-in
-     * @throws BgpParseException BGP parse exception
-     */
-    public void localRibUpdate(AdjRibIn adjRibIn) throws BgpParseException {
-        log.debug("Update local RIB.");
-
-        localRibUpdateNode(adjRibIn);
-        localRibUpdateLink(adjRibIn);
-        localRibUpdatePrefix(adjRibIn);
-    }
-
-    /**
-     * Update localRIB.
-     *
-     * @param vpnAdjRibIn VPN adjacency RIB-in
-     * @throws BgpParseException BGP parse exception
-     */
-    public void localRibUpdate(VpnAdjRibIn vpnAdjRibIn) throws BgpParseException {
-        log.debug("Update VPN local RIB.");
 
-        localRibUpdateNode(vpnAdjRibIn);
-        localRibUpdateLink(vpnAdjRibIn);
-        localRibUpdatePrefix(vpnAdjRibIn);
-    }
-
-    @Override
-    public String toString() {
-        return MoreObjects.toStringHelper(getClass()).omitNullValues().add("nodeTree", nodeTree)
-                .add("linkTree", linkTree).add("prefixTree", prefixTree).add("vpnNodeTree", vpnNodeTree)
-                .add("vpnLinkTree", vpnLinkTree).add("vpnPrefixTree", vpnPrefixTree).toString();
+        private PathAttrNlriDetailsLocalRib select() {
+            PathAttrNlriDetailsLocalRib selected = null;
+            for (PathAttrNlriDetailsLocalRib path : paths.values()) {
+                if (selected == null || SELECTION_ALGO.compare(selected, path) < 0) {
+                    selected = path;
+                }
+            }
+            return selected;
+        }
     }
 }
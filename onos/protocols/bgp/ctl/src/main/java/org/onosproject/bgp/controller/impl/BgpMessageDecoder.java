@@ -15,13 +15,14 @@
  */
 package org.onosproject.bgp.controller.impl;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.handler.codec.frame.FrameDecoder;
+import org.onosproject.bgpio.exceptions.BgpParseException;
 import org.onosproject.bgpio.protocol.BgpMessage;
 import org.onosproject.bgpio.protocol.BgpFactories;
 import org.onosproject.bgpio.protocol.BgpMessageReader;
@@ -31,6 +32,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Decode an bgp message from a Channel, for use in a netty pipeline.
+ * <p>
+ * Messages are framed by the length of their header and read from slices of
+ * the received buffer; all complete messages of a read are passed upstream as
+ * a single list.
  */
 public class BgpMessageDecoder extends FrameDecoder {
 
@@ -47,27 +52,29 @@ public class BgpMessageDecoder extends FrameDecoder {
         HexDump.dump(buffer);
 
         BgpMessageReader<BgpMessage> reader = BgpFactories.getGenericReader();
-        List<BgpMessage> msgList = (List<BgpMessage>) ctx.getAttachment();
+        List<BgpMessage> msgList = new ArrayList<>();
 
-        if (msgList == null) {
-            msgList = new LinkedList<>();
-        }
-
-        try {
-            while (buffer.readableBytes() > 0) {
-                buffer.markReaderIndex();
-                BgpHeader bgpHeader = new BgpHeader();
-                BgpMessage message = reader.readFrom(buffer, bgpHeader);
-                msgList.add(message);
+        while (buffer.readableBytes() >= BgpHeader.DEFAULT_HEADER_LENGTH) {
+            int start = buffer.readerIndex();
+            // a bad length is reported by the reader, from the header alone
+            int length = Math.max(buffer.getUnsignedShort(start + BgpHeader.MARKER_LENGTH),
+                                  BgpHeader.DEFAULT_HEADER_LENGTH);
+            if (buffer.readableBytes() < length) {
+                // wait for the rest of the message
+                break;
+            }
+            try {
+                msgList.add(reader.readFrom(buffer.readSlice(length), new BgpHeader()));
+            } catch (BgpParseException e) {
+                if (msgList.isEmpty()) {
+                    // the message is skipped, and reported to the channel handler
+                    throw e;
+                }
+                // hand over the messages before it; it is decoded again on the next call
+                buffer.readerIndex(start);
+                break;
             }
-            ctx.setAttachment(null);
-            return msgList;
-        } catch (Exception e) {
-            log.debug("Bgp protocol message decode error");
-            buffer.resetReaderIndex();
-            buffer.discardReadBytes();
-            ctx.setAttachment(msgList);
         }
-        return null;
+        return msgList.isEmpty() ? null : msgList;
     }
-}
\ No newline at end of file
+}
@@ -321,18 +321,23 @@ public class BgpPeerImpl implements BgpPeer {
 
     @Override
     public void buildAdjRibIn(List<BgpValueType> pathAttr) throws BgpParseException {
+        // listeners are notified once per UPDATE message
+        BgpLocalRibImpl.Update ribUpdate = ((BgpLocalRibImpl) bgplocalRib).update(sessionInfo());
+        BgpLocalRibImpl.Update vpnRibUpdate = ((BgpLocalRibImpl) bgplocalRibVpn).update(sessionInfo());
         ListIterator<BgpValueType> iterator = pathAttr.listIterator();
         while (iterator.hasNext()) {
             BgpValueType attr = iterator.next();
             if (attr instanceof MpReachNlri) {
                 List<BgpLSNlri> nlri = ((MpReachNlri) attr).mpReachNlri();
-                callAdd(this, nlri, pathAttr);
+                callAdd(nlri, pathAttr, ribUpdate, vpnRibUpdate);
             }
             if (attr instanceof MpUnReachNlri) {
                 List<BgpLSNlri> nlri = ((MpUnReachNlri) attr).mpUnReachNlri();
-                callRemove(this, nlri);
+                callRemove(nlri, ribUpdate, vpnRibUpdate);
             }
         }
+        ribUpdate.apply();
+        vpnRibUpdate.apply();
     }
 
     /**
@@ -345,6 +350,16 @@ public class BgpPeerImpl implements BgpPeer {
      */
     public void callAdd(BgpPeerImpl peerImpl, List<BgpLSNlri> nlri, List<BgpValueType> pathAttr)
             throws BgpParseException {
+        BgpLocalRibImpl.Update ribUpdate = ((BgpLocalRibImpl) bgplocalRib).update(sessionInfo());
+        BgpLocalRibImpl.Update vpnRibUpdate = ((BgpLocalRibImpl) bgplocalRibVpn).update(sessionInfo());
+        callAdd(nlri, pathAttr, ribUpdate, vpnRibUpdate);
+        ribUpdate.apply();
+        vpnRibUpdate.apply();
+    }
+
+    private void callAdd(List<BgpLSNlri> nlri, List<BgpValueType> pathAttr,
+                         BgpLocalRibImpl.Update ribUpdate, BgpLocalRibImpl.Update vpnRibUpdate)
+            throws BgpParseException {
         ListIterator<BgpLSNlri> listIterator = nlri.listIterator();
         while (listIterator.hasNext()) {
             BgpLSNlri nlriInfo = listIterator.next();
@@ -352,31 +367,29 @@ public class BgpPeerImpl implements BgpPeer {
                 PathAttrNlriDetails details = setPathAttrDetails(nlriInfo, pathAttr);
                 if (!((BgpNodeLSNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.add(nlriInfo, details);
-                    bgplocalRib.add(sessionInfo(), nlriInfo, details);
+                    ribUpdate.add(nlriInfo, details);
                 } else {
                     vpnAdjRib.addVpn(nlriInfo, details, ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.add(sessionInfo(), nlriInfo, details,
-                                       ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.add(nlriInfo, details, ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             } else if (nlriInfo instanceof BgpLinkLsNlriVer4) {
                 PathAttrNlriDetails details = setPathAttrDetails(nlriInfo, pathAttr);
                 if (!((BgpLinkLsNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.add(nlriInfo, details);
-                    bgplocalRib.add(sessionInfo(), nlriInfo, details);
+                    ribUpdate.add(nlriInfo, details);
                 } else {
                     vpnAdjRib.addVpn(nlriInfo, details, ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.add(sessionInfo(), nlriInfo, details,
-                                       ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.add(nlriInfo, details, ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             } else if (nlriInfo instanceof BgpPrefixIPv4LSNlriVer4) {
                 PathAttrNlriDetails details = setPathAttrDetails(nlriInfo, pathAttr);
                 if (!((BgpPrefixIPv4LSNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.add(nlriInfo, details);
-                    bgplocalRib.add(sessionInfo(), nlriInfo, details);
+                    ribUpdate.add(nlriInfo, details);
                 } else {
                     vpnAdjRib.addVpn(nlriInfo, details, ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.add(sessionInfo(), nlriInfo, details,
-                                       ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.add(nlriInfo, details,
+                                     ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             }
         }
@@ -407,32 +420,41 @@ public class BgpPeerImpl implements BgpPeer {
      * @throws BgpParseException BGP parse exception
      */
     public void callRemove(BgpPeerImpl peerImpl, List<BgpLSNlri> nlri) throws BgpParseException {
+        BgpLocalRibImpl.Update ribUpdate = ((BgpLocalRibImpl) bgplocalRib).update(sessionInfo());
+        BgpLocalRibImpl.Update vpnRibUpdate = ((BgpLocalRibImpl) bgplocalRibVpn).update(sessionInfo());
+        callRemove(nlri, ribUpdate, vpnRibUpdate);
+        ribUpdate.apply();
+        vpnRibUpdate.apply();
+    }
+
+    private void callRemove(List<BgpLSNlri> nlri, BgpLocalRibImpl.Update ribUpdate,
+                            BgpLocalRibImpl.Update vpnRibUpdate) {
         ListIterator<BgpLSNlri> listIterator = nlri.listIterator();
         while (listIterator.hasNext()) {
             BgpLSNlri nlriInfo = listIterator.next();
             if (nlriInfo instanceof BgpNodeLSNlriVer4) {
                 if (!((BgpNodeLSNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.remove(nlriInfo);
-                    bgplocalRib.delete(nlriInfo);
+                    ribUpdate.delete(nlriInfo);
                 } else {
                     vpnAdjRib.removeVpn(nlriInfo, ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.delete(nlriInfo, ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.delete(nlriInfo, ((BgpNodeLSNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             } else if (nlriInfo instanceof BgpLinkLsNlriVer4) {
                 if (!((BgpLinkLsNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.remove(nlriInfo);
-                    bgplocalRib.delete(nlriInfo);
+                    ribUpdate.delete(nlriInfo);
                 } else {
                     vpnAdjRib.removeVpn(nlriInfo, ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.delete(nlriInfo, ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.delete(nlriInfo, ((BgpLinkLsNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             } else if (nlriInfo instanceof BgpPrefixIPv4LSNlriVer4) {
                 if (!((BgpPrefixIPv4LSNlriVer4) nlriInfo).isVpnPresent()) {
                     adjRib.remove(nlriInfo);
-                    bgplocalRib.delete(nlriInfo);
+                    ribUpdate.delete(nlriInfo);
                 } else {
                     vpnAdjRib.removeVpn(nlriInfo, ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
-                    bgplocalRibVpn.delete(nlriInfo, ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
+                    vpnRibUpdate.delete(nlriInfo, ((BgpPrefixIPv4LSNlriVer4) nlriInfo).getRouteDistinguisher());
                 }
             }
         }
@@ -465,8 +487,8 @@ public class BgpPeerImpl implements BgpPeer {
         BgpLocalRibImpl localRib = (BgpLocalRibImpl) bgplocalRib;
         BgpLocalRibImpl localRibVpn = (BgpLocalRibImpl) bgplocalRibVpn;
 
-        localRib.localRibUpdate(adjacencyRib());
-        localRibVpn.localRibUpdate(vpnAdjacencyRib());
+        localRib.localRibUpdate(sessionInfo(), adjacencyRib());
+        localRibVpn.localRibUpdate(sessionInfo(), vpnAdjacencyRib());
     }
 
     // ************************
@@ -27,21 +27,13 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.ListIterator;
 
 /**
- * Implementation of BGP best path Selection process.
+ * Implementation of BGP best path Selection process. Instances hold no state
+ * and may be shared.
  */
 public final class BgpSelectionAlgo implements Comparator<PathAttrNlriDetailsLocalRib> {
     private static final Logger log = LoggerFactory.getLogger(BgpSelectionAlgo.class);
-    private LocalPref obj1LocPref = null;
-    private AsPath obj1Aspath = null;
-    private Origin obj1Origin = null;
-    private Med obj1Med = null;
-    private LocalPref obj2LocPref = null;
-    private AsPath obj2Aspath = null;
-    private Origin obj2Origin = null;
-    private Med obj2Med = null;
 
     @Override
     public int compare(PathAttrNlriDetailsLocalRib pathNlriDetails1, PathAttrNlriDetailsLocalRib pathNlriDetails2) {
@@ -55,11 +47,16 @@ public final class BgpSelectionAlgo implements Comparator<PathAttrNlriDetailsLoc
             return 0;
         }
 
-        List<BgpValueType> o1 = pathNlriDetails1.localRibNlridetails().pathAttributes();
-        List<BgpValueType> o2 = pathNlriDetails2.localRibNlridetails().pathAttributes();
-        ListIterator<BgpValueType> listIteratorObj1 = o1.listIterator();
-        ListIterator<BgpValueType> listIteratorObj2 = o2.listIterator();
-        storeAttr(listIteratorObj1, listIteratorObj2);
+        SelectionAttributes attr1 = new SelectionAttributes(pathNlriDetails1.localRibNlridetails().pathAttributes());
+        SelectionAttributes attr2 = new SelectionAttributes(pathNlriDetails2.localRibNlridetails().pathAttributes());
+        LocalPref obj1LocPref = attr1.localPref;
+        LocalPref obj2LocPref = attr2.localPref;
+        AsPath obj1Aspath = attr1.asPath;
+        AsPath obj2Aspath = attr2.asPath;
+        Origin obj1Origin = attr1.origin;
+        Origin obj2Origin = attr2.origin;
+        Med obj1Med = attr1.med;
+        Med obj2Med = attr2.med;
 
         // prefer attribute with higher local preference
         if (obj1LocPref != null && obj2LocPref != null && !obj1LocPref.equals(obj2LocPref)) {
@@ -192,49 +189,33 @@ public final class BgpSelectionAlgo implements Comparator<PathAttrNlriDetailsLoc
     }
 
     /**
-     * Stores BGP basic attributes of two objects.
-     *
-     * @param listIteratorObj1 list iterator of object1
-     * @param listIteratorObj2 list iterator of object2
+     * BGP basic attributes of a path considered by the selection process.
      */
-    private void storeAttr(ListIterator<BgpValueType> listIteratorObj1, ListIterator<BgpValueType> listIteratorObj2) {
-         while (listIteratorObj1.hasNext()) {
-             BgpValueType pathAttributeObj1 = listIteratorObj1.next();
-             switch (pathAttributeObj1.getType()) {
-             case LocalPref.LOCAL_PREF_TYPE:
-                 obj1LocPref = (LocalPref) pathAttributeObj1;
-                 break;
-             case AsPath.ASPATH_TYPE:
-                 obj1Aspath = (AsPath) pathAttributeObj1;
-                 break;
-             case Origin.ORIGIN_TYPE:
-                 obj1Origin = (Origin) pathAttributeObj1;
-                 break;
-             case Med.MED_TYPE:
-                 obj1Med = (Med) pathAttributeObj1;
-                 break;
-             default:
-                 log.debug("Got other type, Not required: " + pathAttributeObj1.getType());
-             }
-         }
-         while (listIteratorObj2.hasNext()) {
-             BgpValueType pathAttributeObj2 = listIteratorObj2.next();
-             switch (pathAttributeObj2.getType()) {
-             case LocalPref.LOCAL_PREF_TYPE:
-                 obj2LocPref = (LocalPref) pathAttributeObj2;
-                 break;
-             case AsPath.ASPATH_TYPE:
-                 obj2Aspath = (AsPath) pathAttributeObj2;
-                 break;
-             case Origin.ORIGIN_TYPE:
-                 obj2Origin = (Origin) pathAttributeObj2;
-                 break;
-             case Med.MED_TYPE:
-                 obj2Med = (Med) pathAttributeObj2;
-                 break;
-             default:
-                 log.debug("Got other type, Not required: " + pathAttributeObj2.getType());
-             }
+    private static final class SelectionAttributes {
+        private LocalPref localPref;
+        private AsPath asPath;
+        private Origin origin;
+        private Med med;
+
+        private SelectionAttributes(List<BgpValueType> pathAttributes) {
+            for (BgpValueType pathAttribute : pathAttributes) {
+                switch (pathAttribute.getType()) {
+                case LocalPref.LOCAL_PREF_TYPE:
+                    localPref = (LocalPref) pathAttribute;
+                    break;
+                case AsPath.ASPATH_TYPE:
+                    asPath = (AsPath) pathAttribute;
+                    break;
+                case Origin.ORIGIN_TYPE:
+                    origin = (Origin) pathAttribute;
+                    break;
+                case Med.MED_TYPE:
+                    med = (Med) pathAttribute;
+                    break;
+                default:
+                    log.debug("Got other type, Not required: {}", pathAttribute.getType());
+                }
+            }
         }
     }
 }
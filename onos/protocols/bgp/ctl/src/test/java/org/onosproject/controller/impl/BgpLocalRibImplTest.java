@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.controller.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.bgp.controller.BgpId;
+import org.onosproject.bgp.controller.BgpNodeListener;
+import org.onosproject.bgp.controller.BgpSessionInfo;
+import org.onosproject.bgp.controller.impl.BgpControllerImpl;
+import org.onosproject.bgp.controller.impl.BgpLocalRibImpl;
+import org.onosproject.bgp.controller.impl.BgpSessionInfoImpl;
+import org.onosproject.bgpio.exceptions.BgpParseException;
+import org.onosproject.bgpio.protocol.BgpVersion;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSIdentifier;
+import org.onosproject.bgpio.protocol.linkstate.BgpNodeLSNlriVer4;
+import org.onosproject.bgpio.protocol.linkstate.NodeDescriptors;
+import org.onosproject.bgpio.protocol.linkstate.PathAttrNlriDetails;
+import org.onosproject.bgpio.types.AsPath;
+import org.onosproject.bgpio.types.AutonomousSystemTlv;
+import org.onosproject.bgpio.types.BgpValueType;
+import org.onosproject.bgpio.types.LocalPref;
+import org.onosproject.bgpio.types.Origin;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test cases for the local RIB.
+ */
+public class BgpLocalRibImplTest {
+
+    private static final BgpSessionInfo PEER1 = session("10.10.10.1");
+    private static final BgpSessionInfo PEER2 = session("10.10.10.2");
+
+    private final List<String> events = Lists.newArrayList();
+    private BgpLocalRibImpl localRib;
+
+    @Before
+    public void setUp() {
+        BgpControllerImpl controller = new BgpControllerImpl();
+        controller.addListener(new BgpNodeListener() {
+            @Override
+            public void addNode(BgpNodeLSNlriVer4 nodeNlri, PathAttrNlriDetails details) {
+                events.add("add " + nodeNlri.getIdentifier() + " " + localPref(details));
+            }
+
+            @Override
+            public void deleteNode(BgpNodeLSNlriVer4 nodeNlri) {
+                events.add("delete " + nodeNlri.getIdentifier());
+            }
+        });
+        localRib = new BgpLocalRibImpl(controller);
+    }
+
+    private static BgpSessionInfo session(String peerIp) {
+        return new BgpSessionInfoImpl(BgpId.bgpId(IpAddress.valueOf(peerIp)), BgpVersion.BGP_4, 100,
+                                      (short) 180, IpAddress.valueOf(peerIp).getIp4Address().toInt(),
+                                      (short) 180, true, ImmutableList.of());
+    }
+
+    private static BgpNodeLSNlriVer4 node(int asNum) {
+        List<BgpValueType> subTlvs = Lists.newArrayList(new AutonomousSystemTlv(asNum));
+        BgpNodeLSIdentifier identifier = new BgpNodeLSIdentifier(
+                new NodeDescriptors(subTlvs, (short) 8, (short) 256));
+        return new BgpNodeLSNlriVer4(asNum, (byte) 2, identifier, false, null);
+    }
+
+    private static PathAttrNlriDetails details(int localPref) {
+        PathAttrNlriDetails details = new PathAttrNlriDetails();
+        details.setIdentifier(0);
+        details.setProtocolID(BgpNodeLSNlriVer4.ProtocolType.OSPF_V2);
+        details.setPathAttribute(ImmutableList.of(new Origin((byte) 0), new AsPath(),
+                                                  new LocalPref(localPref)));
+        return details;
+    }
+
+    private static int localPref(PathAttrNlriDetails details) {
+        return details.pathAttributes().stream()
+                .filter(attr -> attr instanceof LocalPref)
+                .mapToInt(attr -> ((LocalPref) attr).localPref())
+                .findFirst().getAsInt();
+    }
+
+    /**
+     * Tests that the best path is selected among the paths of all peers and
+     * that it falls back to the remaining path when withdrawn.
+     */
+    @Test
+    public void testBestPathSelection() throws BgpParseException {
+        BgpNodeLSNlriVer4 nlri = node(1);
+        localRib.add(PEER1, nlri, details(100));
+        localRib.add(PEER2, nlri, details(200));
+        // a worse path does not change the best path
+        localRib.add(PEER1, nlri, details(150));
+        assertThat(events, is(ImmutableList.of("add 1 100", "add 1 200")));
+        assertThat(localPref(localRib.nodeTree().get(nlri.getLocalNodeDescriptors()).localRibNlridetails()),
+                   is(200));
+
+        // withdrawing a path that is not the best one goes unnoticed
+        events.clear();
+        localRib.delete(PEER1, nlri);
+        localRib.add(PEER1, nlri, details(150));
+        assertThat(events.isEmpty(), is(true));
+
+        events.clear();
+        localRib.delete(PEER2, nlri);
+        assertThat(events, is(ImmutableList.of("add 1 150")));
+
+        events.clear();
+        localRib.delete(PEER1, nlri);
+        assertThat(events, is(ImmutableList.of("delete 1")));
+        assertThat(localRib.nodeTree().get(nlri.getLocalNodeDescriptors()), nullValue());
+    }
+
+    /**
+     * Tests that listeners are notified once per NLRI when a batch of
+     * changes is applied.
+     */
+    @Test
+    public void testBatchedNotifications() {
+        BgpLocalRibImpl.Update update = localRib.update(PEER1);
+        update.add(node(1), details(100));
+        update.add(node(2), details(100));
+        update.add(node(1), details(300));
+        update.delete(node(2));
+        update.add(node(3), details(100));
+        assertThat(events.isEmpty(), is(true));
+        assertThat(localRib.nodeTree().size(), is(2));
+
+        update.apply();
+        assertThat(events, is(ImmutableList.of("add 1 300", "delete 2", "add 3 100")));
+    }
+}
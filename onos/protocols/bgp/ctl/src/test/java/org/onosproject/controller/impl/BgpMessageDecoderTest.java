@@ -0,0 +1,122 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.controller.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.CodecEmbedderException;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.junit.Test;
+import org.onosproject.bgp.controller.impl.BgpMessageDecoder;
+import org.onosproject.bgpio.exceptions.BgpParseException;
+import org.onosproject.bgpio.protocol.BgpMessage;
+import org.onosproject.bgpio.protocol.BgpType;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test cases for the BGP message decoder.
+ */
+public class BgpMessageDecoderTest {
+
+    private static final byte[] KEEPALIVE = new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x00, 0x13, 0x04};
+
+    // keepalive with a broken marker
+    private static final byte[] BAD_KEEPALIVE = new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, 0x00, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x00, 0x13, 0x04};
+
+    // update with a withdrawn route and a link NLRI
+    private static final byte[] UPDATE = new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff,
+            (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x00, (byte) 0x83, 0x02, 0x00, 0x04,
+            0x18, 0x0a, 0x01, 0x01, //withdrawn routes
+            0x00, 0x68, //path attribute len
+            0x04, 0x01, 0x01, 0x00, //origin
+            0x40, 0x02, 0x04, 0x02, 0x01, (byte) 0xfd, (byte) 0xe9, //as_path
+            (byte) 0x80, 0x04, 0x04, 0x00, 0x00, 0x00, 0x00, //med
+            (byte) 0x80, 0x0e, 0x53, 0x40, 0x04, 0x47, //mpreach
+            0x04, 0x04, 0x00, 0x00, 0x01, //nexthop
+            0x00, //reserved
+            0x00, 0x02, 0x00, 0x46, 0x02, 0x00, 0x00, 0x00, 0x00, 0x00,
+            0x00, 0x00, 0x00, 0x01, 0x00, 0x00, 0x1b, 0x02, 0x00, 0x00,
+            0x04, 0x00, 0x00, 0x08, (byte) 0xae, 0x02, 0x01, 0x00, 0x04,
+            0x02, 0x02, 0x02, 0x02, 0x02, 0x03, 0x00, 0x07, 0x19, 0x00,
+            (byte) 0x95, 0x02, 0x50, 0x21, 0x03, 0x01, 0x01, 0x00, 0x1a, 0x02,
+            0x00, 0x00, 0x04, 0x00, 0x00, 0x08, (byte) 0xae, 0x02, 0x01, 0x00,
+            0x04, 0x02, 0x02, 0x02, 0x02, 0x02, 0x03, 0x00, 0x06, 0x19,
+            0x00, (byte) 0x95, 0x02, 0x50, 0x21 //link nlri
+    };
+
+    private final DecoderEmbedder<List<BgpMessage>> decoder =
+            new DecoderEmbedder<>(new BgpMessageDecoder());
+
+    // feeds the stream in reads of the given size, and returns the types of the decoded messages
+    private List<BgpType> feed(byte[] stream, int readSize) {
+        List<BgpType> types = Lists.newArrayList();
+        for (int i = 0; i < stream.length; i += readSize) {
+            decoder.offer(ChannelBuffers.copiedBuffer(stream, i, Math.min(readSize, stream.length - i)));
+            for (List<BgpMessage> messages = decoder.poll(); messages != null; messages = decoder.poll()) {
+                messages.forEach(m -> types.add(m.getType()));
+            }
+        }
+        return types;
+    }
+
+    private static byte[] concat(byte[]... messages) {
+        ChannelBuffer stream = ChannelBuffers.wrappedBuffer(messages);
+        byte[] bytes = new byte[stream.readableBytes()];
+        stream.readBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tests that messages are framed regardless of how reads are split.
+     */
+    @Test
+    public void testFraming() {
+        byte[] stream = concat(UPDATE, KEEPALIVE, UPDATE);
+        for (int readSize = 1; readSize <= stream.length; readSize++) {
+            assertThat(feed(stream, readSize),
+                       is(ImmutableList.of(BgpType.UPDATE, BgpType.KEEP_ALIVE, BgpType.UPDATE)));
+        }
+    }
+
+    /**
+     * Tests that a malformed message is reported after the messages read
+     * before it are handed over, and that decoding resumes after it.
+     */
+    @Test
+    public void testParseError() {
+        try {
+            decoder.offer(ChannelBuffers.wrappedBuffer(KEEPALIVE, BAD_KEEPALIVE, KEEPALIVE));
+            fail("Malformed message accepted");
+        } catch (CodecEmbedderException e) {
+            assertThat(e.getCause(), instanceOf(BgpParseException.class));
+        }
+        assertThat(decoder.poll().size(), is(1));
+        assertThat(feed(KEEPALIVE, KEEPALIVE.length), is(ImmutableList.of(BgpType.KEEP_ALIVE, BgpType.KEEP_ALIVE)));
+    }
+}
@@ -27,7 +27,7 @@ import org.onosproject.isis.io.util.IsisUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -45,15 +45,14 @@ public class IsisMessageDecoder extends FrameDecoder {
             return null;
         }
         IsisMessageReader messageReader = new IsisMessageReader();
-        List<IsisMessage> isisMessageList = new LinkedList<>();
-        int dataLength = buffer.readableBytes();
+        List<IsisMessage> isisMessageList = new ArrayList<>();
         while (buffer.readableBytes() >= IsisConstants.MINIMUM_FRAME_LEN) {
-            ChannelBuffer payload = buffer.readBytes(IsisConstants.MINIMUM_FRAME_LEN);
-            ChannelBuffer ethernetHeader = payload.readBytes(IsisUtil.ETHER_HEADER_LEN);
+            ChannelBuffer payload = buffer.readSlice(IsisConstants.MINIMUM_FRAME_LEN);
+            ChannelBuffer ethernetHeader = payload.readSlice(IsisUtil.ETHER_HEADER_LEN);
             //Read the Source MAC address from ethernet header at the 6th position
             MacAddress sourceMac = getSourceMac(ethernetHeader);
             //Strip 17 byte ethernet header and get the ISIS data buffer
-            ChannelBuffer isisDataBuffer = payload.readBytes(payload.readableBytes());
+            ChannelBuffer isisDataBuffer = payload.readSlice(payload.readableBytes());
             int readableBytes = isisDataBuffer.readableBytes();
             IsisMessage message = messageReader.readFromBuffer(isisDataBuffer);
             //Last 7 bytes is metadata. ie. interface MAC address and interface index.
@@ -85,8 +84,9 @@ public class IsisMessageDecoder extends FrameDecoder {
     private MacAddress getSourceMac(ChannelBuffer ethHeader) {
         //Source MAC is at position 6 to 11 (6 bytes)
         ethHeader.skipBytes(IsisUtil.SIX_BYTES);
-        MacAddress sourceMac = MacAddress.valueOf(ethHeader.readBytes(IsisUtil.SIX_BYTES).array());
+        byte[] macBytes = new byte[IsisUtil.SIX_BYTES];
+        ethHeader.readBytes(macBytes);
 
-        return sourceMac;
+        return MacAddress.valueOf(macBytes);
     }
 }
\ No newline at end of file
@@ -86,7 +86,7 @@ public class IsisMessageReader {
         if (isisMessage != null) {
             try {
                 int bodyLength = totalLength - IsisConstants.COMMONHEADERLENGTH;
-                isisMessage.readFrom(channelBuffer.readBytes(bodyLength));
+                isisMessage.readFrom(channelBuffer.readSlice(bodyLength));
 
             } catch (Exception e) {
                 throw new IsisParseException(IsisErrorType.ISIS_MESSAGE_ERROR,
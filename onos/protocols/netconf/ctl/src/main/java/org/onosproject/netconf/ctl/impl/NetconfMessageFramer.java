@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Incremental decoder of NETCONF messages from the bytes received on a
+ * session, supporting both end-of-message (RFC 4742) and chunked (RFC 6242)
+ * framing. Whichever framing the device uses is detected per message.
+ * <p>
+ * Bytes are fed in arbitrary slices as they are read from the session and
+ * message content is copied once, in bulk, into a reusable buffer. Each
+ * complete message is handed to the consumer as a view of that buffer,
+ * which is only valid for the duration of the call.
+ * </p>
+ * <p>
+ * Not thread safe; a framer is fed by the single reader of a session.
+ * </p>
+ */
+final class NetconfMessageFramer {
+
+    private static final byte[] END_PATTERN = {']', ']', '>', ']', ']', '>'};
+    private static final byte LF = '\n';
+    private static final byte HASH = '#';
+    private static final byte GT = '>';
+    // RFC 6242 maximum chunk size
+    private static final long MAX_CHUNK_SIZE = 4294967295L;
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    // larger buffers are released after each message
+    private static final int RETAINED_CAPACITY = 1024 * 1024;
+
+    private enum State {
+        // between messages
+        START,
+        // a line feed was read between messages
+        START_LF,
+        // within an end-of-message framed message
+        END_OF_MESSAGE,
+        // expecting the line feed of a chunk header
+        CHUNK_LF,
+        // expecting the hash of a chunk header
+        CHUNK_HASH,
+        // expecting a chunk size or the end of chunks hash
+        CHUNK_SIZE_START,
+        // within the digits of a chunk size
+        CHUNK_SIZE,
+        // within chunk data
+        CHUNK_DATA,
+        // expecting the line feed of the end of chunks
+        END_OF_CHUNKS
+    }
+
+    private final Consumer<ByteBuffer> consumer;
+
+    private State state = State.START;
+    private byte[] message = new byte[INITIAL_CAPACITY];
+    private int length;
+    private long chunkSize;
+
+    /**
+     * Creates a framer handing complete messages to the given consumer.
+     *
+     * @param consumer consumer of message contents, without framing
+     */
+    NetconfMessageFramer(Consumer<ByteBuffer> consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Decodes the given bytes received from the session.
+     *
+     * @param bytes  bytes received
+     * @param offset offset of the first byte
+     * @param count  number of bytes
+     * @throws NetconfException if the bytes violate chunked framing
+     */
+    void feed(byte[] bytes, int offset, int count) throws NetconfException {
+        int index = offset;
+        int end = offset + count;
+        while (index < end) {
+            switch (state) {
+                case START:
+                    index = start(bytes, index);
+                    break;
+                case START_LF:
+                    if (bytes[index] == HASH) {
+                        // leading blank lines are not part of the message
+                        length = 0;
+                        state = State.CHUNK_SIZE_START;
+                        index++;
+                    } else if (bytes[index] == LF) {
+                        append(bytes, index, 1);
+                        index++;
+                    } else {
+                        state = State.END_OF_MESSAGE;
+                    }
+                    break;
+                case END_OF_MESSAGE:
+                    index = endOfMessage(bytes, index, end);
+                    break;
+                case CHUNK_LF:
+                    expect(bytes[index++], LF, State.CHUNK_HASH);
+                    break;
+                case CHUNK_HASH:
+                    expect(bytes[index++], HASH, State.CHUNK_SIZE_START);
+                    break;
+                case CHUNK_SIZE_START:
+                    byte first = bytes[index++];
+                    if (first == HASH) {
+                        state = State.END_OF_CHUNKS;
+                    } else if (first >= '1' && first <= '9') {
+                        chunkSize = first - '0';
+                        state = State.CHUNK_SIZE;
+                    } else {
+                        throw badFraming("chunk size", first);
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    byte digit = bytes[index++];
+                    if (digit == LF) {
+                        state = State.CHUNK_DATA;
+                    } else if (digit >= '0' && digit <= '9') {
+                        chunkSize = chunkSize * 10 + digit - '0';
+                        if (chunkSize > MAX_CHUNK_SIZE) {
+                            throw new NetconfException("Chunk size exceeds " + MAX_CHUNK_SIZE);
+                        }
+                    } else {
+                        throw badFraming("chunk size", digit);
+                    }
+                    break;
+                case CHUNK_DATA:
+                    int data = (int) Math.min(chunkSize, end - index);
+                    append(bytes, index, data);
+                    index += data;
+                    chunkSize -= data;
+                    if (chunkSize == 0) {
+                        state = State.CHUNK_LF;
+                    }
+                    break;
+                case END_OF_CHUNKS:
+                    expect(bytes[index++], LF, State.START);
+                    complete(length);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown state " + state);
+            }
+        }
+    }
+
+    private int start(byte[] bytes, int index) {
+        if (bytes[index] == LF) {
+            append(bytes, index, 1);
+            state = State.START_LF;
+            return index + 1;
+        }
+        state = State.END_OF_MESSAGE;
+        return index;
+    }
+
+    // Copies bytes up to the end of the message, if it is among them.
+    private int endOfMessage(byte[] bytes, int index, int end) {
+        for (int i = index; i < end; i++) {
+            if (bytes[i] == GT && endsWithEndPattern(bytes, index, i)) {
+                append(bytes, index, i + 1 - index);
+                state = State.START;
+                complete(length - END_PATTERN.length);
+                return i + 1;
+            }
+        }
+        append(bytes, index, end - index);
+        return end;
+    }
+
+    // Checks whether the message followed by bytes from index up to and
+    // including last ends with the end of message pattern.
+    private boolean endsWithEndPattern(byte[] bytes, int index, int last) {
+        int available = length + last + 1 - index;
+        if (available < END_PATTERN.length) {
+            return false;
+        }
+        for (int i = 0; i < END_PATTERN.length; i++) {
+            int position = last - i;
+            byte b = position >= index ? bytes[position] : message[length - (index - position)];
+            if (b != END_PATTERN[END_PATTERN.length - 1 - i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(byte b, byte expected, State next) throws NetconfException {
+        if (b != expected) {
+            throw badFraming("chunk header", b);
+        }
+        state = next;
+    }
+
+    private NetconfException badFraming(String what, byte b) {
+        reset();
+        return new NetconfException("Badly framed message: unexpected byte " + b + " in " + what);
+    }
+
+    private void append(byte[] bytes, int offset, int count) {
+        if (length + count > message.length) {
+            message = Arrays.copyOf(message, Math.max(message.length * 2, length + count));
+        }
+        System.arraycopy(bytes, offset, message, length, count);
+        length += count;
+    }
+
+    private void complete(int messageLength) {
+        try {
+            consumer.accept(ByteBuffer.wrap(message, 0, messageLength));
+        } finally {
+            reset();
+        }
+    }
+
+    private void reset() {
+        state = State.START;
+        length = 0;
+        chunkSize = 0;
+        if (message.length > RETAINED_CAPACITY) {
+            message = new byte[INITIAL_CAPACITY];
+        }
+    }
+}
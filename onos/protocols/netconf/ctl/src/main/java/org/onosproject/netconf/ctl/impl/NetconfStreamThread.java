@@ -24,30 +24,29 @@ import org.onosproject.netconf.NetconfException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.io.InputStreamReader;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.MatchResult;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static org.onlab.util.Tools.groupedThreads;
+
 /**
- * Thread that gets spawned each time a session is established and handles all the input
- * and output from the session's streams to and from the NETCONF device the session is
- * established with.
+ * Handles all the input and output from the session's streams to and from the
+ * NETCONF device the session is established with. The input of each session
+ * is read and framed on a pool shared by all sessions.
  */
-public class NetconfStreamThread extends Thread implements NetconfStreamHandler {
+public class NetconfStreamThread implements NetconfStreamHandler, Runnable {
 
     private static final Logger log = LoggerFactory
             .getLogger(NetconfStreamThread.class);
@@ -58,25 +57,17 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
     private static final String NOTIFICATION_LABEL = "<notification";
     private static final String MESSAGE_ID = "message-id=";
     private static final Pattern MSGID_PATTERN = Pattern.compile(MESSAGE_ID + "\"(\\d+)\"");
-    private static final String MSGLEN_REGEX_PATTERN = "\n#\\d+\n";
-    // pattern to verify whole Chunked-Message format
-    private static final Pattern CHUNKED_FRAMING_PATTERN =
-            Pattern.compile("(\\n#([1-9][0-9]*)\\n(.+))+\\n##\\n", Pattern.DOTALL);
-    private static final String MSGLEN_PART_REGEX_PATTERN = "\\d+\n";
-    private static final String CHUNKED_END_REGEX_PATTERN = "\n##\n";
-    // pattern to parse each chunk-size in ChunkedMessage chunk
-    private static final Pattern CHUNKED_SIZE_PATTERN = Pattern.compile("\\n#([1-9][0-9]*)\\n");
-    private static final String HASH = "#";
-    private static final char HASH_CHAR = '#';
-    private static final String LF = "\n";
-    private static final char LF_CHAR = '\n';
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private static final ExecutorService READERS =
+            Executors.newCachedThreadPool(groupedThreads("onos/netconf", "stream-reader-%d", log));
 
     private OutputStreamWriter outputStream;
     private final InputStream err;
     private final InputStream in;
     private NetconfDeviceInfo netconfDeviceInfo;
     private NetconfSessionDelegate sessionDelegate;
-    private NetconfMessageState state;
+    private boolean socketClosed;
     private List<NetconfDeviceOutputEventListener> netconfDeviceEventListeners
             = Lists.newCopyOnWriteArrayList();
     private boolean enableNotifications = true;
@@ -90,11 +81,10 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         this.err = err;
         outputStream = new OutputStreamWriter(out, StandardCharsets.UTF_8);
         netconfDeviceInfo = deviceInfo;
-        state = NetconfMessageState.NO_MATCHING_PATTERN;
         sessionDelegate = delegate;
         this.replies = replies;
-        log.debug("Stream thread for device {} session started", deviceInfo);
-        start();
+        log.debug("Stream reader for device {} session started", deviceInfo);
+        READERS.execute(this);
     }
 
     @Override
@@ -122,6 +112,13 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         return cf;
     }
 
+    /**
+     * States of a character based matcher of NETCONF message framing.
+     *
+     * @deprecated in 1.13.0; sessions frame messages with a byte oriented
+     * decoder
+     */
+    @Deprecated
     public enum NetconfMessageState {
 
         NO_MATCHING_PATTERN {
@@ -238,21 +235,12 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
 
     @Override
     public void run() {
-        BufferedReader bufferReader = null;
-        while (bufferReader == null) {
-            try {
-                bufferReader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
-            } catch (UnsupportedEncodingException e) {
-                throw new IllegalStateException(e);
-            }
-        }
-
+        NetconfMessageFramer framer = new NetconfMessageFramer(this::dealWithReply);
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
         try {
-            boolean socketClosed = false;
-            StringBuilder deviceReplyBuilder = new StringBuilder();
             while (!socketClosed) {
-                int cInt = bufferReader.read();
-                if (cInt == -1) {
+                int read = in.read(buffer);
+                if (read == -1) {
                     log.debug("Netconf device {}  sent error char in session," +
                             " will need to be reopend", netconfDeviceInfo);
                     NetconfDeviceOutputEvent event = new NetconfDeviceOutputEvent(
@@ -261,36 +249,16 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
                     netconfDeviceEventListeners.forEach(
                             listener -> listener.event(event));
                     socketClosed = true;
-                    log.debug("Netconf device {} ERROR cInt == -1 socketClosed = true", netconfDeviceInfo);
-                }
-                char c = (char) cInt;
-                state = state.evaluateChar(c);
-                deviceReplyBuilder.append(c);
-                if (state == NetconfMessageState.END_PATTERN) {
-                    String deviceReply = deviceReplyBuilder.toString();
-                    if (deviceReply.equals(END_PATTERN)) {
-                        socketClosed = true;
-                        close(deviceReply);
-                    } else {
-                        deviceReply = deviceReply.replace(END_PATTERN, "");
-                        dealWithReply(deviceReply);
-                        deviceReplyBuilder.setLength(0);
-                    }
-                } else if (state == NetconfMessageState.END_CHUNKED_PATTERN) {
-                    String deviceReply = deviceReplyBuilder.toString();
-                    if (!validateChunkedFraming(deviceReply)) {
-                        log.debug("Netconf device {} send badly framed message {}",
-                                netconfDeviceInfo, deviceReply);
-                        socketClosed = true;
-                        close(deviceReply);
-                    } else {
-                        deviceReply = deviceReply.replaceAll(MSGLEN_REGEX_PATTERN, "");
-                        deviceReply = deviceReply.replaceAll(CHUNKED_END_REGEX_PATTERN, "");
-                        dealWithReply(deviceReply);
-                        deviceReplyBuilder.setLength(0);
-                    }
+                    log.debug("Netconf device {} ERROR read == -1 socketClosed = true", netconfDeviceInfo);
+                } else {
+                    framer.feed(buffer, 0, read);
                 }
             }
+        } catch (NetconfException e) {
+            log.debug("Netconf device {} send badly framed message: {}",
+                    netconfDeviceInfo, e.getMessage());
+            socketClosed = true;
+            close(e.getMessage());
         } catch (IOException e) {
             log.warn("Error in reading from the session for device {} ", netconfDeviceInfo, e);
             throw new IllegalStateException(new NetconfException("Error in reading from the session for device {}" +
@@ -307,7 +275,17 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
                 null, null, Optional.of(-1), netconfDeviceInfo);
         netconfDeviceEventListeners.forEach(
                 listener -> listener.event(event));
-        this.interrupt();
+    }
+
+    private void dealWithReply(ByteBuffer message) {
+        if (!message.hasRemaining()) {
+            // end of message pattern alone
+            socketClosed = true;
+            close(END_PATTERN);
+            return;
+        }
+        dealWithReply(new String(message.array(), message.arrayOffset() + message.position(),
+                                 message.remaining(), StandardCharsets.UTF_8));
     }
 
     private void dealWithReply(String deviceReply) {
@@ -340,41 +318,6 @@ public class NetconfStreamThread extends Thread implements NetconfStreamHandler
         }
     }
 
-    static boolean validateChunkedFraming(String reply) {
-        Matcher matcher = CHUNKED_FRAMING_PATTERN.matcher(reply);
-        if (!matcher.matches()) {
-            log.debug("Error on reply {}", reply);
-            return false;
-        }
-        Matcher chunkM = CHUNKED_SIZE_PATTERN.matcher(reply);
-        List<MatchResult> chunks = new ArrayList<>();
-        String chunkdataStr = "";
-        while (chunkM.find()) {
-            chunks.add(chunkM.toMatchResult());
-            // extract chunk-data (and later) in bytes
-            int bytes = Integer.parseInt(chunkM.group(1));
-            byte[] chunkdata = reply.substring(chunkM.end()).getBytes(StandardCharsets.UTF_8);
-            if (bytes > chunkdata.length) {
-                log.debug("Error on reply - wrong chunk size {}", reply);
-                return false;
-            }
-            //check if after chunk-size bytes there is next chunk or message ending
-            if (chunkdata[bytes] != LF_CHAR || chunkdata[bytes + 1] != HASH_CHAR) {
-                log.debug("Error on reply - wrong chunk size {}", reply);
-                return false;
-            }
-            // convert (only) chunk-data part into String
-            chunkdataStr = new String(chunkdata, 0, bytes, StandardCharsets.UTF_8);
-            // skip chunk-data part from next match
-            chunkM.region(chunkM.end() + chunkdataStr.length(), reply.length());
-        }
-        if (!"\n##\n".equals(reply.substring(chunks.get(chunks.size() - 1).end() + chunkdataStr.length()))) {
-            log.debug("Error on reply {}", reply);
-            return false;
-        }
-        return true;
-    }
-
     protected static Optional<Integer> getMsgId(String reply) {
         Matcher matcher = MSGID_PATTERN.matcher(reply);
         if (matcher.find()) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.netconf.ctl.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.onosproject.netconf.NetconfException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests of the NETCONF message framer.
+ */
+public class NetconfMessageFramerTest {
+
+    private static final String REPLY1 = "<rpc-reply message-id=\"1\"><ok/></rpc-reply>";
+    private static final String REPLY2 = "<rpc-reply message-id=\"2\"><data>café ]]> #</data></rpc-reply>";
+
+    private final List<String> messages = Lists.newArrayList();
+    private final NetconfMessageFramer framer = new NetconfMessageFramer(
+            buffer -> messages.add(StandardCharsets.UTF_8.decode(buffer).toString()));
+
+    private static String chunked(String message, int chunkSize) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        StringBuilder framed = new StringBuilder();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - i);
+            framed.append("\n#").append(length).append('\n')
+                    .append(new String(bytes, i, length, StandardCharsets.ISO_8859_1));
+        }
+        return framed.append("\n##\n").toString();
+    }
+
+    // feeds the given ISO-8859-1 encoded bytes in slices of the given size
+    private void feed(String bytes, int slice) throws NetconfException {
+        byte[] data = bytes.getBytes(StandardCharsets.ISO_8859_1);
+        for (int i = 0; i < data.length; i += slice) {
+            framer.feed(data, i, Math.min(slice, data.length - i));
+        }
+    }
+
+    private static String iso(String message) {
+        return new String(message.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Tests end-of-message framing, regardless of how reads are split.
+     */
+    @Test
+    public void testEndOfMessage() throws NetconfException {
+        String stream = iso(REPLY1 + "]]>]]>" + "\n" + REPLY2 + "]]>]]>");
+        for (int slice = 1; slice <= stream.length(); slice++) {
+            messages.clear();
+            feed(stream, slice);
+            assertThat(messages, is(ImmutableList.of(REPLY1, "\n" + REPLY2)));
+        }
+    }
+
+    /**
+     * Tests chunked framing, regardless of how reads are split.
+     */
+    @Test
+    public void testChunked() throws NetconfException {
+        String stream = chunked(REPLY1, 7) + chunked(REPLY2, 5) + chunked(REPLY1, 1000);
+        for (int slice = 1; slice <= stream.length(); slice++) {
+            messages.clear();
+            feed(stream, slice);
+            assertThat(messages, is(ImmutableList.of(REPLY1, REPLY2, REPLY1)));
+        }
+    }
+
+    /**
+     * Tests a switch from end-of-message to chunked framing, as done after
+     * the hello exchange.
+     */
+    @Test
+    public void testFramingSwitch() throws NetconfException {
+        feed("<hello/>]]>]]>" + chunked(REPLY1, 10) + "]]>]]>", 3);
+        assertThat(messages, is(ImmutableList.of("<hello/>", REPLY1, "")));
+    }
+
+    /**
+     * Tests that badly framed chunks are rejected and that the framer
+     * recovers on the next message.
+     */
+    @Test
+    public void testBadFraming() throws NetconfException {
+        for (String bad : ImmutableList.of("\n#0\n", "\n#x\n", "\n#3\nabcd", "\n##x")) {
+            try {
+                feed(bad, bad.length());
+                fail("Badly framed message accepted: " + bad);
+            } catch (NetconfException e) {
+                // expected
+            }
+        }
+        feed(chunked(REPLY1, 4), 8);
+        assertThat(messages, is(ImmutableList.of(REPLY1)));
+    }
+}
@@ -27,7 +27,7 @@ import org.onosproject.ospf.protocol.util.OspfUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,9 +46,9 @@ public class OspfMessageDecoder extends FrameDecoder {
             return null;
         }
         OspfMessageReader messageReader = new OspfMessageReader();
-        List<OspfMessage> ospfMessageList = new LinkedList<>();
+        List<OspfMessage> ospfMessageList = new ArrayList<>();
         while (buffer.readableBytes() >= OspfUtil.MINIMUM_FRAME_LEN) {
-            ChannelBuffer ospfDataBuffer = buffer.readBytes(OspfUtil.MINIMUM_FRAME_LEN);
+            ChannelBuffer ospfDataBuffer = buffer.readSlice(OspfUtil.MINIMUM_FRAME_LEN);
             int readableBytes = ospfDataBuffer.readableBytes();
             OspfMessage message = messageReader.readFromBuffer(ospfDataBuffer);
             if (message != null) {
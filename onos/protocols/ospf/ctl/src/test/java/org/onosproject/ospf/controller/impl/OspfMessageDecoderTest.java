@@ -81,4 +81,4 @@ public class OspfMessageDecoderTest {
         ospfMessageDecoder.decode(ctx, channel, channelBuffer);
         assertThat(ospfMessageDecoder, is(notNullValue()));
     }
-}
\ No newline at end of file
+}
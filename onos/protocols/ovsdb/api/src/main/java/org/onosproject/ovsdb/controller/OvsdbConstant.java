@@ -31,6 +31,7 @@ public final class OvsdbConstant {
 
     /** Common column names. */
     public static final String UUID = "_uuid";
+    public static final String NAME = "name";
 
     /** Ovsdb database Open_vSwitch. */
     public static final String DATABASENAME = "Open_vSwitch";
@@ -15,18 +15,54 @@
  */
 package org.onosproject.ovsdb.controller;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
+import org.onosproject.ovsdb.rfc.notation.Column;
+import org.onosproject.ovsdb.rfc.notation.OvsdbMap;
+import org.onosproject.ovsdb.rfc.notation.OvsdbSet;
 import org.onosproject.ovsdb.rfc.notation.Row;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * The class representing a table data.
+ * <p>
+ * Rows are also indexed by the values of the columns commonly used to look
+ * them up, so that they are found without scanning the table. The values of
+ * a set column and the entries of a map column are indexed individually.
+ * Rows are written by the single thread processing the updates of the
+ * database; reads are lock-free.
+ * </p>
  */
 public class OvsdbRowStore {
 
+    /**
+     * Columns whose values are indexed.
+     */
+    public static final Set<String> INDEXED_COLUMNS = ImmutableSet.of(OvsdbConstant.NAME, OvsdbConstant.EXTERNAL_ID);
+
     private final ConcurrentMap<String, Row> rowStore = Maps.newConcurrentMap();
+    private final Map<String, ConcurrentMap<Object, Set<String>>> indexes;
+
+    /**
+     * Creates an empty row store.
+     */
+    public OvsdbRowStore() {
+        ImmutableMap.Builder<String, ConcurrentMap<Object, Set<String>>> builder = ImmutableMap.builder();
+        INDEXED_COLUMNS.forEach(column -> builder.put(column, Maps.newConcurrentMap()));
+        indexes = builder.build();
+    }
 
     /**
      * Gets the row.
@@ -38,14 +74,65 @@ public class OvsdbRowStore {
         return rowStore.get(uuid);
     }
 
+    /**
+     * Gets the rows with the given value in an indexed column. For a set
+     * column, the rows whose set contains the value are returned.
+     *
+     * @param columnName name of an indexed column
+     * @param value column value
+     * @return rows, empty if no row has the value
+     */
+    public Collection<Row> getRowsByColumn(String columnName, Object value) {
+        checkArgument(indexes.containsKey(columnName), "Column %s is not indexed", columnName);
+        Set<String> uuids = indexes.get(columnName).get(value);
+        if (uuids == null) {
+            return Collections.emptyList();
+        }
+        return uuids.stream()
+                .map(rowStore::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a row with the given value in an indexed column.
+     *
+     * @param columnName name of an indexed column
+     * @param value column value
+     * @return row, null if no row has the value
+     */
+    public Row getRowByColumn(String columnName, Object value) {
+        return getRowsByColumn(columnName, value).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Gets the rows with the given entry in an indexed map column, such as
+     * external_ids.
+     *
+     * @param columnName name of an indexed map column
+     * @param key key of the entry
+     * @param value value of the entry
+     * @return rows, empty if no row has the entry
+     */
+    public Collection<Row> getRowsByMapEntry(String columnName, Object key, Object value) {
+        return getRowsByColumn(columnName, Maps.immutableEntry(key, value));
+    }
+
     /**
      * Inserts a row to rowStore.
      *
      * @param uuid key of the row
      * @param row a row of the table
      */
-    public void insertRow(String uuid, Row row) {
-        rowStore.put(uuid, row);
+    public synchronized void insertRow(String uuid, Row row) {
+        Row old = rowStore.put(uuid, row);
+        indexes.forEach((columnName, index) -> {
+            Set<Object> oldKeys = indexKeys(old, columnName);
+            Set<Object> newKeys = indexKeys(row, columnName);
+            Sets.difference(oldKeys, newKeys).forEach(key -> unindex(index, key, uuid));
+            Sets.difference(newKeys, oldKeys).forEach(
+                    key -> index.computeIfAbsent(key, k -> Sets.newConcurrentHashSet()).add(uuid));
+        });
     }
 
     /**
@@ -53,8 +140,10 @@ public class OvsdbRowStore {
      *
      * @param uuid key of the row
      */
-    public void deleteRow(String uuid) {
-        rowStore.remove(uuid);
+    public synchronized void deleteRow(String uuid) {
+        Row old = rowStore.remove(uuid);
+        indexes.forEach((columnName, index) ->
+                indexKeys(old, columnName).forEach(key -> unindex(index, key, uuid)));
     }
 
     /**
@@ -66,4 +155,26 @@ public class OvsdbRowStore {
         return rowStore;
     }
 
+    private static void unindex(ConcurrentMap<Object, Set<String>> index, Object key, String uuid) {
+        index.computeIfPresent(key, (k, uuids) -> {
+            uuids.remove(uuid);
+            return uuids.isEmpty() ? null : uuids;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object> indexKeys(Row row, String columnName) {
+        Column column = row != null ? row.getColumn(columnName) : null;
+        Object data = column != null ? column.data() : null;
+        if (data instanceof OvsdbSet) {
+            Set<Object> values = ((OvsdbSet) data).set();
+            return values != null ? ImmutableSet.copyOf(values) : Collections.emptySet();
+        } else if (data instanceof OvsdbMap) {
+            Map<Object, Object> entries = ((OvsdbMap) data).map();
+            return entries != null ? entries.entrySet().stream()
+                    .map(e -> Maps.immutableEntry(e.getKey(), e.getValue()))
+                    .collect(Collectors.toSet()) : Collections.emptySet();
+        }
+        return data != null ? Collections.singleton(data) : Collections.emptySet();
+    }
 }
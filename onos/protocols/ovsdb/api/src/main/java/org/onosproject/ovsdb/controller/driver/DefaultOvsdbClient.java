@@ -87,6 +87,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -100,6 +101,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -123,9 +125,11 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     private Callback monitorCallBack;
     private OvsdbStore ovsdbStore = new OvsdbStore();
 
-    private final Map<String, String> requestMethod = Maps.newHashMap();
-    private final Map<String, SettableFuture<? extends Object>> requestResult = Maps.newHashMap();
-    private final Map<String, DatabaseSchema> schema = Maps.newHashMap();
+    // requests are sent by callers and completed by the channel thread
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Map<String, String> requestMethod = Maps.newConcurrentMap();
+    private final Map<String, SettableFuture<? extends Object>> requestResult = Maps.newConcurrentMap();
+    private final Map<String, DatabaseSchema> schema = Maps.newConcurrentMap();
 
 
     /**
@@ -208,6 +212,18 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         return rowStore;
     }
 
+    /**
+     * Gets a row by an entry of its external_ids column.
+     *
+     * @param rowStore the ovsdb row store
+     * @param key      external id key
+     * @param value    external id value
+     * @return row, null if no row has the external id
+     */
+    private static Row getRowByExternalId(OvsdbRowStore rowStore, String key, String value) {
+        return rowStore.getRowsByMapEntry(EXTERNAL_ID, key, value).stream().findFirst().orElse(null);
+    }
+
     /**
      * Gets the ovsdb row.
      *
@@ -273,12 +289,13 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return null;
         }
 
-        ConcurrentMap<String, Row> mirrorTableRows = rowStore.getRowStore();
-        if (mirrorTableRows == null) {
-            log.warn("The mirror uuid is null");
-            return null;
+        Row mirrorRow = rowStore.getRowByColumn(NAME, mirrorName);
+        if (mirrorRow != null) {
+            return mirrorRow.uuid().value();
         }
 
+        // fall back to mirrors whose name contains the given one
+        ConcurrentMap<String, Row> mirrorTableRows = rowStore.getRowStore();
         for (String uuid : mirrorTableRows.keySet()) {
             Mirror mirror = (Mirror) TableGenerator
                     .getTable(dbSchema, mirrorTableRows.get(uuid), OvsdbTable.MIRROR);
@@ -375,12 +392,13 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
                 return null;
             }
 
-            for (Uuid uuid : ports) {
-                Row portRow = getRow(DATABASENAME, PORT, uuid.value());
-                Port port = (Port) TableGenerator.getTable(dbSchema, portRow,
-                                                           OvsdbTable.PORT);
-                if (port != null && portName.equalsIgnoreCase(port.getName())) {
-                    return uuid.value();
+            OvsdbRowStore portRowStore = getRowStore(DATABASENAME, PORT);
+            if (portRowStore == null) {
+                return null;
+            }
+            for (Row portRow : portRowStore.getRowsByColumn(NAME, portName)) {
+                if (ports.contains(portRow.uuid())) {
+                    return portRow.uuid().value();
                 }
             }
         }
@@ -389,27 +407,14 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
 
     @Override
     public String getBridgeUuid(String bridgeName) {
-        DatabaseSchema dbSchema = schema.get(DATABASENAME);
         OvsdbRowStore rowStore = getRowStore(DATABASENAME, BRIDGE);
         if (rowStore == null) {
             log.debug("The bridge uuid is null");
             return null;
         }
 
-        ConcurrentMap<String, Row> bridgeTableRows = rowStore.getRowStore();
-        if (bridgeTableRows == null) {
-            log.debug("The bridge uuid is null");
-            return null;
-        }
-
-        for (String uuid : bridgeTableRows.keySet()) {
-            Bridge bridge = (Bridge) TableGenerator
-                    .getTable(dbSchema, bridgeTableRows.get(uuid), OvsdbTable.BRIDGE);
-            if (bridge.getName().equals(bridgeName)) {
-                return uuid;
-            }
-        }
-        return null;
+        Row bridgeRow = rowStore.getRowByColumn(NAME, bridgeName);
+        return bridgeRow != null ? bridgeRow.uuid().value() : null;
     }
 
     private String getOvsUuid(String dbName) {
@@ -495,26 +500,78 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         String bridgeUuid = getBridgeUuid(ovsdbBridge.name());
         if (bridgeUuid == null) {
             bridge.setName(ovsdbBridge.name());
-            bridgeUuid = insertConfig(
-                    BRIDGE, UUID, DATABASENAME, BRIDGES,
-                    ovsUuid, bridge.getRow());
+            bridgeUuid = insertBridge(bridge, ovsUuid, ovsdbBridge.controllers());
+            if (bridgeUuid == null) {
+                log.warn("Failed to create bridge {} on {}", ovsdbBridge.name(), nodeId);
+                return false;
+            }
         } else {
             // update the bridge if it's already existing
             updateConfig(BRIDGE, UUID, bridgeUuid, bridge.getRow());
+            createPort(ovsdbBridge.name(), ovsdbBridge.name());
+            setControllersWithUuid(Uuid.uuid(bridgeUuid), ovsdbBridge.controllers());
         }
 
-        if (bridgeUuid == null) {
-            log.warn("Failed to create bridge {} on {}", ovsdbBridge.name(), nodeId);
-            return false;
-        }
-
-        createPort(ovsdbBridge.name(), ovsdbBridge.name());
-        setControllersWithUuid(Uuid.uuid(bridgeUuid), ovsdbBridge.controllers());
-
         log.info("Created bridge {}", ovsdbBridge.name());
         return true;
     }
 
+    /**
+     * Inserts a bridge along with its local port and controllers, in a
+     * single transaction.
+     *
+     * @param bridge      the bridge to insert
+     * @param ovsUuid     uuid of the Open_vSwitch row
+     * @param controllers controllers of the bridge
+     * @return uuid of the bridge, null if the transaction failed
+     */
+    private String insertBridge(Bridge bridge, String ovsUuid, List<ControllerInfo> controllers) {
+        DatabaseSchema dbSchema = schema.get(DATABASENAME);
+        ArrayList<Operation> operations = Lists.newArrayList();
+
+        // rows inserted in the transaction are referred to by uuid-name
+        Port port = (Port) TableGenerator.createTable(dbSchema, OvsdbTable.PORT);
+        port.setName(bridge.getName());
+        bridge.setPorts(Collections.singleton(Uuid.uuid(PORT)));
+        bridge.setController(OvsdbSet.ovsdbSet(insertControllers(controllers, operations)));
+        operations.add(0, new Insert(dbSchema.getTableSchema(BRIDGE), BRIDGE, bridge.getRow()));
+
+        Insert portInsert = new Insert(dbSchema.getTableSchema(PORT), PORT, port.getRow());
+        portInsert.getRow().put(INTERFACES, Uuid.uuid(INTERFACE));
+        operations.add(portInsert);
+        operations.add(handlePortInsertTable(port.getRow()));
+
+        Condition condition = ConditionUtil.isEqual(UUID, Uuid.uuid(ovsUuid));
+        Mutation mutation = MutationUtil.insert(BRIDGES, Uuid.uuid(BRIDGE));
+        operations.add(new Mutate(dbSchema.getTableSchema(DATABASENAME),
+                                  Lists.newArrayList(condition), Lists.newArrayList(mutation)));
+
+        List<OperationResult> results = transactConfigAndWait(DATABASENAME, operations);
+        return results != null ? results.get(0).getUuid().value() : null;
+    }
+
+    /**
+     * Adds the insertions of the given controllers to the operations of a
+     * transaction.
+     *
+     * @param controllers controllers to insert
+     * @param operations  operations of the transaction
+     * @return uuid-names of the inserted controller rows
+     */
+    private Set<Uuid> insertControllers(Collection<ControllerInfo> controllers, List<Operation> operations) {
+        DatabaseSchema dbSchema = schema.get(DATABASENAME);
+        Set<Uuid> controllerUuids = new HashSet<>();
+        for (ControllerInfo controllerInfo : controllers) {
+            Controller controller = (Controller) TableGenerator
+                    .createTable(dbSchema, OvsdbTable.CONTROLLER);
+            controller.setTarget(controllerInfo.target());
+            String uuidName = CONTROLLER + controllerUuids.size();
+            operations.add(new Insert(dbSchema.getTableSchema(CONTROLLER), uuidName, controller.getRow()));
+            controllerUuids.add(Uuid.uuid(uuidName));
+        }
+        return controllerUuids;
+    }
+
     @Override
     public ControllerInfo localController() {
         IpAddress ipAddress = IpAddress.valueOf(((InetSocketAddress)
@@ -553,30 +610,25 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return;
         }
 
-        removeControllers.forEach(c -> deleteConfig(CONTROLLER, UUID, c.getRow().uuid().value(),
-                                                    BRIDGE, BRIDGE_CONTROLLER, c.getRow().uuid()));
-        newControllers.stream().map(c -> {
-            Controller controller = (Controller) TableGenerator
-                    .createTable(dbSchema, OvsdbTable.CONTROLLER);
-            controller.setTarget(c.target());
-            return controller;
-        }).forEach(c -> {
-            String uuid = insertConfig(CONTROLLER, UUID, BRIDGE, BRIDGE_CONTROLLER, bridgeUuid.value(),
-                                       c.getRow());
-            newControllerUuids.add(Uuid.uuid(uuid));
-
-        });
-
         OvsdbRowStore rowStore = getRowStore(DATABASENAME, BRIDGE);
         if (rowStore == null) {
             log.debug("There is no bridge table");
             return;
         }
 
+        // the controllers of the bridge are replaced in a single transaction
+        ArrayList<Operation> operations = Lists.newArrayList();
+        removeControllers.forEach(c -> operations.add(new Delete(
+                dbSchema.getTableSchema(CONTROLLER),
+                Lists.newArrayList(ConditionUtil.isEqual(UUID, c.getRow().uuid())))));
+        newControllerUuids.addAll(insertControllers(newControllers, operations));
+
         Row bridgeRow = rowStore.getRow(bridgeUuid.value());
         Bridge bridge = (Bridge) TableGenerator.getTable(dbSchema, bridgeRow, OvsdbTable.BRIDGE);
         bridge.setController(OvsdbSet.ovsdbSet(newControllerUuids));
-        updateConfig(BRIDGE, UUID, bridgeUuid.value(), bridge.getRow());
+        operations.add(new Update(dbSchema.getTableSchema(BRIDGE), bridge.getRow(),
+                                  Lists.newArrayList(ConditionUtil.isEqual(UUID, bridgeUuid))));
+        transactConfig(DATABASENAME, operations);
     }
 
     @Override
@@ -612,16 +664,8 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         // Bridge or Port Table has a name column,in order to make the api more
         // general, put qos name in external_ids column of Qos Table if this qos
         // created by onos.
-        ConcurrentMap<String, Row> qosTableRows = qosRowStore.getRowStore();
-        ConcurrentMap<String, Row> portTableRows = portRowStore.getRowStore();
-        Row qosRow = qosTableRows.values().stream().filter(r -> {
-            OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-            return qosName.equals(ovsdbMap.map().get(QOS_EXTERNAL_ID_KEY));
-        }).findFirst().orElse(null);
-
-        Row portRow = portTableRows.values().stream()
-                .filter(r -> r.getColumn("name").data().equals(portNumber.name()))
-                .findFirst().orElse(null);
+        Row qosRow = getRowByExternalId(qosRowStore, QOS_EXTERNAL_ID_KEY, qosName);
+        Row portRow = portRowStore.getRowByColumn(NAME, portNumber.name());
         if (portRow != null && qosRow != null) {
             String qosId = qosRow.uuid().value();
             Uuid portUuid = portRow.uuid();
@@ -643,10 +687,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return;
         }
 
-        ConcurrentMap<String, Row> ovsTableRows = rowStore.getRowStore();
-        Row portRow = ovsTableRows.values().stream()
-                .filter(r -> r.getColumn("name").data().equals(portNumber.name()))
-                .findFirst().orElse(null);
+        Row portRow = rowStore.getRowByColumn(NAME, portNumber.name());
         if (portRow == null) {
             log.warn("Couldn't find port {} in ovsdb port table.", portNumber.name());
             return;
@@ -692,11 +733,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             for (Map.Entry<Long, String> entry : ovsdbQos.qosQueues().get().entrySet()) {
                 OvsdbRowStore queueRowStore = getRowStore(DATABASENAME, QUEUE);
                 if (queueRowStore != null) {
-                    ConcurrentMap<String, Row> queueTableRows = queueRowStore.getRowStore();
-                    Row queueRow = queueTableRows.values().stream().filter(r -> {
-                        OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-                        return entry.getValue().equals(ovsdbMap.map().get(QUEUE_EXTERNAL_ID_KEY));
-                    }).findFirst().orElse(null);
+                    Row queueRow = getRowByExternalId(queueRowStore, QUEUE_EXTERNAL_ID_KEY, entry.getValue());
                     if (queueRow != null) {
                         queues.put(entry.getKey(), queueRow.uuid());
                     }
@@ -719,11 +756,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     public void dropQos(QosId qosId) {
         OvsdbRowStore rowStore = getRowStore(DATABASENAME, QOS);
         if (rowStore != null) {
-            ConcurrentMap<String, Row> qosTableRows = rowStore.getRowStore();
-            Row qosRow = qosTableRows.values().stream().filter(r -> {
-                        OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-                        return qosId.name().equals(ovsdbMap.map().get(QOS_EXTERNAL_ID_KEY));
-                    }).findFirst().orElse(null);
+            Row qosRow = getRowByExternalId(rowStore, QOS_EXTERNAL_ID_KEY, qosId.name());
             if (qosRow != null) {
                 deleteConfig(QOS, UUID, qosRow.uuid().value(), PORT, PORT_QOS, qosRow.uuid());
             }
@@ -731,10 +764,12 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     }
     @Override
     public OvsdbQos getQos(QosId qosId) {
-        Set<OvsdbQos> ovsdbQoses = getQoses();
-        return ovsdbQoses.stream().filter(r ->
-                qosId.name().equals(r.externalIds().get(QOS_EXTERNAL_ID_KEY))).
-                findFirst().orElse(null);
+        OvsdbRowStore rowStore = getRowStore(DATABASENAME, QOS);
+        if (rowStore == null) {
+            return null;
+        }
+        Row qosRow = getRowByExternalId(rowStore, QOS_EXTERNAL_ID_KEY, qosId.name());
+        return qosRow != null ? getOvsdbQos(qosRow) : null;
     }
 
     @Override
@@ -770,14 +805,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return;
         }
 
-        ConcurrentMap<String, Row> qosTableRows = qosRowStore.getRowStore();
-        ConcurrentMap<String, Row> queueTableRows = queueRowStore.getRowStore();
-
-        Row qosRow = qosTableRows.values().stream().filter(r -> {
-            OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-            return qosId.name().equals(ovsdbMap.map().get(QOS_EXTERNAL_ID_KEY));
-        }).findFirst().orElse(null);
-
+        Row qosRow = getRowByExternalId(qosRowStore, QOS_EXTERNAL_ID_KEY, qosId.name());
         if (qosRow == null) {
             log.warn("Can't find QoS {}", qosId);
             return;
@@ -787,10 +815,8 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
 
         Map<Long, Uuid> newQueues = new HashMap<Long, Uuid>();
         for (Map.Entry<Long, QueueDescription> entry : queues.entrySet()) {
-            Row queueRow = queueTableRows.values().stream().filter(r -> {
-                OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-                return entry.getValue().queueId().name().equals(ovsdbMap.map().get(QUEUE_EXTERNAL_ID_KEY));
-            }).findFirst().orElse(null);
+            Row queueRow = getRowByExternalId(queueRowStore, QUEUE_EXTERNAL_ID_KEY,
+                                              entry.getValue().queueId().name());
             if (queueRow != null) {
                 newQueues.put(entry.getKey(), queueRow.uuid());
             }
@@ -817,13 +843,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return;
         }
 
-        ConcurrentMap<String, Row> qosTableRows = qosRowStore.getRowStore();
-
-        Row qosRow = qosTableRows.values().stream().filter(r -> {
-            OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-            return qosId.name().equals(ovsdbMap.map().get(QOS_EXTERNAL_ID_KEY));
-        }).findFirst().orElse(null);
-
+        Row qosRow = getRowByExternalId(qosRowStore, QOS_EXTERNAL_ID_KEY, qosId.name());
         if (qosRow == null) {
             log.warn("Can't find QoS {}", qosId);
             return;
@@ -891,11 +911,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             return;
         }
 
-        ConcurrentMap<String, Row> queueTableRows = queueRowStore.getRowStore();
-        Row queueRow = queueTableRows.values().stream().filter(r -> {
-            OvsdbMap ovsdbMap = (OvsdbMap) (r.getColumn(EXTERNAL_ID).data());
-            return queueId.name().equals(ovsdbMap.map().get(QUEUE_EXTERNAL_ID_KEY));
-        }).findFirst().orElse(null);
+        Row queueRow = getRowByExternalId(queueRowStore, QUEUE_EXTERNAL_ID_KEY, queueId.name());
         if (queueRow == null) {
             return;
         }
@@ -923,10 +939,12 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     }
     @Override
     public OvsdbQueue getQueue(QueueId queueId) {
-        Set<OvsdbQueue> ovsdbQueues = getQueues();
-        return ovsdbQueues.stream().filter(r ->
-                queueId.name().equals(r.externalIds().get(QUEUE_EXTERNAL_ID_KEY))).
-                findFirst().orElse(null);
+        OvsdbRowStore rowStore = getRowStore(DATABASENAME, QUEUE);
+        if (rowStore == null) {
+            return null;
+        }
+        Row queueRow = getRowByExternalId(rowStore, QUEUE_EXTERNAL_ID_KEY, queueId.name());
+        return queueRow != null ? getOvsdbQueue(queueRow) : null;
     }
 
     @Override
@@ -1282,11 +1300,24 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
             ins.getRow().put("interfaces", Uuid.uuid(INTERFACE));
         }
 
-        List<OperationResult> results;
+        List<OperationResult> results = transactConfigAndWait(DATABASENAME, operations);
+        return results != null ? results.get(0).getUuid().value() : null;
+    }
+
+    /**
+     * Transacts config and waits for the results.
+     *
+     * @param dbName     the ovsdb database name
+     * @param operations operations of the transaction
+     * @return results of the operations, null if the transaction failed
+     */
+    private List<OperationResult> transactConfigAndWait(String dbName, List<Operation> operations) {
         try {
-            results = transactConfig(DATABASENAME, operations)
+            List<OperationResult> results = transactConfig(dbName, operations)
                     .get(TRANSACTCONFIG_TIMEOUT, TimeUnit.SECONDS);
-            return results.get(0).getUuid().value();
+            if (results != null && !results.isEmpty()) {
+                return results;
+            }
         } catch (TimeoutException e) {
             log.warn("TimeoutException thrown while to get result");
         } catch (InterruptedException e) {
@@ -1295,7 +1326,6 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         } catch (ExecutionException e) {
             log.error("Exception thrown while to get result");
         }
-
         return null;
     }
 
@@ -1397,9 +1427,14 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         return null;
     }
 
+    // JSON-RPC ids only need to be unique among the pending requests
+    private String nextRequestId() {
+        return Long.toString(requestIds.incrementAndGet());
+    }
+
     @Override
     public ListenableFuture<JsonNode> getSchema(List<String> dbnames) {
-        String id = java.util.UUID.randomUUID().toString();
+        String id = nextRequestId();
         String getSchemaString = JsonRpcWriterUtil.getSchemaStr(id, dbnames);
 
         SettableFuture<JsonNode> sf = SettableFuture.create();
@@ -1412,7 +1447,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
 
     @Override
     public ListenableFuture<List<String>> echo() {
-        String id = java.util.UUID.randomUUID().toString();
+        String id = nextRequestId();
         String echoString = JsonRpcWriterUtil.echoStr(id);
 
         SettableFuture<List<String>> sf = SettableFuture.create();
@@ -1426,7 +1461,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     @Override
     public ListenableFuture<JsonNode> monitor(DatabaseSchema dbSchema,
                                               String monitorId) {
-        String id = java.util.UUID.randomUUID().toString();
+        String id = nextRequestId();
         String monitorString = JsonRpcWriterUtil.monitorStr(id, monitorId,
                                                             dbSchema);
 
@@ -1440,7 +1475,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
 
     @Override
     public ListenableFuture<List<String>> listDbs() {
-        String id = java.util.UUID.randomUUID().toString();
+        String id = nextRequestId();
         String listDbsString = JsonRpcWriterUtil.listDbsStr(id);
 
         SettableFuture<List<String>> sf = SettableFuture.create();
@@ -1454,7 +1489,7 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     @Override
     public ListenableFuture<List<JsonNode>> transact(DatabaseSchema dbSchema,
                                                      List<Operation> operations) {
-        String id = java.util.UUID.randomUUID().toString();
+        String id = nextRequestId();
         String transactString = JsonRpcWriterUtil.transactStr(id, dbSchema,
                                                               operations);
 
@@ -1470,16 +1505,13 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
     public void processResult(JsonNode response) {
         log.debug("Handle result");
         String requestId = response.get("id").asText();
-        SettableFuture sf = requestResult.get(requestId);
+        SettableFuture sf = requestResult.remove(requestId);
         if (sf == null) {
             log.debug("No such future to process");
             return;
         }
-        String methodName = requestMethod.get(requestId);
+        String methodName = requestMethod.remove(requestId);
         sf.set(FromJsonUtil.jsonResultParser(response, methodName));
-
-        requestResult.remove(requestId);
-        requestMethod.remove(requestId);
     }
 
     @Override
@@ -1767,49 +1799,29 @@ public class DefaultOvsdbClient implements OvsdbProviderService, OvsdbClientServ
         if (rowStore == null) {
             return null;
         }
-        ConcurrentMap<String, Row> rows = rowStore.getRowStore();
-        for (String uuid : rows.keySet()) {
-            Row row = getRow(DATABASENAME, INTERFACE, uuid);
-            DatabaseSchema dbSchema = getDatabaseSchema(DATABASENAME);
-            Interface intf = (Interface) TableGenerator
-                    .getTable(dbSchema, row, OvsdbTable.INTERFACE);
-            if (intf == null || getIfaceid(intf) == null) {
-                continue;
-            }
-            String portName = intf.getName();
-            if (portName == null) {
-                continue;
-            }
-            Set<String> ifaceidSet = Sets.newHashSet(ifaceids);
-            if (portName.startsWith(TYPEVXLAN) || !ifaceidSet.contains(getIfaceid(intf))) {
-                continue;
-            }
-            long ofPort = getOfPort(intf);
-            if (ofPort < 0) {
-                continue;
+        DatabaseSchema dbSchema = getDatabaseSchema(DATABASENAME);
+        for (String ifaceid : ImmutableSet.copyOf(ifaceids)) {
+            for (Row row : rowStore.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, ifaceid)) {
+                Interface intf = (Interface) TableGenerator
+                        .getTable(dbSchema, row, OvsdbTable.INTERFACE);
+                if (intf == null) {
+                    continue;
+                }
+                String portName = intf.getName();
+                if (portName == null || portName.startsWith(TYPEVXLAN)) {
+                    continue;
+                }
+                long ofPort = getOfPort(intf);
+                if (ofPort < 0) {
+                    continue;
+                }
+                ovsdbPorts.add(new OvsdbPort(new OvsdbPortNumber(ofPort),
+                                             new OvsdbPortName(portName)));
             }
-            ovsdbPorts.add(new OvsdbPort(new OvsdbPortNumber(ofPort),
-                                         new OvsdbPortName(portName)));
         }
         return ovsdbPorts;
     }
 
-    private String getIfaceid(Interface intf) {
-        OvsdbMap ovsdbMap = (OvsdbMap) intf.getExternalIdsColumn().data();
-        @SuppressWarnings("unchecked")
-        Map<String, String> externalIds = ovsdbMap.map();
-        if (externalIds.isEmpty()) {
-            log.warn("The external_ids is null");
-            return null;
-        }
-        String ifaceid = externalIds.get(EXTERNAL_ID_INTERFACE_ID);
-        if (ifaceid == null) {
-            log.warn("The ifaceid is null");
-            return null;
-        }
-        return ifaceid;
-    }
-
     @Override
     public void disconnect() {
         channel.disconnect();
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ovsdb.controller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.onosproject.ovsdb.rfc.notation.Column;
+import org.onosproject.ovsdb.rfc.notation.OvsdbMap;
+import org.onosproject.ovsdb.rfc.notation.Row;
+import org.onosproject.ovsdb.rfc.notation.Uuid;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.ovsdb.controller.OvsdbConstant.EXTERNAL_ID;
+import static org.onosproject.ovsdb.controller.OvsdbConstant.EXTERNAL_ID_INTERFACE_ID;
+import static org.onosproject.ovsdb.controller.OvsdbConstant.INTERFACE;
+import static org.onosproject.ovsdb.controller.OvsdbConstant.NAME;
+
+/**
+ * Unit tests for the indexes of the OVSDB row store.
+ */
+public class OvsdbRowStoreTest {
+
+    private static final String UUID1 = "f5c4e5d2-5c4e-4b8a-9f15-000000000001";
+    private static final String UUID2 = "f5c4e5d2-5c4e-4b8a-9f15-000000000002";
+
+    private final OvsdbRowStore store = new OvsdbRowStore();
+
+    private static Row interfaceRow(String uuid, String name, Map<String, String> externalIds) {
+        Map<String, Column> columns = Maps.newHashMap();
+        columns.put(NAME, new Column(NAME, name));
+        columns.put(EXTERNAL_ID, new Column(EXTERNAL_ID, OvsdbMap.ovsdbMap(externalIds)));
+        return new Row(INTERFACE, Uuid.uuid(uuid), columns);
+    }
+
+    /**
+     * Tests lookups by name and by external id as rows are inserted,
+     * modified and deleted.
+     */
+    @Test
+    public void testIndexes() {
+        Row row1 = interfaceRow(UUID1, "tap1", ImmutableMap.of(EXTERNAL_ID_INTERFACE_ID, "vm1"));
+        Row row2 = interfaceRow(UUID2, "tap2", ImmutableMap.of(EXTERNAL_ID_INTERFACE_ID, "vm2",
+                                                                "attached-mac", "fa:16:3e:00:00:02"));
+        store.insertRow(UUID1, row1);
+        store.insertRow(UUID2, row2);
+
+        assertThat(store.getRowByColumn(NAME, "tap1"), is(row1));
+        assertThat(store.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, "vm2"),
+                   is(ImmutableList.of(row2)));
+        assertThat(store.getRowsByMapEntry(EXTERNAL_ID, "attached-mac", "fa:16:3e:00:00:02"),
+                   is(ImmutableList.of(row2)));
+        assertTrue(store.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, "vm3").isEmpty());
+
+        // the interface is renamed and bound to another VM
+        Row modified = interfaceRow(UUID1, "tap3", ImmutableMap.of(EXTERNAL_ID_INTERFACE_ID, "vm3"));
+        store.insertRow(UUID1, modified);
+        assertThat(store.getRowByColumn(NAME, "tap1"), nullValue());
+        assertThat(store.getRowByColumn(NAME, "tap3"), is(modified));
+        assertTrue(store.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, "vm1").isEmpty());
+        assertThat(store.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, "vm3"),
+                   is(ImmutableList.of(modified)));
+
+        store.deleteRow(UUID2);
+        assertThat(store.getRowByColumn(NAME, "tap2"), nullValue());
+        assertTrue(store.getRowsByMapEntry(EXTERNAL_ID, EXTERNAL_ID_INTERFACE_ID, "vm2").isEmpty());
+        assertThat(store.getRowStore().size(), is(1));
+    }
+
+    /**
+     * Tests that only indexed columns may be looked up.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnindexedColumn() {
+        store.getRowsByColumn("ofport", 1);
+    }
+}
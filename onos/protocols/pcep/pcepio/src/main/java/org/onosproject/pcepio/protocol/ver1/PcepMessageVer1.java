@@ -75,34 +75,34 @@ public abstract class PcepMessageVer1 {
 
                 if (type == (byte) PcepType.OPEN.getType()) {
                     log.debug("OPEN MESSAGE is received");
-                    return PcepOpenMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepOpenMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.KEEP_ALIVE.getType()) {
                     log.debug("KEEPALIVE MESSAGE is received");
-                    return PcepKeepaliveMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepKeepaliveMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.ERROR.getType()) {
                     log.debug("ERROR MESSAGE is received");
-                    return PcepErrorMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepErrorMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.CLOSE.getType()) {
                     log.debug("CLOSE MESSAGE is received");
-                    return PcepCloseMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepCloseMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.REPORT.getType()) {
                     log.debug("REPORT MESSAGE is received");
-                    return PcepReportMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepReportMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.UPDATE.getType()) {
                     log.debug("UPDATE MESSAGE is received");
-                    return PcepUpdateMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepUpdateMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.INITIATE.getType()) {
                     log.debug("INITIATE MESSAGE is received");
-                    return PcepInitiateMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepInitiateMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.LS_REPORT.getType()) {
                     log.debug("LS REPORT MESSAGE is received");
-                    return PcepLSReportMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepLSReportMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.LABEL_RANGE_RESERV.getType()) {
                     log.debug("LABEL RANGE RESERVE MESSAGE is received");
-                    return PcepLabelRangeResvMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepLabelRangeResvMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else if (type == (byte) PcepType.LABEL_UPDATE.getType()) {
                     log.debug("LABEL UPDATE MESSAGE is received");
-                    return PcepLabelUpdateMsgVer1.READER.readFrom(cb.readBytes(length));
+                    return PcepLabelUpdateMsgVer1.READER.readFrom(cb.readSlice(length));
                 } else {
                     throw new PcepParseException("ERROR: UNKNOWN MESSAGE is received. Msg Type: " + type);
                 }
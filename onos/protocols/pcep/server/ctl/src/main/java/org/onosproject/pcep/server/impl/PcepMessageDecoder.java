@@ -15,14 +15,14 @@
  */
 package org.onosproject.pcep.server.impl;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.handler.codec.frame.FrameDecoder;
-import org.onosproject.pcepio.exceptions.PcepOutOfBoundMessageException;
+import org.onosproject.pcepio.exceptions.PcepParseException;
 import org.onosproject.pcepio.protocol.PcepFactories;
 import org.onosproject.pcepio.protocol.PcepMessage;
 import org.onosproject.pcepio.protocol.PcepMessageReader;
@@ -37,6 +37,10 @@ public class PcepMessageDecoder extends FrameDecoder {
 
     private static final Logger log = LoggerFactory.getLogger(PcepMessageDecoder.class);
 
+    // common header is version and flags, message type and message length
+    private static final int COMMON_HEADER_LENGTH = 4;
+    private static final int LENGTH_OFFSET = 2;
+
     @Override
     protected Object decode(ChannelHandlerContext ctx, Channel channel,
             ChannelBuffer buffer) throws Exception {
@@ -48,33 +52,36 @@ public class PcepMessageDecoder extends FrameDecoder {
             return null;
         }
 
-        HexDump.pcepHexDump(buffer);
+        if (log.isDebugEnabled()) {
+            HexDump.pcepHexDump(buffer);
+        }
 
-        // Buffer can contain multiple messages, also may contain out of bound message.
-        // Read the message one by one from buffer and parse it. If it encountered out of bound message,
-        // then mark the reader index and again take the next chunk of messages from the channel
-        // and parse again from the marked reader index.
+        // Buffer can contain multiple messages, the last of which may be incomplete.
+        // Messages are framed by the length in their common header and read one by one
+        // from slices of the buffer. An incomplete message is left in the buffer until
+        // the rest of it is received.
         PcepMessageReader<PcepMessage> reader = PcepFactories.getGenericReader();
-        List<PcepMessage> msgList = (List<PcepMessage>) ctx.getAttachment();
+        List<PcepMessage> msgList = new ArrayList<>();
 
-        if (msgList == null) {
-            msgList = new LinkedList<>();
-        }
-
-        try {
-            while (buffer.readableBytes() > 0) {
-                buffer.markReaderIndex();
-                PcepMessage message = reader.readFrom(buffer);
-                msgList.add(message);
+        while (buffer.readableBytes() >= COMMON_HEADER_LENGTH) {
+            int start = buffer.readerIndex();
+            // a bad length is reported by the reader, from the header alone
+            int length = Math.max(buffer.getUnsignedShort(start + LENGTH_OFFSET), COMMON_HEADER_LENGTH);
+            if (buffer.readableBytes() < length) {
+                break;
+            }
+            try {
+                msgList.add(reader.readFrom(buffer.readSlice(length)));
+            } catch (PcepParseException e) {
+                if (msgList.isEmpty()) {
+                    // the message is skipped, and reported to the channel handler
+                    throw e;
+                }
+                // hand over the messages before it; it is decoded again on the next call
+                buffer.readerIndex(start);
+                break;
             }
-            ctx.setAttachment(null);
-            return msgList;
-        } catch (PcepOutOfBoundMessageException e) {
-            log.debug("PCEP message decode error");
-            buffer.resetReaderIndex();
-            buffer.discardReadBytes();
-            ctx.setAttachment(msgList);
         }
-        return null;
+        return msgList.isEmpty() ? null : msgList;
     }
 }
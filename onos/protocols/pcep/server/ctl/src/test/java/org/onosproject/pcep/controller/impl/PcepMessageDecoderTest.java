@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.pcep.controller.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.CodecEmbedderException;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.junit.Test;
+import org.onosproject.pcep.server.impl.PcepMessageDecoder;
+import org.onosproject.pcepio.exceptions.PcepParseException;
+import org.onosproject.pcepio.protocol.PcepMessage;
+import org.onosproject.pcepio.protocol.PcepType;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test cases for the PCEP message decoder.
+ */
+public class PcepMessageDecoderTest {
+
+    private static final byte[] KEEPALIVE = new byte[] {0x20, 0x02, 0x00, 0x04};
+
+    private static final byte[] UNKNOWN = new byte[] {0x20, 0x7f, 0x00, 0x04};
+
+    private static final byte[] REPORT = new byte[] {0x20, 0x0a, 0x00, (byte) 0x7c,
+            0x21, 0x10, 0x00, 0x0c, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01, //SRP Object
+            0x20, 0x10, 0x00, 0x2c, 0x00, 0x00, 0x10, 0x03, //LSP Object
+            0x00, 0x12, 0x00, 0x10, //StatefulIPv4LspIdentidiersTlv
+            (byte) 0xb6, 0x02, 0x4e, 0x1f, 0x00, 0x01, (byte) 0x80, 0x01,
+            (byte) 0xb6, 0x02, 0x4e, 0x1f, (byte) 0xb6, 0x02, 0x4e, 0x20,
+            0x00, 0x11, 0x00, 0x02, 0x54, 0x31, 0x00, 0x00, //SymbolicPathNameTlv
+            0x00, 0x14, 0x00, 0x04, 0x00, 0x00, 0x00, 0x08, //StatefulLspErrorCodeTlv
+            0x07, 0x10, 0x00, 0x14, //ERO Object
+            0x01, 0x08, (byte) 0xb6, 0x02, 0x4e, 0x1f, 0x04, 0x00, // IPv4SubObjects
+            0x01, 0x08, (byte) 0xb6, 0x02, 0x4e, 0x20, 0x04, 0x00,
+            0x09, 0x10, 0x00, 0x14, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, //LSPA Object
+            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+            0x06, 0x10, 0x00, 0x0c, 0x00, 0x00, 0x02, 0x02, 0x00, 0x00, 0x00, 0x00, //Metric Object
+            0x06, 0x10, 0x00, 0x0c, 0x00, 0x00, 0x01, 0x03, 0x00, 0x00, 0x00, 0x20, //Metric Object
+    };
+
+    private final DecoderEmbedder<List<PcepMessage>> decoder =
+            new DecoderEmbedder<>(new PcepMessageDecoder());
+
+    // feeds the stream in reads of the given size, and returns the types of the decoded messages
+    private List<PcepType> feed(byte[] stream, int readSize) {
+        List<PcepType> types = Lists.newArrayList();
+        for (int i = 0; i < stream.length; i += readSize) {
+            decoder.offer(ChannelBuffers.copiedBuffer(stream, i, Math.min(readSize, stream.length - i)));
+            for (List<PcepMessage> messages = decoder.poll(); messages != null; messages = decoder.poll()) {
+                messages.forEach(m -> types.add(m.getType()));
+            }
+        }
+        return types;
+    }
+
+    private static byte[] concat(byte[]... messages) {
+        ChannelBuffer stream = ChannelBuffers.wrappedBuffer(messages);
+        byte[] bytes = new byte[stream.readableBytes()];
+        stream.readBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tests that messages are framed regardless of how reads are split.
+     */
+    @Test
+    public void testFraming() {
+        byte[] stream = concat(REPORT, KEEPALIVE, REPORT);
+        for (int readSize = 1; readSize <= stream.length; readSize++) {
+            assertThat(feed(stream, readSize),
+                       is(ImmutableList.of(PcepType.REPORT, PcepType.KEEP_ALIVE, PcepType.REPORT)));
+        }
+    }
+
+    /**
+     * Tests that a malformed message is reported after the messages read
+     * before it are handed over, and that decoding resumes after it.
+     */
+    @Test
+    public void testParseError() {
+        try {
+            decoder.offer(ChannelBuffers.wrappedBuffer(KEEPALIVE, UNKNOWN, KEEPALIVE));
+            fail("Malformed message accepted");
+        } catch (CodecEmbedderException e) {
+            assertThat(e.getCause(), instanceOf(PcepParseException.class));
+        }
+        assertThat(decoder.poll().size(), is(1));
+        assertThat(feed(KEEPALIVE, KEEPALIVE.length),
+                   is(ImmutableList.of(PcepType.KEEP_ALIVE, PcepType.KEEP_ALIVE)));
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.onosproject.provider.lldpcommon;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import io.netty.util.Timeout;
@@ -39,7 +41,8 @@ import org.onosproject.net.packet.PacketContext;
 import org.onosproject.net.link.ProbedLinkProvider;
 import org.slf4j.Logger;
 
-import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -65,8 +68,9 @@ public class LinkDiscovery implements TimerTask {
     private final Device device;
     private final LinkDiscoveryContext context;
 
-    private final Ethernet ethPacket;
-    private final Ethernet bddpEth;
+    // Pre-serialized probe frames; rebuilt when the fingerprint changes
+    private volatile ProbeTemplate lldpTemplate;
+    private volatile ProbeTemplate bddpTemplate;
 
     private Timeout timeout;
     private volatile boolean isStopped;
@@ -74,8 +78,9 @@ public class LinkDiscovery implements TimerTask {
     private final Set<Long> ports = Sets.newConcurrentHashSet();
 
     /**
-     * Instantiates discovery manager for the given physical switch. Creates a
-     * generic LLDP packet that will be customized for the port it is sent out on.
+     * Instantiates discovery manager for the given physical switch. Probe
+     * frames are serialized once per device and only the port TLV is
+     * customized for the port it is sent out on.
      * Starts the the timer for the discovery process.
      *
      * @param device  the physical switch
@@ -85,16 +90,6 @@ public class LinkDiscovery implements TimerTask {
         this.device = device;
         this.context = context;
 
-        ethPacket = new Ethernet();
-        ethPacket.setEtherType(Ethernet.TYPE_LLDP);
-        ethPacket.setDestinationMACAddress(MacAddress.ONOS_LLDP);
-        ethPacket.setPad(true);
-
-        bddpEth = new Ethernet();
-        bddpEth.setEtherType(Ethernet.TYPE_BSN);
-        bddpEth.setDestinationMACAddress(MacAddress.BROADCAST);
-        bddpEth.setPad(true);
-
         isStopped = true;
         start();
         log.debug("Started discovery manager for switch {}", device.id());
@@ -135,7 +130,7 @@ public class LinkDiscovery implements TimerTask {
         boolean isMaster = context.mastershipService().isLocalMaster(device.id());
         if (newPort && isMaster) {
             log.debug("Sending initial probe to port {}@{}", port.number().toLong(), device.id());
-            sendProbes(port.number().toLong());
+            sendProbes(ImmutableList.of(port.number().toLong()));
         }
     }
 
@@ -234,7 +229,7 @@ public class LinkDiscovery implements TimerTask {
 
         if (context.mastershipService().isLocalMaster(device.id())) {
             log.trace("Sending probes from {}", device.id());
-            ports.forEach(this::sendProbes);
+            sendProbes(ports);
         }
 
         if (!isStopped()) {
@@ -243,56 +238,60 @@ public class LinkDiscovery implements TimerTask {
     }
 
     /**
-     * Creates packet_out LLDP for specified output port.
-     * 为特定的端口创建LLDP packet_out数据包
+     * Creates packet_out for specified output port from the given template.
+     * 根据模板为特定的端口创建packet_out数据包
      *
+     * @param template probe template
      * @param port the port
      * @return Packet_out message with LLDP data
      */
-    private OutboundPacket createOutBoundLldp(Long port) {
-        if (port == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(port);
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
+    private OutboundPacket createOutBoundProbe(ProbeTemplate template, long port) {
         return new DefaultOutboundPacket(device.id(),
                                          builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+                                         template.forPort(port));
     }
 
-    /**
-     * Creates packet_out BDDP for specified output port.
-     *
-     * @param port the port
-     * @return Packet_out message with LLDP data
-     */
-    private OutboundPacket createOutBoundBddp(Long port) {
-        if (port == null) {
-            return null;
+    private ProbeTemplate lldpTemplate(String fingerprint) {
+        ProbeTemplate template = lldpTemplate;
+        if (template == null || !template.fingerprint().equals(fingerprint)) {
+            template = ProbeTemplate.create(device.id().toString(), device.chassisId(),
+                                            Ethernet.TYPE_LLDP, MacAddress.ONOS_LLDP,
+                                            fingerprint);
+            lldpTemplate = template;
         }
-        ONOSLLDP lldp = getLinkProbe(port);
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(device.id(),
-                                         builder().setOutput(portNumber(port)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
+        return template;
     }
 
-    private ONOSLLDP getLinkProbe(Long port) {
-        return ONOSLLDP.onosLLDP(device.id().toString(), device.chassisId(), port.intValue());
+    private ProbeTemplate bddpTemplate(String fingerprint) {
+        ProbeTemplate template = bddpTemplate;
+        if (template == null || !template.fingerprint().equals(fingerprint)) {
+            template = ProbeTemplate.create(device.id().toString(), device.chassisId(),
+                                            Ethernet.TYPE_BSN, MacAddress.BROADCAST,
+                                            fingerprint);
+            bddpTemplate = template;
+        }
+        return template;
     }
 
-    //向端口发送LLDP数据包进行探测
-    private void sendProbes(Long portNumber) {
-        if (context.packetService() == null) {
+    //向端口发送LLDP数据包进行探测, 同一设备的探测包批量发送
+    private void sendProbes(Collection<Long> portNumbers) {
+        if (context.packetService() == null || portNumbers.isEmpty()) {
             return;
         }
-        log.trace("Sending probes out of {}@{}", portNumber, device.id());
-        OutboundPacket pkt = createOutBoundLldp(portNumber);
-        context.packetService().emit(pkt);
-        if (context.useBddp()) {
-            OutboundPacket bpkt = createOutBoundBddp(portNumber);
-            context.packetService().emit(bpkt);
+        String fingerprint = context.fingerprint();
+        ProbeTemplate lldp = lldpTemplate(fingerprint);
+        ProbeTemplate bddp = context.useBddp() ? bddpTemplate(fingerprint) : null;
+
+        List<OutboundPacket> packets = Lists.newArrayListWithCapacity(
+                bddp != null ? portNumbers.size() * 2 : portNumbers.size());
+        for (long portNumber : portNumbers) {
+            log.trace("Sending probes out of {}@{}", portNumber, device.id());
+            packets.add(createOutBoundProbe(lldp, portNumber));
+            if (bddp != null) {
+                packets.add(createOutBoundProbe(bddp, portNumber));
+            }
         }
+        context.packetService().emit(packets);
     }
 
     public boolean containsPort(long portNumber) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pre-serialized link probe frame for a single device. The frame is built
+ * once per device and source MAC; only the port identifier bytes of the
+ * port TLV are patched for each port the probe is sent out of.
+ */
+final class ProbeTemplate {
+
+    // TLV header: 7 bit type + 9 bit length
+    private static final int TLV_HEADER_LENGTH = 2;
+    // Port TLV value starts with its subtype byte, followed by the port
+    private static final int PORT_SUBTYPE_LENGTH = 1;
+
+    private final String fingerprint;
+    private final byte[] frame;
+    private final int portOffset;
+
+    private ProbeTemplate(String fingerprint, byte[] frame, int portOffset) {
+        this.fingerprint = fingerprint;
+        this.frame = frame;
+        this.portOffset = portOffset;
+    }
+
+    /**
+     * Creates a probe template for the given device.
+     *
+     * @param deviceId    device identifier string
+     * @param chassisId   device chassis identifier
+     * @param etherType   ether type of the probe; LLDP or BDDP
+     * @param destination destination MAC address
+     * @param fingerprint cluster fingerprint used as source MAC address
+     * @return probe template
+     */
+    static ProbeTemplate create(String deviceId, ChassisId chassisId,
+                                short etherType, MacAddress destination,
+                                String fingerprint) {
+        ONOSLLDP lldp = ONOSLLDP.onosLLDP(deviceId, chassisId, 0);
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(destination);
+        eth.setSourceMACAddress(fingerprint);
+        eth.setPad(true);
+        eth.setPayload(lldp);
+
+        // Ethernet header, then the chassis TLV, then the port TLV
+        int portOffset = Ethernet.ETHERNET_HEADER_LENGTH
+                + TLV_HEADER_LENGTH + lldp.getChassisId().getLength()
+                + TLV_HEADER_LENGTH + PORT_SUBTYPE_LENGTH;
+        return new ProbeTemplate(fingerprint, eth.serialize(), portOffset);
+    }
+
+    /**
+     * Returns the fingerprint this template was built with.
+     *
+     * @return cluster fingerprint
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns a copy of the probe frame with the port TLV set to the given port.
+     *
+     * @param port port number
+     * @return serialized probe frame
+     */
+    ByteBuffer forPort(long port) {
+        byte[] data = frame.clone();
+        int value = (int) port;
+        data[portOffset] = (byte) (value >>> 24);
+        data[portOffset + 1] = (byte) (value >>> 16);
+        data[portOffset + 2] = (byte) (value >>> 8);
+        data[portOffset + 3] = (byte) value;
+        return ByteBuffer.wrap(data);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.lldpcommon;
+
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Tests of the pre-serialized link probe template.
+ */
+public class ProbeTemplateTest {
+
+    private static final String DEVICE = "of:0000000000000001";
+    private static final ChassisId CHASSIS = new ChassisId(1L);
+    private static final String FINGERPRINT = "a4:23:05:00:00:01";
+
+    private byte[] expected(short etherType, MacAddress dst, int port) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(dst);
+        eth.setSourceMACAddress(FINGERPRINT);
+        eth.setPad(true);
+        eth.setPayload(ONOSLLDP.onosLLDP(DEVICE, CHASSIS, port));
+        return eth.serialize();
+    }
+
+    @Test
+    public void lldpMatchesSerializedProbe() {
+        ProbeTemplate template = ProbeTemplate.create(DEVICE, CHASSIS, Ethernet.TYPE_LLDP,
+                                                      MacAddress.ONOS_LLDP, FINGERPRINT);
+        for (int port : new int[]{1, 2, 255, 65536, Integer.MAX_VALUE}) {
+            assertArrayEquals(expected(Ethernet.TYPE_LLDP, MacAddress.ONOS_LLDP, port),
+                              template.forPort(port).array());
+        }
+    }
+
+    @Test
+    public void bddpMatchesSerializedProbe() {
+        ProbeTemplate template = ProbeTemplate.create(DEVICE, CHASSIS, Ethernet.TYPE_BSN,
+                                                      MacAddress.BROADCAST, FINGERPRINT);
+        assertArrayEquals(expected(Ethernet.TYPE_BSN, MacAddress.BROADCAST, 42),
+                          template.forPort(42).array());
+    }
+
+    @Test
+    public void probeParsesBack() throws Exception {
+        ProbeTemplate template = ProbeTemplate.create(DEVICE, CHASSIS, Ethernet.TYPE_LLDP,
+                                                      MacAddress.ONOS_LLDP, FINGERPRINT);
+        byte[] data = template.forPort(7).array();
+        Ethernet eth = Ethernet.deserializer().deserialize(data, 0, data.length);
+        ONOSLLDP lldp = ONOSLLDP.parseONOSLLDP(eth);
+        assertNotNull(lldp);
+        assertEquals(7, lldp.getPort().intValue());
+        assertEquals(DEVICE, lldp.getDeviceString());
+        assertEquals(FINGERPRINT, template.fingerprint());
+    }
+}
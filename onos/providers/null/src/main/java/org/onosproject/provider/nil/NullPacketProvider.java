@@ -37,6 +37,7 @@ import io.netty.util.TimerTask;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static com.google.common.collect.ImmutableList.copyOf;
@@ -71,6 +72,10 @@ class NullPacketProvider extends NullProviders.AbstractNullProvider
 
     private Timeout timeout;
 
+    // Outbound packet accounting, e.g. to measure link discovery overhead
+    private final LongAdder emittedPackets = new LongAdder();
+    private final LongAdder emittedBytes = new LongAdder();
+
     /**
      * Starts the packet generation process.
      *
@@ -118,7 +123,35 @@ class NullPacketProvider extends NullProviders.AbstractNullProvider
 
     @Override
     public void emit(OutboundPacket packet) {
-        // We don't have a network to emit to. Keep a counter here, maybe?
+        // We don't have a network to emit to; just account for the overhead
+        emittedPackets.increment();
+        emittedBytes.add(packet.data().remaining());
+    }
+
+    /**
+     * Returns the number of outbound packets sunk since the last reset.
+     *
+     * @return emitted packet count
+     */
+    long emittedPackets() {
+        return emittedPackets.sum();
+    }
+
+    /**
+     * Returns the number of outbound payload bytes sunk since the last reset.
+     *
+     * @return emitted byte count
+     */
+    long emittedBytes() {
+        return emittedBytes.sum();
+    }
+
+    /**
+     * Resets the outbound packet counters.
+     */
+    void resetCounters() {
+        emittedPackets.reset();
+        emittedBytes.reset();
     }
 
     /**
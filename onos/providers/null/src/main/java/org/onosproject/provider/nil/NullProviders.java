@@ -276,6 +276,31 @@ public class NullProviders {
         return simulator;
     }
 
+    /**
+     * Returns the number of outbound packets sunk by the null packet provider.
+     *
+     * @return emitted packet count
+     */
+    public long emittedPackets() {
+        return packetProvider.emittedPackets();
+    }
+
+    /**
+     * Returns the number of outbound bytes sunk by the null packet provider.
+     *
+     * @return emitted byte count
+     */
+    public long emittedBytes() {
+        return packetProvider.emittedBytes();
+    }
+
+    /**
+     * Resets the outbound packet counters of the null packet provider.
+     */
+    public void resetPacketCounters() {
+        packetProvider.resetCounters();
+    }
+
     /**
      * Severs the link between the specified end-points in both directions.
      *
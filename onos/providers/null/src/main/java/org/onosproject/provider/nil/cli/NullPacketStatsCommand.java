@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.nil.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.provider.nil.NullProviders;
+
+/**
+ * Shows outbound packet counters of the null packet provider; useful to
+ * benchmark the overhead of link discovery probes over a simulated topology.
+ */
+@Command(scope = "onos", name = "null-packet-stats",
+        description = "Shows outbound packet counters of the null packet provider")
+public class NullPacketStatsCommand extends AbstractShellCommand {
+
+    private static final String FMT = "emittedPackets=%d, emittedBytes=%d";
+
+    @Option(name = "-r", aliases = "--reset", description = "Reset counters after display",
+            required = false, multiValued = false)
+    private boolean reset = false;
+
+    @Override
+    protected void execute() {
+        NullProviders service = get(NullProviders.class);
+        print(FMT, service.emittedPackets(), service.emittedBytes());
+        if (reset) {
+            service.resetPacketCounters();
+        }
+    }
+
+}
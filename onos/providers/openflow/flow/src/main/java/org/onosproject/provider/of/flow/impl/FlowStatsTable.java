@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.of.flow.impl;
+
+import com.google.common.collect.Maps;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowEntryState;
+import org.onosproject.net.flow.FlowRule;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.Match;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Flow rules decoded from earlier flow statistics replies of a switch,
+ * indexed by cookie. A statistics entry whose match, priority, table, idle
+ * timeout and instructions are the same as the ones of the cached entry
+ * with its cookie reuses the cached flow rule, so that only its counters
+ * have to be read; unknown or changed entries are fully converted.
+ */
+class FlowStatsTable {
+
+    private final Map<Long, CachedFlow> flows = Maps.newHashMap();
+
+    /**
+     * Converts the entries of a complete flow statistics reply to flow
+     * entries. Cached flows which are absent from the reply are evicted.
+     *
+     * @param entries   flow statistics entries of the switch
+     * @param converter full conversion of a statistics entry to a flow entry
+     * @return flow entries
+     */
+    synchronized List<FlowEntry> update(Collection<OFFlowStatsEntry> entries,
+                                        Function<OFFlowStatsEntry, FlowEntry> converter) {
+        Map<Long, CachedFlow> seen = Maps.newHashMapWithExpectedSize(entries.size());
+        List<FlowEntry> flowEntries = entries.stream()
+                .map(entry -> toFlowEntry(entry, converter, seen))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        flows.keySet().retainAll(seen.keySet());
+        flows.putAll(seen);
+        return flowEntries;
+    }
+
+    /**
+     * Discards all cached flows.
+     */
+    synchronized void clear() {
+        flows.clear();
+    }
+
+    private FlowEntry toFlowEntry(OFFlowStatsEntry entry,
+                                  Function<OFFlowStatsEntry, FlowEntry> converter,
+                                  Map<Long, CachedFlow> seen) {
+        // Counters of OpenFlow 1.5 entries are carried in stats TLVs
+        if (entry.getVersion().getWireVersion() >= OFVersion.OF_15.getWireVersion()) {
+            return converter.apply(entry);
+        }
+
+        long cookie = entry.getCookie().getValue();
+        CachedFlow cached = flows.get(cookie);
+        if (cached != null && cached.matches(entry)) {
+            seen.put(cookie, cached);
+            return new DefaultFlowEntry(cached.rule, FlowEntryState.ADDED,
+                                        entry.getDurationSec(),
+                                        entry.getPacketCount().getValue(),
+                                        entry.getByteCount().getValue());
+        }
+
+        FlowEntry flowEntry = converter.apply(entry);
+        // Flows sharing a cookie keep replacing each other; the first one wins
+        if (flowEntry != null && !seen.containsKey(cookie)) {
+            seen.put(cookie, new CachedFlow(entry, flowEntry));
+        }
+        return flowEntry;
+    }
+
+    // Identifying fields of a statistics entry along with the rule built from it.
+    private static final class CachedFlow {
+        private final Match match;
+        private final int priority;
+        private final int tableId;
+        private final int idleTimeout;
+        private final Object instructions;
+        private final FlowRule rule;
+
+        private CachedFlow(OFFlowStatsEntry entry, FlowRule rule) {
+            this.match = entry.getMatch();
+            this.priority = entry.getPriority();
+            this.tableId = tableId(entry);
+            this.idleTimeout = entry.getIdleTimeout();
+            this.instructions = instructions(entry);
+            this.rule = rule;
+        }
+
+        private boolean matches(OFFlowStatsEntry entry) {
+            return priority == entry.getPriority()
+                    && idleTimeout == entry.getIdleTimeout()
+                    && tableId == tableId(entry)
+                    && match.equals(entry.getMatch())
+                    && instructions.equals(instructions(entry));
+        }
+
+        private static int tableId(OFFlowStatsEntry entry) {
+            return entry.getVersion() == OFVersion.OF_10 ? 0 : entry.getTableId().getValue();
+        }
+
+        private static Object instructions(OFFlowStatsEntry entry) {
+            return entry.getVersion() == OFVersion.OF_10 ? entry.getActions() : entry.getInstructions();
+        }
+    }
+}
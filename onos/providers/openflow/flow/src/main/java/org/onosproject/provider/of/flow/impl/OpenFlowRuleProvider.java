@@ -131,6 +131,7 @@ public class OpenFlowRuleProvider extends AbstractProvider
     private static final int MIN_EXPECTED_BYTE_LEN = 56;
     private static final int SKIP_BYTES = 4;
     private static final boolean DEFAULT_ADAPTIVE_FLOW_SAMPLING = false;
+    private static final boolean DEFAULT_COOKIE_INDEXED_FLOW_STATS = false;
 
     @Property(name = "flowPollFrequency", intValue = DEFAULT_POLL_FREQUENCY,
             label = "Frequency (in seconds) for polling flow statistics")
@@ -140,6 +141,10 @@ public class OpenFlowRuleProvider extends AbstractProvider
             label = "Adaptive Flow Sampling is on or off")
     private boolean adaptiveFlowSampling = DEFAULT_ADAPTIVE_FLOW_SAMPLING;
 
+    @Property(name = "cookieIndexedFlowStats", boolValue = DEFAULT_COOKIE_INDEXED_FLOW_STATS,
+            label = "Reuse flow rules decoded from earlier flow stats, indexed by cookie")
+    private boolean cookieIndexedFlowStats = DEFAULT_COOKIE_INDEXED_FLOW_STATS;
+
     private FlowRuleProviderService providerService;
 
     private final InternalFlowProvider listener = new InternalFlowProvider();
@@ -156,6 +161,9 @@ public class OpenFlowRuleProvider extends AbstractProvider
     private final Map<Dpid, NewAdaptiveFlowStatsCollector> afsCollectors = Maps.newConcurrentMap();
     private final Map<Dpid, TableStatisticsCollector> tableStatsCollectors = Maps.newConcurrentMap();
 
+    // Flow rules of earlier stats replies, used when cookieIndexedFlowStats is on
+    private final Map<Dpid, FlowStatsTable> flowStatsTables = Maps.newConcurrentMap();
+
     /**
      * Creates an OpenFlow host provider.
      */
@@ -222,6 +230,16 @@ public class OpenFlowRuleProvider extends AbstractProvider
         }
 
         log.info("Settings: adaptiveFlowSampling={}", adaptiveFlowSampling);
+
+        s = get(properties, "cookieIndexedFlowStats");
+        boolean newCookieIndexedFlowStats =
+                isNullOrEmpty(s) ? cookieIndexedFlowStats : Boolean.parseBoolean(s.trim());
+        if (newCookieIndexedFlowStats != cookieIndexedFlowStats) {
+            cookieIndexedFlowStats = newCookieIndexedFlowStats;
+            flowStatsTables.clear();
+        }
+
+        log.info("Settings: cookieIndexedFlowStats={}", cookieIndexedFlowStats);
     }
 
     private Cache<Long, InternalCacheEntry> createBatchCache() {
@@ -280,6 +298,7 @@ public class OpenFlowRuleProvider extends AbstractProvider
         }
         tableStatsCollectors.values().forEach(TableStatisticsCollector::stop);
         tableStatsCollectors.clear();
+        flowStatsTables.clear();
     }
 
     private void adjustRate() {
@@ -422,6 +441,7 @@ public class OpenFlowRuleProvider extends AbstractProvider
                 stopCollectorIfNeeded(simpleCollectors.remove(dpid));
             }
             stopCollectorIfNeeded(tableStatsCollectors.remove(dpid));
+            flowStatsTables.remove(dpid);
         }
 
         @Override
@@ -653,6 +673,12 @@ public class OpenFlowRuleProvider extends AbstractProvider
                     // call individual flow stats update
                     providerService.pushFlowMetricsWithoutFlowMissing(did, flowEntries);
                 }
+            } else if (cookieIndexedFlowStats) {
+                // only unknown or changed entries are decoded into flow rules
+                FlowStatsTable table = flowStatsTables.computeIfAbsent(dpid, k -> new FlowStatsTable());
+                List<FlowEntry> flowEntries = table.update(replies.getEntries(),
+                        entry -> new FlowEntryBuilder(did, entry, handler).build());
+                providerService.pushFlowMetrics(did, flowEntries);
             } else {
                 List<FlowEntry> flowEntries = replies.getEntries().stream()
                         .map(entry -> new FlowEntryBuilder(did, entry, handler).build())
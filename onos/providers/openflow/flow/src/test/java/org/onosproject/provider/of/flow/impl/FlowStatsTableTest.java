@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.provider.of.flow.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowEntryState;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.criteria.PortCriterion;
+import org.onosproject.net.flow.instructions.Instruction;
+import org.onosproject.net.flow.instructions.Instructions.OutputInstruction;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFFlowStatsEntry;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.action.OFActionOutput;
+import org.projectfloodlight.openflow.protocol.instruction.OFInstructionApplyActions;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for the cookie-indexed flow statistics table.
+ */
+public class FlowStatsTableTest {
+
+    private static final OFFactory FACTORY = OFFactories.getFactory(OFVersion.OF_13);
+    private static final DeviceId DID = DeviceId.deviceId("of:0000000000000001");
+
+    private static final long COOKIE1 = 1;
+    private static final long COOKIE2 = 2;
+
+    private FlowStatsTable table;
+    private int conversions;
+    private final Function<OFFlowStatsEntry, FlowEntry> converter = this::convert;
+
+    @Before
+    public void setUp() {
+        table = new FlowStatsTable();
+        conversions = 0;
+    }
+
+    private static OFFlowStatsEntry entry(long cookie, int inPort, int outPort, long packets) {
+        OFActionOutput output = FACTORY.actions().buildOutput()
+                .setPort(OFPort.of(outPort))
+                .build();
+        return FACTORY.buildFlowStatsEntry()
+                .setCookie(U64.of(cookie))
+                .setMatch(FACTORY.buildMatch().setExact(MatchField.IN_PORT, OFPort.of(inPort)).build())
+                .setTableId(TableId.of(0))
+                .setPriority(100)
+                .setIdleTimeout(0)
+                .setHardTimeout(0)
+                .setFlags(ImmutableSet.of())
+                .setDurationSec(packets)
+                .setDurationNsec(0)
+                .setPacketCount(U64.of(packets))
+                .setByteCount(U64.of(packets * 64))
+                .setInstructions(ImmutableList.of(
+                        FACTORY.instructions().applyActions(ImmutableList.of(output))))
+                .build();
+    }
+
+    // Simplified FlowEntryBuilder, counting the full conversions
+    private FlowEntry convert(OFFlowStatsEntry entry) {
+        conversions++;
+        OFInstructionApplyActions apply = (OFInstructionApplyActions) entry.getInstructions().get(0);
+        OFActionOutput output = (OFActionOutput) apply.getActions().get(0);
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(DID)
+                .withSelector(DefaultTrafficSelector.builder()
+                        .matchInPort(PortNumber.portNumber(
+                                entry.getMatch().get(MatchField.IN_PORT).getPortNumber()))
+                        .build())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                        .setOutput(PortNumber.portNumber(output.getPort().getPortNumber()))
+                        .build())
+                .withPriority(entry.getPriority())
+                .withIdleTimeout(entry.getIdleTimeout())
+                .withCookie(entry.getCookie().getValue())
+                .forTable(entry.getTableId().getValue())
+                .build();
+        return new DefaultFlowEntry(rule, FlowEntryState.ADDED, entry.getDurationSec(),
+                                    entry.getPacketCount().getValue(), entry.getByteCount().getValue());
+    }
+
+    private List<FlowEntry> update(OFFlowStatsEntry... entries) {
+        return table.update(ImmutableList.copyOf(entries), converter);
+    }
+
+    private static long inPort(FlowEntry flowEntry) {
+        return ((PortCriterion) flowEntry.selector().getCriterion(Criterion.Type.IN_PORT)).port().toLong();
+    }
+
+    private static long outPort(FlowEntry flowEntry) {
+        Instruction instruction = flowEntry.treatment().allInstructions().get(0);
+        return ((OutputInstruction) instruction).port().toLong();
+    }
+
+    /**
+     * Tests that unchanged entries reuse their rules and only read their
+     * counters.
+     */
+    @Test
+    public void testUnchangedEntriesReused() {
+        List<FlowEntry> first = update(entry(COOKIE1, 1, 2, 10), entry(COOKIE2, 3, 4, 20));
+        assertEquals(2, conversions);
+
+        List<FlowEntry> second = update(entry(COOKIE1, 1, 2, 11), entry(COOKIE2, 3, 4, 21));
+        assertEquals(2, conversions);
+        assertEquals(2, second.size());
+        for (int i = 0; i < 2; i++) {
+            assertSame(first.get(i).selector(), second.get(i).selector());
+            assertSame(first.get(i).treatment(), second.get(i).treatment());
+            assertEquals(first.get(i).id(), second.get(i).id());
+            assertEquals(first.get(i).packets() + 1, second.get(i).packets());
+            assertEquals(second.get(i).packets() * 64, second.get(i).bytes());
+            assertEquals(second.get(i).packets(), second.get(i).life());
+            assertEquals(FlowEntryState.ADDED, second.get(i).state());
+        }
+    }
+
+    /**
+     * Tests that flows sharing a cookie are each reported with their own
+     * rule, whatever their order in the reply.
+     */
+    @Test
+    public void testCookieCollision() {
+        List<FlowEntry> flowEntries = update(entry(COOKIE1, 1, 2, 10), entry(COOKIE1, 3, 4, 20));
+        assertEquals(2, conversions);
+        assertEquals(1, inPort(flowEntries.get(0)));
+        assertEquals(3, inPort(flowEntries.get(1)));
+
+        // the first flow is reused, the second one keeps being converted
+        flowEntries = update(entry(COOKIE1, 1, 2, 11), entry(COOKIE1, 3, 4, 21));
+        assertEquals(3, conversions);
+        assertEquals(1, inPort(flowEntries.get(0)));
+        assertEquals(11, flowEntries.get(0).packets());
+        assertEquals(3, inPort(flowEntries.get(1)));
+        assertEquals(21, flowEntries.get(1).packets());
+
+        flowEntries = update(entry(COOKIE1, 3, 4, 22), entry(COOKIE1, 1, 2, 12));
+        assertEquals(4, conversions);
+        assertEquals(3, inPort(flowEntries.get(0)));
+        assertEquals(4, outPort(flowEntries.get(0)));
+        assertEquals(22, flowEntries.get(0).packets());
+        assertEquals(1, inPort(flowEntries.get(1)));
+        assertEquals(2, outPort(flowEntries.get(1)));
+        assertEquals(12, flowEntries.get(1).packets());
+    }
+
+    /**
+     * Tests that an entry whose instructions changed is converted again and
+     * replaces the cached rule.
+     */
+    @Test
+    public void testChangedEntryConverted() {
+        FlowEntry first = update(entry(COOKIE1, 1, 2, 10)).get(0);
+
+        FlowEntry changed = update(entry(COOKIE1, 1, 5, 11)).get(0);
+        assertEquals(2, conversions);
+        assertEquals(5, outPort(changed));
+        assertNotSame(first.treatment(), changed.treatment());
+
+        FlowEntry reused = update(entry(COOKIE1, 1, 5, 12)).get(0);
+        assertEquals(2, conversions);
+        assertSame(changed.treatment(), reused.treatment());
+    }
+
+    /**
+     * Tests that the rule of a flow absent from a reply is evicted, so that
+     * the flow is converted again if it is reinstalled.
+     */
+    @Test
+    public void testRemovedRuleEvicted() {
+        update(entry(COOKIE1, 1, 2, 10), entry(COOKIE2, 3, 4, 20));
+
+        List<FlowEntry> flowEntries = update(entry(COOKIE1, 1, 2, 11));
+        assertEquals(1, flowEntries.size());
+        assertEquals(2, conversions);
+
+        flowEntries = update(entry(COOKIE1, 1, 2, 12), entry(COOKIE2, 3, 4, 0));
+        assertEquals(3, conversions);
+        assertEquals(2, flowEntries.size());
+        assertEquals(0, flowEntries.get(1).packets());
+
+        // an empty reply evicts every rule
+        update();
+        update(entry(COOKIE1, 1, 2, 13), entry(COOKIE2, 3, 4, 1));
+        assertEquals(5, conversions);
+    }
+
+    /**
+     * Tests that no rule is reused once the table is cleared.
+     */
+    @Test
+    public void testClear() {
+        update(entry(COOKIE1, 1, 2, 10));
+        table.clear();
+
+        update(entry(COOKIE1, 1, 2, 11));
+        assertEquals(2, conversions);
+        update(entry(COOKIE1, 1, 2, 12));
+        assertEquals(2, conversions);
+    }
+}
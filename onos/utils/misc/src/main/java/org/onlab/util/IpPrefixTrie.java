@@ -0,0 +1,430 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Path-compressed binary trie mapping IPv4 and IPv6 prefixes to values,
+ * supporting exact, longest prefix match and subtree lookups.
+ * <p>
+ * Prefixes are keyed by their address bits held in primitive longs, so no
+ * key strings are built for lookups. Nodes are immutable and writers copy
+ * the path from the root to the modified node, so lookups are lock-free
+ * and always observe a consistent version of the trie; writers are
+ * serialized.
+ * </p>
+ *
+ * @param <V> type of values
+ */
+public final class IpPrefixTrie<V> {
+
+    private static final int HIGH_BITS = Long.SIZE;
+    private static final int KEY_BITS = 2 * Long.SIZE;
+
+    private volatile Node<V> ip4Root;
+    private volatile Node<V> ip6Root;
+    private volatile int ip4Size;
+    private volatile int ip6Size;
+
+    /**
+     * Associates the given value with the given prefix, replacing the value
+     * previously associated with the prefix, if any.
+     *
+     * @param prefix IP prefix
+     * @param value  value; not null
+     * @return previous value, or null if there was none
+     */
+    public synchronized V put(IpPrefix prefix, V value) {
+        checkNotNull(value, "Value cannot be null");
+        Key key = new Key(prefix);
+        V old = get(root(prefix), key);
+        if (prefix.isIp4()) {
+            ip4Root = insert(ip4Root, key, value);
+            ip4Size += old == null ? 1 : 0;
+        } else {
+            ip6Root = insert(ip6Root, key, value);
+            ip6Size += old == null ? 1 : 0;
+        }
+        return old;
+    }
+
+    /**
+     * Associates the given value with the given prefix unless a value is
+     * already associated with the prefix.
+     *
+     * @param prefix IP prefix
+     * @param value  value; not null
+     * @return existing value, or null if the given value was associated
+     */
+    public synchronized V putIfAbsent(IpPrefix prefix, V value) {
+        V old = get(prefix);
+        return old != null ? old : put(prefix, value);
+    }
+
+    /**
+     * Removes the value associated with the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return removed value, or null if there was none
+     */
+    public synchronized V remove(IpPrefix prefix) {
+        Key key = new Key(prefix);
+        V old = get(root(prefix), key);
+        if (old == null) {
+            return null;
+        }
+        if (prefix.isIp4()) {
+            ip4Root = delete(ip4Root, key);
+            ip4Size--;
+        } else {
+            ip6Root = delete(ip6Root, key);
+            ip6Size--;
+        }
+        return old;
+    }
+
+    /**
+     * Removes all prefixes.
+     */
+    public synchronized void clear() {
+        ip4Root = null;
+        ip6Root = null;
+        ip4Size = 0;
+        ip6Size = 0;
+    }
+
+    /**
+     * Returns the value associated with exactly the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return value, or null if there is none
+     */
+    public V get(IpPrefix prefix) {
+        return get(root(prefix), new Key(prefix));
+    }
+
+    /**
+     * Returns the value of the longest prefix containing the given prefix,
+     * which may be the given prefix itself.
+     *
+     * @param prefix IP prefix
+     * @return value of the closest parent, or null if there is none
+     */
+    public V getClosestParent(IpPrefix prefix) {
+        Key key = new Key(prefix);
+        V match = null;
+        Node<V> node = root(prefix);
+        while (node != null && node.length <= key.length && node.isPrefixOf(key)) {
+            if (node.value != null) {
+                match = node.value;
+            }
+            node = node.child(key);
+        }
+        return match;
+    }
+
+    /**
+     * Returns the value of the longest prefix containing the given address.
+     *
+     * @param address IP address
+     * @return value of the longest matching prefix, or null if there is none
+     */
+    public V longestPrefixMatch(IpAddress address) {
+        return getClosestParent(address.toIpPrefix());
+    }
+
+    /**
+     * Returns the values of all prefixes containing the given prefix,
+     * including the given prefix itself, from the shortest to the longest.
+     *
+     * @param prefix IP prefix
+     * @return values of the parents
+     */
+    public List<V> getParents(IpPrefix prefix) {
+        Key key = new Key(prefix);
+        ImmutableList.Builder<V> parents = ImmutableList.builder();
+        Node<V> node = root(prefix);
+        while (node != null && node.length <= key.length && node.isPrefixOf(key)) {
+            if (node.value != null) {
+                parents.add(node.value);
+            }
+            node = node.child(key);
+        }
+        return parents.build();
+    }
+
+    /**
+     * Returns the values of all prefixes contained in the given prefix,
+     * including the given prefix itself. Parents are listed before their
+     * children.
+     *
+     * @param prefix IP prefix
+     * @return values of the children
+     */
+    public List<V> getChildren(IpPrefix prefix) {
+        Key key = new Key(prefix);
+        Node<V> node = root(prefix);
+        while (node != null && node.length < key.length) {
+            if (!node.isPrefixOf(key)) {
+                return ImmutableList.of();
+            }
+            node = node.child(key);
+        }
+        if (node == null || commonLength(node.high, node.low, key.high, key.low, key.length) < key.length) {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<V> children = ImmutableList.builder();
+        collect(node, children);
+        return children.build();
+    }
+
+    /**
+     * Returns the values of all prefixes; IPv4 prefixes are listed first.
+     *
+     * @return all values
+     */
+    public List<V> values() {
+        ImmutableList.Builder<V> values = ImmutableList.builder();
+        collect(ip4Root, values);
+        collect(ip6Root, values);
+        return values.build();
+    }
+
+    /**
+     * Returns the values of all prefixes of the given IP version.
+     *
+     * @param version IP version
+     * @return all values of the version
+     */
+    public List<V> values(IpAddress.Version version) {
+        ImmutableList.Builder<V> values = ImmutableList.builder();
+        collect(version == IpAddress.Version.INET ? ip4Root : ip6Root, values);
+        return values.build();
+    }
+
+    /**
+     * Returns the number of prefixes.
+     *
+     * @return number of prefixes
+     */
+    public int size() {
+        return ip4Size + ip6Size;
+    }
+
+    /**
+     * Returns the number of prefixes of the given IP version.
+     *
+     * @param version IP version
+     * @return number of prefixes of the version
+     */
+    public int size(IpAddress.Version version) {
+        return version == IpAddress.Version.INET ? ip4Size : ip6Size;
+    }
+
+    /**
+     * Returns whether the trie holds no prefix.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("ip4Size", ip4Size)
+                .add("ip6Size", ip6Size)
+                .toString();
+    }
+
+    private Node<V> root(IpPrefix prefix) {
+        return prefix.isIp4() ? ip4Root : ip6Root;
+    }
+
+    private static <V> V get(Node<V> root, Key key) {
+        Node<V> node = root;
+        while (node != null && node.length <= key.length && node.isPrefixOf(key)) {
+            if (node.length == key.length) {
+                return node.value;
+            }
+            node = node.child(key);
+        }
+        return null;
+    }
+
+    // Returns a copy of the subtree rooted at the given node with the value
+    // associated with the key.
+    private static <V> Node<V> insert(Node<V> node, Key key, V value) {
+        if (node == null) {
+            return new Node<>(key.high, key.low, key.length, value, null, null);
+        }
+        int common = commonLength(node.high, node.low, key.high, key.low,
+                                  Math.min(node.length, key.length));
+        if (common == node.length) {
+            if (common == key.length) {
+                return new Node<>(node.high, node.low, node.length, value, node.left, node.right);
+            }
+            return bit(key.high, key.low, node.length) == 0 ?
+                    node.withLeft(insert(node.left, key, value)) :
+                    node.withRight(insert(node.right, key, value));
+        }
+        if (common == key.length) {
+            // the key is a parent of the node
+            return bit(node.high, node.low, key.length) == 0 ?
+                    new Node<>(key.high, key.low, key.length, value, node, null) :
+                    new Node<>(key.high, key.low, key.length, value, null, node);
+        }
+        // the key and the node branch off below their common bits
+        Node<V> leaf = new Node<>(key.high, key.low, key.length, value, null, null);
+        long high = maskHigh(key.high, common);
+        long low = maskLow(key.low, common);
+        return bit(key.high, key.low, common) == 0 ?
+                new Node<>(high, low, common, null, leaf, node) :
+                new Node<>(high, low, common, null, node, leaf);
+    }
+
+    // Returns a copy of the subtree rooted at the given node without the
+    // value of the key; the key must be present.
+    private static <V> Node<V> delete(Node<V> node, Key key) {
+        if (node.length == key.length) {
+            if (node.left != null && node.right != null) {
+                return new Node<>(node.high, node.low, node.length, null, node.left, node.right);
+            }
+            return node.left != null ? node.left : node.right;
+        }
+        boolean left = bit(key.high, key.low, node.length) == 0;
+        Node<V> child = delete(left ? node.left : node.right, key);
+        if (child == null && node.value == null) {
+            // branching node no longer needed
+            return left ? node.right : node.left;
+        }
+        return left ? node.withLeft(child) : node.withRight(child);
+    }
+
+    private static <V> void collect(Node<V> node, ImmutableList.Builder<V> values) {
+        if (node == null) {
+            return;
+        }
+        if (node.value != null) {
+            values.add(node.value);
+        }
+        collect(node.left, values);
+        collect(node.right, values);
+    }
+
+    private static int bit(long high, long low, int index) {
+        return (int) (index < HIGH_BITS ?
+                high >>> (HIGH_BITS - 1 - index) : low >>> (KEY_BITS - 1 - index)) & 1;
+    }
+
+    // Returns the number of leading bits, up to the limit, the keys share.
+    private static int commonLength(long high1, long low1, long high2, long low2, int limit) {
+        long diff = high1 ^ high2;
+        int common = diff != 0 ? Long.numberOfLeadingZeros(diff) :
+                HIGH_BITS + Long.numberOfLeadingZeros(low1 ^ low2);
+        return Math.min(common, limit);
+    }
+
+    private static long maskHigh(long high, int length) {
+        if (length >= HIGH_BITS) {
+            return high;
+        }
+        return length == 0 ? 0 : high & (-1L << (HIGH_BITS - length));
+    }
+
+    private static long maskLow(long low, int length) {
+        if (length <= HIGH_BITS) {
+            return 0;
+        }
+        return length == KEY_BITS ? low : low & (-1L << (KEY_BITS - length));
+    }
+
+    /**
+     * Prefix bits, left aligned in 128 bits.
+     */
+    private static final class Key {
+        private final long high;
+        private final long low;
+        private final int length;
+
+        private Key(IpPrefix prefix) {
+            IpAddress address = prefix.address();
+            if (address.isIp4()) {
+                high = ((long) address.getIp4Address().toInt()) << Integer.SIZE;
+                low = 0;
+            } else {
+                byte[] octets = address.toOctets();
+                high = toLong(octets, 0);
+                low = toLong(octets, Long.BYTES);
+            }
+            length = prefix.prefixLength();
+        }
+
+        private static long toLong(byte[] octets, int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + Long.BYTES; i++) {
+                value = (value << Byte.SIZE) | (octets[i] & 0xff);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Immutable trie node; holds a value, or branches into two children.
+     */
+    private static final class Node<V> {
+        private final long high;
+        private final long low;
+        private final int length;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+
+        private Node(long high, long low, int length, V value, Node<V> left, Node<V> right) {
+            this.high = high;
+            this.low = low;
+            this.length = length;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+        }
+
+        private boolean isPrefixOf(Key key) {
+            return commonLength(high, low, key.high, key.low, length) == length;
+        }
+
+        private Node<V> child(Key key) {
+            return bit(key.high, key.low, length) == 0 ? left : right;
+        }
+
+        private Node<V> withLeft(Node<V> child) {
+            return new Node<>(high, low, length, value, child, right);
+        }
+
+        private Node<V> withRight(Node<V> child) {
+            return new Node<>(high, low, length, value, left, child);
+        }
+    }
+}
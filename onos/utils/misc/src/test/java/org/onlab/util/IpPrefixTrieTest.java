@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the IP prefix trie.
+ */
+public class IpPrefixTrieTest {
+
+    private static final IpPrefix DEFAULT4 = IpPrefix.valueOf("0.0.0.0/0");
+    private static final IpPrefix P8 = IpPrefix.valueOf("10.0.0.0/8");
+    private static final IpPrefix P16 = IpPrefix.valueOf("10.1.0.0/16");
+    private static final IpPrefix P17 = IpPrefix.valueOf("10.1.128.0/17");
+    private static final IpPrefix P24 = IpPrefix.valueOf("10.1.2.0/24");
+    private static final IpPrefix P32 = IpPrefix.valueOf("10.1.2.3/32");
+    private static final IpPrefix OTHER = IpPrefix.valueOf("192.168.0.0/16");
+    private static final IpPrefix V6 = IpPrefix.valueOf("1000:2000::/32");
+    private static final IpPrefix V6_HOST = IpPrefix.valueOf("1000:2000::1/128");
+    private static final IpPrefix V6_ZERO = IpPrefix.valueOf("::/8");
+
+    private final IpPrefixTrie<String> trie = new IpPrefixTrie<>();
+
+    private void putAll(IpPrefix... prefixes) {
+        for (IpPrefix prefix : prefixes) {
+            trie.put(prefix, prefix.toString());
+        }
+    }
+
+    /**
+     * Tests exact lookups, replacement and removal.
+     */
+    @Test
+    public void testPutGetRemove() {
+        putAll(P8, P16, P24, P32, V6, V6_HOST);
+
+        assertThat(trie.size(), is(6));
+        assertThat(trie.size(IpAddress.Version.INET6), is(2));
+        assertThat(trie.get(P16), is(P16.toString()));
+        assertThat(trie.get(P17), nullValue());
+        assertThat(trie.get(IpPrefix.valueOf("10.1.0.0/24")), nullValue());
+        assertThat(trie.get(V6_HOST), is(V6_HOST.toString()));
+        // IPv4 and IPv6 prefixes with the same bits do not collide
+        assertThat(trie.get(IpPrefix.valueOf("a00::/8")), nullValue());
+
+        assertThat(trie.put(P16, "replaced"), is(P16.toString()));
+        assertThat(trie.get(P16), is("replaced"));
+        assertThat(trie.size(), is(6));
+
+        assertThat(trie.remove(P16), is("replaced"));
+        assertThat(trie.remove(P16), nullValue());
+        assertThat(trie.remove(P17), nullValue());
+        assertThat(trie.get(P16), nullValue());
+        assertThat(trie.get(P24), is(P24.toString()));
+        assertThat(trie.size(), is(5));
+
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertThat(trie.get(P8), nullValue());
+    }
+
+    /**
+     * Tests longest prefix match and closest parent lookups.
+     */
+    @Test
+    public void testClosestParent() {
+        putAll(DEFAULT4, P8, P16, P24, V6, V6_ZERO);
+
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.2.3")), is(P24.toString()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.1.3.3")), is(P16.toString()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("10.2.3.3")), is(P8.toString()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("11.1.2.3")), is(DEFAULT4.toString()));
+        assertThat(trie.getClosestParent(P24), is(P24.toString()));
+        assertThat(trie.getClosestParent(P17), is(P16.toString()));
+
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("1000:2000::5")), is(V6.toString()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("::5")), is(V6_ZERO.toString()));
+        assertThat(trie.longestPrefixMatch(IpAddress.valueOf("2000::5")), nullValue());
+
+        assertThat(trie.getParents(P32),
+                   is(ImmutableList.of(DEFAULT4.toString(), P8.toString(),
+                                       P16.toString(), P24.toString())));
+    }
+
+    /**
+     * Tests subtree lookups.
+     */
+    @Test
+    public void testChildren() {
+        putAll(P8, P16, P17, P24, P32, OTHER, V6);
+
+        assertThat(trie.getChildren(P16),
+                   containsInAnyOrder(P16.toString(), P17.toString(), P24.toString(), P32.toString()));
+        assertThat(trie.getChildren(IpPrefix.valueOf("10.1.0.0/17")),
+                   containsInAnyOrder(P24.toString(), P32.toString()));
+        assertThat(trie.getChildren(P32), is(ImmutableList.of(P32.toString())));
+        assertTrue(trie.getChildren(IpPrefix.valueOf("10.2.0.0/16")).isEmpty());
+        assertThat(trie.getChildren(DEFAULT4).size(), is(6));
+        assertThat(trie.values().size(), is(7));
+        assertThat(trie.values(IpAddress.Version.INET6), is(ImmutableList.of(V6.toString())));
+    }
+
+    /**
+     * Tests the trie against a brute force search over random prefixes.
+     */
+    @Test
+    public void testRandomized() {
+        Random random = new Random(42);
+        Map<IpPrefix, String> expected = Maps.newHashMap();
+        for (int i = 0; i < 2000; i++) {
+            IpPrefix prefix = randomPrefix(random);
+            trie.put(prefix, prefix.toString());
+            expected.put(prefix, prefix.toString());
+        }
+        List<IpPrefix> removed = Lists.newArrayList(expected.keySet()).subList(0, 500);
+        for (IpPrefix prefix : removed) {
+            assertThat(trie.remove(prefix), is(prefix.toString()));
+        }
+        expected.keySet().removeAll(removed);
+        assertThat(trie.size(), is(expected.size()));
+
+        for (int i = 0; i < 2000; i++) {
+            IpAddress address = Ip4Address.valueOf(random.nextInt());
+            String match = expected.keySet().stream()
+                    .filter(p -> p.contains(address))
+                    .max(Comparator.comparingInt(IpPrefix::prefixLength))
+                    .map(IpPrefix::toString)
+                    .orElse(null);
+            assertThat(trie.longestPrefixMatch(address), is(match));
+        }
+        for (IpPrefix prefix : Lists.newArrayList(expected.keySet()).subList(0, 100)) {
+            List<String> children = expected.keySet().stream()
+                    .filter(p -> prefix.contains(p))
+                    .map(IpPrefix::toString)
+                    .collect(Collectors.toList());
+            assertThat(trie.getChildren(prefix), containsInAnyOrder(children.toArray()));
+        }
+    }
+
+    private static IpPrefix randomPrefix(Random random) {
+        // few bits so that prefixes nest
+        int length = random.nextInt(25);
+        return IpPrefix.valueOf(Ip4Address.valueOf(random.nextInt() & 0xff0f0f00), length);
+    }
+}
@@ -33,6 +33,7 @@
     //    selCb: selCb,      <- row selection callback (optional)
     //    respCb: respCb,    <- websocket response callback (optional)
     //    query: params      <- query parameters in URL (optional)
+    //    incremental: true  <- request only changed rows on refresh (optional)
     // }
     //          Note: selCb() is passed the row data model of the selected row,
     //                 or null when no row is selected.
@@ -55,6 +56,7 @@
             onResp = fs.isF(o.respCb),
             idKey = o.idKey || 'id',
             oldTableData = [],
+            lastSeq = 0,
             refreshPromise;
 
         o.scope.tableData = [];
@@ -66,10 +68,25 @@
         // === websocket functions --------------------
 
         // === Table Data Response
+        // merges an incremental response into the current table data
+        function mergeRows(data) {
+            var byId = {};
+            angular.forEach(oldTableData, function (item) {
+                byId[item[idKey]] = item;
+            });
+            angular.forEach(data[root], function (item) {
+                byId[item[idKey]] = item;
+            });
+            return data.order.map(function (id) {
+                return byId[id];
+            });
+        }
+
         function tableDataResponseCb(data) {
             ls.stop();
-            o.scope.tableData = data[root];
+            o.scope.tableData = data.order ? mergeRows(data) : data[root];
             o.scope.annots = data.annots;
+            lastSeq = data.seq || 0;
             onResp && onResp();
 
             // checks if data changed for row flashing
@@ -97,6 +114,12 @@
                 payloadParams = pp || {},
                 p = angular.extend({}, sortParams, payloadParams, o.query);
 
+            // only ask for changed rows relative to the response we hold
+            if (o.incremental) {
+                p.incremental = true;
+                p.since = lastSeq;
+            }
+
             if (wss.isConnected()) {
                 if (fs.debugOn('table')) {
                     $log.debug('Table data REQUEST:', req, p);
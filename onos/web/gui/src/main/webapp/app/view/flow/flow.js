@@ -255,6 +255,7 @@
                         tag: 'flow',
                         selCb: selCb,
                         query: params,
+                        incremental: true,
                     });
 
                     $scope.nav = function (path) {